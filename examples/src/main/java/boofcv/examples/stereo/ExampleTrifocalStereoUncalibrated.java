@@ -67,7 +67,7 @@ import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.point.Vector3D_F64;
 import georegression.struct.se.Se3_F64;
-import org.ddogleg.fitting.modelset.ransac.Ransac;
+import org.ddogleg.fitting.modelset.ModelMatcher;
 import org.ddogleg.optimization.lm.ConfigLevenbergMarquardt;
 import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_I32;
@@ -218,7 +218,7 @@ public class ExampleTrifocalStereoUncalibrated {
 		ConfigTrifocalError configError = new ConfigTrifocalError();
 		configError.model = ConfigTrifocalError.Model.REPROJECTION_REFINE;
 
-		Ransac<TrifocalTensor,AssociatedTriple> ransac =
+		ModelMatcher<TrifocalTensor,AssociatedTriple> ransac =
 				FactoryMultiViewRobust.trifocalRansac(configTri,configError,configRansac);
 
 		FastQueue<AssociatedTripleIndex> associatedIdx = associateThree.getMatches();
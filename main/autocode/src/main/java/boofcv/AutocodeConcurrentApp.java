@@ -291,7 +291,11 @@ public class AutocodeConcurrentApp {
 //				"main/boofcv-ip/src/main/java/boofcv/core/encoding/impl",
 //				"main/boofcv-ip/src/main/java/boofcv/alg/transform/ii/impl/",
 //				"main/boofcv-ip/src/main/java/boofcv/alg/transform/pyramid/impl/",
-				"main/boofcv-ip/src/main/java/boofcv/alg/transform/census/impl/",
+//				"main/boofcv-ip/src/main/java/boofcv/alg/transform/census/impl/",
+//				"main/boofcv-ip/src/main/java/boofcv/alg/transform/wavelet/impl/",
+//				"main/boofcv-ip/src/main/java/boofcv/alg/denoise/wavelet/",
+				"main/boofcv-feature/src/main/java/boofcv/alg/background/stationary/",
+				"main/boofcv-feature/src/main/java/boofcv/alg/background/moving/",
 //				"main/boofcv-feature/src/main/java/boofcv/alg/feature/detect/edge/impl",
 //				"main/boofcv-feature/src/main/java/boofcv/alg/feature/detect/intensity/impl",
 //				"main/boofcv-feature/src/main/java/boofcv/alg/feature/associate",
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.tracker;
+
+import boofcv.abst.distort.FDistort;
+import boofcv.abst.feature.detect.interest.ConfigPointDetector;
+import boofcv.abst.feature.detect.interest.PointDetectorTypes;
+import boofcv.alg.filter.blur.GBlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.tracker.klt.ConfigPKlt;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.tracker.FactoryPointTracker;
+import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for updating KLT tracks with the single and multi threaded implementations
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkPointTrackerKltPyramid {
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"2000"})
+	public int numTracks;
+
+	public int width = 640, height = 480;
+
+	PointTracker<GrayF32> tracker;
+	GrayF32[] frames = new GrayF32[2];
+	int frameIdx;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		Random rand = new Random(234);
+		GrayF32 noise = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(noise, rand, 0, 255);
+		frames[0] = GBlurImageOps.gaussian(noise,null,-1,2,null);
+		frames[1] = frames[0].createSameShape();
+		new FDistort(frames[0],frames[1]).affine(1,0,0,1,1.5,-0.5).borderExt().apply();
+
+		ConfigPKlt config = new ConfigPKlt();
+		config.maximumTracks = numTracks;
+		ConfigPointDetector configDetector = new ConfigPointDetector();
+		configDetector.type = PointDetectorTypes.SHI_TOMASI;
+		configDetector.general.radius = 3;
+		configDetector.general.threshold = 1;
+
+		tracker = FactoryPointTracker.klt(config, configDetector, GrayF32.class, GrayF32.class);
+		tracker.process(frames[0]);
+		tracker.spawnTracks();
+		frameIdx = 1;
+	}
+
+	/**
+	 * Track features between two frames which are shifted by a sub-pixel amount. New tracks are only spawned
+	 * after a significant number have been lost so that tracking dominates the time.
+	 */
+	@Benchmark
+	public void process() {
+		tracker.process(frames[frameIdx]);
+		frameIdx = (frameIdx+1)%2;
+		if( tracker.getTotalActive() < numTracks/2 )
+			tracker.spawnTracks();
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkPointTrackerKltPyramid.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
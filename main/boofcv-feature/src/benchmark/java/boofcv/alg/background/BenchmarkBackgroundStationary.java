@@ -18,6 +18,7 @@
 
 package boofcv.alg.background;
 
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.background.ConfigBackgroundBasic;
 import boofcv.factory.background.ConfigBackgroundGaussian;
 import boofcv.factory.background.ConfigBackgroundGmm;
@@ -141,9 +142,12 @@ public class BenchmarkBackgroundStationary {
 
 
 		for( ImageType type : imageTypes ) {
-			System.out.println("Image Type: "+type.toString());
 			BenchmarkBackgroundStationary b = new BenchmarkBackgroundStationary(file, type);
-			b.benchmark();
+			for( boolean concurrent : new boolean[]{false,true}) {
+				BoofConcurrency.USE_CONCURRENT = concurrent;
+				System.out.println("Image Type: "+type.toString()+" concurrent="+concurrent);
+				b.benchmark();
+			}
 		}
 	}
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation;
+
+import boofcv.abst.segmentation.ImageSuperpixels;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.segmentation.ConfigFh04;
+import boofcv.factory.segmentation.ConfigSegmentMeanShift;
+import boofcv.factory.segmentation.ConfigSlic;
+import boofcv.factory.segmentation.FactoryImageSegmentation;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks superpixel algorithms on large color images. Image sizes are approximately 5 and 20 mega pixels.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkImageSegmentation {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"2600","5200"})
+	public int width;
+
+	ImageType<Planar<GrayU8>> imageType = ImageType.pl(3,GrayU8.class);
+	Planar<GrayU8> input = imageType.createImage(1,1);
+	GrayS32 output = new GrayS32(1,1);
+
+	ImageSuperpixels<Planar<GrayU8>> slic;
+	ImageSuperpixels<Planar<GrayU8>> meanShift;
+	ImageSuperpixels<Planar<GrayU8>> fh04;
+	ImageSuperpixels<Planar<GrayU8>> fh04Approx;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		int height = width*3/4;
+		input.reshape(width,height);
+		output.reshape(width,height);
+
+		// Rectangles of different colors with noise added so that there is structure to segment
+		Random rand = new Random(234);
+		for (int i = 0; i < 400; i++) {
+			int x0 = rand.nextInt(width), y0 = rand.nextInt(height);
+			int w = 20+rand.nextInt(width/8), h = 20+rand.nextInt(height/8);
+			for (int band = 0; band < input.getNumBands(); band++) {
+				GImageMiscOps.fillRectangle(input.getBand(band), rand.nextInt(256), x0, y0, w, h);
+			}
+		}
+		GImageMiscOps.addUniform(input, rand, -10, 10);
+
+		slic = FactoryImageSegmentation.slic(new ConfigSlic(width*height/2000), imageType);
+		meanShift = FactoryImageSegmentation.meanShift(null, imageType);
+		fh04 = FactoryImageSegmentation.fh04(null, imageType);
+		ConfigFh04 configApprox = new ConfigFh04();
+		configApprox.approximateSortBins = 2000;
+		fh04Approx = FactoryImageSegmentation.fh04(configApprox, imageType);
+	}
+
+	@Benchmark
+	public void slic() {
+		slic.segment(input,output);
+	}
+
+	@Benchmark
+	public void meanShift() {
+		meanShift.segment(input,output);
+	}
+
+	@Benchmark
+	public void fh04() {
+		fh04.segment(input,output);
+	}
+
+	@Benchmark
+	public void fh04_approximate() {
+		fh04Approx.segment(input,output);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkImageSegmentation.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -23,6 +23,7 @@ import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
 import boofcv.alg.interpolate.InterpolateRectangle;
 import boofcv.alg.tracker.PruneCloseTracks;
 import boofcv.alg.tracker.klt.*;
+import boofcv.alg.transform.pyramid.PyramidDiscreteCache;
 import boofcv.alg.transform.pyramid.PyramidOps;
 import boofcv.struct.QueueCorner;
 import boofcv.struct.image.ImageGray;
@@ -32,6 +33,7 @@ import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point2D_I16;
 import lombok.Getter;
 import lombok.Setter;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -65,6 +67,8 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 	protected ImageStruct currPyr;
 	protected ImageStruct prevPyr;
 	protected ImageType<D> derivType;
+	// If not null then image pyramids are looked up in this cache instead of being computed
+	protected @Nullable PyramidDiscreteCache<I> pyramidCache;
 
 	// configuration for the KLT tracker
 	protected ConfigKlt config;
@@ -297,8 +301,41 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		return maximumAllowedTracks;
 	}
 
+	/**
+	 * Specifies a cache which image pyramids are looked up in instead of being computed by the tracker. When
+	 * other algorithms process the same frames this avoids computing the same pyramid more than once. Pyramids in
+	 * the cache must have the same structure as the pyramid passed into the constructor. If forwards-backwards
+	 * validation is enabled the cache must save at least two frames and should not save a reference to the input
+	 * image unless a new image is passed in each frame. Gradients are still computed by the tracker. Once set,
+	 * images must be passed in using {@link #process(ImageGray, long)}.
+	 *
+	 * @param cache The cache or null to compute the pyramids internally
+	 */
+	public void setPyramidCache( @Nullable PyramidDiscreteCache<I> cache ) {
+		if( cache != null && toleranceFB >= 0 && cache.getMaxFrames() < 2 )
+			throw new IllegalArgumentException("Forwards-backwards validation needs a cache with at least two frames");
+		this.pyramidCache = cache;
+	}
+
+	public @Nullable PyramidDiscreteCache<I> getPyramidCache() {
+		return pyramidCache;
+	}
+
 	@Override
 	public void process(I image) {
+		if( pyramidCache != null )
+			throw new IllegalArgumentException("Frame ID must be specified when there is a pyramid cache");
+		process(image, -1);
+	}
+
+	/**
+	 * Processes the next image. If a pyramid cache has been specified then the image's pyramid is looked up
+	 * in it using the cache ID, otherwise the cache ID is ignored.
+	 *
+	 * @param image The next image in the sequence
+	 * @param cacheID ID of the image in the pyramid cache. See {@link PyramidDiscreteCache#lookup}.
+	 */
+	public void process( I image , long cacheID ) {
 		this.input = image;
 		this.frameID++;
 
@@ -314,39 +351,17 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		dropped.clear();
 
 		// update image pyramids
-		currPyr.update(image);
+		currPyr.update(image, cacheID);
 
 		// track features
-		tracker.setImage(currPyr.basePyramid,currPyr.derivX,currPyr.derivY);
-		for (int i = active.size()-1; i >= 0; i--) {
-			PyramidKltFeature t = active.get(i);
-			KltTrackFault ret = tracker.track(t);
-
-			boolean success = false;
-
-			if( ret == KltTrackFault.SUCCESS ) {
-				// discard a track if its center drifts outside the image.
-				if( image.isInBounds((int)t.x,(int)t.y) && tracker.setDescription(t) ) {
-					PointTrack p = t.getCookie();
-					p.pixel.set(t.x,t.y);
-					p.lastSeenFrameID = frameID;
-					success = true;
-				}
-			}
-
-			if( !success ) {
-				active.remove( i );
-				dropped.add( t );
-				unused.add( t );
-			}
-		}
+		trackActiveFeatures();
 
 		if( toleranceFB >= 0 ) {
 			// If there are no tracks it must have been reset or this is the first frame
 			if( activeTracks ) {
 				backwardsTrackValidate();
 			} else {
-				this.prevPyr.update(image);
+				this.prevPyr.update(image, cacheID);
 			}
 		}
 
@@ -356,6 +371,48 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		}
 	}
 
+	/**
+	 * Tracks all the active features into the current image. Features which fail are dropped.
+	 */
+	protected void trackActiveFeatures() {
+		tracker.setImage(currPyr.basePyramid,currPyr.derivX,currPyr.derivY);
+		for (int i = active.size()-1; i >= 0; i--) {
+			if( !trackFeature(tracker, active.get(i)) ) {
+				dropActive(i);
+			}
+		}
+	}
+
+	/**
+	 * Tracks a single feature into the current image and updates its description. Only modifies the feature
+	 * and the tracker, which allows different features to be tracked in parallel using different trackers.
+	 *
+	 * @return true if successful
+	 */
+	protected boolean trackFeature( PyramidKltTracker<I,D> tracker , PyramidKltFeature t ) {
+		KltTrackFault ret = tracker.track(t);
+		if( ret != KltTrackFault.SUCCESS )
+			return false;
+
+		// discard a track if its center drifts outside the image.
+		if( !input.isInBounds((int)t.x,(int)t.y) || !tracker.setDescription(t) )
+			return false;
+
+		PointTrack p = t.getCookie();
+		p.pixel.set(t.x,t.y);
+		p.lastSeenFrameID = frameID;
+		return true;
+	}
+
+	/**
+	 * Removes the active track at the specified index and recycles it
+	 */
+	protected void dropActive( int index ) {
+		PyramidKltFeature t = active.remove(index);
+		dropped.add(t);
+		unused.add(t);
+	}
+
 	/**
 	 * Prune tracks which are too close and adds them to the dropped list
 	 */
@@ -371,29 +428,37 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 	 * tracks in active list existed in the previous frame and were not spawned.
 	 */
 	protected void backwardsTrackValidate() {
-		double tol2 = toleranceFB * toleranceFB;
-
 		tracker.setImage(prevPyr.basePyramid,prevPyr.derivX,prevPyr.derivY);
 		for (int i = active.size()-1; i >= 0; i--) {
-			PyramidKltFeature t = active.get(i);
-			PointTrackMod p = t.getCookie();
-
-			KltTrackFault ret = tracker.track(t);
-
-			if( ret != KltTrackFault.SUCCESS || p.prev.distance2(t.x,t.y) > tol2 ) {
-				active.remove(i);
-				dropped.add( t );
-				unused.add( t );
-			} else {
-				// the new previous will be the current location
-				p.prev.set(p.pixel);
-				// Revert the update by KLT
-				t.x = (float)p.pixel.x;
-				t.y = (float)p.pixel.y;
+			if( !validateFeature(tracker, active.get(i)) ) {
+				dropActive(i);
 			}
 		}
 	}
 
+	/**
+	 * Tracks a single feature back into the previous image and checks to see if it ends up at its
+	 * previous location.
+	 *
+	 * @return true if the track is valid
+	 */
+	protected boolean validateFeature( PyramidKltTracker<I,D> tracker , PyramidKltFeature t ) {
+		double tol2 = toleranceFB * toleranceFB;
+		PointTrackMod p = t.getCookie();
+
+		KltTrackFault ret = tracker.track(t);
+
+		if( ret != KltTrackFault.SUCCESS || p.prev.distance2(t.x,t.y) > tol2 )
+			return false;
+
+		// the new previous will be the current location
+		p.prev.set(p.pixel);
+		// Revert the update by KLT
+		t.x = (float)p.pixel.x;
+		t.y = (float)p.pixel.y;
+		return true;
+	}
+
 	@Override
 	public boolean dropTrack(PointTrack track) {
 		if( active.remove((PyramidKltFeature)track.getDescription()) ) {
@@ -500,16 +565,24 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 	 * Contains the image pyramid
 	 */
 	class ImageStruct {
+		// pyramid which is computed by the tracker when there is no cache
+		final PyramidDiscrete<I> ownPyramid;
 		public PyramidDiscrete<I> basePyramid;
 		public D[] derivX;
 		public D[] derivY;
 
 		public ImageStruct(PyramidDiscrete<I> o ) {
-			basePyramid = o.copyStructure();
+			ownPyramid = o.copyStructure();
+			basePyramid = ownPyramid;
 		}
 
-		public void update( I image ) {
-			basePyramid.process(image);
+		public void update( I image , long cacheID ) {
+			if( pyramidCache == null ) {
+				basePyramid = ownPyramid;
+				basePyramid.process(image);
+			} else {
+				basePyramid = pyramidCache.lookup(cacheID, image);
+			}
 			if( derivX == null || derivX.length != basePyramid.layers.length ) {
 				derivX = PyramidOps.declareOutput(basePyramid, derivType);
 				derivY = PyramidOps.declareOutput(basePyramid, derivType);
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.tracker;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.interpolate.InterpolateRectangle;
+import boofcv.alg.tracker.klt.ConfigKlt;
+import boofcv.alg.tracker.klt.KltTracker;
+import boofcv.alg.tracker.klt.PyramidKltFeature;
+import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+
+/**
+ * Concurrent implementation of {@link PointTrackerKltPyramid}. Active tracks are split into blocks and each
+ * thread tracks a block using its own {@link KltTracker}. Tracks are then dropped in the same order as the
+ * single threaded implementation, producing identical results.
+ *
+ * @author Peter Abeles
+ */
+public class PointTrackerKltPyramid_MT<I extends ImageGray<I>,D extends ImageGray<D>>
+		extends PointTrackerKltPyramid<I,D>
+{
+	/** Minimum number of tracks processed by a single thread */
+	public int minimumBlock = 50;
+
+	// Tracker used by each thread
+	protected final FastQueue<PyramidKltTracker<I,D>> trackers;
+	// If each active track was successfully tracked
+	protected final GrowQueue_B success = new GrowQueue_B();
+
+	/**
+	 * @see PointTrackerKltPyramid#PointTrackerKltPyramid
+	 */
+	public PointTrackerKltPyramid_MT(ConfigKlt config,
+									 double toleranceFB,
+									 int templateRadius,
+									 boolean performPruneClose, PyramidDiscrete<I> pyramid,
+									 GeneralFeatureDetector<I, D> detector,
+									 ImageGradient<I, D> gradient,
+									 InterpolateRectangle<I> interpInput,
+									 InterpolateRectangle<D> interpDeriv,
+									 Class<D> derivType) {
+		super(config, toleranceFB, templateRadius, performPruneClose, pyramid, detector,
+				gradient, interpInput, interpDeriv, derivType);
+
+		trackers = new FastQueue<>(()->new PyramidKltTracker<>(
+				new KltTracker<>(interpInput.copy(), interpDeriv.copy(), config)));
+	}
+
+	@Override
+	protected void trackActiveFeatures() {
+		// the main tracker is still used when adding or spawning tracks
+		tracker.setImage(currPyr.basePyramid,currPyr.derivX,currPyr.derivY);
+		processActive(currPyr,false);
+	}
+
+	@Override
+	protected void backwardsTrackValidate() {
+		tracker.setImage(prevPyr.basePyramid,prevPyr.derivX,prevPyr.derivY);
+		processActive(prevPyr,true);
+	}
+
+	/**
+	 * Tracks or validates all the active tracks in parallel then drops the tracks which failed
+	 *
+	 * @param pyr Image which is being tracked inside of
+	 * @param validate true for forwards-backwards validation and false for tracking
+	 */
+	protected void processActive( ImageStruct pyr , boolean validate ) {
+		final int N = active.size();
+		success.resize(N);
+
+		BoofConcurrency.loopBlocks(0,N,minimumBlock,trackers,(tracker,idx0,idx1)->{
+			tracker.setImage(pyr.basePyramid,pyr.derivX,pyr.derivY);
+			for (int i = idx0; i < idx1; i++) {
+				PyramidKltFeature t = active.get(i);
+				success.data[i] = validate ? validateFeature(tracker,t) : trackFeature(tracker,t);
+			}
+		});
+
+		// Drop the tracks in the same order as the single threaded code so that the lists are identical
+		for (int i = N-1; i >= 0; i--) {
+			if( !success.data[i] ) {
+				dropActive(i);
+			}
+		}
+	}
+}
@@ -62,7 +62,7 @@ public class PointTrackerTwoPassKltPyramid<I extends ImageGray<I>,D extends Imag
 	}
 
 	@Override
-	public void process(I image) {
+	public void process( I image , long cacheID ) {
 		this.input = image;
 		this.frameID++;
 
@@ -71,7 +71,7 @@ public class PointTrackerTwoPassKltPyramid<I extends ImageGray<I>,D extends Imag
 		dropped.clear();
 
 		// update image pyramids
-		currPyr.update(image);
+		currPyr.update(image, cacheID);
 
 		// setup active list
 		originalActive.clear();
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -172,4 +172,18 @@ public abstract class BackgroundModelMoving<T extends ImageBase<T>,MotionModel e
 	}
 
 	protected abstract void _segment( MotionModel currentToWorld , T frame , GrayU8 segmented );
+
+	/**
+	 * Segments the current frame and then updates the background with it. Segmentation is performed using
+	 * the model which it has prior to the update. Since the background is updated in its own coordinate system
+	 * and the frame is segmented in the frame's coordinate system, this is done with two passes.
+	 *
+	 * @param homeToCurrent Transform from home image to the current image
+	 * @param frame The current image in the sequence
+	 * @param segmented Segmented image. 0 = background, 1 = foreground/moving
+	 */
+	public void updateBackground( MotionModel homeToCurrent , T frame , GrayU8 segmented ) {
+		segment(homeToCurrent,frame,segmented);
+		updateBackground(homeToCurrent,frame);
+	}
 }
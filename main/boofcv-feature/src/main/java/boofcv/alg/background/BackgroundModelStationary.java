@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -27,6 +27,10 @@ import boofcv.struct.image.ImageType;
  * Base class for classifying pixels as background based on the apparent motion of pixels when the camera is static.
  * </p>
  *
+ * <p>
+ * {@link #updateBackground(ImageBase, GrayU8)} segments the frame against the model before updating it.
+ * </p>
+ *
  * @author Peter Abeles
  */
 public abstract class BackgroundModelStationary<T extends ImageBase<T>> extends BackgroundModel<T> {
@@ -42,12 +46,12 @@ public abstract class BackgroundModelStationary<T extends ImageBase<T>> extends
 
 	/**
 	 * Updates the background and segments it at the same time. In some implementations this can be
-	 * significantly faster than doing it with separate function calls. Segmentation is performed using the model
-	 * which it has prior to the update.
+	 * significantly faster than doing it with separate function calls since each pixel's model is only
+	 * accessed once. Segmentation is performed using the model which it has prior to the update.
 	 */
 	public void updateBackground( T frame , GrayU8 segment ) {
-		updateBackground(frame);
 		segment(frame,segment);
+		updateBackground(frame);
 	}
 
 	/**
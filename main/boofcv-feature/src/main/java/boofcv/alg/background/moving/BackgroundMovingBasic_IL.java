@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,19 +21,27 @@ package boofcv.alg.background.moving;
 import boofcv.alg.interpolate.InterpolatePixelMB;
 import boofcv.alg.interpolate.InterpolationType;
 import boofcv.alg.misc.GImageMiscOps;
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.FactoryGImageMultiBand;
 import boofcv.core.image.GImageMultiBand;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.distort.Point2Transform2Model_F32;
+//CONCURRENT_INLINE import boofcv.struct.distort.Point2Transform2_F32;
 import boofcv.struct.image.*;
 import georegression.struct.InvertibleTransform;
+//CONCURRENT_INLINE import georegression.struct.point.Point2D_F32;
 
 /**
  * Implementation of {@link BackgroundMovingBasic} for {@link Planar}.
  *
  * @author Peter Abeles
  */
+//CONCURRENT_REMOVE_ABOVE
+//CONCURRENT_ABOVE  * DO NOT MODIFY. Generated by AutocodeConcurrentApp.
+//CONCURRENT_INLINE  *
+//CONCURRENT_INLINE  * @author Peter Abeles
+//CONCURRENT_INLINE  */
 public class BackgroundMovingBasic_IL<T extends ImageInterleaved<T>, Motion extends InvertibleTransform<Motion>>
 	extends BackgroundMovingBasic<T,Motion>
 {
@@ -106,7 +114,14 @@ public class BackgroundMovingBasic_IL<T extends ImageInterleaved<T>, Motion exte
 		final int numBands = frame.getNumBands();
 		float minusLearn = 1.0f - learnRate;
 
-		for (int y = y0; y < y1; y++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(y0,y1,(row0,row1)->{
+		final int row0 = y0, row1 = y1;
+		//CONCURRENT_INLINE final Point2Transform2_F32 transform = this.transform.copyConcurrent();
+		//CONCURRENT_INLINE final Point2D_F32 work = new Point2D_F32();
+		//CONCURRENT_INLINE final InterpolatePixelMB<T> interpolationInput = this.interpolationInput.copy();
+		//CONCURRENT_INLINE interpolationInput.setImage(frame);
+		//CONCURRENT_INLINE final float[] pixelInput = new float[numBands];
+		for (int y = row0; y < row1; y++) {
 			int indexBG = background.startIndex + y*background.stride + x0*numBands;
 			for (int x = x0; x < x1; x++ ) {
 				transform.compute(x,y,work);
@@ -131,6 +146,7 @@ public class BackgroundMovingBasic_IL<T extends ImageInterleaved<T>, Motion exte
 				}
 			}
 		}
+		//CONCURRENT_INLINE });
 	}
 
 	@Override
@@ -142,7 +158,14 @@ public class BackgroundMovingBasic_IL<T extends ImageInterleaved<T>, Motion exte
 
 		float thresholdSq = numBands*threshold*threshold;
 
-		for (int y = 0; y < frame.height; y++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0,frame.height,(row0,row1)->{
+		final int row0 = 0, row1 = frame.height;
+		//CONCURRENT_INLINE final Point2Transform2_F32 transform = this.transform.copyConcurrent();
+		//CONCURRENT_INLINE final Point2D_F32 work = new Point2D_F32();
+		//CONCURRENT_INLINE final InterpolatePixelMB<InterleavedF32> interpolationBG = this.interpolationBG.copy();
+		//CONCURRENT_INLINE interpolationBG.setImage(background);
+		//CONCURRENT_INLINE final float[] pixelBack = new float[numBands];
+		for (int y = row0; y < row1; y++) {
 			int indexFrame = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
@@ -179,6 +202,7 @@ public class BackgroundMovingBasic_IL<T extends ImageInterleaved<T>, Motion exte
 				}
 			}
 		}
+		//CONCURRENT_INLINE });
 	}
 
 
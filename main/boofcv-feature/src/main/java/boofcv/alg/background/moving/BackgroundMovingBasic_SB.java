@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,23 +21,31 @@ package boofcv.alg.background.moving;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.interpolate.InterpolationType;
 import boofcv.alg.misc.ImageMiscOps;
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.FactoryGImageGray;
 import boofcv.core.image.GImageGray;
 import boofcv.core.image.border.FactoryImageBorder;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.distort.Point2Transform2Model_F32;
+//CONCURRENT_INLINE import boofcv.struct.distort.Point2Transform2_F32;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 import georegression.struct.InvertibleTransform;
+//CONCURRENT_INLINE import georegression.struct.point.Point2D_F32;
 
 /**
  * Implementation of {@link BackgroundMovingBasic} for {@link ImageGray}.
  *
  * @author Peter Abeles
  */
+//CONCURRENT_REMOVE_ABOVE
+//CONCURRENT_ABOVE  * DO NOT MODIFY. Generated by AutocodeConcurrentApp.
+//CONCURRENT_INLINE  *
+//CONCURRENT_INLINE  * @author Peter Abeles
+//CONCURRENT_INLINE  */
 public class BackgroundMovingBasic_SB<T extends ImageGray<T>, Motion extends InvertibleTransform<Motion>>
 	extends BackgroundMovingBasic<T,Motion>
 {
@@ -99,7 +107,13 @@ public class BackgroundMovingBasic_SB<T extends ImageGray<T>, Motion extends Inv
 
 		float minusLearn = 1.0f - learnRate;
 
-		for (int y = y0; y < y1; y++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(y0,y1,(row0,row1)->{
+		final int row0 = y0, row1 = y1;
+		//CONCURRENT_INLINE final Point2Transform2_F32 transform = this.transform.copyConcurrent();
+		//CONCURRENT_INLINE final Point2D_F32 work = new Point2D_F32();
+		//CONCURRENT_INLINE final InterpolatePixelS<T> interpolateInput = this.interpolateInput.copy();
+		//CONCURRENT_INLINE interpolateInput.setImage(frame);
+		for (int y = row0; y < row1; y++) {
 			int indexBG = background.startIndex + y*background.stride + x0;
 			for (int x = x0; x < x1; x++, indexBG++ ) {
 				transform.compute(x,y,work);
@@ -116,6 +130,7 @@ public class BackgroundMovingBasic_SB<T extends ImageGray<T>, Motion extends Inv
 				}
 			}
 		}
+		//CONCURRENT_INLINE });
 	}
 
 	@Override
@@ -125,7 +140,13 @@ public class BackgroundMovingBasic_SB<T extends ImageGray<T>, Motion extends Inv
 
 		float thresholdSq = threshold*threshold;
 
-		for (int y = 0; y < frame.height; y++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0,frame.height,(row0,row1)->{
+		final int row0 = 0, row1 = frame.height;
+		//CONCURRENT_INLINE final Point2Transform2_F32 transform = this.transform.copyConcurrent();
+		//CONCURRENT_INLINE final Point2D_F32 work = new Point2D_F32();
+		//CONCURRENT_INLINE final InterpolatePixelS<GrayF32> interpolationBG = this.interpolationBG.copy();
+		//CONCURRENT_INLINE interpolationBG.setImage(background);
+		for (int y = row0; y < row1; y++) {
 			int indexFrame = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
@@ -152,6 +173,7 @@ public class BackgroundMovingBasic_SB<T extends ImageGray<T>, Motion extends Inv
 				}
 			}
 		}
+		//CONCURRENT_INLINE });
 	}
 
 
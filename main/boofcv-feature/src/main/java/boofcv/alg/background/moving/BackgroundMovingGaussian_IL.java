@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,22 +21,30 @@ package boofcv.alg.background.moving;
 import boofcv.alg.interpolate.InterpolatePixelMB;
 import boofcv.alg.interpolate.InterpolationType;
 import boofcv.alg.misc.GImageMiscOps;
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.FactoryGImageMultiBand;
 import boofcv.core.image.GImageMultiBand;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.distort.Point2Transform2Model_F32;
+//CONCURRENT_INLINE import boofcv.struct.distort.Point2Transform2_F32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageInterleaved;
 import boofcv.struct.image.ImageType;
 import boofcv.struct.image.InterleavedF32;
 import georegression.struct.InvertibleTransform;
+//CONCURRENT_INLINE import georegression.struct.point.Point2D_F32;
 
 /**
  * Implementation of {@link BackgroundMovingGaussian} for {@link ImageInterleaved}.
  *
  * @author Peter Abeles
  */
+//CONCURRENT_REMOVE_ABOVE
+//CONCURRENT_ABOVE  * DO NOT MODIFY. Generated by AutocodeConcurrentApp.
+//CONCURRENT_INLINE  *
+//CONCURRENT_INLINE  * @author Peter Abeles
+//CONCURRENT_INLINE  */
 public class BackgroundMovingGaussian_IL<T extends ImageInterleaved<T>, Motion extends InvertibleTransform<Motion>>
 		extends BackgroundMovingGaussian<T,Motion>
 {
@@ -113,7 +121,14 @@ public class BackgroundMovingGaussian_IL<T extends ImageInterleaved<T>, Motion e
 
 		final int numBands = background.getNumBands()/2;
 
-		for (int y = y0; y < y1; y++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(y0,y1,(row0,row1)->{
+		final int row0 = y0, row1 = y1;
+		//CONCURRENT_INLINE final Point2Transform2_F32 transform = this.transform.copyConcurrent();
+		//CONCURRENT_INLINE final Point2D_F32 work = new Point2D_F32();
+		//CONCURRENT_INLINE final InterpolatePixelMB<T> interpolateInput = this.interpolateInput.copy();
+		//CONCURRENT_INLINE interpolateInput.setImage(frame);
+		//CONCURRENT_INLINE final float[] pixelInput = new float[numBands];
+		for (int y = row0; y < row1; y++) {
 			int indexBG = background.startIndex + y*background.stride + x0*background.numBands;
 			for (int x = x0; x < x1; x++, indexBG += numBands*2 ) {
 				transform.compute(x,y,work);
@@ -140,6 +155,7 @@ public class BackgroundMovingGaussian_IL<T extends ImageInterleaved<T>, Motion e
 				}
 			}
 		}
+		//CONCURRENT_INLINE });
 	}
 
 	@Override
@@ -150,7 +166,15 @@ public class BackgroundMovingGaussian_IL<T extends ImageInterleaved<T>, Motion e
 		final int numBands = background.getNumBands()/2;
 		float adjustedMinimumDifference = minimumDifference*numBands;
 
-		for (int y = 0; y < frame.height; y++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0,frame.height,(row0,row1)->{
+		final int row0 = 0, row1 = frame.height;
+		//CONCURRENT_INLINE final Point2Transform2_F32 transform = this.transform.copyConcurrent();
+		//CONCURRENT_INLINE final Point2D_F32 work = new Point2D_F32();
+		//CONCURRENT_INLINE final InterpolatePixelMB<InterleavedF32> interpolationBG = this.interpolationBG.copy();
+		//CONCURRENT_INLINE interpolationBG.setImage(background);
+		//CONCURRENT_INLINE final float[] pixelBG = new float[2*numBands];
+		//CONCURRENT_INLINE final float[] pixelInput = new float[numBands];
+		for (int y = row0; y < row1; y++) {
 			int indexFrame = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
@@ -199,5 +223,6 @@ public class BackgroundMovingGaussian_IL<T extends ImageInterleaved<T>, Motion e
 				}
 			}
 		}
+		//CONCURRENT_INLINE });
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,7 @@ package boofcv.alg.background.stationary;
 
 import boofcv.alg.InputSanityCheck;
 import boofcv.alg.misc.ImageMiscOps;
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.FactoryGImageMultiBand;
 import boofcv.core.image.GConvertImage;
 import boofcv.core.image.GImageMultiBand;
@@ -30,6 +31,11 @@ import boofcv.struct.image.*;
  *
  * @author Peter Abeles
  */
+//CONCURRENT_REMOVE_ABOVE
+//CONCURRENT_ABOVE  * DO NOT MODIFY. Generated by AutocodeConcurrentApp.
+//CONCURRENT_INLINE  *
+//CONCURRENT_INLINE  * @author Peter Abeles
+//CONCURRENT_INLINE  */
 public class BackgroundStationaryBasic_IL<T extends ImageInterleaved<T>>
 	extends BackgroundStationaryBasic<T>
 {
@@ -79,8 +85,9 @@ public class BackgroundStationaryBasic_IL<T extends ImageInterleaved<T>>
 		int numBands = background.getNumBands();
 		float minusLearn = 1.0f - learnRate;
 
-		int indexBG = 0;
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0,frame.height,y->{
 		for (int y = 0; y < frame.height; y++) {
+			int indexBG = background.startIndex + y*background.stride;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int end = indexInput + frame.width*numBands;
 			while( indexInput < end ) {
@@ -93,6 +100,51 @@ public class BackgroundStationaryBasic_IL<T extends ImageInterleaved<T>>
 				}
 			}
 		}
+		//CONCURRENT_ABOVE });
+	}
+
+	@Override
+	public void updateBackground( T frame , GrayU8 segment ) {
+		if( background.width != frame.width ) {
+			ImageMiscOps.fill(segment,unknownValue);
+			updateBackground(frame);
+			return;
+		}
+		InputSanityCheck.checkSameShape(background,frame,segment);
+		inputWrapper.wrap(frame);
+
+		int numBands = background.getNumBands();
+		float minusLearn = 1.0f - learnRate;
+		float thresholdSq = numBands*threshold*threshold;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0,frame.height,y->{
+		for (int y = 0; y < frame.height; y++) {
+			int indexBG = background.startIndex + y*background.stride;
+			int indexInput = frame.startIndex + y*frame.stride;
+			int indexSegmented = segment.startIndex + y*segment.stride;
+
+			int end = indexInput + frame.width*numBands;
+			while( indexInput < end ) {
+				// segment using the model prior to the update
+				float sumErrorSq = 0;
+				int endIndexBG = indexBG + numBands;
+				while( indexBG < endIndexBG ) {
+					float valueBG = background.data[indexBG];
+					float valueInput = inputWrapper.getF(indexInput++);
+					float diff = valueBG - valueInput;
+					sumErrorSq += diff*diff;
+					background.data[indexBG++] = minusLearn*valueBG + learnRate*valueInput;
+				}
+
+				if (sumErrorSq <= thresholdSq) {
+					segment.data[indexSegmented] = 0;
+				} else {
+					segment.data[indexSegmented] = 1;
+				}
+				indexSegmented++;
+			}
+		}
+		//CONCURRENT_ABOVE });
 	}
 
 	@Override
@@ -107,8 +159,9 @@ public class BackgroundStationaryBasic_IL<T extends ImageInterleaved<T>>
 		int numBands = background.getNumBands();
 		float thresholdSq = numBands*threshold*threshold;
 
-		int indexBG = 0;
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0,frame.height,y->{
 		for (int y = 0; y < frame.height; y++) {
+			int indexBG = background.startIndex + y*background.stride;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
@@ -129,7 +182,6 @@ public class BackgroundStationaryBasic_IL<T extends ImageInterleaved<T>>
 				indexSegmented++;
 			}
 		}
+		//CONCURRENT_ABOVE });
 	}
-
-
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,7 @@ package boofcv.alg.background.stationary;
 
 import boofcv.alg.InputSanityCheck;
 import boofcv.alg.misc.ImageMiscOps;
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.FactoryGImageMultiBand;
 import boofcv.core.image.GConvertImage;
 import boofcv.core.image.GImageMultiBand;
@@ -30,6 +31,11 @@ import boofcv.struct.image.*;
  *
  * @author Peter Abeles
  */
+//CONCURRENT_REMOVE_ABOVE
+//CONCURRENT_ABOVE  * DO NOT MODIFY. Generated by AutocodeConcurrentApp.
+//CONCURRENT_INLINE  *
+//CONCURRENT_INLINE  * @author Peter Abeles
+//CONCURRENT_INLINE  */
 public class BackgroundStationaryBasic_PL<T extends ImageGray<T>>
 	extends BackgroundStationaryBasic<Planar<T>>
 {
@@ -83,8 +89,11 @@ public class BackgroundStationaryBasic_PL<T extends ImageGray<T>>
 		int numBands = background.getNumBands();
 		float minusLearn = 1.0f - learnRate;
 
-		int indexBG = 0;
-		for (int y = 0; y < frame.height; y++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0,frame.height,(y0,y1)->{
+		final int y0 = 0, y1 = frame.height;
+		//CONCURRENT_INLINE final float[] inputPixels = new float[numBands];
+		for (int y = y0; y < y1; y++) {
+			int indexBG = background.startIndex + y*background.stride;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int end = indexInput + frame.width;
 			while( indexInput < end ) {
@@ -99,6 +108,57 @@ public class BackgroundStationaryBasic_PL<T extends ImageGray<T>>
 				indexBG++;
 			}
 		}
+		//CONCURRENT_INLINE });
+	}
+
+	@Override
+	public void updateBackground( Planar<T> frame , GrayU8 segment ) {
+		if( background.width != frame.width ) {
+			ImageMiscOps.fill(segment,unknownValue);
+			updateBackground(frame);
+			return;
+		}
+		InputSanityCheck.checkSameShape(background,frame,segment);
+		inputWrapper.wrap(frame);
+
+		int numBands = background.getNumBands();
+		float minusLearn = 1.0f - learnRate;
+		float thresholdSq = numBands*threshold*threshold;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0,frame.height,(y0,y1)->{
+		final int y0 = 0, y1 = frame.height;
+		//CONCURRENT_INLINE final float[] inputPixels = new float[numBands];
+		for (int y = y0; y < y1; y++) {
+			int indexBG = background.startIndex + y*background.stride;
+			int indexInput = frame.startIndex + y*frame.stride;
+			int indexSegmented = segment.startIndex + y*segment.stride;
+
+			int end = indexInput + frame.width;
+			while( indexInput < end ) {
+				inputWrapper.getF(indexInput, inputPixels);
+
+				// segment using the model prior to the update
+				double sumErrorSq = 0;
+				for (int band = 0; band < numBands; band++) {
+					GrayF32 backgroundBand = background.getBand(band);
+					float bg = backgroundBand.data[indexBG];
+					float diff = bg - inputPixels[band];
+					sumErrorSq += diff*diff;
+					backgroundBand.data[indexBG] = minusLearn*bg + learnRate*inputPixels[band];
+				}
+
+				if (sumErrorSq <= thresholdSq) {
+					segment.data[indexSegmented] = 0;
+				} else {
+					segment.data[indexSegmented] = 1;
+				}
+
+				indexInput++;
+				indexSegmented++;
+				indexBG++;
+			}
+		}
+		//CONCURRENT_INLINE });
 	}
 
 	@Override
@@ -113,8 +173,11 @@ public class BackgroundStationaryBasic_PL<T extends ImageGray<T>>
 		int numBands = background.getNumBands();
 		float thresholdSq = numBands*threshold*threshold;
 
-		int indexBG = 0;
-		for (int y = 0; y < frame.height; y++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0,frame.height,(y0,y1)->{
+		final int y0 = 0, y1 = frame.height;
+		//CONCURRENT_INLINE final float[] inputPixels = new float[numBands];
+		for (int y = y0; y < y1; y++) {
+			int indexBG = background.startIndex + y*background.stride;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
@@ -139,7 +202,6 @@ public class BackgroundStationaryBasic_PL<T extends ImageGray<T>>
 				indexBG++;
 			}
 		}
+		//CONCURRENT_INLINE });
 	}
-
-
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.FactoryGImageMultiBand;
+import boofcv.core.image.GConvertImage;
+import boofcv.core.image.GImageMultiBand;
+import boofcv.struct.image.*;
+
+/**
+ * Implementation of {@link BackgroundStationaryBasic} for {@link ImageGray}.
+ *
+ * DO NOT MODIFY. Generated by AutocodeConcurrentApp.
+ *
+ * @author Peter Abeles
+ */
+public class BackgroundStationaryBasic_PL_MT<T extends ImageGray<T>>
+	extends BackgroundStationaryBasic<Planar<T>>
+{
+	// storage for background image
+	protected Planar<GrayF32> background;
+
+	// wrapper which provides abstraction across image types
+	protected GImageMultiBand inputWrapper;
+
+	protected float inputPixels[];
+
+	public BackgroundStationaryBasic_PL_MT(float learnRate, float threshold,
+										ImageType<Planar<T>> imageType) {
+		super(learnRate, threshold, imageType);
+
+		int numBands = imageType.getNumBands();
+
+		background = new Planar<>(GrayF32.class,0,0,numBands);
+
+		inputWrapper = FactoryGImageMultiBand.create(imageType);
+
+		inputPixels = new float[numBands];
+	}
+
+	/**
+	 * Returns the background image.
+	 *
+	 * @return background image.
+	 */
+	public Planar<GrayF32> getBackground() {
+		return background;
+	}
+
+	@Override
+	public void reset() {
+		background.reshape(0,0);
+	}
+
+	@Override
+	public void updateBackground( Planar<T> frame) {
+		if( background.width != frame.width ) {
+			background.reshape(frame.width, frame.height);
+			GConvertImage.convert(frame, background);
+			return;
+		} else {
+			InputSanityCheck.checkSameShape(background,frame);
+		}
+
+		inputWrapper.wrap(frame);
+
+		int numBands = background.getNumBands();
+		float minusLearn = 1.0f - learnRate;
+
+		BoofConcurrency.loopBlocks(0,frame.height,(y0,y1)->{
+		final float[] inputPixels = new float[numBands];
+		for (int y = y0; y < y1; y++) {
+			int indexBG = background.startIndex + y*background.stride;
+			int indexInput = frame.startIndex + y*frame.stride;
+			int end = indexInput + frame.width;
+			while( indexInput < end ) {
+				inputWrapper.getF(indexInput, inputPixels);
+
+				for (int band = 0; band < numBands; band++) {
+					GrayF32 backgroundBand = background.getBand(band);
+					backgroundBand.data[indexBG] = minusLearn*backgroundBand.data[indexBG] + learnRate*inputPixels[band];
+				}
+
+				indexInput++;
+				indexBG++;
+			}
+		}
+		});
+	}
+
+	@Override
+	public void updateBackground( Planar<T> frame , GrayU8 segment ) {
+		if( background.width != frame.width ) {
+			ImageMiscOps.fill(segment,unknownValue);
+			updateBackground(frame);
+			return;
+		}
+		InputSanityCheck.checkSameShape(background,frame,segment);
+		inputWrapper.wrap(frame);
+
+		int numBands = background.getNumBands();
+		float minusLearn = 1.0f - learnRate;
+		float thresholdSq = numBands*threshold*threshold;
+
+		BoofConcurrency.loopBlocks(0,frame.height,(y0,y1)->{
+		final float[] inputPixels = new float[numBands];
+		for (int y = y0; y < y1; y++) {
+			int indexBG = background.startIndex + y*background.stride;
+			int indexInput = frame.startIndex + y*frame.stride;
+			int indexSegmented = segment.startIndex + y*segment.stride;
+
+			int end = indexInput + frame.width;
+			while( indexInput < end ) {
+				inputWrapper.getF(indexInput, inputPixels);
+
+				// segment using the model prior to the update
+				double sumErrorSq = 0;
+				for (int band = 0; band < numBands; band++) {
+					GrayF32 backgroundBand = background.getBand(band);
+					float bg = backgroundBand.data[indexBG];
+					float diff = bg - inputPixels[band];
+					sumErrorSq += diff*diff;
+					backgroundBand.data[indexBG] = minusLearn*bg + learnRate*inputPixels[band];
+				}
+
+				if (sumErrorSq <= thresholdSq) {
+					segment.data[indexSegmented] = 0;
+				} else {
+					segment.data[indexSegmented] = 1;
+				}
+
+				indexInput++;
+				indexSegmented++;
+				indexBG++;
+			}
+		}
+		});
+	}
+
+	@Override
+	public void segment(Planar<T> frame, GrayU8 segmented) {
+		if( background.width != frame.width ) {
+			ImageMiscOps.fill(segmented,unknownValue);
+			return;
+		}
+		InputSanityCheck.checkSameShape(background,frame,segmented);
+		inputWrapper.wrap(frame);
+
+		int numBands = background.getNumBands();
+		float thresholdSq = numBands*threshold*threshold;
+
+		BoofConcurrency.loopBlocks(0,frame.height,(y0,y1)->{
+		final float[] inputPixels = new float[numBands];
+		for (int y = y0; y < y1; y++) {
+			int indexBG = background.startIndex + y*background.stride;
+			int indexInput = frame.startIndex + y*frame.stride;
+			int indexSegmented = segmented.startIndex + y*segmented.stride;
+
+			int end = indexInput + frame.width;
+			while( indexInput < end ) {
+				inputWrapper.getF(indexInput, inputPixels);
+
+				double sumErrorSq = 0;
+				for (int band = 0; band < numBands; band++) {
+					float diff = background.getBand(band).data[indexBG] - inputPixels[band];
+					sumErrorSq += diff*diff;
+				}
+
+				if (sumErrorSq <= thresholdSq) {
+					segmented.data[indexSegmented] = 0;
+				} else {
+					segmented.data[indexSegmented] = 1;
+				}
+
+				indexInput++;
+				indexSegmented++;
+				indexBG++;
+			}
+		}
+		});
+	}
+}
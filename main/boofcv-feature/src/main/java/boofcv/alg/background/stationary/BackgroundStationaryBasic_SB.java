@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,7 @@ package boofcv.alg.background.stationary;
 
 import boofcv.alg.InputSanityCheck;
 import boofcv.alg.misc.ImageMiscOps;
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.FactoryGImageGray;
 import boofcv.core.image.GConvertImage;
 import boofcv.core.image.GImageGray;
@@ -30,6 +31,11 @@ import boofcv.struct.image.*;
  *
  * @author Peter Abeles
  */
+//CONCURRENT_REMOVE_ABOVE
+//CONCURRENT_ABOVE  * DO NOT MODIFY. Generated by AutocodeConcurrentApp.
+//CONCURRENT_INLINE  *
+//CONCURRENT_INLINE  * @author Peter Abeles
+//CONCURRENT_INLINE  */
 public class BackgroundStationaryBasic_SB<T extends ImageGray<T>>
 	extends BackgroundStationaryBasic<T>
 {
@@ -74,8 +80,9 @@ public class BackgroundStationaryBasic_SB<T extends ImageGray<T>>
 
 		float minusLearn = 1.0f - learnRate;
 
-		int indexBG = 0;
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0,frame.height,y->{
 		for (int y = 0; y < frame.height; y++) {
+			int indexBG = background.startIndex + y*background.stride;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int end = indexInput + frame.width;
 			while( indexInput < end ) {
@@ -85,6 +92,45 @@ public class BackgroundStationaryBasic_SB<T extends ImageGray<T>>
 				background.data[indexBG++] = minusLearn*bg + learnRate*value;
 			}
 		}
+		//CONCURRENT_ABOVE });
+	}
+
+	@Override
+	public void updateBackground( T frame , GrayU8 segment ) {
+		if( background.width != frame.width ) {
+			ImageMiscOps.fill(segment,unknownValue);
+			updateBackground(frame);
+			return;
+		}
+		InputSanityCheck.checkSameShape(background,frame,segment);
+		inputWrapper.wrap(frame);
+
+		float minusLearn = 1.0f - learnRate;
+		float thresholdSq = threshold*threshold;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0,frame.height,y->{
+		for (int y = 0; y < frame.height; y++) {
+			int indexBG = background.startIndex + y*background.stride;
+			int indexInput = frame.startIndex + y*frame.stride;
+			int indexSegmented = segment.startIndex + y*segment.stride;
+
+			int end = indexInput + frame.width;
+			while( indexInput < end ) {
+				float value = inputWrapper.getF(indexInput++);
+				float bg = background.data[indexBG];
+
+				// segment using the model prior to the update
+				float diff = bg - value;
+				if (diff * diff <= thresholdSq) {
+					segment.data[indexSegmented++] = 0;
+				} else {
+					segment.data[indexSegmented++] = 1;
+				}
+
+				background.data[indexBG++] = minusLearn*bg + learnRate*value;
+			}
+		}
+		//CONCURRENT_ABOVE });
 	}
 
 	@Override
@@ -98,8 +144,9 @@ public class BackgroundStationaryBasic_SB<T extends ImageGray<T>>
 
 		float thresholdSq = threshold*threshold;
 
-		int indexBG = 0;
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0,frame.height,y->{
 		for (int y = 0; y < frame.height; y++) {
+			int indexBG = background.startIndex + y*background.stride;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
@@ -120,7 +167,6 @@ public class BackgroundStationaryBasic_SB<T extends ImageGray<T>>
 				indexBG++;
 			}
 		}
+		//CONCURRENT_ABOVE });
 	}
-
-
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,7 @@ package boofcv.alg.background.stationary;
 
 import boofcv.alg.InputSanityCheck;
 import boofcv.alg.misc.ImageMiscOps;
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.FactoryGImageMultiBand;
 import boofcv.core.image.GImageMultiBand;
 import boofcv.struct.image.GrayU8;
@@ -32,6 +33,11 @@ import boofcv.struct.image.InterleavedF32;
  *
  * @author Peter Abeles
  */
+//CONCURRENT_REMOVE_ABOVE
+//CONCURRENT_ABOVE  * DO NOT MODIFY. Generated by AutocodeConcurrentApp.
+//CONCURRENT_INLINE  *
+//CONCURRENT_INLINE  * @author Peter Abeles
+//CONCURRENT_INLINE  */
 public class BackgroundStationaryGaussian_IL<T extends ImageInterleaved<T>>
 		extends BackgroundStationaryGaussian<T>
 {
@@ -102,8 +108,11 @@ public class BackgroundStationaryGaussian_IL<T extends ImageInterleaved<T>>
 		int numBands = background.getNumBands()/2;
 		float minusLearn = 1.0f - learnRate;
 
-		int indexBG = 0;
-		for (int y = 0; y < background.height; y++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0,background.height,(y0,y1)->{
+		final int y0 = 0, y1 = background.height;
+		//CONCURRENT_INLINE final float[] inputPixel = new float[numBands];
+		for (int y = y0; y < y1; y++) {
+			int indexBG = background.startIndex + y*background.stride;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int end = indexInput + frame.width*numBands;
 			while( indexInput < end ) {
@@ -123,6 +132,69 @@ public class BackgroundStationaryGaussian_IL<T extends ImageInterleaved<T>>
 				indexInput += frame.numBands;
 			}
 		}
+		//CONCURRENT_INLINE });
+	}
+
+	@Override
+	public void updateBackground( T frame , GrayU8 segment ) {
+		if( background.width == 1 ) {
+			ImageMiscOps.fill(segment, unknownValue);
+			updateBackground(frame);
+			return;
+		}
+		InputSanityCheck.checkSameShape(background,frame,segment);
+		inputWrapper.wrap(frame);
+
+		final int numBands = background.getNumBands()/2;
+		float minusLearn = 1.0f - learnRate;
+		float adjustedMinimumDifference = minimumDifference*numBands;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0,frame.height,(y0,y1)->{
+		final int y0 = 0, y1 = frame.height;
+		//CONCURRENT_INLINE final float[] inputPixel = new float[numBands];
+		for (int y = y0; y < y1; y++) {
+			int indexBG = background.startIndex + y*background.stride;
+			int indexInput = frame.startIndex + y*frame.stride;
+			int indexSegmented = segment.startIndex + y*segment.stride;
+
+			int end = indexInput + frame.width*frame.numBands;
+			while( indexInput < end ) {
+				inputWrapper.getF(indexInput, inputPixel);
+
+				// segment using the model prior to the update
+				float mahalanobis = 0;
+				float sumAbsDiff = 0;
+				for (int band = 0; band < numBands; band++) {
+					float inputValue = inputPixel[band];
+					float meanBG = background.data[indexBG];
+					float varianceBG = background.data[indexBG+1];
+
+					float diff = meanBG - inputValue;
+					mahalanobis += diff * diff / varianceBG;
+					sumAbsDiff += Math.abs(diff);
+
+					background.data[indexBG++] = minusLearn*meanBG + learnRate*inputValue;
+					background.data[indexBG++] = minusLearn*varianceBG + learnRate*diff*diff;
+				}
+
+				if (mahalanobis <= threshold) {
+					segment.data[indexSegmented] = 0;
+				} else {
+					if( minimumDifference == 0) {
+						segment.data[indexSegmented] = 1;
+					} else {
+						if (sumAbsDiff >= adjustedMinimumDifference)
+							segment.data[indexSegmented] = 1;
+						else
+							segment.data[indexSegmented] = 0;
+					}
+				}
+
+				indexInput     += frame.numBands;
+				indexSegmented += 1;
+			}
+		}
+		//CONCURRENT_INLINE });
 	}
 
 	@Override
@@ -137,8 +209,11 @@ public class BackgroundStationaryGaussian_IL<T extends ImageInterleaved<T>>
 
 		float adjustedMinimumDifference = minimumDifference*numBands;
 
-		int indexBG = 0;
-		for (int y = 0; y < frame.height; y++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0,frame.height,(y0,y1)->{
+		final int y0 = 0, y1 = frame.height;
+		//CONCURRENT_INLINE final float[] inputPixel = new float[numBands];
+		for (int y = y0; y < y1; y++) {
+			int indexBG = background.startIndex + y*background.stride;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
@@ -181,5 +256,6 @@ public class BackgroundStationaryGaussian_IL<T extends ImageInterleaved<T>>
 				indexBG        += background.numBands;
 			}
 		}
+		//CONCURRENT_INLINE });
 	}
 }
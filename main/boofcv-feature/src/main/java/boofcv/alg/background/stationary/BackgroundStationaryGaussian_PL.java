@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,6 +21,7 @@ package boofcv.alg.background.stationary;
 import boofcv.alg.InputSanityCheck;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.misc.ImageMiscOps;
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.FactoryGImageMultiBand;
 import boofcv.core.image.GConvertImage;
 import boofcv.core.image.GImageMultiBand;
@@ -31,6 +32,11 @@ import boofcv.struct.image.*;
  *
  * @author Peter Abeles
  */
+//CONCURRENT_REMOVE_ABOVE
+//CONCURRENT_ABOVE  * DO NOT MODIFY. Generated by AutocodeConcurrentApp.
+//CONCURRENT_INLINE  *
+//CONCURRENT_INLINE  * @author Peter Abeles
+//CONCURRENT_INLINE  */
 public class BackgroundStationaryGaussian_PL<T extends ImageGray<T>>
 		extends BackgroundStationaryGaussian<Planar<T>>
 {
@@ -93,9 +99,11 @@ public class BackgroundStationaryGaussian_PL<T extends ImageGray<T>>
 		int numBands = background.getNumBands()/2;
 		float minusLearn = 1.0f - learnRate;
 
-
-		int indexBG = 0;
-		for (int y = 0; y < background.height; y++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0,background.height,(y0,y1)->{
+		final int y0 = 0, y1 = background.height;
+		//CONCURRENT_INLINE final float[] inputPixel = new float[numBands];
+		for (int y = y0; y < y1; y++) {
+			int indexBG = background.startIndex + y*background.stride;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int end = indexInput + frame.width;
 			while( indexInput < end ) {
@@ -118,6 +126,73 @@ public class BackgroundStationaryGaussian_PL<T extends ImageGray<T>>
 				indexBG++;
 			}
 		}
+		//CONCURRENT_INLINE });
+	}
+
+	@Override
+	public void updateBackground( Planar<T> frame , GrayU8 segment ) {
+		if( background.width == 1 ) {
+			ImageMiscOps.fill(segment, unknownValue);
+			updateBackground(frame);
+			return;
+		}
+		InputSanityCheck.checkSameShape(background,frame,segment);
+		inputWrapper.wrap(frame);
+
+		final int numBands = background.getNumBands()/2;
+		float minusLearn = 1.0f - learnRate;
+		float adjustedMinimumDifference = minimumDifference*numBands;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0,frame.height,(y0,y1)->{
+		final int y0 = 0, y1 = frame.height;
+		//CONCURRENT_INLINE final float[] inputPixel = new float[numBands];
+		for (int y = y0; y < y1; y++) {
+			int indexBG = background.startIndex + y*background.stride;
+			int indexInput = frame.startIndex + y*frame.stride;
+			int indexSegmented = segment.startIndex + y*segment.stride;
+
+			int end = indexInput + frame.width;
+			while( indexInput < end ) {
+				inputWrapper.getF(indexInput, inputPixel);
+
+				// segment using the model prior to the update
+				float mahalanobis = 0;
+				float sumAbsDiff = 0;
+				for (int band = 0; band < numBands; band++) {
+					GrayF32 backgroundMean = background.getBand(band*2);
+					GrayF32 backgroundVar = background.getBand(band*2+1);
+
+					float inputValue = inputPixel[band];
+					float meanBG = backgroundMean.data[indexBG];
+					float varianceBG = backgroundVar.data[indexBG];
+
+					float diff = meanBG - inputValue;
+					mahalanobis += diff * diff / varianceBG;
+					sumAbsDiff += Math.abs(diff);
+
+					backgroundMean.data[indexBG] = minusLearn*meanBG + learnRate*inputValue;
+					backgroundVar.data[indexBG] = minusLearn*varianceBG + learnRate*diff*diff;
+				}
+
+				if (mahalanobis <= threshold) {
+					segment.data[indexSegmented] = 0;
+				} else {
+					if( minimumDifference == 0) {
+						segment.data[indexSegmented] = 1;
+					} else {
+						if (sumAbsDiff >= adjustedMinimumDifference)
+							segment.data[indexSegmented] = 1;
+						else
+							segment.data[indexSegmented] = 0;
+					}
+				}
+
+				indexInput++;
+				indexSegmented++;
+				indexBG++;
+			}
+		}
+		//CONCURRENT_INLINE });
 	}
 
 	@Override
@@ -132,8 +207,11 @@ public class BackgroundStationaryGaussian_PL<T extends ImageGray<T>>
 
 		float adjustedMinimumDifference = minimumDifference*numBands;
 
-		int indexBG = 0;
-		for (int y = 0; y < frame.height; y++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0,frame.height,(y0,y1)->{
+		final int y0 = 0, y1 = frame.height;
+		//CONCURRENT_INLINE final float[] inputPixel = new float[numBands];
+		for (int y = y0; y < y1; y++) {
+			int indexBG = background.startIndex + y*background.stride;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
@@ -177,5 +255,6 @@ public class BackgroundStationaryGaussian_PL<T extends ImageGray<T>>
 				indexBG++;
 			}
 		}
+		//CONCURRENT_INLINE });
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -22,6 +22,7 @@ import boofcv.alg.InputSanityCheck;
 import boofcv.alg.background.moving.BackgroundMovingGaussian;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.misc.ImageMiscOps;
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.FactoryGImageGray;
 import boofcv.core.image.GConvertImage;
 import boofcv.core.image.GImageGray;
@@ -32,6 +33,11 @@ import boofcv.struct.image.*;
  *
  * @author Peter Abeles
  */
+//CONCURRENT_REMOVE_ABOVE
+//CONCURRENT_ABOVE  * DO NOT MODIFY. Generated by AutocodeConcurrentApp.
+//CONCURRENT_INLINE  *
+//CONCURRENT_INLINE  * @author Peter Abeles
+//CONCURRENT_INLINE  */
 public class BackgroundStationaryGaussian_SB<T extends ImageGray<T>>
 		extends BackgroundStationaryGaussian<T>
 {
@@ -78,8 +84,9 @@ public class BackgroundStationaryGaussian_SB<T extends ImageGray<T>>
 		GrayF32 backgroundMean = background.getBand(0);
 		GrayF32 backgroundVar = background.getBand(1);
 
-		int indexBG = 0;
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0,background.height,y->{
 		for (int y = 0; y < background.height; y++) {
+			int indexBG = backgroundMean.startIndex + y*backgroundMean.stride;
 			int indexInput = frame.startIndex + y*frame.stride;
 
 			int end = indexInput + frame.width;
@@ -96,6 +103,58 @@ public class BackgroundStationaryGaussian_SB<T extends ImageGray<T>>
 				indexInput++;
 			}
 		}
+		//CONCURRENT_ABOVE });
+	}
+
+	@Override
+	public void updateBackground( T frame , GrayU8 segment ) {
+		if( background.width == 1 ) {
+			ImageMiscOps.fill(segment, unknownValue);
+			updateBackground(frame);
+			return;
+		}
+		InputSanityCheck.checkSameShape(background,frame,segment);
+		inputWrapper.wrap(frame);
+
+		float minusLearn = 1.0f - learnRate;
+
+		GrayF32 backgroundMean = background.getBand(0);
+		GrayF32 backgroundVar = background.getBand(1);
+
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0,frame.height,y->{
+		for (int y = 0; y < frame.height; y++) {
+			int indexBG = backgroundMean.startIndex + y*backgroundMean.stride;
+			int indexInput = frame.startIndex + y*frame.stride;
+			int indexSegmented = segment.startIndex + y*segment.stride;
+
+			int end = indexInput + frame.width;
+			while( indexInput < end ) {
+				float inputValue = inputWrapper.getF(indexInput);
+				float meanBG = backgroundMean.data[indexBG];
+				float varianceBG = backgroundVar.data[indexBG];
+
+				// segment using the model prior to the update
+				float diff = meanBG-inputValue;
+				float chisq = diff*diff/varianceBG;
+
+				if (chisq <= threshold) {
+					segment.data[indexSegmented] = 0;
+				} else {
+					if( diff >= minimumDifference || -diff >= minimumDifference )
+						segment.data[indexSegmented] = 1;
+					else
+						segment.data[indexSegmented] = 0;
+				}
+
+				backgroundMean.data[indexBG] = minusLearn*meanBG + learnRate*inputValue;
+				backgroundVar.data[indexBG] = minusLearn*varianceBG + learnRate*diff*diff;
+
+				indexInput++;
+				indexSegmented++;
+				indexBG++;
+			}
+		}
+		//CONCURRENT_ABOVE });
 	}
 
 	@Override
@@ -110,8 +169,9 @@ public class BackgroundStationaryGaussian_SB<T extends ImageGray<T>>
 		GrayF32 backgroundMean = background.getBand(0);
 		GrayF32 backgroundVar = background.getBand(1);
 
-		int indexBG = 0;
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0,frame.height,y->{
 		for (int y = 0; y < frame.height; y++) {
+			int indexBG = backgroundMean.startIndex + y*backgroundMean.stride;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
@@ -139,5 +199,6 @@ public class BackgroundStationaryGaussian_SB<T extends ImageGray<T>>
 				indexBG++;
 			}
 		}
+		//CONCURRENT_ABOVE });
 	}
 }
@@ -20,6 +20,7 @@ package boofcv.alg.background.stationary;
 
 import boofcv.alg.background.BackgroundAlgorithmGmm;
 import boofcv.alg.misc.ImageMiscOps;
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageMultiBand;
 import boofcv.struct.image.ImageType;
@@ -30,6 +31,11 @@ import org.jetbrains.annotations.Nullable;
  *
  * @author Peter Abeles
  */
+//CONCURRENT_REMOVE_ABOVE
+//CONCURRENT_ABOVE  * DO NOT MODIFY. Generated by AutocodeConcurrentApp.
+//CONCURRENT_INLINE  *
+//CONCURRENT_INLINE  * @author Peter Abeles
+//CONCURRENT_INLINE  */
 public class BackgroundStationaryGmm_MB<T extends ImageMultiBand<T>>
 		extends BackgroundStationaryGmm<T>
 {
@@ -56,27 +62,32 @@ public class BackgroundStationaryGmm_MB<T extends ImageMultiBand<T>>
 
 		common.inputWrapperMB.wrap(frame);
 		final int pixelStride = common.inputWrapperMB.getPixelStride();
-		for (int row = 0; row < common.imageHeight; row++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0,common.imageHeight,(row0,row1)->{
+		final int row0 = 0, row1 = common.imageHeight;
+		//CONCURRENT_BELOW final float[] inputPixel = new float[common.numBands];
+		final float[] inputPixel = common.inputPixel;
+		for (int row = row0; row < row1; row++) {
 			int inputIndex = frame.getIndex(0,row);
 			float[] dataRow = common.model.data[row];
 
 			if( mask == null ) {
 				for (int col = 0; col < common.imageWidth; col++, inputIndex += pixelStride) {
-					common.inputWrapperMB.getF(inputIndex,common.inputPixel);
+					common.inputWrapperMB.getF(inputIndex,inputPixel);
 					int modelIndex = col * common.modelStride;
 
-					common.updateMixture(common.inputPixel, dataRow, modelIndex);
+					common.updateMixture(inputPixel, dataRow, modelIndex);
 				}
 			} else {
 				int indexMask = mask.startIndex + row*mask.stride;
 				for (int col = 0; col < common.imageWidth; col++, inputIndex += pixelStride) {
-					common.inputWrapperMB.getF(inputIndex,common.inputPixel);
+					common.inputWrapperMB.getF(inputIndex,inputPixel);
 					int modelIndex = col * common.modelStride;
 
-					mask.data[indexMask++] = (byte)common.updateMixture(common.inputPixel, dataRow, modelIndex);
+					mask.data[indexMask++] = (byte)common.updateMixture(inputPixel, dataRow, modelIndex);
 				}
 			}
 		}
+		//CONCURRENT_INLINE });
 	}
 
 	@Override
@@ -89,17 +100,22 @@ public class BackgroundStationaryGmm_MB<T extends ImageMultiBand<T>>
 		common.unknownValue = unknownValue;
 		common.inputWrapperMB.wrap(frame);
 		final int pixelStride = common.inputWrapperMB.getPixelStride();
-		for (int row = 0; row < common.imageHeight; row++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0,common.imageHeight,(row0,row1)->{
+		final int row0 = 0, row1 = common.imageHeight;
+		//CONCURRENT_BELOW final float[] inputPixel = new float[common.numBands];
+		final float[] inputPixel = common.inputPixel;
+		for (int row = row0; row < row1; row++) {
 			int indexIn = frame.getIndex(0,row);
 			int indexOut = segmented.startIndex + row*segmented.stride;
 			float[] dataRow = common.model.data[row];
 
 			for (int col = 0; col < common.imageWidth; col++, indexIn += pixelStride) {
-				common.inputWrapperMB.getF(indexIn,common.inputPixel);
+				common.inputWrapperMB.getF(indexIn,inputPixel);
 				int modelIndex = col * common.modelStride;
 
-				segmented.data[indexOut++] = (byte)common.checkBackground(common.inputPixel, dataRow, modelIndex);
+				segmented.data[indexOut++] = (byte)common.checkBackground(inputPixel, dataRow, modelIndex);
 			}
 		}
+		//CONCURRENT_INLINE });
 	}
 }
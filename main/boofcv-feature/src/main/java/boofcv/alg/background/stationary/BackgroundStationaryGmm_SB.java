@@ -20,6 +20,7 @@ package boofcv.alg.background.stationary;
 
 import boofcv.alg.background.BackgroundAlgorithmGmm;
 import boofcv.alg.misc.ImageMiscOps;
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
@@ -30,6 +31,11 @@ import org.jetbrains.annotations.Nullable;
  *
  * @author Peter Abeles
  */
+//CONCURRENT_REMOVE_ABOVE
+//CONCURRENT_ABOVE  * DO NOT MODIFY. Generated by AutocodeConcurrentApp.
+//CONCURRENT_INLINE  *
+//CONCURRENT_INLINE  * @author Peter Abeles
+//CONCURRENT_INLINE  */
 public class BackgroundStationaryGmm_SB<T extends ImageGray<T>>
 		extends BackgroundStationaryGmm<T>
 {
@@ -51,6 +57,7 @@ public class BackgroundStationaryGmm_SB<T extends ImageGray<T>>
 		super.updateBackground(frame, mask);
 
 		common.inputWrapperG.wrap(frame);
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0,common.imageHeight,row->{
 		for (int row = 0; row < common.imageHeight; row++) {
 			int inputIndex = frame.startIndex + row*frame.stride;
 			float[] dataRow = common.model.data[row];
@@ -72,6 +79,7 @@ public class BackgroundStationaryGmm_SB<T extends ImageGray<T>>
 				}
 			}
 		}
+		//CONCURRENT_ABOVE });
 	}
 
 	@Override
@@ -84,6 +92,7 @@ public class BackgroundStationaryGmm_SB<T extends ImageGray<T>>
 
 		common.unknownValue = unknownValue;
 		common.inputWrapperG.wrap(frame);
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0,common.imageHeight,row->{
 		for (int row = 0; row < common.imageHeight; row++) {
 			int indexIn = frame.startIndex + row*frame.stride;
 			int indexOut = segmented.startIndex + row*segmented.stride;
@@ -96,5 +105,6 @@ public class BackgroundStationaryGmm_SB<T extends ImageGray<T>>
 				segmented.data[indexOut++] = (byte)common.checkBackground(pixelValue, dataRow, modelIndex);
 			}
 		}
+		//CONCURRENT_ABOVE });
 	}
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.detect.selector.FeatureSelectLimitIntensity;
+import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastArray;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Concurrent version of {@link CompleteSift}. Orientation estimation and descriptors are computed in parallel
+ * for all the detections inside a scale. Each thread has its own orientation and descriptor algorithms, and
+ * thus its own histograms. Results are added in the same order as the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class CompleteSift_MT extends CompleteSift {
+
+	// Used to create orientation and descriptor algorithms for each thread
+	BoofLambdas.Factory<OrientationHistogramSift<GrayF32>> factoryOrientation;
+	BoofLambdas.Factory<DescribePointSift<GrayF32>> factoryDescribe;
+
+	// Detections in the current scale which need to be described
+	FastArray<ScalePoint> pending = new FastArray<>(ScalePoint.class);
+
+	// Workspace for each thread
+	FastQueue<Worker> workers;
+	// Workers sorted by the first detection they processed
+	List<Worker> sorted = new ArrayList<>();
+
+	/**
+	 * Configures SIFT
+	 *
+	 * @param scaleSpace Scale-space that features are computed inside of
+	 * @param edgeR Edge threshold.  See {@link CompleteSift}
+	 * @param extractor Finds minimums and maximums.  See {@link CompleteSift}
+	 * @param factoryOrientation Creates a new instance of the orientation estimator
+	 * @param factoryDescribe Creates a new instance of the descriptor
+	 */
+	public CompleteSift_MT(SiftScaleSpace scaleSpace,
+						   FeatureSelectLimitIntensity<ScalePoint> selectFeaturesAll,
+						   double edgeR, NonMaxLimiter extractor,
+						   BoofLambdas.Factory<OrientationHistogramSift<GrayF32>> factoryOrientation,
+						   BoofLambdas.Factory<DescribePointSift<GrayF32>> factoryDescribe ) {
+		super(scaleSpace, selectFeaturesAll, edgeR, extractor,
+				factoryOrientation.newInstance(), factoryDescribe.newInstance());
+		this.factoryOrientation = factoryOrientation;
+		this.factoryDescribe = factoryDescribe;
+		// FastQueue invokes the factory when constructed so it must be created after the factories are assigned
+		workers = new FastQueue<>(Worker::new);
+	}
+
+	@Override
+	protected void detectFeatures(int scaleIndex) {
+		pending.reset();
+		super.detectFeatures(scaleIndex);
+
+		if( pending.size == 0 )
+			return;
+
+		BoofConcurrency.loopBlocks(0,pending.size,workers,(worker,idx0,idx1)->worker.process(idx0,idx1));
+
+		// Blocks are processed in order inside each worker, so sorting the workers recreates the original order
+		sorted.clear();
+		for (int i = 0; i < workers.size; i++) {
+			sorted.add(workers.get(i));
+		}
+		sorted.sort(Comparator.comparingInt(w->w.idx0));
+
+		for (int i = 0; i < sorted.size(); i++) {
+			Worker w = sorted.get(i);
+			for (int j = 0; j < w.descriptions.size; j++) {
+				features.grow().setTo(w.descriptions.get(j));
+				orientations.add(w.angles.get(j));
+				locations.add(pending.get(w.owners.get(j)));
+			}
+		}
+	}
+
+	/**
+	 * Saves the detection so that it can be described later on in parallel
+	 */
+	@Override
+	protected void handleDetection(ScalePoint p) {
+		pending.add(p);
+	}
+
+	/**
+	 * Orientation estimation and descriptor for a single thread
+	 */
+	class Worker {
+		OrientationHistogramSift<GrayF32> orientation = factoryOrientation.newInstance();
+		DescribePointSift<GrayF32> describe = factoryDescribe.newInstance();
+
+		// First detection processed by this worker
+		int idx0;
+		// Found descriptors, their orientation, and index of the detection they came from
+		FastQueue<TupleDesc_F64> descriptions = new FastQueue<>(()->new TupleDesc_F64(describe.getDescriptorLength()));
+		GrowQueue_F64 angles = new GrowQueue_F64();
+		GrowQueue_I32 owners = new GrowQueue_I32();
+
+		void process( int idx0 , int idx1 ) {
+			this.idx0 = idx0;
+			descriptions.reset();
+			angles.reset();
+			owners.reset();
+
+			orientation.setImageGradient(derivX,derivY);
+			describe.setImageGradient(derivX,derivY);
+
+			for (int i = idx0; i < idx1; i++) {
+				ScalePoint p = pending.get(i);
+
+				// adjust the image for the down sampling in each octave
+				double localX = p.pixel.x / pixelScaleToInput;
+				double localY = p.pixel.y / pixelScaleToInput;
+				double localSigma = p.scale / pixelScaleToInput;
+
+				// find potential orientations first
+				orientation.process(localX,localY,localSigma);
+
+				// describe each feature
+				GrowQueue_F64 found = orientation.getOrientations();
+				for (int j = 0; j < found.size; j++) {
+					describe.process(localX,localY,localSigma,found.get(j),descriptions.grow());
+					angles.add(found.get(j));
+					owners.add(i);
+				}
+			}
+		}
+	}
+}
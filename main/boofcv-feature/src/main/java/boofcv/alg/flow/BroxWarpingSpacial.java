@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -242,7 +242,6 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 								GrayF32 deriv2XX , GrayF32 deriv2YY, GrayF32 deriv2XY) {
 
 		int N = image1.width*image1.height;
-		int stride = image1.stride;
 
 		// outer Taylor expansion iterations
 		for( int indexOuter = 0; indexOuter < numOuter; indexOuter++ ) {
@@ -279,36 +278,7 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 				int iter = 0;
 
 				do {
-					// inner SOR iteration.
-					error = 0;
-
-					// inner portion
-					for (int y = 1; y < image1.height - 1; y++) {
-						int i = y * image1.width + 1;
-						for (int x = 1; x < image1.width - 1; x++, i++) {
-							error += iterationSor(image1, deriv1X, deriv1Y, i, i + 1, i - 1, i + stride, i - stride);
-						}
-					}
-
-					// border regions require special treatment
-					int y0 = 0;
-					int y1 = image1.height-1;
-					for (int x = 0; x < image1.width; x++ ) {
-						error += iterationSor(image1, deriv1X, deriv1Y,
-								s(x, y0), s(x + 1, y0), s(x - 1, y0), s(x, y0 - 1), s(x, y0 + 1));
-
-						error += iterationSor(image1, deriv1X, deriv1Y,
-								s(x, y1), s(x + 1, y1), s(x - 1, y1), s(x, y1 - 1), s(x, y1 + 1));
-					}
-
-					int x0 = 0;
-					int x1 = image1.width-1;
-					for (int y = 1; y < image1.height - 1; y++) {
-						error += iterationSor(image1, deriv1X, deriv1Y,
-								s(x0, y), s(x0 - 1, y), s(x0 + 1, y), s(x0, y - 1), s(x0, y + 1));
-						error += iterationSor(image1, deriv1X, deriv1Y,
-								s(x1, y), s(x1 - 1, y), s(x1 + 1, y), s(x1, y - 1), s(x1, y + 1));
-					}
+					error = iterationSor(image1, deriv1X, deriv1Y);
 				} while (error > convergeTolerance * image1.width * image1.height && ++iter < maxIterationsSor);
 			}
 
@@ -318,6 +288,46 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 		}
 	}
 
+	/**
+	 * Performs a single SOR iteration across the whole image
+	 *
+	 * @return sum of the change in motion increments squared
+	 */
+	protected float iterationSor(GrayF32 image1, GrayF32 deriv1X, GrayF32 deriv1Y) {
+		int stride = image1.stride;
+		float error = 0;
+
+		// inner portion
+		for (int y = 1; y < image1.height - 1; y++) {
+			int i = y * image1.width + 1;
+			for (int x = 1; x < image1.width - 1; x++, i++) {
+				error += iterationSor(image1, deriv1X, deriv1Y, i, i + 1, i - 1, i + stride, i - stride);
+			}
+		}
+
+		// border regions require special treatment
+		int y0 = 0;
+		int y1 = image1.height-1;
+		for (int x = 0; x < image1.width; x++ ) {
+			error += iterationSor(image1, deriv1X, deriv1Y,
+					s(x, y0), s(x + 1, y0), s(x - 1, y0), s(x, y0 - 1), s(x, y0 + 1));
+
+			error += iterationSor(image1, deriv1X, deriv1Y,
+					s(x, y1), s(x + 1, y1), s(x - 1, y1), s(x, y1 - 1), s(x, y1 + 1));
+		}
+
+		int x0 = 0;
+		int x1 = image1.width-1;
+		for (int y = 1; y < image1.height - 1; y++) {
+			error += iterationSor(image1, deriv1X, deriv1Y,
+					s(x0, y), s(x0 - 1, y), s(x0 + 1, y), s(x0, y - 1), s(x0, y + 1));
+			error += iterationSor(image1, deriv1X, deriv1Y,
+					s(x1, y), s(x1 - 1, y), s(x1 + 1, y), s(x1, y - 1), s(x1, y + 1));
+		}
+
+		return error;
+	}
+
 	/**
 	 * Inner SOR iteration step
 	 *
@@ -327,7 +337,7 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 	 * @param ipy (x,y+1)
 	 * @param imy (x,y-1)
 	 */
-	private float iterationSor(GrayF32 image1, GrayF32 deriv1X, GrayF32 deriv1Y,
+	protected float iterationSor(GrayF32 image1, GrayF32 deriv1X, GrayF32 deriv1Y,
 							   int i, int ipx, int imx, int ipy, int imy) {
 		float w = SOR_RELAXATION;
 
@@ -400,9 +410,21 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 											 GrayF32 deriv2xx, GrayF32 deriv2yy, GrayF32 deriv2xy,
 											 GrayF32 du, GrayF32 dv,
 											 GrayF32 psiData, GrayF32 psiGradient ) {
-		int N = image1.width * image1.height;
+		computePsiDataPsiGradient(image1, image2, deriv1x, deriv1y, deriv2x, deriv2y,
+				deriv2xx, deriv2yy, deriv2xy, du, dv, psiData, psiGradient, 0, image1.width*image1.height);
+	}
 
-		for( int i = 0; i < N; i++ ) {
+	/**
+	 * Computes Psi-data and Psi-gradient for pixels with an index from start to end-1
+	 */
+	protected static void computePsiDataPsiGradient(GrayF32 image1, GrayF32 image2,
+													GrayF32 deriv1x, GrayF32 deriv1y,
+													GrayF32 deriv2x, GrayF32 deriv2y,
+													GrayF32 deriv2xx, GrayF32 deriv2yy, GrayF32 deriv2xy,
+													GrayF32 du, GrayF32 dv,
+													GrayF32 psiData, GrayF32 psiGradient,
+													int start , int end ) {
+		for( int i = start; i < end; i++ ) {
 
 			float du_ = du.data[i];
 			float dv_ = dv.data[i];
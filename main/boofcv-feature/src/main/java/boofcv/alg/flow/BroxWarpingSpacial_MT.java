@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link BroxWarpingSpacial}. The SOR update at a pixel only depends on its 4-connect
+ * neighbors, so pixels are updated using a red-black (checkerboard) ordering. All the red pixels are updated
+ * concurrently and then all the black pixels. Since the order pixels are updated in has changed the results
+ * will be slightly different from the single threaded version, but it converges to the same solution. Image
+ * warping and the robust weights are also computed concurrently.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BroxWarpingSpacial_MT<T extends ImageGray<T>> extends BroxWarpingSpacial<T> {
+
+	// interpolation used by each thread
+	private final FastQueue<InterpolatePixelS<GrayF32>> interpolators;
+
+	// Change in flow along each row in the most recent SOR iteration
+	private final GrowQueue_F64 rowErrors = new GrowQueue_F64();
+
+	public BroxWarpingSpacial_MT( ConfigBroxWarping config, InterpolatePixelS<GrayF32> interp ) {
+		super(config, interp);
+		interpolators = new FastQueue<>(()->{
+			InterpolatePixelS<GrayF32> copy = interp.copy();
+			copy.setBorder(FactoryImageBorder.single(BorderType.EXTENDED, GrayF32.class));
+			return copy;
+		});
+	}
+
+	@Override
+	protected float iterationSor( GrayF32 image1, GrayF32 deriv1X, GrayF32 deriv1Y ) {
+		rowErrors.resize(image1.height);
+		rowErrors.fill(0);
+		for (int color = 0; color < 2; color++) {
+			final int offset = color;
+			BoofConcurrency.loopFor(0,image1.height,y->
+					rowErrors.data[y] += iterationSorRow(image1,deriv1X,deriv1Y,y,(y+offset)%2));
+		}
+
+		// Sum in a fixed order so that the convergence test doesn't depend on how rows were assigned to threads
+		double error = 0;
+		for (int y = 0; y < image1.height; y++) {
+			error += rowErrors.data[y];
+		}
+		return (float)error;
+	}
+
+	/**
+	 * Performs an SOR iteration on every other pixel along a row
+	 *
+	 * @param x0 First pixel in the row which is updated
+	 * @return sum of the change in flow squared for the updated pixels
+	 */
+	private double iterationSorRow( GrayF32 image1, GrayF32 deriv1X, GrayF32 deriv1Y, int y , int x0 ) {
+		int stride = image1.stride;
+		boolean borderRow = y == 0 || y == image1.height-1;
+
+		double error = 0;
+		for (int x = x0; x < image1.width; x += 2) {
+			if( borderRow || x == 0 || x == image1.width-1 ) {
+				// border regions require special treatment
+				error += iterationSor(image1, deriv1X, deriv1Y,
+						s(x, y), s(x + 1, y), s(x - 1, y), s(x, y + 1), s(x, y - 1));
+			} else {
+				int i = y*image1.width + x;
+				error += iterationSor(image1, deriv1X, deriv1Y, i, i + 1, i - 1, i + stride, i - stride);
+			}
+		}
+		return error;
+	}
+
+	@Override
+	protected void computePsiDataPsiGradient(GrayF32 image1, GrayF32 image2,
+											 GrayF32 deriv1x, GrayF32 deriv1y,
+											 GrayF32 deriv2x, GrayF32 deriv2y,
+											 GrayF32 deriv2xx, GrayF32 deriv2yy, GrayF32 deriv2xy,
+											 GrayF32 du, GrayF32 dv,
+											 GrayF32 psiData, GrayF32 psiGradient ) {
+		// Each pixel is independent. Process blocks of rows to reuse the single threaded code
+		BoofConcurrency.loopBlocks(0,image1.height,(y0,y1)->{
+			int start = y0*image1.width;
+			int end = y1*image1.width;
+			computePsiDataPsiGradient(image1, image2, deriv1x, deriv1y, deriv2x, deriv2y,
+					deriv2xx, deriv2yy, deriv2xy, du, dv, psiData, psiGradient, start, end);
+		});
+	}
+
+	@Override
+	protected void warpImageTaylor(GrayF32 before, GrayF32 flowX , GrayF32 flowY , GrayF32 after) {
+		BoofConcurrency.loopBlocks(0,before.height,interpolators,(interp,y0,y1)->{
+			interp.setImage(before);
+			for( int y = y0; y < y1; y++ ) {
+				int pixelIndex = y*before.width;
+				for (int x = 0; x < before.width; x++, pixelIndex++ ) {
+					float u = flowX.data[pixelIndex];
+					float v = flowY.data[pixelIndex];
+
+					float wx = x + u;
+					float wy = y + v;
+
+					after.data[pixelIndex] = interp.get(wx, wy);
+				}
+			}
+		});
+	}
+}
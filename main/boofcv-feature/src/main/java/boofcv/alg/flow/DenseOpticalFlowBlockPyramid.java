@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -95,6 +95,17 @@ public abstract class DenseOpticalFlowBlockPyramid<T extends ImageGray<T>> {
 		template = GeneralizedImageOps.createSingleBand(imageType,w, w);
 	}
 
+	/**
+	 * Creates a new instance with the same configuration
+	 */
+	protected DenseOpticalFlowBlockPyramid( DenseOpticalFlowBlockPyramid<T> orig ) {
+		this.searchRadius = orig.searchRadius;
+		this.regionRadius = orig.regionRadius;
+		this.maxError = orig.maxError;
+
+		template = orig.template.createSameShape();
+	}
+
 	/**
 	 * Computes the optical flow form 'prev' to 'curr' and stores the output into output
 	 * @param pyramidPrev Previous image
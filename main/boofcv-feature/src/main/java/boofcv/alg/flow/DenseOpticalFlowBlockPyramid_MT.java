@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.ImagePyramid;
+import org.ddogleg.struct.Factory;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link DenseOpticalFlowBlockPyramid}. The exhaustive search for each region is
+ * independent and is done concurrently on blocks of rows. Each thread has its own instance of the single threaded
+ * algorithm since the template is stored internally. Once all the regions in a layer have been searched, the
+ * flow is assigned to the pixels in each region in the same order as the single threaded version. This step is
+ * inexpensive compared to the search and the output is identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DenseOpticalFlowBlockPyramid_MT<T extends ImageGray<T>> extends DenseOpticalFlowBlockPyramid<T> {
+
+	// Score assigned to a region when it was skipped because the previous layer had no valid flow
+	private static final float SKIPPED = -1;
+
+	// Single threaded instance used when the search functions are called directly
+	private final DenseOpticalFlowBlockPyramid<T> local;
+	// Each thread has its own instance for the search
+	private final FastQueue<DenseOpticalFlowBlockPyramid<T>> workers;
+
+	// flow and score of the region centered at each pixel
+	protected ImageFlow flowCenter = new ImageFlow(1,1);
+	protected float[] scoresCenter = new float[0];
+
+	/**
+	 * @param factory Creates new instances of the single threaded algorithm. All must have the same configuration.
+	 */
+	public DenseOpticalFlowBlockPyramid_MT( Factory<DenseOpticalFlowBlockPyramid<T>> factory ) {
+		this(factory.newInstance(), factory);
+	}
+
+	private DenseOpticalFlowBlockPyramid_MT( DenseOpticalFlowBlockPyramid<T> local ,
+											 Factory<DenseOpticalFlowBlockPyramid<T>> factory ) {
+		super(local);
+		this.local = local;
+		// share the template so that calling the search functions directly behaves the same as single threaded
+		this.template = local.template;
+		this.workers = new FastQueue<>(factory);
+	}
+
+	@Override
+	public void process( ImagePyramid<T> pyramidPrev , ImagePyramid<T> pyramidCurr ) {
+
+		InputSanityCheck.checkSameShape(pyramidPrev, pyramidCurr);
+
+		int numLayers = pyramidPrev.getNumLayers();
+
+		for( int i = numLayers-1; i >= 0; i-- ) {
+
+			T prev = pyramidPrev.getLayer(i);
+			T curr = pyramidCurr.getLayer(i);
+
+			flowCurrLayer.reshape(prev.width, prev.height);
+			flowCenter.reshape(prev.width, prev.height);
+
+			int N = prev.width*prev.height;
+			if( scores.length < N )
+				scores = new float[N];
+			if( scoresCenter.length < N )
+				scoresCenter = new float[N];
+			// mark all the scores as being very large so that if it has not been processed its score
+			// will be set inside of checkNeighbors.
+			Arrays.fill(scores,0,N,Float.MAX_VALUE);
+
+			int x1 = prev.width-regionRadius;
+			int y1 = prev.height-regionRadius;
+
+			if( y1 <= regionRadius ) {
+				swapFlowLayers();
+				continue;
+			}
+
+			// the top most layer in the pyramid has no hint
+			final boolean hint = i != numLayers-1;
+			final double scale = hint ? pyramidPrev.getScale(i+1)/pyramidPrev.getScale(i) : 1.0;
+
+			BoofConcurrency.loopBlocks(regionRadius,y1,workers,(alg,row0,row1)->{
+				for( int y = row0; y < row1; y++ ) {
+					int index = y*prev.width + regionRadius;
+					for( int x = regionRadius; x < x1; x++, index++ ) {
+						ImageFlow.D found = flowCenter.data[index];
+
+						if( !hint ) {
+							alg.extractTemplate(x,y,prev);
+							scoresCenter[index] = alg.findFlow(x,y,curr,found);
+							continue;
+						}
+
+						// grab the flow in higher level pyramid
+						ImageFlow.D p = flowPrevLayer.get((int)(x/scale),(int)(y/scale));
+						if( !p.isValid() ) {
+							scoresCenter[index] = SKIPPED;
+							continue;
+						}
+
+						alg.extractTemplate(x,y,prev);
+
+						// add the flow from the higher layer (adjusting for scale and rounding) as the start of
+						// this search
+						int deltaX = (int)(p.x*scale+0.5);
+						int deltaY = (int)(p.y*scale+0.5);
+
+						scoresCenter[index] = alg.findFlow(x+deltaX,y+deltaY,curr,found);
+
+						// find flow only does it relative to the starting point
+						found.x += deltaX;
+						found.y += deltaY;
+					}
+				}
+			});
+
+			// Assign flow to the pixels in each region. The order matters when scores are identical
+			for( int y = regionRadius; y < y1; y++ ) {
+				int index = y*prev.width + regionRadius;
+				for( int x = regionRadius; x < x1; x++, index++ ) {
+					float score = scoresCenter[index];
+					if( score == SKIPPED )
+						continue;
+
+					ImageFlow.D found = flowCenter.data[index];
+					if( found.isValid() )
+						checkNeighbors(x,y,found,flowCurrLayer,score);
+					else
+						flowCurrLayer.unsafe_get(x,y).markInvalid();
+				}
+			}
+
+			swapFlowLayers();
+		}
+	}
+
+	private void swapFlowLayers() {
+		ImageFlow tmp = flowPrevLayer;
+		flowPrevLayer = flowCurrLayer;
+		flowCurrLayer = tmp;
+	}
+
+	@Override
+	protected void extractTemplate( int cx , int cy , T prev ) {
+		local.extractTemplate(cx, cy, prev);
+	}
+
+	@Override
+	protected float computeError( int cx , int cy , T curr ) {
+		return local.computeError(cx, cy, curr);
+	}
+}
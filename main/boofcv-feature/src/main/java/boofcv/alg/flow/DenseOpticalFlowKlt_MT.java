@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.alg.tracker.klt.KltTrackFault;
+import boofcv.alg.tracker.klt.PyramidKltFeature;
+import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.ImagePyramid;
+import org.ddogleg.struct.Factory;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link DenseOpticalFlowKlt}. Each pixel is tracked independently, which is done
+ * concurrently on blocks of rows with each thread having its own tracker. After all the pixels have been
+ * tracked the flow is assigned to neighboring pixels in the same order as the single threaded version, producing
+ * identical results.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DenseOpticalFlowKlt_MT<I extends ImageGray<I>, D extends ImageGray<D>>
+		extends DenseOpticalFlowKlt<I,D>
+{
+	// Each thread has its own tracker
+	private final FastQueue<Worker> workers;
+
+	// Results from tracking the template centered at each pixel. NaN error if tracking failed
+	protected float[] trackError = new float[0];
+	protected float[] trackFlowX = new float[0];
+	protected float[] trackFlowY = new float[0];
+
+	/**
+	 * @param factory Creates new instances of the tracker. All must have the same configuration.
+	 * @param radius Radius of the square region
+	 */
+	public DenseOpticalFlowKlt_MT( Factory<PyramidKltTracker<I,D>> factory , int radius ) {
+		super(factory.newInstance(), radius);
+		workers = new FastQueue<>(()->new Worker(factory.newInstance()));
+	}
+
+	@Override
+	public void process( ImagePyramid<I> prev, D[] prevDerivX, D[] prevDerivY,
+						 ImagePyramid<I> curr , ImageFlow output ) {
+
+		this.width = output.width;
+		this.height = output.height;
+
+		// initialize and set the score for each pixel to be very high
+		int N = width*height;
+		if( scores.length < N)
+			scores = new float[N];
+		Arrays.fill(scores,0,N,Float.MAX_VALUE);
+
+		if( trackError.length < N ) {
+			trackError = new float[N];
+			trackFlowX = new float[N];
+			trackFlowY = new float[N];
+		}
+
+		for (int i = 0; i < N; i++) {
+			output.data[i].markInvalid();
+		}
+
+		final int numLayers = prev.getNumLayers();
+
+		BoofConcurrency.loopBlocks(0,height,workers,(worker,y0,y1)->{
+			if( worker.feature == null )
+				worker.feature = new PyramidKltFeature(numLayers,regionRadius);
+			PyramidKltTracker<I,D> tracker = worker.tracker;
+			PyramidKltFeature feature = worker.feature;
+
+			for( int y = y0; y < y1; y++ ) {
+				int index = y*width;
+				for( int x = 0; x < width; x++, index++ ) {
+					trackError[index] = Float.NaN;
+
+					tracker.setImage(prev,prevDerivX,prevDerivY);
+					feature.setPosition(x,y);
+
+					if( !tracker.setDescription(feature) )
+						continue;
+
+					// derivX and derivY are not used, but can't be null for setImage()
+					tracker.setImage(curr);
+					if( tracker.track(feature) == KltTrackFault.SUCCESS ) {
+						trackError[index] = tracker.getError();
+						trackFlowX[index] = feature.x-x;
+						trackFlowY[index] = feature.y-y;
+					}
+				}
+			}
+		});
+
+		// Assign the flow to neighbors. The order matters when scores are identical
+		for( int y = 0; y < height; y++ ) {
+			int index = y*width;
+			for( int x = 0; x < width; x++, index++ ) {
+				float score = trackError[index];
+				if( Float.isNaN(score) )
+					continue;
+
+				float flowX = trackFlowX[index];
+				float flowY = trackFlowY[index];
+
+				// bias the result to prefer the central template
+				scores[index] = score*MAGIC_ADJUSTMENT;
+				output.data[index].set(flowX,flowY);
+				// see if this flow should be assigned to any of its neighbors
+				checkNeighbors(x, y, score, flowX, flowY, output);
+			}
+		}
+	}
+
+	private class Worker {
+		PyramidKltTracker<I,D> tracker;
+		PyramidKltFeature feature;
+
+		public Worker( PyramidKltTracker<I,D> tracker ) {
+			this.tracker = tracker;
+		}
+	}
+}
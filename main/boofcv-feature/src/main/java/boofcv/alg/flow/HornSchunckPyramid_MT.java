@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.flow.ConfigHornSchunckPyramid;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link HornSchunckPyramid}. The SOR update at a pixel depends on its 8-connect
+ * neighbors, so the rows are updated using a red-black ordering by row. All the even rows are updated
+ * concurrently and then all the odd rows. Inside a row pixels are updated in order, just like the single threaded
+ * version. Since the order pixels are updated in has changed the results will be slightly different from the
+ * single threaded version, but it converges to the same solution. Image warping and interpolation is also
+ * done concurrently.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HornSchunckPyramid_MT<T extends ImageGray<T>> extends HornSchunckPyramid<T> {
+
+	// interpolation used by each thread
+	private final FastQueue<InterpolatePixelS<GrayF32>> interpolators;
+
+	// Change in flow along each row in the most recent SOR iteration
+	private final GrowQueue_F64 rowErrors = new GrowQueue_F64();
+
+	public HornSchunckPyramid_MT( ConfigHornSchunckPyramid config , InterpolatePixelS<GrayF32> interp ) {
+		super(config, interp);
+		interpolators = new FastQueue<>(interp::copy);
+	}
+
+	@Override
+	protected float iterationSor( GrayF32 image1 ) {
+		rowErrors.resize(image1.height);
+		for (int parity = 0; parity < 2; parity++) {
+			final int offset = parity;
+			int numRows = (image1.height - parity + 1)/2;
+			BoofConcurrency.loopFor(0,numRows,i->{
+				int y = 2*i+offset;
+				rowErrors.data[y] = iterationSorRow(image1,y);
+			});
+		}
+
+		// Sum in a fixed order so that the convergence test doesn't depend on how rows were assigned to threads
+		double error = 0;
+		for (int y = 0; y < image1.height; y++) {
+			error += rowErrors.data[y];
+		}
+		return (float)error;
+	}
+
+	/**
+	 * Performs an SOR iteration along a single row
+	 *
+	 * @return sum of the change in flow squared along the row
+	 */
+	private double iterationSorRow( GrayF32 image1 , int y ) {
+		double error = 0;
+		int pixelIndex = y*image1.width;
+		if( y == 0 || y == image1.height-1 ) {
+			for (int x = 0; x < image1.width; x++ ) {
+				error += iterationSorSafe(image1,x,y,pixelIndex++);
+			}
+		} else {
+			error += iterationSorSafe(image1,0,y,pixelIndex++);
+			for (int x = 1; x < image1.width-1; x++, pixelIndex++ ) {
+				error += iterationSorInner(image1,x,y,pixelIndex);
+			}
+			if( image1.width > 1 )
+				error += iterationSorSafe(image1,image1.width-1,y,pixelIndex);
+		}
+		return error;
+	}
+
+	@Override
+	protected void interpolateFlowScale(GrayF32 prev, GrayF32 curr) {
+		float scaleX = (float)(prev.width-1)/(float)(curr.width-1)*0.999f;
+		float scaleY = (float)(prev.height-1)/(float)(curr.height-1)*0.999f;
+
+		float scale = (float)prev.width/(float)curr.width;
+
+		BoofConcurrency.loopBlocks(0,curr.height,interpolators,(interp,y0,y1)->{
+			interp.setImage(prev);
+			for( int y = y0; y < y1; y++ ) {
+				int indexCurr = y*curr.width;
+				for( int x = 0; x < curr.width; x++ ) {
+					curr.data[indexCurr++] = interp.get(x*scaleX,y*scaleY)/scale;
+				}
+			}
+		});
+	}
+
+	@Override
+	protected void warpImageTaylor(GrayF32 before, GrayF32 flowX , GrayF32 flowY , GrayF32 after) {
+		BoofConcurrency.loopBlocks(0,before.height,interpolators,(interp,y0,y1)->{
+			interp.setImage(before);
+			for( int y = y0; y < y1; y++ ) {
+				int pixelIndex = y*before.width;
+				for (int x = 0; x < before.width; x++, pixelIndex++ ) {
+					float u = flowX.data[pixelIndex];
+					float v = flowY.data[pixelIndex];
+
+					float wx = x + u;
+					float wy = y + v;
+
+					if( wx < 0 || wx > before.width-1 || wy < 0 || wy > before.height-1 ) {
+						// setting outside pixels to zero seems to produce smoother results than extending the image
+						after.data[pixelIndex] = 0;
+					} else {
+						after.data[pixelIndex] = interp.get(wx, wy);
+					}
+				}
+			}
+		});
+	}
+}
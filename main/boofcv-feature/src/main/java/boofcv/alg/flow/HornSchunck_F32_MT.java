@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayF32;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link HornSchunck_F32}. Each iteration is a Jacobi update, the flow is computed
+ * from the average flow in the previous iteration, so the image can be split into blocks of rows which are
+ * updated independently. The output is identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HornSchunck_F32_MT extends HornSchunck_F32 {
+
+	public HornSchunck_F32_MT(float alpha, int numIterations) {
+		super(alpha, numIterations);
+	}
+
+	@Override
+	protected void findFlow(GrayF32 derivX , GrayF32 derivY ,
+							GrayF32 derivT , ImageFlow output) {
+
+		for( int iter = 0; iter < numIterations; iter++ ) {
+
+			borderAverageFlow(output,averageFlow);
+			innerAverageFlow_MT(output,averageFlow);
+
+			BoofConcurrency.loopBlocks(0,output.height,(y0,y1)->{
+				int end = y1*output.width;
+				for( int i = y0*output.width; i < end; i++ ) {
+					float dx = derivX.data[i];
+					float dy = derivY.data[i];
+					float dt = derivT.data[i];
+
+					ImageFlow.D aveFlow = averageFlow.data[i];
+
+					float u = aveFlow.x;
+					float v = aveFlow.y;
+
+					ImageFlow.D flow = output.data[i];
+					float r = (dx*u + dy*v + dt)/(alpha2 + dx*dx + dy*dy);
+					flow.x = u - dx*r;
+					flow.y = v - dy*r;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Concurrent version of {@link #innerAverageFlow(ImageFlow, ImageFlow)}
+	 */
+	protected static void innerAverageFlow_MT( ImageFlow flow , ImageFlow averageFlow ) {
+
+		int endX = flow.width-1;
+		int endY = flow.height-1;
+
+		BoofConcurrency.loopFor(1,endY,y->{
+			int index = flow.width*y + 1;
+			for( int x = 1; x < endX; x++ , index++) {
+				ImageFlow.D average = averageFlow.data[index];
+
+				ImageFlow.D f0 = flow.data[index-1];
+				ImageFlow.D f1 = flow.data[index+1];
+				ImageFlow.D f2 = flow.data[index-flow.width];
+				ImageFlow.D f3 = flow.data[index+flow.width];
+
+				ImageFlow.D f4 = flow.data[index-1-flow.width];
+				ImageFlow.D f5 = flow.data[index+1-flow.width];
+				ImageFlow.D f6 = flow.data[index-1+flow.width];
+				ImageFlow.D f7 = flow.data[index+1+flow.width];
+
+				average.x = 0.1666667f*(f0.x + f1.x + f2.x + f3.x) + 0.08333333f*(f4.x + f5.x + f6.x + f7.x);
+				average.y = 0.1666667f*(f0.y + f1.y + f2.y + f3.y) + 0.08333333f*(f4.y + f5.y + f6.y + f7.y);
+			}
+		});
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.fh04;
+
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.GrowQueue_F32;
+
+/**
+ * <p>
+ * Computes edge weights for {@link SegmentFelzenszwalbHuttenlocher04_MT} and saves them into a primitive array
+ * instead of a list of {@link SegmentFelzenszwalbHuttenlocher04.Edge}.  Each pixel has a fixed number of edges
+ * which connect it to neighbors that come after it in the image, 2 for a 4-connect rule and 4 for an
+ * 8-connect rule.  The weight for edge 'i' of the pixel at index 'p = y*width + x' is stored at
+ * weights[p*edgesPerPixel + i].  Edges are ordered (x+1,y), (x,y+1), (x+1,y+1), (x-1,y+1).  If the neighbor
+ * is outside the image then the weight is set to -1.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public interface FhEdgeWeightsArray<T extends ImageBase<T>> {
+
+	/**
+	 * Computes the weight of every edge in the image
+	 *
+	 * @param input Input image. Not modified.
+	 * @param weights (Output) Weight of each edge. Resized to width*height*edgesPerPixel.
+	 */
+	void process( T input , GrowQueue_F32 weights );
+
+	/**
+	 * Connectivity rule used to determine which pixels are connected
+	 */
+	ConnectRule getRule();
+
+	ImageType<T> getInputType();
+}
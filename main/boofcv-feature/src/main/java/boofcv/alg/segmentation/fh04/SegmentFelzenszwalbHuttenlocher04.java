@@ -108,8 +108,8 @@ public class SegmentFelzenszwalbHuttenlocher04<T extends ImageBase<T>> {
 	protected GrowQueue_F32 threshold = new GrowQueue_F32();
 
 	// List of region ID's and their size
-	private GrowQueue_I32 outputRegionId = new GrowQueue_I32();
-	private GrowQueue_I32 outputRegionSizes = new GrowQueue_I32();
+	protected GrowQueue_I32 outputRegionId = new GrowQueue_I32();
+	protected GrowQueue_I32 outputRegionSizes = new GrowQueue_I32();
 
 	/**
 	 * Specifies tuning parameter
@@ -207,31 +207,7 @@ public class SegmentFelzenszwalbHuttenlocher04<T extends ImageBase<T>> {
 			// compare the two nodes connected by the edge to see if their regions they should be merged
 			Edge e = edges.get(i);
 
-			int rootA = find(e.indexA);
-			int rootB = find(e.indexB);
-
-			// see if they are already part of the same segment
-			if( rootA == rootB )
-				continue;
-
-			float threshA = threshold.get(rootA);
-			float threshB = threshold.get(rootB);
-
-			if( e.weight() <= threshA && e.weight() <= threshB )  {
-				// ----- Merge the two regions/components
-				int sizeA = regionSize.get(rootA);
-				int sizeB = regionSize.get(rootB);
-
-				// Everything is merged into region A, so update its threshold
-				threshold.data[rootA] = e.weight() + K/(sizeA + sizeB);
-
-				// Point everything towards rootA
-				graph.data[e.indexB] = rootA;
-				graph.data[rootB] = rootA;
-
-				// Update the size of regionA
-				regionSize.data[rootA] = sizeA + sizeB;
-			} else {
+			if( !mergeRegions(e.indexA,e.indexB,e.weight()) ) {
 				edgesNotMatched.add(e);
 			}
 		}
@@ -247,25 +223,68 @@ public class SegmentFelzenszwalbHuttenlocher04<T extends ImageBase<T>> {
 		for( int i = 0; i < edgesNotMatched.size(); i++ ) {
 			Edge e = edgesNotMatched.get(i);
 
-			int rootA = find(e.indexA);
-			int rootB = find(e.indexB);
+			mergeSmallRegions(e.indexA,e.indexB);
+		}
+	}
+
+	/**
+	 * Examines the edge connecting the two pixels and merges their regions if the edge's weight is &le; the
+	 * threshold of both regions.
+	 *
+	 * @return false if the pixels are in different regions which were not merged
+	 */
+	protected boolean mergeRegions( int indexA , int indexB , float weight ) {
+		int rootA = find(indexA);
+		int rootB = find(indexB);
+
+		// see if they are already part of the same segment
+		if( rootA == rootB )
+			return true;
 
-			// see if they are already part of the same segment
-			if( rootA == rootB )
-				continue;
+		float threshA = threshold.get(rootA);
+		float threshB = threshold.get(rootB);
 
+		if( weight <= threshA && weight <= threshB )  {
+			// ----- Merge the two regions/components
 			int sizeA = regionSize.get(rootA);
 			int sizeB = regionSize.get(rootB);
 
-			// merge if one of the regions is too small
-			if( sizeA < minimumSize || sizeB < minimumSize ) {
-				// Point everything towards rootA
-				graph.data[e.indexB] = rootA;
-				graph.data[rootB] = rootA;
+			// Everything is merged into region A, so update its threshold
+			threshold.data[rootA] = weight + K/(sizeA + sizeB);
 
-				// Update the size of regionA
-				regionSize.data[rootA] = sizeA + sizeB;
-			}
+			// Point everything towards rootA
+			graph.data[indexB] = rootA;
+			graph.data[rootB] = rootA;
+
+			// Update the size of regionA
+			regionSize.data[rootA] = sizeA + sizeB;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Merges the regions of the two pixels if either region is smaller than the minimum size
+	 */
+	protected void mergeSmallRegions( int indexA , int indexB ) {
+		int rootA = find(indexA);
+		int rootB = find(indexB);
+
+		// see if they are already part of the same segment
+		if( rootA == rootB )
+			return;
+
+		int sizeA = regionSize.get(rootA);
+		int sizeB = regionSize.get(rootB);
+
+		// merge if one of the regions is too small
+		if( sizeA < minimumSize || sizeB < minimumSize ) {
+			// Point everything towards rootA
+			graph.data[indexB] = rootA;
+			graph.data[rootB] = rootA;
+
+			// Update the size of regionA
+			regionSize.data[rootA] = sizeA + sizeB;
 		}
 	}
 
@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.fh04;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link SegmentFelzenszwalbHuttenlocher04}.  Edge weights are computed in parallel
+ * and stored in primitive arrays, see {@link FhEdgeWeightsArray}, instead of as a list of objects.  This
+ * significantly reduces the amount of memory required for large images.  Edges are sorted using a parallel
+ * counting sort.  If {@link #configureApproximateSort(int)} has been called then the weights are quantized
+ * into bins and sorted in a single pass, otherwise an exact radix sort is performed on the weight's bits.
+ * Edges with the same weight are ordered by their index, so the output does not depend on the number of threads.
+ * Merging regions is inherently sequential and is done in a single thread.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SegmentFelzenszwalbHuttenlocher04_MT<T extends ImageBase<T>>
+		extends SegmentFelzenszwalbHuttenlocher04<T>
+{
+	// Number of bits in each digit of the radix sort. Three passes cover the 31-bits used by positive floats
+	private static final int RADIX_BITS = 11;
+	private static final int RADIX_BINS = 1 << RADIX_BITS;
+
+	// Blocks of edges are not made smaller than this when sorting
+	private static final int MIN_BLOCK_SIZE = 10_000;
+
+	// Function that computes the weight for each edge
+	protected FhEdgeWeightsArray<T> computeWeights;
+
+	// Number of bins the weights are quantized into. If &le; 0 then an exact sort is used
+	private int numBins = 0;
+	// Converts a weight into a bin when quantized
+	private float binScale;
+	// Which digit in the radix sort is being sorted
+	private int radixShift;
+
+	// Weight of each edge.  See FhEdgeWeightsArray for how edges are indexed
+	protected GrowQueue_F32 weights = new GrowQueue_F32();
+	// Edges sorted by weight
+	protected GrowQueue_I32 sortedEdges = new GrowQueue_I32();
+	// Work space for the radix sort
+	protected GrowQueue_I32 workEdges = new GrowQueue_I32();
+	// list of edges which were not matched to anything.  used to merge small regions
+	protected GrowQueue_I32 edgesNotMatchedIdx = new GrowQueue_I32();
+
+	// Number of edges for each pixel and the number of bits needed to encode the edge's number
+	private int edgesPerPixel, edgeBits;
+	// Offset from pixel A to pixel B for each of the pixel's edges
+	private final int[] offsets = new int[4];
+
+	// Storage for each block of edges when sorting
+	private final FastQueue<SortBlock> blocks = new FastQueue<>(SortBlock::new);
+
+	/**
+	 * Specifies tuning parameter
+	 *
+	 * @param k Tuning parameter.  Larger regions are preferred for larger values of K.  Try 300
+	 * @param minimumSize Regions smaller than this are merged into larger regions
+	 * @param computeWeights Function used to compute the weight for all the edges.
+	 */
+	public SegmentFelzenszwalbHuttenlocher04_MT(float k, int minimumSize, FhEdgeWeightsArray<T> computeWeights) {
+		super(k, minimumSize, null);
+		this.computeWeights = computeWeights;
+	}
+
+	/**
+	 * If this function is called the weights will be quantized into the specified number of bins and sorted
+	 * in a single pass.
+	 *
+	 * @param numBins Number of bins.  Try 2000.  More bins the more accurate it will be
+	 */
+	@Override
+	public void configureApproximateSort( int numBins ) {
+		this.numBins = numBins;
+	}
+
+	@Override
+	public void process( T input , GrayS32 output ) {
+		if( output.isSubimage() )
+			throw new IllegalArgumentException("Output can't be a sub-image");
+		InputSanityCheck.checkSameShape(input, output);
+
+		initialize(input,output);
+		edgesNotMatchedIdx.reset();
+
+		edgesPerPixel = computeWeights.getRule() == ConnectRule.FOUR ? 2 : 4;
+		edgeBits = edgesPerPixel == 2 ? 1 : 2;
+		offsets[0] = 1;
+		offsets[1] = input.width;
+		offsets[2] = input.width+1;
+		offsets[3] = input.width-1;
+
+		// compute edges weights
+		computeWeights.process(input, weights);
+
+		// Merge regions together
+		mergeRegions();
+
+		// Get rid of small ones
+		mergeSmallRegions();
+
+		// compute the final output
+		computeOutput();
+	}
+
+	/**
+	 * Sorts the edges then follows the merge procedure output in [1].
+	 */
+	@Override
+	protected void mergeRegions() {
+		sortEdges();
+
+		final float[] weights = this.weights.data;
+		final int[] sorted = sortedEdges.data;
+
+		// examine each edge to see if it can connect two regions
+		for( int i = 0; i < sortedEdges.size; i++ ) {
+			int edge = sorted[i];
+			int indexA = edge >> edgeBits;
+			int indexB = indexA + offsets[edge & (edgesPerPixel-1)];
+
+			if( !mergeRegions(indexA,indexB,weights[edge]) ) {
+				edgesNotMatchedIdx.add(edge);
+			}
+		}
+	}
+
+	@Override
+	protected void mergeSmallRegions() {
+		for( int i = 0; i < edgesNotMatchedIdx.size; i++ ) {
+			int edge = edgesNotMatchedIdx.data[i];
+			int indexA = edge >> edgeBits;
+			int indexB = indexA + offsets[edge & (edgesPerPixel-1)];
+
+			mergeSmallRegions(indexA,indexB);
+		}
+	}
+
+	/**
+	 * Sorts all the edges inside the image by weight and saves the results in {@link #sortedEdges}
+	 */
+	protected void sortEdges() {
+		if( numBins > 0 ) {
+			// Quantize the weights using the largest weight then sort in a single pass
+			float maxWeight = findMaxWeight();
+			binScale = maxWeight > 0 ? (numBins-1)/maxWeight : 0;
+			countingSort(null, weights.size, sortedEdges, numBins);
+		} else {
+			// All weights are positive so the order of their bits is the same as the order of their values
+			radixShift = 0;
+			countingSort(null, weights.size, sortedEdges, RADIX_BINS);
+			for( radixShift = RADIX_BITS; radixShift < 31; radixShift += RADIX_BITS ) {
+				countingSort(sortedEdges.data, sortedEdges.size, workEdges, RADIX_BINS);
+				GrowQueue_I32 tmp = sortedEdges;
+				sortedEdges = workEdges;
+				workEdges = tmp;
+			}
+		}
+	}
+
+	/**
+	 * Stable counting sort of the edges by their bin.  Each block of edges is counted and then copied in parallel.
+	 *
+	 * @param src Edges which are to be sorted.  If null then all edges inside the image are sorted in order
+	 * @param length Number of elements in src or the total number of edges if src is null
+	 * @param dst (Output) sorted edges
+	 * @param totalBins Number of bins
+	 */
+	private void countingSort( @Nullable int[] src , int length , GrowQueue_I32 dst , int totalBins ) {
+		declareBlocks(length);
+		final float[] weights = this.weights.data;
+
+		// Count the number of edges in each bin for each block
+		BoofConcurrency.loopFor(0,blocks.size,blockIdx->{
+			SortBlock b = blocks.data[blockIdx];
+			b.counts.resize(totalBins);
+			b.counts.fill(0);
+			final int[] counts = b.counts.data;
+			for( int i = b.idx0; i < b.idx1; i++ ) {
+				float w = weights[src == null ? i : src[i]];
+				// skip edges which go outside the image
+				if( w < 0 )
+					continue;
+				counts[bin(w)]++;
+			}
+		});
+
+		// Convert the counts into the location the next edge in each bin of each block is written to
+		int total = 0;
+		for( int bin = 0; bin < totalBins; bin++ ) {
+			for( int blockIdx = 0; blockIdx < blocks.size; blockIdx++ ) {
+				int[] counts = blocks.data[blockIdx].counts.data;
+				int count = counts[bin];
+				counts[bin] = total;
+				total += count;
+			}
+		}
+		dst.resize(total);
+		final int[] sorted = dst.data;
+
+		// Copy the edges into their sorted location
+		BoofConcurrency.loopFor(0,blocks.size,blockIdx->{
+			SortBlock b = blocks.data[blockIdx];
+			final int[] locations = b.counts.data;
+			for( int i = b.idx0; i < b.idx1; i++ ) {
+				int edge = src == null ? i : src[i];
+				float w = weights[edge];
+				if( w < 0 )
+					continue;
+				sorted[locations[bin(w)]++] = edge;
+			}
+		});
+	}
+
+	/**
+	 * Finds the largest weight of all the edges
+	 */
+	private float findMaxWeight() {
+		declareBlocks(weights.size);
+		final float[] weights = this.weights.data;
+
+		BoofConcurrency.loopFor(0,blocks.size,blockIdx->{
+			SortBlock b = blocks.data[blockIdx];
+			float max = 0;
+			for( int i = b.idx0; i < b.idx1; i++ ) {
+				max = Math.max(max,weights[i]);
+			}
+			b.max = max;
+		});
+
+		float max = 0;
+		for( int blockIdx = 0; blockIdx < blocks.size; blockIdx++ ) {
+			max = Math.max(max,blocks.data[blockIdx].max);
+		}
+		return max;
+	}
+
+	/**
+	 * Splits the elements up into blocks of similar size which will be processed in parallel
+	 */
+	private void declareBlocks( int length ) {
+		int numBlocks = Math.max(1,Math.min(BoofConcurrency.getMaxThreads(),length/MIN_BLOCK_SIZE));
+		blocks.resize(numBlocks);
+		for( int blockIdx = 0; blockIdx < numBlocks; blockIdx++ ) {
+			SortBlock b = blocks.data[blockIdx];
+			b.idx0 = (int)((long)length*blockIdx/numBlocks);
+			b.idx1 = (int)((long)length*(blockIdx+1)/numBlocks);
+		}
+	}
+
+	/**
+	 * Returns the bin the weight belongs to
+	 */
+	private int bin( float weight ) {
+		if( numBins > 0 )
+			return Math.min(numBins-1,(int)(weight*binScale));
+		else
+			return (Float.floatToRawIntBits(weight) >>> radixShift) & (RADIX_BINS-1);
+	}
+
+	/**
+	 * Searches for root nodes in the graph and adds their size to the list of region sizes.  Makes sure all
+	 * other nodes in the graph point directly at their root.
+	 */
+	@Override
+	protected void computeOutput() {
+		// Point each pixel at its root. Other threads can modify a pixel's parent while it's being traversed,
+		// but they only change it to another node on the path to the same root
+		BoofConcurrency.loopFor(0,graph.height,y->{
+			int indexGraph = y*graph.width;
+			for( int x = 0; x < graph.width; x++ , indexGraph++) {
+				int child = indexGraph;
+				int parent = graph.data[child];
+				while( parent != child ) {
+					child = parent;
+					parent = graph.data[child];
+				}
+				graph.data[indexGraph] = parent;
+			}
+		});
+
+		outputRegionId.reset();
+		outputRegionSizes.reset();
+		final int N = graph.width*graph.height;
+		for( int indexGraph = 0; indexGraph < N; indexGraph++ ) {
+			if( graph.data[indexGraph] == indexGraph ) {
+				outputRegionId.add(indexGraph);
+				outputRegionSizes.add(regionSize.get(indexGraph));
+			}
+		}
+	}
+
+	@Override
+	public ImageType<T> getInputType() {
+		return computeWeights.getInputType();
+	}
+
+	/**
+	 * A block of edges that's being sorted
+	 */
+	private static class SortBlock {
+		// range of elements in the block
+		int idx0, idx1;
+		// number of edges in each bin. Then the location the next edge in each bin is written to
+		GrowQueue_I32 counts = new GrowQueue_I32();
+		// largest weight in the block
+		float max;
+	}
+}
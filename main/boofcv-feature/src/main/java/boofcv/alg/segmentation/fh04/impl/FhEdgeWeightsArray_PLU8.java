@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.fh04.impl;
+
+import boofcv.alg.segmentation.fh04.FhEdgeWeightsArray;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.Planar;
+import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.GrowQueue_F32;
+
+/**
+ * <p>Computes edge weight as the F-norm different in pixel value for {@link Planar} images and saves them into a primitive array.
+ * Rows are processed concurrently.</p>
+ *
+ * @author Peter Abeles
+ */
+public class FhEdgeWeightsArray_PLU8 implements FhEdgeWeightsArray<Planar<GrayU8>> {
+
+	ConnectRule rule;
+
+	public FhEdgeWeightsArray_PLU8( ConnectRule rule ) {
+		if( rule != ConnectRule.FOUR && rule != ConnectRule.EIGHT )
+			throw new IllegalArgumentException("Unknown connect rule "+rule);
+		this.rule = rule;
+	}
+
+	@Override
+	public void process( Planar<GrayU8> input , GrowQueue_F32 weights ) {
+		final int edgesPerPixel = rule == ConnectRule.FOUR ? 2 : 4;
+		final int width = input.width;
+		final int height = input.height;
+
+		weights.resize(width*height*edgesPerPixel);
+		final float[] w = weights.data;
+
+		BoofConcurrency.loopFor(0,height,y->{
+			int indexSrc = input.startIndex + y*input.stride;
+			int indexW = y*width*edgesPerPixel;
+			boolean lastRow = y == height-1;
+
+			for( int x = 0; x < width; x++ , indexSrc++ , indexW += edgesPerPixel ) {
+				boolean lastColumn = x == width-1;
+
+				// (x+1,y)
+				w[indexW]   = lastColumn ? -1 : weight(input,indexSrc,indexSrc+1);
+				// (x,y+1)
+				w[indexW+1] = lastRow ? -1 : weight(input,indexSrc,indexSrc+input.stride);
+
+				if( edgesPerPixel == 4 ) {
+					// (x+1,y+1)
+					w[indexW+2] = lastRow || lastColumn ? -1 : weight(input,indexSrc,indexSrc+1+input.stride);
+					// (x-1,y+1)
+					w[indexW+3] = lastRow || x == 0 ? -1 : weight(input,indexSrc,indexSrc-1+input.stride);
+				}
+			}
+		});
+	}
+
+	private static float weight( Planar<GrayU8> input , int indexA , int indexB ) {
+		int total = 0;
+		for( int i = 0; i < input.getNumBands(); i++ ) {
+			byte[] data = input.getBand(i).data;
+			int diff = (data[indexA] & 0xFF) - (data[indexB] & 0xFF);
+			total += diff*diff;
+		}
+		return (float)Math.sqrt(total);
+	}
+
+	@Override
+	public ConnectRule getRule() {
+		return rule;
+	}
+
+	@Override
+	public ImageType<Planar<GrayU8>> getInputType() {
+		return ImageType.pl(3,GrayU8.class);
+	}
+}
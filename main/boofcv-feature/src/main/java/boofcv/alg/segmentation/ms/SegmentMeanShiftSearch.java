@@ -200,6 +200,26 @@ public abstract class SegmentMeanShiftSearch<T extends ImageBase<T>>
 		return sample0*(1f-w) + sample1*w;
 	}
 
+	/**
+	 * Checks to see if the pixel closest to the point has already been assigned a mode. If it has then
+	 * the mode's location is saved in {@link #modeX} and {@link #modeY}.
+	 *
+	 * @return true if the pixel has already been assigned a mode
+	 */
+	protected boolean checkForKnownMode( float x , float y ) {
+		int px = (int)(x+0.5f);
+		int py = (int)(y+0.5f);
+
+		int modeIndex = pixelToMode.data[pixelToMode.getIndex(px,py)];
+		if( modeIndex == -1 )
+			return false;
+
+		Point2D_I32 modeP = modeLocation.get(modeIndex);
+		this.modeX = modeP.x;
+		this.modeY = modeP.y;
+		return true;
+	}
+
 	/**
 	 * From peak index to pixel index
 	 */
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.ms;
+
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.ImageMultiBand;
+import boofcv.struct.image.ImageType;
+import georegression.struct.point.Point2D_F32;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link SegmentMeanShiftSearchColor}. The image is split into blocks of rows and
+ * mean-shift is run on the pixels in each block in parallel. Each mode is then assigned an index and a color in
+ * a single pass through the image, using the same order as the single threaded implementation.
+ * </p>
+ *
+ * <p>
+ * If 'fast' is false the output is identical to the single threaded implementation. If 'fast' is true then
+ * a trajectory is only saved and reused inside the block of rows it started in, which can change the
+ * approximation slightly.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SegmentMeanShiftSearchColor_MT<T extends ImageMultiBand<T>> extends SegmentMeanShiftSearchColor<T> {
+
+	// index of the pixel that each pixel's mean-shift converged to. -1 if not assigned yet
+	protected GrayS32 pixelToModePixel = new GrayS32(1,1);
+
+	// Each thread has its own search so that interpolation and trajectory storage are not shared
+	protected FastQueue<BlockSearch<T>> searches = new FastQueue<>(() -> new BlockSearch<>(this));
+
+	public SegmentMeanShiftSearchColor_MT(int maxIterations, float convergenceTol,
+										  InterpolatePixelMB<T> interpolate,
+										  int radiusX , int radiusY , float maxColorDistance ,
+										  boolean fast,
+										  ImageType<T> imageType) {
+		super(maxIterations, convergenceTol, interpolate, radiusX, radiusY, maxColorDistance, fast, imageType);
+	}
+
+	@Override
+	public void process( T image ) {
+		// initialize data structures
+		this.image = image;
+		this.stopRequested = false;
+
+		modeLocation.reset();
+		modeColor.reset();
+		modeMemberCount.reset();
+
+		interpolate.setImage(image);
+
+		pixelToMode.reshape(image.width, image.height);
+		quickMode.reshape(image.width, image.height);
+		pixelToModePixel.reshape(image.width, image.height);
+		// mark all pixels are not being a mode
+		ImageMiscOps.fill(quickMode,-1);
+		// mark as -1 so it knows which pixels have been assigned a mode already
+		ImageMiscOps.fill(pixelToModePixel,-1);
+
+		// use mean shift to find the peak of each pixel in the image
+		BoofConcurrency.loopBlocks(0,image.height,searches,(search,y0,y1)->search.process(y0,y1));
+		if( stopRequested )
+			return;
+
+		// Assign indexes to the modes in the order they are first encountered
+		int indexImg = 0;
+		for( int y = 0; y < image.height; y++ ) {
+			for( int x = 0; x < image.width; x++ , indexImg++ ) {
+				int modePixelIndex = pixelToModePixel.data[indexImg];
+
+				int modeIndex = quickMode.data[modePixelIndex];
+				if( modeIndex < 0 ) {
+					modeIndex = this.modeLocation.size();
+					this.modeLocation.grow().set(modePixelIndex%image.width, modePixelIndex/image.width);
+					// The first pixel to reach a mode did so without using a trajectory short cut. Run
+					// mean-shift on it again to recover the peak's color
+					interpolate.get(x, y, meanColor);
+					findPeak(x,y, meanColor);
+					savePeakColor(meanColor);
+					quickMode.data[modePixelIndex] = modeIndex;
+					modeMemberCount.add(0);
+				}
+
+				pixelToMode.data[indexImg] = modeIndex;
+				modeMemberCount.data[modeIndex]++;
+			}
+		}
+	}
+
+	/**
+	 * Short cuts are never taken when recovering the peak's color
+	 */
+	@Override
+	protected boolean checkForKnownMode( float x , float y ) {
+		return false;
+	}
+
+	/**
+	 * Runs mean-shift on every pixel in a block of rows. Trajectories are only saved and used inside the block.
+	 */
+	protected static class BlockSearch<T extends ImageMultiBand<T>> extends SegmentMeanShiftSearchColor<T> {
+		SegmentMeanShiftSearchColor_MT<T> owner;
+
+		// the block of rows being processed
+		int row0, row1;
+
+		protected BlockSearch( SegmentMeanShiftSearchColor_MT<T> owner ) {
+			super(owner.maxIterations, owner.convergenceTol, owner.interpolate.copy(),
+					owner.radiusX, owner.radiusY, 0, owner.fast, owner.imageType);
+			this.owner = owner;
+			this.maxColorDistanceSq = owner.maxColorDistanceSq;
+		}
+
+		protected void process( int row0 , int row1 ) {
+			this.row0 = row0;
+			this.row1 = row1;
+			this.image = owner.image;
+			interpolate.setImage(image);
+
+			final GrayS32 pixelToModePixel = owner.pixelToModePixel;
+
+			for( int y = row0; y < row1 && !owner.stopRequested; y++ ) {
+				int indexImg = y*image.width;
+				for( int x = 0; x < image.width; x++ , indexImg++ ) {
+					if( pixelToModePixel.data[indexImg] != -1 )
+						continue;
+
+					interpolate.get(x, y, meanColor);
+					findPeak(x,y, meanColor);
+
+					// convert mean-shift location into pixel index
+					int modeX = (int)(this.modeX +0.5f);
+					int modeY = (int)(this.modeY +0.5f);
+
+					int modePixelIndex = modeY*image.width + modeX;
+
+					// Assign the mode to all pixels inside this block that it traversed through
+					for( int i = 0; i < history.size; i++ ) {
+						Point2D_F32 p = history.get(i);
+						int px = (int)(p.x+0.5f);
+						int py = (int)(p.y+0.5f);
+						if( py < row0 || py >= row1 )
+							continue;
+
+						int index = py*image.width + px;
+						if( pixelToModePixel.data[index] == -1 ) {
+							pixelToModePixel.data[index] = modePixelIndex;
+						}
+					}
+				}
+			}
+		}
+
+		@Override
+		protected boolean checkForKnownMode( float x , float y ) {
+			int py = (int)(y+0.5f);
+			// pixels outside of the block are being modified by other threads
+			if( py < row0 || py >= row1 )
+				return false;
+			int px = (int)(x+0.5f);
+
+			int modePixelIndex = owner.pixelToModePixel.data[py*image.width + px];
+			if( modePixelIndex == -1 )
+				return false;
+
+			this.modeX = modePixelIndex%image.width;
+			this.modeY = modePixelIndex/image.width;
+			return true;
+		}
+	}
+}
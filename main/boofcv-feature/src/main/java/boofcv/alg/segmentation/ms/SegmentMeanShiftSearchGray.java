@@ -24,7 +24,6 @@ import boofcv.struct.feature.ColorQueue_F32;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 import georegression.struct.point.Point2D_F32;
-import georegression.struct.point.Point2D_I32;
 import org.ddogleg.struct.FastQueue;
 
 /**
@@ -211,19 +210,9 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray<T>> extends SegmentM
 			if( fast ) {
 				history.grow().set(peakX,peakY);
 
-				// see if it has already been here before
-				int px = (int)(peakX+0.5f);
-				int py = (int)(peakY+0.5f);
-
-				int index = pixelToMode.getIndex(px,py);
-				int modeIndex = pixelToMode.data[index];
-				if( modeIndex != -1 ) {
-					// it already knows the solution so stop searching
-					Point2D_I32 modeP = modeLocation.get(modeIndex);
-					this.modeX = modeP.x;
-					this.modeY = modeP.y;
+				// see if it has already been here before. If so it already knows the solution so stop searching
+				if( checkForKnownMode(peakX,peakY) )
 					return;
-				}
 			}
 
 			float dx = peakX-cx;
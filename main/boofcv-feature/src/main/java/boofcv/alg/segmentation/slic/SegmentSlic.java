@@ -127,10 +127,17 @@ public abstract class SegmentSlic<T extends ImageBase<T>>
 		this.segment = new ClusterLabeledImage(connectRule);
 		this.regionColor = new ColorQueue_F32(numBands);
 
+		clusters = createClusterQueue();
+	}
+
+	/**
+	 * Creates a queue of clusters where the color of each cluster has the same number of bands as the image
+	 */
+	protected FastQueue<Cluster> createClusterQueue() {
 		// custom declaration for pixel color
-		clusters = new FastQueue<>(Cluster.class, () -> {
+		return new FastQueue<>(Cluster.class, () -> {
 			Cluster c = new Cluster();
-			c.color = new float[ SegmentSlic.this.numBands ];
+			c.color = new float[ numBands ];
 			return c;
 		});
 	}
@@ -267,7 +274,18 @@ public abstract class SegmentSlic<T extends ImageBase<T>>
 	 * Computes how far away each cluster is from each pixel.  Expectation step.
 	 */
 	protected void computeClusterDistance() {
-		for( int i = 0; i < pixels.size; i++ ) {
+		computeClusterDistance(0,input.height);
+	}
+
+	/**
+	 * Computes how far away each cluster is from each pixel inside the block of rows.  Only pixels inside the block
+	 * are modified.
+	 *
+	 * @param row0 First row in the block, inclusive
+	 * @param row1 Last row in the block, exclusive
+	 */
+	protected void computeClusterDistance( int row0 , int row1 ) {
+		for( int i = row0*input.width; i < row1*input.width; i++ ) {
 			pixels.data[i].reset();
 		}
 
@@ -282,9 +300,9 @@ public abstract class SegmentSlic<T extends ImageBase<T>>
 			int y0 = centerY - gridInterval; int y1 = centerY + gridInterval + 1;
 
 			if( x0 < 0 ) x0 = 0;
-			if( y0 < 0 ) y0 = 0;
+			if( y0 < row0 ) y0 = row0;
 			if( x1 > input.width ) x1 = input.width;
-			if( y1 > input.height ) y1 = input.height;
+			if( y1 > row1 ) y1 = row1;
 
 			for( int y = y0; y < y1; y++ ) {
 				int indexPixel = y*input.width + x0;
@@ -311,29 +329,42 @@ public abstract class SegmentSlic<T extends ImageBase<T>>
 			clusters.data[i].reset();
 		}
 
-		int indexPixel = 0;
-		for( int y = 0; y < input.height&& !stopRequested; y++ ) {
+		updateClusters(0,input.height,clusters);
+
+		// recompute the center of each cluster
+		for( int i = 0; i < clusters.size; i++ ) {
+			clusters.data[i].update();
+		}
+	}
+
+	/**
+	 * Adds the weighted location and color of each pixel inside the block of rows to the clusters it's
+	 * interacting with.
+	 *
+	 * @param row0 First row in the block, inclusive
+	 * @param row1 Last row in the block, exclusive
+	 * @param sums Storage for the weighted sum of each cluster.  Indexed using the cluster's ID.
+	 */
+	protected void updateClusters( int row0 , int row1 , FastQueue<Cluster> sums ) {
+		for( int y = row0; y < row1 && !stopRequested; y++ ) {
+			int indexPixel = y*input.width;
 			int indexInput = input.startIndex + y*input.stride;
 			for( int x =0; x < input.width; x++ , indexPixel++ , indexInput++) {
-				Pixel p = pixels.get(indexPixel);
+				Pixel p = pixels.data[indexPixel];
 
 				// convert the distance each cluster is from the pixel into weights
 				p.computeWeights();
 
 				for( int i = 0; i < p.clusters.size; i++ ) {
 					ClusterDistance d = p.clusters.data[i];
-					d.cluster.x += x*d.distance;
-					d.cluster.y += y*d.distance;
-					d.cluster.totalWeight += d.distance;
-					addColor(d.cluster.color,indexInput,d.distance);
+					Cluster c = sums.data[d.cluster.id];
+					c.x += x*d.distance;
+					c.y += y*d.distance;
+					c.totalWeight += d.distance;
+					addColor(c.color,indexInput,d.distance);
 				}
 			}
 		}
-
-		// recompute the center of each cluster
-		for( int i = 0; i < clusters.size; i++ ) {
-			clusters.data[i].update();
-		}
 	}
 
 	/**
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.slic;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link SegmentSlic_PlF32}. The distance and update steps in k-means are computed
+ * on blocks of rows in parallel. Each thread accumulates the cluster sums in its own storage, which are then
+ * added together.
+ * </p>
+ *
+ * <p>
+ * Results can be very slightly different from the single threaded implementation because the cluster sums
+ * are added together in a different order.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SegmentSlic_PlF32_MT extends SegmentSlic_PlF32 {
+
+	// Storage for the weighted cluster sums computed by each thread
+	private final FastQueue<FastQueue<Cluster>> threadSums = new FastQueue<>(this::createClusterQueue);
+
+	public SegmentSlic_PlF32_MT(int numberOfRegions, float m, int totalIterations,
+								ConnectRule connectRule , int numBands) {
+		super(numberOfRegions, m, totalIterations, connectRule, numBands);
+	}
+
+	@Override
+	protected void computeClusterDistance() {
+		BoofConcurrency.loopBlocks(0,input.height,this::computeClusterDistance);
+	}
+
+	@Override
+	protected void updateClusters() {
+		BoofConcurrency.loopBlocks(0,input.height,threadSums,(sums,y0,y1)->{
+			sums.resize(clusters.size);
+			for( int i = 0; i < sums.size; i++ ) {
+				sums.data[i].reset();
+			}
+			updateClusters(y0,y1,sums);
+		});
+
+		// add the sums from each thread together
+		for( int i = 0; i < clusters.size; i++ ) {
+			Cluster c = clusters.data[i];
+			c.reset();
+			for( int threadIdx = 0; threadIdx < threadSums.size; threadIdx++ ) {
+				Cluster s = threadSums.data[threadIdx].data[i];
+				c.x += s.x;
+				c.y += s.y;
+				c.totalWeight += s.totalWeight;
+				for( int j = 0; j < c.color.length; j++ ) {
+					c.color[j] += s.color[j];
+				}
+			}
+			// recompute the center of each cluster
+			c.update();
+		}
+	}
+}
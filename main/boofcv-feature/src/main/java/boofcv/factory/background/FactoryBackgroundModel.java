@@ -21,6 +21,7 @@ package boofcv.factory.background;
 import boofcv.alg.background.BackgroundModelStationary;
 import boofcv.alg.background.moving.*;
 import boofcv.alg.background.stationary.*;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.distort.Point2Transform2Model_F32;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
@@ -49,13 +50,25 @@ public class FactoryBackgroundModel {
 
 		switch( imageType.getFamily() ) {
 			case GRAY:
-				return new BackgroundStationaryBasic_SB(config.learnRate,config.threshold,imageType.getImageClass());
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					return new BackgroundStationaryBasic_SB_MT(config.learnRate,config.threshold,imageType.getImageClass());
+				} else {
+					return new BackgroundStationaryBasic_SB(config.learnRate,config.threshold,imageType.getImageClass());
+				}
 
 			case PLANAR:
-				return new BackgroundStationaryBasic_PL(config.learnRate,config.threshold,imageType);
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					return new BackgroundStationaryBasic_PL_MT(config.learnRate,config.threshold,imageType);
+				} else {
+					return new BackgroundStationaryBasic_PL(config.learnRate,config.threshold,imageType);
+				}
 
 			case INTERLEAVED:
-				return new BackgroundStationaryBasic_IL(config.learnRate,config.threshold,imageType);
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					return new BackgroundStationaryBasic_IL_MT(config.learnRate,config.threshold,imageType);
+				} else {
+					return new BackgroundStationaryBasic_IL(config.learnRate,config.threshold,imageType);
+				}
 		}
 
 		throw new IllegalArgumentException("Unknown image type");
@@ -78,18 +91,33 @@ public class FactoryBackgroundModel {
 
 		switch( imageType.getFamily() ) {
 			case GRAY:
-				ret= new BackgroundMovingBasic_SB(config.learnRate,config.threshold,
-						transform,config.interpolation,imageType.getImageClass());
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					ret = new BackgroundMovingBasic_SB_MT(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType.getImageClass());
+				} else {
+					ret = new BackgroundMovingBasic_SB(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType.getImageClass());
+				}
 				break;
 
 			case PLANAR:
-				ret= new BackgroundMovingBasic_PL(config.learnRate,config.threshold,
-						transform,config.interpolation,imageType);
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					ret = new BackgroundMovingBasic_PL_MT(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType);
+				} else {
+					ret = new BackgroundMovingBasic_PL(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType);
+				}
 				break;
 
 			case INTERLEAVED:
-				ret= new BackgroundMovingBasic_IL(config.learnRate,config.threshold,
-						transform,config.interpolation,imageType);
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					ret = new BackgroundMovingBasic_IL_MT(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType);
+				} else {
+					ret = new BackgroundMovingBasic_IL(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType);
+				}
 				break;
 
 			default:
@@ -116,15 +144,27 @@ public class FactoryBackgroundModel {
 
 		switch( imageType.getFamily() ) {
 			case GRAY:
-				ret = new BackgroundStationaryGaussian_SB(config.learnRate,config.threshold,imageType.getImageClass());
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					ret = new BackgroundStationaryGaussian_SB_MT(config.learnRate,config.threshold,imageType.getImageClass());
+				} else {
+					ret = new BackgroundStationaryGaussian_SB(config.learnRate,config.threshold,imageType.getImageClass());
+				}
 				break;
 
 			case PLANAR:
-				ret =  new BackgroundStationaryGaussian_PL(config.learnRate,config.threshold,imageType);
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					ret = new BackgroundStationaryGaussian_PL_MT(config.learnRate,config.threshold,imageType);
+				} else {
+					ret = new BackgroundStationaryGaussian_PL(config.learnRate,config.threshold,imageType);
+				}
 				break;
 
 			case INTERLEAVED:
-				ret =  new BackgroundStationaryGaussian_IL(config.learnRate,config.threshold,imageType);
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					ret = new BackgroundStationaryGaussian_IL_MT(config.learnRate,config.threshold,imageType);
+				} else {
+					ret = new BackgroundStationaryGaussian_IL(config.learnRate,config.threshold,imageType);
+				}
 				break;
 
 			default:
@@ -156,18 +196,33 @@ public class FactoryBackgroundModel {
 
 		switch( imageType.getFamily() ) {
 			case GRAY:
-				ret = new BackgroundMovingGaussian_SB(config.learnRate,config.threshold,
-						transform,config.interpolation,imageType.getImageClass());
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					ret = new BackgroundMovingGaussian_SB_MT(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType.getImageClass());
+				} else {
+					ret = new BackgroundMovingGaussian_SB(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType.getImageClass());
+				}
 				break;
 
 			case PLANAR:
-				ret =  new BackgroundMovingGaussian_PL(config.learnRate,config.threshold,
-						transform,config.interpolation,imageType);
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					ret = new BackgroundMovingGaussian_PL_MT(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType);
+				} else {
+					ret = new BackgroundMovingGaussian_PL(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType);
+				}
 				break;
 
 			case INTERLEAVED:
-				ret =  new BackgroundMovingGaussian_IL(config.learnRate,config.threshold,
-						transform,config.interpolation,imageType);
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					ret = new BackgroundMovingGaussian_IL_MT(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType);
+				} else {
+					ret = new BackgroundMovingGaussian_IL(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType);
+				}
 				break;
 
 			default:
@@ -200,14 +255,24 @@ public class FactoryBackgroundModel {
 
 		switch( imageType.getFamily() ) {
 			case GRAY:
-				ret = new BackgroundStationaryGmm_SB(config.learningPeriod,config.decayCoefient,
-						config.numberOfGaussian,imageType);
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					ret = new BackgroundStationaryGmm_SB_MT(config.learningPeriod,config.decayCoefient,
+							config.numberOfGaussian,imageType);
+				} else {
+					ret = new BackgroundStationaryGmm_SB(config.learningPeriod,config.decayCoefient,
+							config.numberOfGaussian,imageType);
+				}
 				break;
 
 			case PLANAR:
 			case INTERLEAVED:
-				ret =  new BackgroundStationaryGmm_MB(config.learningPeriod,config.decayCoefient,
-						config.numberOfGaussian,imageType);
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					ret = new BackgroundStationaryGmm_MB_MT(config.learningPeriod,config.decayCoefient,
+							config.numberOfGaussian,imageType);
+				} else {
+					ret = new BackgroundStationaryGmm_MB(config.learningPeriod,config.decayCoefient,
+							config.numberOfGaussian,imageType);
+				}
 				break;
 
 			default:
@@ -243,14 +308,24 @@ public class FactoryBackgroundModel {
 
 		switch( imageType.getFamily() ) {
 			case GRAY:
-				ret = new BackgroundMovingGmm_SB(config.learningPeriod,config.decayCoefient,
-						config.numberOfGaussian,transform,imageType);
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					ret = new BackgroundMovingGmm_SB_MT(config.learningPeriod,config.decayCoefient,
+							config.numberOfGaussian,transform,imageType);
+				} else {
+					ret = new BackgroundMovingGmm_SB(config.learningPeriod,config.decayCoefient,
+							config.numberOfGaussian,transform,imageType);
+				}
 				break;
 
 			case PLANAR:
 			case INTERLEAVED:
-				ret = new BackgroundMovingGmm_MB(config.learningPeriod,config.decayCoefient,
-						config.numberOfGaussian,transform,imageType);
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					ret = new BackgroundMovingGmm_MB_MT(config.learningPeriod,config.decayCoefient,
+							config.numberOfGaussian,transform,imageType);
+				} else {
+					ret = new BackgroundMovingGmm_MB(config.learningPeriod,config.decayCoefient,
+							config.numberOfGaussian,transform,imageType);
+				}
 				break;
 
 			default:
@@ -26,11 +26,14 @@ import boofcv.abst.feature.detect.interest.ConfigSiftDetector;
 import boofcv.abst.feature.orientation.ConfigSiftOrientation;
 import boofcv.alg.feature.describe.DescribePointSift;
 import boofcv.alg.feature.detdesc.CompleteSift;
+import boofcv.alg.feature.detdesc.CompleteSift_MT;
 import boofcv.alg.feature.detect.interest.SiftScaleSpace;
 import boofcv.alg.feature.detect.selector.FeatureSelectLimitIntensity;
 import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
 import boofcv.factory.feature.detect.selector.FactorySelectLimit;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.feature.ScalePoint;
 import boofcv.struct.image.GrayF32;
 import org.jetbrains.annotations.Nullable;
@@ -50,18 +53,24 @@ public class FactoryDetectDescribeAlgs {
 
 		SiftScaleSpace scaleSpace = new SiftScaleSpace(
 				configSS.firstOctave,configSS.lastOctave,configSS.numScales,configSS.sigma0);
-		OrientationHistogramSift<GrayF32> orientation = new OrientationHistogramSift<>(
-				configOri.histogramSize,configOri.sigmaEnlarge,GrayF32.class);
-		DescribePointSift<GrayF32> describe = new DescribePointSift<>(
-				configDesc.widthSubregion,configDesc.widthGrid, configDesc.numHistogramBins,
-				configDesc.sigmaToPixels, configDesc.weightingSigmaFraction,
-				configDesc.maxDescriptorElementValue,GrayF32.class);
+		BoofLambdas.Factory<OrientationHistogramSift<GrayF32>> factoryOrientation = ()->
+				new OrientationHistogramSift<>(configOri.histogramSize,configOri.sigmaEnlarge,GrayF32.class);
+		BoofLambdas.Factory<DescribePointSift<GrayF32>> factoryDescribe = ()->
+				new DescribePointSift<>(configDesc.widthSubregion,configDesc.widthGrid, configDesc.numHistogramBins,
+						configDesc.sigmaToPixels, configDesc.weightingSigmaFraction,
+						configDesc.maxDescriptorElementValue,GrayF32.class);
 
 		NonMaxLimiter nonMax = FactoryFeatureExtractor.nonmaxLimiter(
 				configDetector.extract,configDetector.selector,configDetector.maxFeaturesPerScale);
 		FeatureSelectLimitIntensity<ScalePoint> selectorAll = FactorySelectLimit.intensity(configDetector.selector);
-		CompleteSift dds = new CompleteSift(scaleSpace,selectorAll,
-				configDetector.edgeR,nonMax,orientation,describe);
+		CompleteSift dds;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			dds = new CompleteSift_MT(scaleSpace,selectorAll,
+					configDetector.edgeR,nonMax,factoryOrientation,factoryDescribe);
+		} else {
+			dds = new CompleteSift(scaleSpace,selectorAll,
+					configDetector.edgeR,nonMax,factoryOrientation.newInstance(),factoryDescribe.newInstance());
+		}
 		dds.maxFeaturesAll = configDetector.maxFeaturesAll;
 		return dds;
 	}
@@ -25,6 +25,7 @@ import boofcv.alg.flow.*;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.tracker.klt.ConfigPKlt;
 import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.factory.tracker.FactoryTrackerAlg;
@@ -36,6 +37,7 @@ import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 import boofcv.struct.pyramid.ConfigDiscreteLevels;
 import boofcv.struct.pyramid.PyramidDiscrete;
+import org.ddogleg.struct.Factory;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -74,8 +76,16 @@ public class FactoryDenseOpticalFlow {
 		PyramidDiscrete<I> pyramidA = FactoryPyramid.discreteGaussian(configKlt.pyramidLevels, -1, 2, true, imagetype);
 		PyramidDiscrete<I> pyramidB = FactoryPyramid.discreteGaussian(configKlt.pyramidLevels, -1, 2, true, imagetype);
 
-		PyramidKltTracker<I, D> tracker = FactoryTrackerAlg.kltPyramid(configKlt.config, inputType, derivType);
-		DenseOpticalFlowKlt<I, D> flowKlt = new DenseOpticalFlowKlt<>(tracker, radius);
+		DenseOpticalFlowKlt<I, D> flowKlt;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ConfigPKlt _configKlt = configKlt;
+			Class<D> _derivType = derivType;
+			flowKlt = new DenseOpticalFlowKlt_MT<>(
+					()->FactoryTrackerAlg.kltPyramid(_configKlt.config, inputType, _derivType), radius);
+		} else {
+			PyramidKltTracker<I, D> tracker = FactoryTrackerAlg.kltPyramid(configKlt.config, inputType, derivType);
+			flowKlt = new DenseOpticalFlowKlt<>(tracker, radius);
+		}
 		ImageGradient<I, D> gradient = FactoryDerivative.sobel(inputType,derivType);
 
 		return new FlowKlt_to_DenseOpticalFlow<>(flowKlt, gradient, pyramidA, pyramidB, inputType, derivType);
@@ -97,16 +107,23 @@ public class FactoryDenseOpticalFlow {
 		if( config == null )
 			config = new ConfigOpticalFlowBlockPyramid();
 
-		DenseOpticalFlowBlockPyramid<T> alg;
+		ConfigOpticalFlowBlockPyramid _config = config;
+		Factory<DenseOpticalFlowBlockPyramid<T>> factory;
 		if( imageType == GrayU8.class )
-			alg = (DenseOpticalFlowBlockPyramid)new DenseOpticalFlowBlockPyramid.U8(
-					config.searchRadius,config.regionRadius,config.maxPerPixelError);
+			factory = ()->(DenseOpticalFlowBlockPyramid)new DenseOpticalFlowBlockPyramid.U8(
+					_config.searchRadius,_config.regionRadius,_config.maxPerPixelError);
 		else if( imageType == GrayF32.class )
-			alg = (DenseOpticalFlowBlockPyramid)new DenseOpticalFlowBlockPyramid.F32(
-					config.searchRadius,config.regionRadius,config.maxPerPixelError);
+			factory = ()->(DenseOpticalFlowBlockPyramid)new DenseOpticalFlowBlockPyramid.F32(
+					_config.searchRadius,_config.regionRadius,_config.maxPerPixelError);
 		else
 			throw new IllegalArgumentException("Unsupported image type "+imageType);
 
+		DenseOpticalFlowBlockPyramid<T> alg;
+		if( BoofConcurrency.USE_CONCURRENT )
+			alg = new DenseOpticalFlowBlockPyramid_MT<>(factory);
+		else
+			alg = factory.newInstance();
+
 		return new FlowBlock_to_DenseOpticalFlow<>(alg, config.pyramidScale, config.maxPyramidLayers, imageType);
 	}
 
@@ -129,16 +146,21 @@ public class FactoryDenseOpticalFlow {
 		if( imageType == GrayU8.class )
 			alg = (HornSchunck)new HornSchunck_U8(config.alpha,config.numIterations);
 		else
-		if( imageType == GrayF32.class )
-			alg = (HornSchunck)new HornSchunck_F32(config.alpha,config.numIterations);
-		else
+		if( imageType == GrayF32.class ) {
+			if( BoofConcurrency.USE_CONCURRENT )
+				alg = (HornSchunck)new HornSchunck_F32_MT(config.alpha,config.numIterations);
+			else
+				alg = (HornSchunck)new HornSchunck_F32(config.alpha,config.numIterations);
+		} else
 			throw new IllegalArgumentException("Unsupported image type "+imageType);
 
 		return new HornSchunck_to_DenseOpticalFlow<>(alg, ImageType.single(imageType));
 	}
 
 	/**
-	 * Creates an instance of {@link HornSchunckPyramid}
+	 * Creates an instance of {@link HornSchunckPyramid}. If {@link BoofConcurrency#USE_CONCURRENT} is true then
+	 * {@link HornSchunckPyramid_MT} is used. Its flow is deterministic but not identical to the single threaded
+	 * version's since pixels are updated in a different order.
 	 *
 	 * @see HornSchunckPyramid
 	 *
@@ -154,11 +176,25 @@ public class FactoryDenseOpticalFlow {
 		InterpolatePixelS<GrayF32> interpolate =
 				FactoryInterpolation.createPixelS(0,255,config.interpolation, BorderType.EXTENDED, GrayF32.class);
 
-		HornSchunckPyramid<T> alg = new HornSchunckPyramid<>(config, interpolate);
+		HornSchunckPyramid<T> alg;
+		if( BoofConcurrency.USE_CONCURRENT )
+			alg = new HornSchunckPyramid_MT<>(config, interpolate);
+		else
+			alg = new HornSchunckPyramid<>(config, interpolate);
 
 		return new HornSchunckPyramid_to_DenseOpticalFlow<>(alg, imageType);
 	}
 
+	/**
+	 * Creates an instance of {@link BroxWarpingSpacial}. If {@link BoofConcurrency#USE_CONCURRENT} is true then
+	 * {@link BroxWarpingSpacial_MT} is used. Its flow is deterministic but not identical to the single threaded
+	 * version's since pixels are updated in a different order.
+	 *
+	 * @see BroxWarpingSpacial
+	 *
+	 * @param config Configuration parameters.  If null defaults will be used.
+	 * @return Dense optical flow implementation of BroxWarpingSpacial
+	 */
 	public static <T extends ImageGray<T>>
 	DenseOpticalFlow<T> broxWarping( ConfigBroxWarping config , Class<T> imageType )
 	{
@@ -168,7 +204,11 @@ public class FactoryDenseOpticalFlow {
 		InterpolatePixelS<GrayF32> interpolate =
 				FactoryInterpolation.createPixelS(0,255,config.interpolation, BorderType.EXTENDED, GrayF32.class);
 
-		BroxWarpingSpacial<T> alg = new BroxWarpingSpacial<>(config, interpolate);
+		BroxWarpingSpacial<T> alg;
+		if( BoofConcurrency.USE_CONCURRENT )
+			alg = new BroxWarpingSpacial_MT<>(config, interpolate);
+		else
+			alg = new BroxWarpingSpacial<>(config, interpolate);
 
 		return new BroxWarpingSpacial_to_DenseOpticalFlow<>(alg, imageType);
 	}
@@ -23,11 +23,14 @@ import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.interpolate.InterpolationType;
 import boofcv.alg.segmentation.ComputeRegionMeanColor;
 import boofcv.alg.segmentation.fh04.FhEdgeWeights;
+import boofcv.alg.segmentation.fh04.FhEdgeWeightsArray;
 import boofcv.alg.segmentation.fh04.SegmentFelzenszwalbHuttenlocher04;
+import boofcv.alg.segmentation.fh04.SegmentFelzenszwalbHuttenlocher04_MT;
 import boofcv.alg.segmentation.fh04.impl.*;
 import boofcv.alg.segmentation.ms.*;
 import boofcv.alg.segmentation.slic.*;
 import boofcv.alg.segmentation.watershed.WatershedVincentSoille1991;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.ConnectRule;
 import boofcv.struct.border.BorderType;
@@ -94,13 +97,23 @@ public class FactorySegmentationAlg {
 
 		if( imageType.getFamily() == ImageType.Family.GRAY) {
 			InterpolatePixelS interp = FactoryInterpolation.bilinearPixelS(imageType.getImageClass(), BorderType.EXTENDED);
-			search = new SegmentMeanShiftSearchGray(maxIterations,convergenceTol,interp,
-					spacialRadius,spacialRadius,colorRadius,config.fast);
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				search = new SegmentMeanShiftSearchGray_MT(maxIterations,convergenceTol,interp,
+						spacialRadius,spacialRadius,colorRadius,config.fast);
+			} else {
+				search = new SegmentMeanShiftSearchGray(maxIterations,convergenceTol,interp,
+						spacialRadius,spacialRadius,colorRadius,config.fast);
+			}
 		} else {
 			InterpolatePixelMB interp = FactoryInterpolation.createPixelMB(0,255,
 					InterpolationType.BILINEAR, BorderType.EXTENDED,(ImageType)imageType);
-			search = new SegmentMeanShiftSearchColor(maxIterations,convergenceTol,interp,
-					spacialRadius,spacialRadius,colorRadius,config.fast,imageType);
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				search = new SegmentMeanShiftSearchColor_MT(maxIterations,convergenceTol,interp,
+						spacialRadius,spacialRadius,colorRadius,config.fast,imageType);
+			} else {
+				search = new SegmentMeanShiftSearchColor(maxIterations,convergenceTol,interp,
+						spacialRadius,spacialRadius,colorRadius,config.fast,imageType);
+			}
 		}
 
 		ComputeRegionMeanColor<T> regionColor = regionMeanColor(imageType);
@@ -151,6 +164,27 @@ public class FactorySegmentationAlg {
 		throw new IllegalArgumentException("Unknown imageType or connect rule");
 	}
 
+	public static <T extends ImageBase<T>>
+	FhEdgeWeightsArray<T> weightsFelzenszwalb04Array( ConnectRule rule , ImageType<T> imageType) {
+		if( imageType.getFamily() == ImageType.Family.GRAY) {
+			switch( imageType.getDataType() ) {
+				case U8:
+					return (FhEdgeWeightsArray)new FhEdgeWeightsArray_U8(rule);
+				case F32:
+					return (FhEdgeWeightsArray)new FhEdgeWeightsArray_F32(rule);
+			}
+		} else if( imageType.getFamily() == ImageType.Family.PLANAR) {
+			switch( imageType.getDataType() ) {
+				case U8:
+					return (FhEdgeWeightsArray)new FhEdgeWeightsArray_PLU8(rule);
+				case F32:
+					return (FhEdgeWeightsArray)new FhEdgeWeightsArray_PLF32(rule);
+			}
+		}
+
+		throw new IllegalArgumentException("Unknown imageType or connect rule");
+	}
+
 	public static<T extends ImageBase<T>>
 	SegmentFelzenszwalbHuttenlocher04<T> fh04(@Nullable ConfigFh04 config, ImageType<T> imageType)
 	{
@@ -158,10 +192,14 @@ public class FactorySegmentationAlg {
 		if( config == null )
 			config = new ConfigFh04();
 
-		FhEdgeWeights<T> edgeWeights = weightsFelzenszwalb04(config.connectRule,imageType);
-
-		SegmentFelzenszwalbHuttenlocher04<T> alg =
-				new SegmentFelzenszwalbHuttenlocher04<>(config.K, config.minimumRegionSize, edgeWeights);
+		SegmentFelzenszwalbHuttenlocher04<T> alg;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			FhEdgeWeightsArray<T> edgeWeights = weightsFelzenszwalb04Array(config.connectRule,imageType);
+			alg = new SegmentFelzenszwalbHuttenlocher04_MT<>(config.K, config.minimumRegionSize, edgeWeights);
+		} else {
+			FhEdgeWeights<T> edgeWeights = weightsFelzenszwalb04(config.connectRule,imageType);
+			alg = new SegmentFelzenszwalbHuttenlocher04<>(config.K, config.minimumRegionSize, edgeWeights);
+		}
 
 		if( config.approximateSortBins > 0 ) {
 			alg.configureApproximateSort(config.approximateSortBins);
@@ -179,9 +217,15 @@ public class FactorySegmentationAlg {
 		if( imageType.getFamily() == ImageType.Family.GRAY) {
 				switch( imageType.getDataType() ) {
 					case U8:
+						if( BoofConcurrency.USE_CONCURRENT )
+							return (SegmentSlic)new SegmentSlic_U8_MT(config.numberOfRegions,
+									config.spacialWeight,config.totalIterations,config.connectRule);
 						return (SegmentSlic)new SegmentSlic_U8(config.numberOfRegions,
 								config.spacialWeight,config.totalIterations,config.connectRule);
 					case F32:
+						if( BoofConcurrency.USE_CONCURRENT )
+							return (SegmentSlic)new SegmentSlic_F32_MT(config.numberOfRegions,
+									config.spacialWeight,config.totalIterations,config.connectRule);
 						return (SegmentSlic)new SegmentSlic_F32(config.numberOfRegions,
 								config.spacialWeight,config.totalIterations,config.connectRule);
 				}
@@ -189,9 +233,15 @@ public class FactorySegmentationAlg {
 			int N = imageType.getNumBands();
 				switch( imageType.getDataType() ) {
 					case U8:
+						if( BoofConcurrency.USE_CONCURRENT )
+							return (SegmentSlic)new SegmentSlic_PlU8_MT(config.numberOfRegions,
+									config.spacialWeight,config.totalIterations,config.connectRule,N);
 						return (SegmentSlic)new SegmentSlic_PlU8(config.numberOfRegions,
 								config.spacialWeight,config.totalIterations,config.connectRule,N);
 					case F32:
+						if( BoofConcurrency.USE_CONCURRENT )
+							return (SegmentSlic)new SegmentSlic_PlF32_MT(config.numberOfRegions,
+									config.spacialWeight,config.totalIterations,config.connectRule,N);
 						return (SegmentSlic)new SegmentSlic_PlF32(config.numberOfRegions,
 								config.spacialWeight,config.totalIterations,config.connectRule,N);
 				}
@@ -24,13 +24,20 @@ import boofcv.abst.feature.detect.interest.PointDetectorTypes;
 import boofcv.abst.tracker.PointTrackerKltPyramid.PointTrackMod;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.tracker.klt.*;
+import boofcv.alg.transform.pyramid.PyramidDiscreteCache;
+import boofcv.alg.transform.pyramid.PyramidDiscreteSampleBlur;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
 import boofcv.factory.tracker.FactoryPointTracker;
+import boofcv.struct.convolve.Kernel1D_F32;
 import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
 import boofcv.struct.pyramid.ConfigDiscreteLevels;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 
 /**
@@ -38,6 +45,10 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
  */
 class TestPointTrackerKltPyramid extends GenericChecksPointTracker<GrayF32> {
 
+	static {
+		BoofConcurrency.USE_CONCURRENT = false;
+	}
+
 	ConfigPKlt config;
 
 	public TestPointTrackerKltPyramid() {
@@ -232,6 +243,72 @@ class TestPointTrackerKltPyramid extends GenericChecksPointTracker<GrayF32> {
 		assertTrue(alg.getActiveTracks(null).size() > originalTotal*0.8 );
 	}
 
+	/**
+	 * Two trackers which share a pyramid cache should produce the same tracks as a tracker which computes its own
+	 * pyramid, but each layer is only computed once between the two of them
+	 */
+	@Test
+	void sharedPyramidCache() {
+		ConfigPKlt config = new ConfigPKlt();
+		config.toleranceFB = 1.0;
+
+		PointTrackerKltPyramid<GrayF32,GrayF32> expected = createKLT(config);
+		PointTrackerKltPyramid<GrayF32,GrayF32> trackerA = createKLT(config);
+		PointTrackerKltPyramid<GrayF32,GrayF32> trackerB = createKLT(config);
+
+		// same pyramid as the one created by the factory, but it counts how many layers are computed
+		int[] totalComputed = new int[1];
+		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class, -1, 2);
+		var cache = new PyramidDiscreteCache<GrayF32>(()->new PyramidDiscreteSampleBlur<GrayF32>(
+				kernel, -1, ImageType.single(GrayF32.class), false, config.pyramidLevels) {
+			@Override
+			protected void computeLayer( GrayF32 input, int index ) {
+				super.computeLayer(input, index);
+				totalComputed[0]++;
+			}
+		}, 2);
+		trackerA.setPyramidCache(cache);
+		trackerB.setPyramidCache(cache);
+
+		// without a frame ID the pyramid can't be looked up
+		assertThrows(IllegalArgumentException.class, ()->trackerA.process(image));
+
+		GrayF32 shifted = image.createSameShape();
+		new FDistort(image,shifted).affine(1,0,0,1,1.5,0.5).borderExt().apply();
+		List<GrayF32> frames = List.of(image, shifted, image);
+
+		for (int frameID = 0; frameID < frames.size(); frameID++) {
+			GrayF32 frame = frames.get(frameID);
+			expected.process(frame);
+			trackerA.process(frame, frameID);
+			trackerB.process(frame, frameID);
+
+			// both trackers are looking at the same pyramid
+			assertSame(trackerA.currPyr.basePyramid, trackerB.currPyr.basePyramid);
+			assertSame(cache.get(frameID), trackerA.currPyr.basePyramid);
+
+			if( frameID == 0 ) {
+				expected.spawnTracks();
+				trackerA.spawnTracks();
+				trackerB.spawnTracks();
+			}
+
+			List<PointTrack> tracksE = expected.getActiveTracks(null);
+			assertTrue(tracksE.size() > 10);
+			for( PointTrackerKltPyramid<GrayF32,GrayF32> tracker : List.of(trackerA, trackerB) ) {
+				List<PointTrack> found = tracker.getActiveTracks(null);
+				assertEquals(tracksE.size(), found.size());
+				for (int i = 0; i < found.size(); i++) {
+					assertEquals(0.0, tracksE.get(i).pixel.distance(found.get(i).pixel), 1e-6);
+				}
+			}
+		}
+
+		// Every layer in every frame was computed exactly once
+		int numLayers = trackerA.currPyr.basePyramid.getNumLayers();
+		assertEquals(numLayers*frames.size(), totalComputed[0]);
+	}
+
 	@Test
 	void pruneClose() {
 		ConfigPKlt config = new ConfigPKlt();
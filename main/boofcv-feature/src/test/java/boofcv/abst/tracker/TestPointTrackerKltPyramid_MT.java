@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.tracker;
+
+import boofcv.abst.distort.FDistort;
+import boofcv.abst.feature.detect.interest.ConfigPointDetector;
+import boofcv.abst.feature.detect.interest.PointDetectorTypes;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.tracker.klt.ConfigPKlt;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.tracker.FactoryPointTracker;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPointTrackerKltPyramid_MT extends GenericChecksPointTracker<GrayF32> {
+
+	static {
+		BoofConcurrency.USE_CONCURRENT = true;
+	}
+
+	public TestPointTrackerKltPyramid_MT() {
+		super(false, true);
+	}
+
+	@Override
+	public PointTracker<GrayF32> createTracker() {
+		return createKLT(new ConfigPKlt());
+	}
+
+	/**
+	 * Compare the single and multi threaded trackers across several frames. Results should be identical.
+	 */
+	@Test
+	void compare() {
+		for( double toleranceFB : new double[]{-1,0.5} ) {
+			ConfigPKlt config = new ConfigPKlt();
+			config.toleranceFB = toleranceFB;
+
+			BoofConcurrency.USE_CONCURRENT = false;
+			PointTrackerKltPyramid<GrayF32,GrayF32> single = createKLT(config);
+			BoofConcurrency.USE_CONCURRENT = true;
+			PointTrackerKltPyramid<GrayF32,GrayF32> multi = createKLT(config);
+			assertTrue(multi instanceof PointTrackerKltPyramid_MT);
+			// make sure it's split into multiple blocks
+			((PointTrackerKltPyramid_MT)multi).minimumBlock = 5;
+
+			GrayF32 image = new GrayF32(200,160);
+			ImageMiscOps.fillUniform(image, rand, 0, 100);
+			GrayF32 shifted = image.createSameShape();
+
+			for (int frame = 0; frame < 6; frame++) {
+				// move the image around and add some noise so that some tracks get dropped
+				new FDistort(image,shifted).affine(1,0,0,1,frame*1.5,-frame*0.5).borderExt().apply();
+				ImageMiscOps.addUniform(shifted, rand, -5, 5);
+
+				single.process(shifted);
+				multi.process(shifted);
+
+				compare(single.getActiveTracks(null),multi.getActiveTracks(null));
+				compare(single.getDroppedTracks(null),multi.getDroppedTracks(null));
+
+				single.spawnTracks();
+				multi.spawnTracks();
+				compare(single.getNewTracks(null),multi.getNewTracks(null));
+			}
+			assertTrue(single.getTotalActive() > 20);
+		}
+	}
+
+	private static void compare( List<PointTrack> expected , List<PointTrack> found ) {
+		assertEquals(expected.size(), found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			PointTrack a = expected.get(i);
+			PointTrack b = found.get(i);
+			assertEquals(a.featureId, b.featureId);
+			assertEquals(a.lastSeenFrameID, b.lastSeenFrameID);
+			assertEquals(0.0, a.pixel.distance(b.pixel));
+		}
+	}
+
+	private PointTrackerKltPyramid<GrayF32,GrayF32> createKLT(ConfigPKlt config) {
+		ConfigPointDetector configDetector = new ConfigPointDetector();
+		configDetector.type = PointDetectorTypes.SHI_TOMASI;
+		configDetector.general.maxFeatures = 200;
+		configDetector.general.radius = 3;
+		configDetector.general.threshold = 1000;
+
+		return FactoryPointTracker.klt(config, configDetector, GrayF32.class, GrayF32.class);
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -54,6 +54,60 @@ public abstract class GenericBackgroundModelMovingChecks {
 	public abstract<T extends ImageBase<T>>
 	BackgroundModelMoving<T,Homography2D_F32> create( ImageType<T> imageType );
 
+	/**
+	 * Creates the single threaded version of the model returned by {@link #create}. Only concurrent
+	 * implementations need to override this function.
+	 */
+	public <T extends ImageBase<T>>
+	BackgroundModelMoving<T,Homography2D_F32> createSingleThread( ImageType<T> imageType ) {
+		return null;
+	}
+
+	/**
+	 * Concurrent implementations should produce results identical to the single threaded ones
+	 */
+	@Test
+	public void compareToSingleThread() {
+		for( ImageType type : imageTypes ) {
+			compareToSingleThread(type);
+		}
+	}
+
+	private <T extends ImageBase<T>> void compareToSingleThread( ImageType<T> imageType ) {
+		BackgroundModelMoving<T,Homography2D_F32> expected = createSingleThread(imageType);
+		if( expected == null )
+			return;
+		BackgroundModelMoving<T,Homography2D_F32> found = create(imageType);
+
+		T frame = imageType.createImage(width,height);
+		GrayU8 segmentedExpected = new GrayU8(width,height);
+		GrayU8 segmentedFound = new GrayU8(width,height);
+
+		Homography2D_F32 homeToWorld = new Homography2D_F32(1,0,width/2,0,1,height/2,0,0,1);
+		expected.initialize(width*2,height*2,homeToWorld);
+		found.initialize(width*2,height*2,homeToWorld);
+
+		for (int i = 0; i < 10; i++) {
+			Homography2D_F32 homeToCurrent = new Homography2D_F32();
+			homeToCurrent.a13 = rand.nextFloat() * 5 - 2.5f;
+			homeToCurrent.a23 = rand.nextFloat() * 5 - 2.5f;
+
+			noise(100, 30, frame);
+			GImageMiscOps.fillRectangle(frame, 200, i*3, 10, 15, 20);
+
+			expected.updateBackground(homeToCurrent, frame);
+			found.updateBackground(homeToCurrent, frame);
+
+			expected.segment(homeToCurrent, frame, segmentedExpected);
+			found.segment(homeToCurrent, frame, segmentedFound);
+			BoofTesting.assertEquals(segmentedExpected, segmentedFound, 0);
+
+			expected.updateBackground(homeToCurrent, frame, segmentedExpected);
+			found.updateBackground(homeToCurrent, frame, segmentedFound);
+			BoofTesting.assertEquals(segmentedExpected, segmentedFound, 0);
+		}
+	}
+
 	/**
 	 * Basic check were multiple images are feed into the algorithm and another image,
 	 * which has a region which is clearly different is then segmented.
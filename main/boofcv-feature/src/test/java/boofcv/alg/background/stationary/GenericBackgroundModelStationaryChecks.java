@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -49,6 +49,82 @@ public abstract class GenericBackgroundModelStationaryChecks {
 	public abstract<T extends ImageBase<T>>
 	BackgroundModelStationary<T> create( ImageType<T> imageType );
 
+	/**
+	 * Creates the single threaded version of the model returned by {@link #create}. Only concurrent
+	 * implementations need to override this function.
+	 */
+	public <T extends ImageBase<T>>
+	BackgroundModelStationary<T> createSingleThread( ImageType<T> imageType ) {
+		return null;
+	}
+
+	/**
+	 * Concurrent implementations should produce results identical to the single threaded ones
+	 */
+	@Test
+	public void compareToSingleThread() {
+		for( ImageType type : imageTypes ) {
+			compareToSingleThread(type);
+		}
+	}
+
+	private <T extends ImageBase<T>> void compareToSingleThread( ImageType<T> imageType ) {
+		BackgroundModelStationary<T> expected = createSingleThread(imageType);
+		if( expected == null )
+			return;
+		BackgroundModelStationary<T> found = create(imageType);
+
+		T frame = imageType.createImage(width,height);
+		GrayU8 segmentedExpected = new GrayU8(width,height);
+		GrayU8 segmentedFound = new GrayU8(width,height);
+
+		for (int i = 0; i < 10; i++) {
+			noise(100, 30, frame);
+			GImageMiscOps.fillRectangle(frame, 200, i*3, 10, 15, 20);
+
+			expected.updateBackground(frame);
+			found.updateBackground(frame);
+
+			expected.segment(frame, segmentedExpected);
+			found.segment(frame, segmentedFound);
+			BoofTesting.assertEquals(segmentedExpected, segmentedFound, 0);
+
+			expected.updateBackground(frame, segmentedExpected);
+			found.updateBackground(frame, segmentedFound);
+			BoofTesting.assertEquals(segmentedExpected, segmentedFound, 0);
+		}
+	}
+
+	/**
+	 * Updating and segmenting with a single call should produce the same results as segmenting and then
+	 * updating with two calls
+	 */
+	protected <T extends ImageBase<T>> void checkUpdateAndSegment( ImageType<T> imageType ) {
+		BackgroundModelStationary<T> fused = create(imageType);
+		BackgroundModelStationary<T> separate = create(imageType);
+
+		T frame = imageType.createImage(width,height);
+		GrayU8 segmentedFused = new GrayU8(width,height);
+		GrayU8 segmentedSeparate = new GrayU8(width,height);
+
+		for (int i = 0; i < 10; i++) {
+			noise(100, 30, frame);
+			GImageMiscOps.fillRectangle(frame, 200, i*3, 10, 15, 20);
+
+			fused.updateBackground(frame, segmentedFused);
+
+			separate.segment(frame, segmentedSeparate);
+			separate.updateBackground(frame);
+
+			BoofTesting.assertEquals(segmentedSeparate, segmentedFused, 0);
+		}
+
+		// the models should be the same after the update too
+		fused.segment(frame, segmentedFused);
+		separate.segment(frame, segmentedSeparate);
+		BoofTesting.assertEquals(segmentedSeparate, segmentedFused, 0);
+	}
+
 	/**
 	 * Basic check were multiple images are feed into the algorithm and another image,
 	 * which has a region which is clearly different is then segmented.
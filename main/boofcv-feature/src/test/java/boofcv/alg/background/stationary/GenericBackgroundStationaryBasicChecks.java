@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -94,6 +94,13 @@ public abstract class GenericBackgroundStationaryBasicChecks extends GenericBack
 		BoofTesting.assertEquals(expected,segmented,1e-5f);
 	}
 
+	@Test
+	public void updateAndSegment() {
+		for( ImageType type : imageTypes ) {
+			checkUpdateAndSegment(type);
+		}
+	}
+
 	@Test
 	public void checkThreshold() {
 		for( ImageType type : imageTypes ) {
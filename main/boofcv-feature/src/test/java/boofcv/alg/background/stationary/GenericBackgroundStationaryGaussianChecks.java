@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -39,6 +39,13 @@ public abstract class GenericBackgroundStationaryGaussianChecks extends GenericB
 		initialVariance = 12;
 	}
 
+	@Test
+	public void updateAndSegment() {
+		for( ImageType type : imageTypes ) {
+			checkUpdateAndSegment(type);
+		}
+	}
+
 	@Test
 	public void initialVariance() {
 		for( ImageType type : imageTypes ) {
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.factory.feature.detect.selector.ConfigSelectLimit;
+import boofcv.factory.feature.detect.selector.FactorySelectLimit;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestCompleteSift_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare single threaded vs multi threaded variant. Results should be identical and in the same order
+	 */
+	@Test
+	void compare() {
+		GrayF32 image = new GrayF32(300,290);
+		GImageMiscOps.fillUniform(image,rand,0,200);
+
+		CompleteSift algS = new CompleteSift(new SiftScaleSpace(-1,4,3,1.6),
+				FactorySelectLimit.intensity(ConfigSelectLimit.selectBestN()),10,createLimiter(),
+				createOrientation(),createDescribe());
+		CompleteSift algP = new CompleteSift_MT(new SiftScaleSpace(-1,4,3,1.6),
+				FactorySelectLimit.intensity(ConfigSelectLimit.selectBestN()),10,createLimiter(),
+				this::createOrientation,this::createDescribe);
+
+		// process twice to make sure the state is correctly reset
+		for (int trial = 0; trial < 2; trial++) {
+			algS.process(image);
+			algP.process(image);
+
+			assertTrue(algS.getOrientations().size > 10);
+			assertEquals(algS.getOrientations().size, algP.getOrientations().size);
+			assertEquals(algS.getOrientations().size, algP.getLocations().size);
+			assertEquals(algS.getOrientations().size, algP.getDescriptions().size);
+
+			for (int i = 0; i < algS.getOrientations().size; i++) {
+				ScalePoint a = algS.getLocations().get(i);
+				ScalePoint b = algP.getLocations().get(i);
+				assertEquals(a.pixel.x, b.pixel.x);
+				assertEquals(a.pixel.y, b.pixel.y);
+				assertEquals(a.scale, b.scale);
+				assertEquals(algS.getOrientations().get(i), algP.getOrientations().get(i));
+
+				double[] descA = algS.getDescriptions().get(i).value;
+				double[] descB = algP.getDescriptions().get(i).value;
+				for (int j = 0; j < descA.length; j++) {
+					assertEquals(descA[j], descB[j]);
+				}
+			}
+		}
+	}
+
+	private NonMaxLimiter createLimiter() {
+		NonMaxSuppression nonmax = FactoryFeatureExtractor.nonmax(new ConfigExtract(1,0,1,true,true,true));
+		return new NonMaxLimiter(nonmax, FactorySelectLimit.intensity(ConfigSelectLimit.selectBestN()),300);
+	}
+
+	private OrientationHistogramSift<GrayF32> createOrientation() {
+		return new OrientationHistogramSift<>(36,1.5,GrayF32.class);
+	}
+
+	private DescribePointSift<GrayF32> createDescribe() {
+		return new DescribePointSift<>(4,4,8,1.5,0.5,0.2,GrayF32.class);
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.pyramid.PyramidFloat;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestDenseOpticalFlowBlockPyramid_MT extends ChecksDenseOpticalFlowBlockPyramid<GrayF32> {
+
+	TestDenseOpticalFlowBlockPyramid_MT() {
+		super(GrayF32.class);
+	}
+
+	@Override
+	public DenseOpticalFlowBlockPyramid<GrayF32> createAlg(int searchRadius, int regionRadius, int maxPerPixelError) {
+		return new DenseOpticalFlowBlockPyramid_MT<>(
+				()->new DenseOpticalFlowBlockPyramid.F32(searchRadius,regionRadius,maxPerPixelError));
+	}
+
+	/**
+	 * Output should be identical to the single threaded version
+	 */
+	@Test
+	void compareToSingleThread() {
+		int width = 60, height = 45;
+		GrayF32 image1 = new GrayF32(width,height);
+		GrayF32 image2 = new GrayF32(width,height);
+
+		ImageMiscOps.fillUniform(image1,rand,0,200);
+		ImageMiscOps.copy(0,0,3,2,width-3,height-2,image1,image2);
+		// regions with no texture will have ambiguous solutions
+		ImageMiscOps.fillRectangle(image1,50,20,15,20,15);
+		ImageMiscOps.fillRectangle(image2,50,23,17,20,15);
+
+		PyramidFloat<GrayF32> pyr1 = UtilDenseOpticalFlow.standardPyramid(width,height,0.5,0,3,12,GrayF32.class);
+		PyramidFloat<GrayF32> pyr2 = UtilDenseOpticalFlow.standardPyramid(width,height,0.5,0,3,12,GrayF32.class);
+		pyr1.process(image1);
+		pyr2.process(image2);
+
+		DenseOpticalFlowBlockPyramid<GrayF32> algS = new DenseOpticalFlowBlockPyramid.F32(3,2,20);
+		DenseOpticalFlowBlockPyramid<GrayF32> algP = createAlg(3,2,20);
+
+		// process twice to make sure internal state is handled correctly
+		for (int trial = 0; trial < 2; trial++) {
+			algS.process(pyr1,pyr2);
+			algP.process(pyr1,pyr2);
+
+			ImageFlow expected = algS.getOpticalFlow();
+			ImageFlow found = algP.getOpticalFlow();
+
+			assertEquals(expected.width,found.width);
+			assertEquals(expected.height,found.height);
+			for (int i = 0; i < expected.width*expected.height; i++) {
+				ImageFlow.D a = expected.data[i];
+				ImageFlow.D b = found.data[i];
+				assertEquals(a.isValid(),b.isValid());
+				if( a.isValid() ) {
+					assertEquals(a.x, b.x, 0.0f);
+					assertEquals(a.y, b.y, 0.0f);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.alg.transform.pyramid.PyramidOps;
+import boofcv.factory.tracker.FactoryTrackerAlg;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestDenseOpticalFlowKlt_MT extends TestDenseOpticalFlowKlt {
+
+	@Override
+	protected DenseOpticalFlowKlt<GrayF32,GrayF32> createAlg() {
+		return new DenseOpticalFlowKlt_MT<>(
+				()->FactoryTrackerAlg.kltPyramid(config.config, GrayF32.class, GrayF32.class), 3);
+	}
+
+	/**
+	 * Output should be identical to the single threaded version
+	 */
+	@Test
+	void compareToSingleThread() {
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(image0,rand,0,100);
+		ImageMiscOps.copy(0,0,1,2,image0.width-1,image0.height-2,image0,image1);
+
+		prev.process(image0);
+		curr.process(image1);
+		PyramidOps.gradient(prev, gradient, prevDerivX,prevDerivY);
+
+		PyramidKltTracker<GrayF32, GrayF32> tracker =
+				FactoryTrackerAlg.kltPyramid(config.config, GrayF32.class, GrayF32.class);
+		DenseOpticalFlowKlt<GrayF32,GrayF32> algS = new DenseOpticalFlowKlt<>(tracker, 3);
+		DenseOpticalFlowKlt<GrayF32,GrayF32> algP = createAlg();
+
+		ImageFlow expected = new ImageFlow(image0.width,image0.height);
+		ImageFlow found = new ImageFlow(image0.width,image0.height);
+
+		algS.process(prev,prevDerivX,prevDerivY,curr,expected);
+		algP.process(prev,prevDerivX,prevDerivY,curr,found);
+
+		for (int i = 0; i < expected.width*expected.height; i++) {
+			ImageFlow.D a = expected.data[i];
+			ImageFlow.D b = found.data[i];
+			assertEquals(a.isValid(),b.isValid());
+			if( a.isValid() ) {
+				assertEquals(a.x, b.x, 0.0f);
+				assertEquals(a.y, b.y, 0.0f);
+			}
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.flow.ConfigHornSchunckPyramid;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.pyramid.PyramidFloat;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestHornSchunckPyramid_MT {
+
+	int width = 30;
+	int height = 40;
+
+	// The concurrent flow must be within this many pixels of the single threaded flow
+	float tolSingleThread = 0.02f;
+
+	PyramidFloat<GrayF32> pyr1 = UtilDenseOpticalFlow.standardPyramid(width,height,0.7,0,5,12,GrayF32.class);
+	PyramidFloat<GrayF32> pyr2 = UtilDenseOpticalFlow.standardPyramid(width,height,0.7,0,5,12,GrayF32.class);
+
+	TestHornSchunckPyramid_MT() {
+		GrayF32 original1 = new GrayF32(width,height);
+		GrayF32 original2 = new GrayF32(width,height);
+
+		ImageMiscOps.fillRectangle(original1, 40, 10, 0, 10, height);
+		ImageMiscOps.fillRectangle(original2, 40, 15, 0, 10, height);
+
+		pyr1.process(original1);
+		pyr2.process(original2);
+	}
+
+	/**
+	 * The update order is different so the results won't be identical, but both should converge to the same solution
+	 */
+	@Test
+	void compareToSingleThread() {
+		HornSchunckPyramid<GrayF32> algS = new HornSchunckPyramid<>(new ConfigHornSchunckPyramid(20f,100),createInterp());
+		HornSchunckPyramid<GrayF32> algP = new HornSchunckPyramid_MT<>(new ConfigHornSchunckPyramid(20f,100),createInterp());
+		algS.process(pyr1,pyr2);
+		algP.process(pyr1,pyr2);
+
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				assertEquals(5,algP.getFlowX().get(x,y),0.25f);
+				assertEquals(0,algP.getFlowY().get(x,y),0.25f);
+				assertEquals(algS.getFlowX().get(x,y),algP.getFlowX().get(x,y),tolSingleThread);
+				assertEquals(algS.getFlowY().get(x,y),algP.getFlowY().get(x,y),tolSingleThread);
+			}
+		}
+	}
+
+	/**
+	 * The convergence test must not depend on how rows are split between threads, so the flow should be
+	 * identical no matter how many threads there are
+	 */
+	@Test
+	void independentOfThreadCount() {
+		HornSchunckPyramid<GrayF32> algA = new HornSchunckPyramid_MT<>(new ConfigHornSchunckPyramid(20f,100),createInterp());
+		HornSchunckPyramid<GrayF32> algB = new HornSchunckPyramid_MT<>(new ConfigHornSchunckPyramid(20f,100),createInterp());
+
+		int original = BoofConcurrency.getMaxThreads();
+		try {
+			BoofConcurrency.setMaxThreads(2);
+			algA.process(pyr1,pyr2);
+			BoofConcurrency.setMaxThreads(5);
+			algB.process(pyr1,pyr2);
+		} finally {
+			BoofConcurrency.setMaxThreads(original);
+		}
+
+		BoofTesting.assertEquals(algA.getFlowX(),algB.getFlowX(),0.0);
+		BoofTesting.assertEquals(algA.getFlowY(),algB.getFlowY(),0.0);
+	}
+
+	private InterpolatePixelS<GrayF32> createInterp() {
+		return FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED);
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.fh04;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.segmentation.fh04.impl.FhEdgeWeightsArray_U8;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSegmentFelzenszwalbHuttenlocher04_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Test it on a trivial segmentation problem
+	 */
+	@Test
+	void process() {
+		GrayU8 image = new GrayU8(20,25);
+		ImageMiscOps.fillRectangle(image,100,0,0,10,25);
+		GrayS32 output = new GrayS32(20,25);
+
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			for( int numBins : new int[]{0,2000} ) {
+				// normal images
+				process(image, output, rule, numBins);
+
+				// sub-images
+				process(BoofTesting.createSubImageOf(image), output, rule, numBins);
+			}
+		}
+	}
+
+	private void process( GrayU8 image, GrayS32 output, ConnectRule rule , int numBins ) {
+		ImageMiscOps.fillUniform(output,rand,0,100);
+
+		SegmentFelzenszwalbHuttenlocher04_MT<GrayU8> alg =
+				new SegmentFelzenszwalbHuttenlocher04_MT<>(200,10,new FhEdgeWeightsArray_U8(rule));
+		alg.configureApproximateSort(numBins);
+
+		alg.process(image,output);
+
+		int valA = output.get(0,0);
+		int valB = output.get(19,0);
+
+		assertTrue(valA != valB);
+		for( int y = 0; y < 25; y++ ) {
+			for( int x =0; x < 10; x++ )
+				assertEquals(valA, output.get(x, y));
+			for( int x =10; x < 20; x++ )
+				assertEquals(valB,output.get(x,y));
+		}
+
+		assertEquals(2,alg.getRegionId().size);
+		assertEquals(250,alg.getRegionSizes().get(0));
+		assertEquals(250,alg.getRegionSizes().get(1));
+	}
+
+	/**
+	 * Makes sure every edge inside the image is sorted and that ties are ordered by edge index
+	 */
+	@Test
+	void sortEdges_exact() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			SegmentFelzenszwalbHuttenlocher04_MT<GrayU8> alg = sortRandomImage(rule, 0);
+
+			GrowQueue_I32 sorted = alg.sortedEdges;
+			for( int i = 1; i < sorted.size; i++ ) {
+				float w0 = alg.weights.get(sorted.get(i-1));
+				float w1 = alg.weights.get(sorted.get(i));
+				assertTrue(w0 <= w1);
+				if( w0 == w1 )
+					assertTrue(sorted.get(i-1) < sorted.get(i));
+			}
+		}
+	}
+
+	@Test
+	void sortEdges_approximate() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			// the image only has 50 possible values so a bin for each value will produce an exact sort
+			SegmentFelzenszwalbHuttenlocher04_MT<GrayU8> alg = sortRandomImage(rule, 50);
+
+			GrowQueue_I32 sorted = alg.sortedEdges;
+			for( int i = 1; i < sorted.size; i++ ) {
+				float w0 = alg.weights.get(sorted.get(i-1));
+				float w1 = alg.weights.get(sorted.get(i));
+				assertTrue(w0 <= w1);
+			}
+		}
+	}
+
+	private SegmentFelzenszwalbHuttenlocher04_MT<GrayU8> sortRandomImage( ConnectRule rule , int numBins ) {
+		// large enough that the edges will be split into multiple blocks
+		GrayU8 image = new GrayU8(150,140);
+		ImageMiscOps.fillUniform(image,rand,0,50);
+
+		SegmentFelzenszwalbHuttenlocher04_MT<GrayU8> alg =
+				new SegmentFelzenszwalbHuttenlocher04_MT<>(200,10,new FhEdgeWeightsArray_U8(rule));
+		alg.configureApproximateSort(numBins);
+		alg.computeWeights.process(image,alg.weights);
+		alg.sortEdges();
+
+		// every edge inside the image should be in the list exactly once
+		boolean[] found = new boolean[alg.weights.size];
+		for( int i = 0; i < alg.sortedEdges.size; i++ ) {
+			int edge = alg.sortedEdges.get(i);
+			assertTrue(alg.weights.get(edge) >= 0);
+			assertTrue(!found[edge]);
+			found[edge] = true;
+		}
+		for( int i = 0; i < found.length; i++ ) {
+			assertEquals(alg.weights.get(i) >= 0, found[i]);
+		}
+
+		return alg;
+	}
+
+	@Test
+	void computeOutput() {
+		SegmentFelzenszwalbHuttenlocher04_MT<GrayU8> alg =
+				new SegmentFelzenszwalbHuttenlocher04_MT<>(300,20,new FhEdgeWeightsArray_U8(ConnectRule.FOUR));
+
+		alg.graph = new GrayS32(4,5);
+		alg.graph.data = new int[]{
+				2, 0, 2, 5,
+				3, 5, 4, 6,
+				2, 2, 2, 1,
+				15,15,15,15,
+				15,15,15,15};
+
+		for( int i = 0; i < alg.graph.data.length; i++ )
+			alg.regionSize.add(i+1);
+
+		alg.computeOutput();
+
+		GrowQueue_I32 regionId = alg.getRegionId();
+		assertEquals(3,regionId.size);
+		assertEquals(2,regionId.get(0));
+		assertEquals(5,regionId.get(1));
+		assertEquals(15,regionId.get(2));
+
+		GrowQueue_I32 outputRegionSize = alg.getRegionSizes();
+		assertEquals(3,outputRegionSize.size);
+		assertEquals(3,outputRegionSize.get(0));
+		assertEquals(6,outputRegionSize.get(1));
+		assertEquals(16,outputRegionSize.get(2));
+
+		GrayS32 expected = new GrayS32(4,5);
+		expected.data = new int[]{
+				2, 2, 2, 5,
+				5, 5, 5, 5,
+				2, 2, 2, 2,
+				15,15,15,15,
+				15,15,15,15};
+
+		BoofTesting.assertEquals(expected, alg.graph, 1e-4);
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.fh04.impl;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.segmentation.fh04.FhEdgeWeights;
+import boofcv.alg.segmentation.fh04.FhEdgeWeightsArray;
+import boofcv.factory.segmentation.FactorySegmentationAlg;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import boofcv.testing.BoofTesting;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.segmentation.fh04.SegmentFelzenszwalbHuttenlocher04.Edge;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Peter Abeles
+ */
+public abstract class GenericFhEdgeWeightsArrayChecks<T extends ImageBase<T>> {
+	ImageType<T> imageType;
+
+	Random rand = new Random(234);
+
+	protected GenericFhEdgeWeightsArrayChecks(ImageType<T> imageType) {
+		this.imageType = imageType;
+	}
+
+	public abstract FhEdgeWeightsArray<T> createAlg( ConnectRule rule );
+
+	/**
+	 * Compare against the weights computed by the implementation which creates a list of edges
+	 */
+	@Test
+	public void compareToEdgeList() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			T input = imageType.createImage(10,12);
+			GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+			compareToEdgeList(rule, input);
+			compareToEdgeList(rule, BoofTesting.createSubImageOf(input));
+		}
+	}
+
+	private void compareToEdgeList( ConnectRule rule , T input ) {
+		FhEdgeWeights<T> expected = FactorySegmentationAlg.weightsFelzenszwalb04(rule,imageType);
+		FhEdgeWeightsArray<T> alg = createAlg(rule);
+		assertEquals(rule, alg.getRule());
+
+		FastQueue<Edge> edges = new FastQueue<>(Edge::new);
+		GrowQueue_F32 weights = new GrowQueue_F32();
+		expected.process(input,edges);
+		alg.process(input,weights);
+
+		int edgesPerPixel = rule == ConnectRule.FOUR ? 2 : 4;
+		assertEquals(input.width*input.height*edgesPerPixel, weights.size);
+
+		for( int i = 0; i < edges.size; i++ ) {
+			Edge e = edges.get(i);
+
+			// the edge is stored in the pixel which comes first
+			int indexA = Math.min(e.indexA,e.indexB);
+			int indexB = Math.max(e.indexA,e.indexB);
+			int dx = indexB%input.width - indexA%input.width;
+			int dy = indexB/input.width - indexA/input.width;
+
+			int which;
+			if( dy == 0 ) {
+				assertEquals(1,dx);
+				which = 0;
+			} else {
+				assertEquals(1,dy);
+				which = dx == 0 ? 1 : dx == 1 ? 2 : 3;
+			}
+
+			assertEquals(e.weight(), weights.get(indexA*edgesPerPixel+which), 1e-4f);
+		}
+
+		// All other edges should go outside the image
+		int numValid = 0;
+		for( int i = 0; i < weights.size; i++ ) {
+			if( weights.get(i) >= 0 )
+				numValid++;
+		}
+		assertEquals(edges.size, numValid);
+	}
+
+	@Test
+	public void unsupportedRule() {
+		assertThrows(IllegalArgumentException.class, () -> createAlg(null));
+	}
+}
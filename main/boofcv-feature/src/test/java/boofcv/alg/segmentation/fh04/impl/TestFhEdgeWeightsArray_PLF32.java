@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.fh04.impl;
+
+import boofcv.alg.segmentation.fh04.FhEdgeWeightsArray;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+
+/**
+ * @author Peter Abeles
+ */
+class TestFhEdgeWeightsArray_PLF32 extends GenericFhEdgeWeightsArrayChecks<Planar<GrayF32>> {
+
+	TestFhEdgeWeightsArray_PLF32() {
+		super(ImageType.pl(3, GrayF32.class));
+	}
+
+	@Override
+	public FhEdgeWeightsArray<Planar<GrayF32>> createAlg( ConnectRule rule ) {
+		return new FhEdgeWeightsArray_PLF32(rule);
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.ms;
+
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.alg.interpolate.InterpolationType;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSegmentMeanShiftSearchColor_MT {
+
+	Random rand = new Random(234);
+
+	ImageType<Planar<GrayF32>> imageType = ImageType.pl(2,GrayF32.class);
+
+	Planar<GrayF32> image = new Planar<>(GrayF32.class,60,55,2);
+
+	TestSegmentMeanShiftSearchColor_MT() {
+		GImageMiscOps.fillUniform(image, rand, 0, 256);
+		GImageMiscOps.fillRectangle(image, 100, 10, 5, 30, 20);
+	}
+
+	/**
+	 * Without the approximation every pixel is processed independently and the results should be identical
+	 */
+	@Test
+	void compareToSingleThread() {
+		SegmentMeanShiftSearchColor<Planar<GrayF32>> expected =
+				new SegmentMeanShiftSearchColor<>(30, 0.05f, createInterp(), 2, 2, 200, false, imageType);
+		SegmentMeanShiftSearchColor_MT<Planar<GrayF32>> found =
+				new SegmentMeanShiftSearchColor_MT<>(30, 0.05f, createInterp(), 2, 2, 200, false, imageType);
+
+		// process more than once to make sure it's reset correctly
+		for (int trial = 0; trial < 2; trial++) {
+			expected.process(image);
+			found.process(image);
+
+			BoofTesting.assertEquals(expected.getPixelToRegion(), found.getPixelToRegion(), 0);
+			assertEquals(expected.getModeLocation().size, found.getModeLocation().size);
+			for (int i = 0; i < expected.getModeLocation().size; i++) {
+				assertEquals(expected.getModeLocation().get(i).x, found.getModeLocation().get(i).x);
+				assertEquals(expected.getModeLocation().get(i).y, found.getModeLocation().get(i).y);
+				assertEquals(expected.getRegionMemberCount().get(i), found.getRegionMemberCount().get(i));
+				assertArrayEquals(expected.getModeColor().get(i), found.getModeColor().get(i));
+			}
+		}
+	}
+
+	/**
+	 * Results with the approximation can be different but should still be internally consistent
+	 */
+	@Test
+	void fast() {
+		SegmentMeanShiftSearchColor_MT<Planar<GrayF32>> alg =
+				new SegmentMeanShiftSearchColor_MT<>(30, 0.05f, createInterp(), 2, 2, 200, true, imageType);
+
+		alg.process(image);
+
+		GrayS32 pixelToRegion = alg.getPixelToRegion();
+		int numModes = alg.getModeLocation().size;
+		assertEquals(numModes, alg.getRegionMemberCount().size);
+		assertEquals(numModes, alg.getModeColor().size);
+
+		int[] counts = new int[numModes];
+		for (int y = 0; y < image.height; y++) {
+			for (int x = 0; x < image.width; x++) {
+				int region = pixelToRegion.get(x,y);
+				assertTrue( region >= 0 && region < numModes );
+				counts[region]++;
+			}
+		}
+		for (int i = 0; i < numModes; i++) {
+			assertEquals(counts[i], alg.getRegionMemberCount().get(i));
+		}
+	}
+
+	private InterpolatePixelMB<Planar<GrayF32>> createInterp() {
+		return FactoryInterpolation.createPixelMB(0,255, InterpolationType.BILINEAR, BorderType.EXTENDED,imageType);
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.ms;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSegmentMeanShiftSearchGray_MT {
+
+	Random rand = new Random(234);
+
+	GrayF32 image = new GrayF32(60,55);
+
+	TestSegmentMeanShiftSearchGray_MT() {
+		GImageMiscOps.fillUniform(image, rand, 0, 256);
+		GImageMiscOps.fillRectangle(image, 100, 10, 5, 30, 20);
+	}
+
+	/**
+	 * Without the approximation every pixel is processed independently and the results should be identical
+	 */
+	@Test
+	void compareToSingleThread() {
+		SegmentMeanShiftSearchGray<GrayF32> expected =
+				new SegmentMeanShiftSearchGray<>(30, 0.05f, createInterp(), 2, 2, 200, false);
+		SegmentMeanShiftSearchGray_MT<GrayF32> found =
+				new SegmentMeanShiftSearchGray_MT<>(30, 0.05f, createInterp(), 2, 2, 200, false);
+
+		// process more than once to make sure it's reset correctly
+		for (int trial = 0; trial < 2; trial++) {
+			expected.process(image);
+			found.process(image);
+
+			BoofTesting.assertEquals(expected.getPixelToRegion(), found.getPixelToRegion(), 0);
+			assertEquals(expected.getModeLocation().size, found.getModeLocation().size);
+			for (int i = 0; i < expected.getModeLocation().size; i++) {
+				assertEquals(expected.getModeLocation().get(i).x, found.getModeLocation().get(i).x);
+				assertEquals(expected.getModeLocation().get(i).y, found.getModeLocation().get(i).y);
+				assertEquals(expected.getRegionMemberCount().get(i), found.getRegionMemberCount().get(i));
+				assertEquals(expected.getModeColor().get(i)[0], found.getModeColor().get(i)[0]);
+			}
+		}
+	}
+
+	/**
+	 * Results with the approximation can be different but should still be internally consistent
+	 */
+	@Test
+	void fast() {
+		SegmentMeanShiftSearchGray_MT<GrayF32> alg =
+				new SegmentMeanShiftSearchGray_MT<>(30, 0.05f, createInterp(), 2, 2, 200, true);
+
+		alg.process(image);
+
+		GrayS32 pixelToRegion = alg.getPixelToRegion();
+		int numModes = alg.getModeLocation().size;
+		assertEquals(numModes, alg.getRegionMemberCount().size);
+		assertEquals(numModes, alg.getModeColor().size);
+
+		int[] counts = new int[numModes];
+		for (int y = 0; y < image.height; y++) {
+			for (int x = 0; x < image.width; x++) {
+				int region = pixelToRegion.get(x,y);
+				assertTrue( region >= 0 && region < numModes );
+				counts[region]++;
+			}
+		}
+		for (int i = 0; i < numModes; i++) {
+			assertEquals(counts[i], alg.getRegionMemberCount().get(i));
+		}
+	}
+
+	private InterpolatePixelS<GrayF32> createInterp() {
+		return FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED);
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -49,6 +49,51 @@ public abstract class GeneralSegmentSlicColorChecks<T extends ImageBase<T>> {
 
 	public abstract SegmentSlic<T> createAlg( int numberOfRegions, float m, int totalIterations , ConnectRule rule );
 
+	/**
+	 * Creates the single threaded version of the algorithm returned by {@link #createAlg}. Only concurrent
+	 * implementations need to override this function.
+	 */
+	public SegmentSlic<T> createSingleThread( int numberOfRegions, float m, int totalIterations , ConnectRule rule ) {
+		return null;
+	}
+
+	/**
+	 * Concurrent implementations should produce the same clusters as the single threaded ones, up to floating
+	 * point error.
+	 */
+	@Test
+	public void compareToSingleThread() {
+		SegmentSlic<T> expected = createSingleThread(20,200,10, ConnectRule.EIGHT);
+		if( expected == null )
+			return;
+		SegmentSlic<T> found = createAlg(20,200,10, ConnectRule.EIGHT);
+
+		T input = imageType.createImage(60,70);
+		GImageMiscOps.fillUniform(input, rand, 0, 20);
+		GImageMiscOps.fillRectangle(input, 100, 0, 0, 25, 70);
+		GImageMiscOps.fillRectangle(input, 200, 25, 30, 35, 25);
+
+		GrayS32 outputExpected = new GrayS32(60,70);
+		GrayS32 outputFound = new GrayS32(60,70);
+
+		expected.process(input,outputExpected);
+		found.process(input,outputFound);
+
+		FastQueue<SegmentSlic.Cluster> clustersExpected = expected.getClusters();
+		FastQueue<SegmentSlic.Cluster> clustersFound = found.getClusters();
+		assertEquals(clustersExpected.size,clustersFound.size);
+		for( int i = 0; i < clustersExpected.size; i++ ) {
+			SegmentSlic.Cluster e = clustersExpected.get(i);
+			SegmentSlic.Cluster f = clustersFound.get(i);
+			assertEquals(e.x,f.x,1e-3f);
+			assertEquals(e.y,f.y,1e-3f);
+			for( int j = 0; j < imageType.getNumBands(); j++ ) {
+				assertEquals(e.color[j],f.color[j],1e-2f);
+			}
+		}
+		assertEquals(expected.getRegionMemberCount().size,found.getRegionMemberCount().size);
+	}
+
 	/**
 	 * Give it an easy image to segment and see how well it does.
 	 */
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.slic;
+
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.Planar;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSegmentSlic_PLU8_MT extends TestSegmentSlic_PLU8 {
+	@Override
+	public SegmentSlic<Planar<GrayU8>> createAlg(int numberOfRegions, float m, int totalIterations, ConnectRule rule) {
+		return new SegmentSlic_PlU8_MT(numberOfRegions,m,totalIterations,rule,3);
+	}
+
+	@Override
+	public SegmentSlic<Planar<GrayU8>> createSingleThread(int numberOfRegions, float m, int totalIterations, ConnectRule rule) {
+		return super.createAlg(numberOfRegions, m, totalIterations, rule);
+	}
+}
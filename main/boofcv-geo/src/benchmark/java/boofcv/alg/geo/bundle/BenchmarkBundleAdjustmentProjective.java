@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureProjective;
+import boofcv.alg.geo.PerspectiveOps;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares single and multi threaded residual and Jacobian computations for projective bundle adjustment
+ * on synthetic scenes.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkBundleAdjustmentProjective {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"100","1000","5000"})
+	public int numViews;
+
+	// Number of points observed by each view
+	public int pointsPerView = 200;
+	// Number of views each point is observed in
+	public int viewsPerPoint = 4;
+
+	SceneStructureProjective scene;
+	SceneObservations observations;
+
+	BundleAdjustmentProjectiveResidualFunction residuals;
+	BundleAdjustmentProjectiveSchurJacobian_DSCC jacobian;
+
+	double[] parameters;
+	double[] output;
+	DMatrixSparseCSC left = new DMatrixSparseCSC(1,1,1);
+	DMatrixSparseCSC right = new DMatrixSparseCSC(1,1,1);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		int numPoints = numViews*pointsPerView/viewsPerPoint;
+		scene = new SceneStructureProjective(false);
+		scene.initialize(numViews,numPoints);
+		observations = new SceneObservations();
+		observations.initialize(numViews);
+
+		// Cameras are placed along a line and look at points in front of them
+		DMatrixRMaj P = new DMatrixRMaj(3,4);
+		for (int viewIdx = 0; viewIdx < numViews; viewIdx++) {
+			P.zero();
+			P.set(0,0,500); P.set(0,2,320); P.set(0,3,-500*viewIdx*0.1);
+			P.set(1,1,500); P.set(1,2,240);
+			P.set(2,2,1);
+			scene.setView(viewIdx,viewIdx==0,P,640,480);
+		}
+
+		Point3D_F64 X = new Point3D_F64();
+		Point2D_F64 pixel = new Point2D_F64();
+		for (int pointIdx = 0; pointIdx < numPoints; pointIdx++) {
+			int firstView = (pointIdx*viewsPerPoint/pointsPerView)%(numViews-viewsPerPoint+1);
+			X.x = firstView*0.1 + rand.nextGaussian()*0.2;
+			X.y = rand.nextGaussian()*0.2;
+			X.z = 2 + rand.nextDouble();
+			scene.setPoint(pointIdx,X.x,X.y,X.z);
+
+			for (int i = 0; i < viewsPerPoint; i++) {
+				int viewIdx = firstView+i;
+				PerspectiveOps.renderPixel(scene.views.get(viewIdx).worldToView,X,pixel);
+				scene.points.get(pointIdx).views.add(viewIdx);
+				observations.getView(viewIdx).add(pointIdx,
+						(float)(pixel.x + rand.nextGaussian()), (float)(pixel.y + rand.nextGaussian()));
+			}
+		}
+
+		if( concurrent ) {
+			residuals = new BundleAdjustmentProjectiveResidualFunction_MT();
+			jacobian = new BundleAdjustmentProjectiveSchurJacobian_DSCC_MT();
+		} else {
+			residuals = new BundleAdjustmentProjectiveResidualFunction();
+			jacobian = new BundleAdjustmentProjectiveSchurJacobian_DSCC();
+		}
+		residuals.configure(scene,observations);
+		jacobian.configure(scene,observations);
+
+		parameters = new double[scene.getParameterCount()];
+		new CodecSceneStructureProjective().encode(scene,parameters);
+		output = new double[residuals.getNumOfOutputsM()];
+	}
+
+	@Benchmark
+	public void residuals() {
+		residuals.process(parameters,output);
+	}
+
+	@Benchmark
+	public void jacobian() {
+		jacobian.process(parameters,left,right);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkBundleAdjustmentProjective.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.triangulate;
+
+import georegression.geometry.ConvertRotation3D_F64;
+import georegression.struct.EulerType;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares single and multi threaded batch triangulation against the point at a time implementation
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkTriangulateMetricBatch {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"1000000"})
+	public int numPoints;
+
+	// Number of views in the N-view problem. Every point is seen by every view
+	public int numViews = 4;
+
+	TriangulateMetricBatch batch;
+	Triangulate2ViewsGeometricMetric single = new Triangulate2ViewsGeometricMetric();
+
+	Se3_F64 a_to_b;
+	double[] ax, ay, bx, by;
+	double[] obsX, obsY;
+	int[] obsView, trackStart;
+	double[] output;
+
+	Point2D_F64 pa = new Point2D_F64();
+	Point2D_F64 pb = new Point2D_F64();
+	Point3D_F64 found = new Point3D_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		batch = concurrent ? new TriangulateMetricBatch_MT() : new TriangulateMetricBatch();
+
+		List<Se3_F64> worldToView = new ArrayList<>();
+		for (int viewIdx = 0; viewIdx < numViews; viewIdx++) {
+			Se3_F64 w2v = new Se3_F64();
+			ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ,0.01*viewIdx,-0.02*viewIdx,0,w2v.R);
+			w2v.T.set(-0.2*viewIdx,0.01*viewIdx,0);
+			worldToView.add(w2v);
+		}
+		batch.setViews(worldToView);
+		a_to_b = worldToView.get(1);
+
+		ax = new double[numPoints]; ay = new double[numPoints];
+		bx = new double[numPoints]; by = new double[numPoints];
+		obsX = new double[numPoints*numViews]; obsY = new double[numPoints*numViews];
+		obsView = new int[numPoints*numViews];
+		trackStart = new int[numPoints+1];
+		output = new double[numPoints*3];
+
+		Point3D_F64 X = new Point3D_F64();
+		Point3D_F64 viewX = new Point3D_F64();
+		for (int pointIdx = 0; pointIdx < numPoints; pointIdx++) {
+			X.set(rand.nextGaussian(), rand.nextGaussian(), 4 + rand.nextGaussian()*0.5);
+			trackStart[pointIdx] = pointIdx*numViews;
+			for (int viewIdx = 0; viewIdx < numViews; viewIdx++) {
+				SePointOps_F64.transform(worldToView.get(viewIdx),X,viewX);
+				int obsIdx = pointIdx*numViews + viewIdx;
+				obsX[obsIdx] = viewX.x/viewX.z;
+				obsY[obsIdx] = viewX.y/viewX.z;
+				obsView[obsIdx] = viewIdx;
+			}
+			ax[pointIdx] = obsX[pointIdx*numViews];
+			ay[pointIdx] = obsY[pointIdx*numViews];
+			bx[pointIdx] = obsX[pointIdx*numViews+1];
+			by[pointIdx] = obsY[pointIdx*numViews+1];
+		}
+		trackStart[numPoints] = numPoints*numViews;
+	}
+
+	@Benchmark
+	public void batch2() {
+		batch.triangulate2(ax,ay,bx,by,numPoints,a_to_b,output);
+	}
+
+	@Benchmark
+	public void batchN() {
+		batch.triangulateN(obsX,obsY,obsView,trackStart,numPoints,output);
+	}
+
+	@Benchmark
+	public void pointAtATime2() {
+		for (int i = 0; i < numPoints; i++) {
+			pa.set(ax[i],ay[i]);
+			pb.set(bx[i],by[i]);
+			single.triangulate(pa,pb,a_to_b,found);
+		}
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkTriangulateMetricBatch.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.nn;
+
+import georegression.struct.point.Point3D_F64;
+import org.ddogleg.nn.FactoryNearestNeighbor;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the flat array point cloud KD-Tree against the generic KD-Tree wrapped by {@link KdTreePoint3D_F64}
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkKdTreePointCloud {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"1000000"})
+	public int numPoints;
+
+	// Number of queries in the search benchmarks
+	public int numQueries = 100_000;
+	// Number of neighbors found for each query
+	public int numNeighbors = 8;
+
+	KdTreePointCloud_F64 flat;
+	NearestNeighbor<Point3D_F64> generic;
+	NearestNeighbor.Search<Point3D_F64> genericSearch;
+	FastQueue<NnData<Point3D_F64>> genericResults = new FastQueue(NnData::new);
+
+	double[] cloudArray;
+	List<Point3D_F64> cloudList = new ArrayList<>();
+	double[] queryArray;
+	List<Point3D_F64> queryList = new ArrayList<>();
+
+	int[] outIndexes;
+	double[] outDistanceSq;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		cloudArray = new double[numPoints*3];
+		cloudList.clear();
+		for (int i = 0; i < numPoints; i++) {
+			double x = rand.nextGaussian(), y = rand.nextGaussian(), z = rand.nextGaussian()*0.2;
+			cloudArray[i*3] = x; cloudArray[i*3+1] = y; cloudArray[i*3+2] = z;
+			cloudList.add(new Point3D_F64(x,y,z));
+		}
+
+		queryArray = new double[numQueries*3];
+		queryList.clear();
+		for (int i = 0; i < numQueries; i++) {
+			double x = rand.nextGaussian(), y = rand.nextGaussian(), z = rand.nextGaussian()*0.2;
+			queryArray[i*3] = x; queryArray[i*3+1] = y; queryArray[i*3+2] = z;
+			queryList.add(new Point3D_F64(x,y,z));
+		}
+		outIndexes = new int[numQueries*numNeighbors];
+		outDistanceSq = new double[numQueries*numNeighbors];
+
+		flat = concurrent ? new KdTreePointCloud_F64_MT() : new KdTreePointCloud_F64();
+		flat.setPoints(cloudArray,numPoints);
+		generic = FactoryNearestNeighbor.kdtree(new KdTreePoint3D_F64());
+		generic.setPoints(cloudList,false);
+		genericSearch = generic.createSearch();
+	}
+
+	@Benchmark
+	public void buildFlat() {
+		flat.setPoints(cloudArray,numPoints);
+	}
+
+	@Benchmark
+	public void buildGeneric() {
+		generic.setPoints(cloudList,false);
+	}
+
+	@Benchmark
+	public void nearestFlatBatch() {
+		flat.findNearestBatch(queryArray,numQueries,numNeighbors,Double.MAX_VALUE,outIndexes,outDistanceSq);
+	}
+
+	@Benchmark
+	public void nearestGeneric() {
+		for (int i = 0; i < numQueries; i++) {
+			genericSearch.findNearest(queryList.get(i),-1,numNeighbors,genericResults);
+		}
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkKdTreePointCloud.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.geo.bundle;
+
+import boofcv.alg.geo.bundle.BundleAdjustmentMetricResidualFunction;
+import boofcv.alg.geo.bundle.BundleAdjustmentMetricSchurJacobian;
+import boofcv.alg.geo.bundle.CodecSceneStructureMetric;
+import org.ddogleg.optimization.UnconstrainedLeastSquaresSchur;
+import org.ddogleg.struct.Stoppable;
+import org.ddogleg.struct.VerbosePrint;
+import org.ejml.data.DMatrix;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.PrintStream;
+import java.util.Set;
+
+/**
+ * Sparse metric bundle adjustment where the general points and their observations are stored in
+ * {@link ScenePointsPacked} and {@link SceneObservationsPacked}. Intended for scenes which are too large to
+ * have a Java object for every point and observation. The general points in the {@link SceneStructureMetric}
+ * must be empty. Rigid objects are not supported.
+ *
+ * @see boofcv.factory.geo.FactoryMultiView#bundleSparseMetricPacked
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentMetricPacked<M extends DMatrix> implements Stoppable, VerbosePrint {
+	// minimization algorithm
+	private final UnconstrainedLeastSquaresSchur<M> minimizer;
+
+	private final BundleAdjustmentMetricResidualFunction function;
+	private final BundleAdjustmentMetricSchurJacobian<M> jacobian;
+	private final CodecSceneStructureMetric codec;
+
+	private int maxIterations;
+	private double[] parameters = new double[0];
+
+	private volatile boolean stopRequested = false;
+
+	private double ftol,gtol;
+
+	public BundleAdjustmentMetricPacked( UnconstrainedLeastSquaresSchur<M> minimizer,
+										 BundleAdjustmentMetricResidualFunction function,
+										 BundleAdjustmentMetricSchurJacobian<M> jacobian,
+										 CodecSceneStructureMetric codec ) {
+		this.minimizer = minimizer;
+		this.function = function;
+		this.jacobian = jacobian;
+		this.codec = codec;
+	}
+
+	/**
+	 * Configures optimization parameters. See {@link BundleAdjustment#configure}
+	 */
+	public void configure( double ftol, double gtol, int maxIterations ) {
+		this.ftol = ftol;
+		this.gtol = gtol;
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * Specifies the optimization parameters.
+	 *
+	 * @param structure Input: Initial parameters for everything but the general points
+	 * @param points Input: Initial location of general points
+	 * @param observations Observation of general points in each image.
+	 */
+	public void setParameters( SceneStructureMetric structure, ScenePointsPacked points,
+							   SceneObservationsPacked observations ) {
+		this.function.configure(structure, points, observations);
+		this.jacobian.configure(structure, points, observations);
+		this.minimizer.setFunction(function,jacobian);
+
+		int N = structure.getParameterCount() + points.size()*points.getPointSize();
+		if( parameters.length < N ) {
+			parameters = new double[N];
+		}
+		codec.encode(structure,points,parameters);
+		this.minimizer.initialize(parameters,ftol,gtol);
+	}
+
+	/**
+	 * Optimises the parameters to minimize the error in the observations. This function call will block until
+	 * complete.
+	 *
+	 * @param output Storage for everything but the general points
+	 * @param outputPoints Storage for the optimized general points
+	 * @return true If the cost function has been improved
+	 */
+	public boolean optimize( SceneStructureMetric output, ScenePointsPacked outputPoints ) {
+		stopRequested = false;
+
+		double before = minimizer.getFunctionValue();
+		for( int i = 0; i < maxIterations && !stopRequested; i++ ) {
+			if( minimizer.iterate() )
+				break;
+		}
+
+		codec.decode(minimizer.getParameters(), output, outputPoints);
+		return minimizer.getFunctionValue() < before;
+	}
+
+	/**
+	 * Returns the fit score. See {@link BundleAdjustment#getFitScore()}
+	 */
+	public double getFitScore() {
+		return minimizer.getFunctionValue();
+	}
+
+	@Override
+	public void requestStop() {
+		stopRequested = true;
+	}
+
+	@Override
+	public boolean isStopRequested() {
+		return stopRequested;
+	}
+
+	@Override
+	public void setVerbose( @Nullable PrintStream out, @Nullable Set<String> configuration ) {
+		this.minimizer.setVerbose(out,0);
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.geo.bundle;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Allocates the buffers used by packed scene storage. Buffers are either allocated outside of the heap using
+ * direct memory or are regions of a memory mapped file. When file backed, each new buffer is mapped
+ * directly after the previous one.
+ *
+ * @author Peter Abeles
+ */
+class PackedSceneBuffers {
+	// If not null then buffers are mapped from this file
+	private @Nullable FileChannel channel;
+	// Location in the file that the next buffer will be mapped to
+	private long fileOffset;
+
+	/**
+	 * Buffers will be allocated in direct memory
+	 */
+	PackedSceneBuffers() {}
+
+	/**
+	 * Buffers will be mapped from the specified file. If the file exists it will be overwritten.
+	 */
+	PackedSceneBuffers( Path file ) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	/**
+	 * Allocates a new buffer with native byte order
+	 *
+	 * @param numBytes Size of the buffer in bytes. Must be less than 2^31.
+	 */
+	ByteBuffer allocate( long numBytes ) {
+		if( numBytes > Integer.MAX_VALUE )
+			throw new IllegalArgumentException("Buffer is too large. bytes="+numBytes);
+		ByteBuffer buffer;
+		if( channel == null ) {
+			buffer = ByteBuffer.allocateDirect((int)numBytes);
+		} else {
+			try {
+				buffer = channel.map(FileChannel.MapMode.READ_WRITE, fileOffset, numBytes);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+			fileOffset += numBytes;
+		}
+		buffer.order(ByteOrder.nativeOrder());
+		return buffer;
+	}
+
+	boolean isMapped() {
+		return channel != null;
+	}
+
+	/**
+	 * Closes the file, if there is one. Mapped buffers remain valid until they are garbage collected.
+	 */
+	void close() {
+		if( channel == null )
+			return;
+		try {
+			channel.close();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		channel = null;
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.geo.bundle;
+
+import boofcv.struct.geo.PointIndex2D_F64;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+
+/**
+ * Alternative to {@link SceneObservations} for very large scenes. Observations of general points are packed
+ * into primitive buffers which are stored outside of the Java heap, either in direct memory or in a memory
+ * mapped file. Observations are ordered by view so that all the observations in a view are contiguous.
+ * The number of observations in each view must be known in advance. Rigid objects are not supported.
+ *
+ * Observations can be referenced using an index local to a view or by their global index, which
+ * is {@link #getViewStart(int)} plus the local index.
+ *
+ * @see ScenePointsPacked
+ *
+ * @author Peter Abeles
+ */
+public class SceneObservationsPacked {
+	// Index of the first observation in each view. Size is number of views + 1
+	private final int[] viewStart;
+	// Index of the point which each observation is of
+	private final IntBuffer pointIds;
+	// Observed pixel coordinates in an interleaved format
+	private final FloatBuffer pixels;
+
+	private final PackedSceneBuffers buffers;
+
+	private SceneObservationsPacked( PackedSceneBuffers buffers, int[] observationsInView ) {
+		this.buffers = buffers;
+		this.viewStart = new int[observationsInView.length+1];
+		long total = 0;
+		for (int i = 0; i < observationsInView.length; i++) {
+			total += observationsInView[i];
+			if( total > Integer.MAX_VALUE/8 )
+				throw new IllegalArgumentException("Too many observations");
+			viewStart[i+1] = (int)total;
+		}
+		pointIds = buffers.allocate(total*4).asIntBuffer();
+		pixels = buffers.allocate(total*8).asFloatBuffer();
+	}
+
+	/**
+	 * Creates storage which is allocated in direct memory
+	 *
+	 * @param observationsInView Number of observations in each view
+	 */
+	public static SceneObservationsPacked createDirect( int[] observationsInView ) {
+		return new SceneObservationsPacked(new PackedSceneBuffers(),observationsInView);
+	}
+
+	/**
+	 * Creates storage which is backed by a memory mapped file. If the file already exists it will be overwritten.
+	 *
+	 * @param file File used to store observations
+	 * @param observationsInView Number of observations in each view
+	 */
+	public static SceneObservationsPacked createMapped( Path file , int[] observationsInView ) throws IOException {
+		return new SceneObservationsPacked(new PackedSceneBuffers(file),observationsInView);
+	}
+
+	/**
+	 * Creates direct memory storage and copies the general observations from the input into it
+	 */
+	public static SceneObservationsPacked createDirect( SceneObservations src ) {
+		int[] counts = new int[src.views.size];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = src.views.data[i].size();
+		}
+		SceneObservationsPacked out = createDirect(counts);
+		for (int viewIdx = 0; viewIdx < counts.length; viewIdx++) {
+			SceneObservations.View v = src.views.data[viewIdx];
+			for (int i = 0; i < v.size(); i++) {
+				out.set(viewIdx, i, v.point.data[i], v.observations.data[i*2], v.observations.data[i*2+1]);
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Sets an observation in a view
+	 *
+	 * @param view Index of the view
+	 * @param index Index of the observation inside the view
+	 * @param pointId The point which was observed
+	 * @param x observation x-axis
+	 * @param y observation y-axis
+	 */
+	public void set( int view , int index , int pointId , float x , float y ) {
+		if( index < 0 || index >= getViewSize(view) )
+			throw new IndexOutOfBoundsException("index="+index+" size="+getViewSize(view));
+		int global = viewStart[view] + index;
+		pointIds.put(global,pointId);
+		pixels.put(global*2,x);
+		pixels.put(global*2+1,y);
+	}
+
+	/**
+	 * Copies the observation into a point. Uses the global index.
+	 */
+	public void get( int global , PointIndex2D_F64 observation ) {
+		observation.index = pointIds.get(global);
+		observation.x = pixels.get(global*2);
+		observation.y = pixels.get(global*2+1);
+	}
+
+	/**
+	 * Returns the point ID of an observation. Uses the global index.
+	 */
+	public int getPointId( int global ) {
+		return pointIds.get(global);
+	}
+
+	public float getX( int global ) {
+		return pixels.get(global*2);
+	}
+
+	public float getY( int global ) {
+		return pixels.get(global*2+1);
+	}
+
+	/**
+	 * Global index of the first observation in the view
+	 */
+	public int getViewStart( int view ) {
+		return viewStart[view];
+	}
+
+	/**
+	 * Number of observations in the view
+	 */
+	public int getViewSize( int view ) {
+		return viewStart[view+1]-viewStart[view];
+	}
+
+	public int getViewCount() {
+		return viewStart.length-1;
+	}
+
+	/**
+	 * Total number of observations across all views
+	 */
+	public int getObservationCount() {
+		return viewStart[viewStart.length-1];
+	}
+
+	public boolean isMapped() {
+		return buffers.isMapped();
+	}
+
+	/**
+	 * Closes the backing file if there is one.
+	 */
+	public void close() {
+		buffers.close();
+	}
+}
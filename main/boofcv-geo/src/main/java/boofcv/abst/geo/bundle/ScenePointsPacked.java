@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.geo.bundle;
+
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Point4D_F64;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.file.Path;
+
+/**
+ * Alternative to the list of {@link SceneStructureCommon.Point} for very large scenes. Point coordinates are
+ * packed into primitive buffers which are stored outside of the Java heap, either in direct memory or in a
+ * memory mapped file. When used the general points in the scene structure must be empty. Coordinates are
+ * stored in an interleaved format, 3 or 4 values per point depending on if homogenous coordinates are used.
+ *
+ * @see SceneObservationsPacked
+ * @see BundleAdjustmentMetricPacked
+ * @see boofcv.alg.geo.bundle.CodecSceneStructureMetric
+ *
+ * @author Peter Abeles
+ */
+public class ScenePointsPacked {
+	// Number of points
+	private final int numPoints;
+	// Number of elements in each point. 3 or 4
+	private final int pointSize;
+	// Interleaved coordinates of each point
+	private final DoubleBuffer coordinates;
+
+	private final PackedSceneBuffers buffers;
+
+	private ScenePointsPacked( PackedSceneBuffers buffers , int numPoints , boolean homogenous ) {
+		this.buffers = buffers;
+		this.numPoints = numPoints;
+		this.pointSize = homogenous ? 4 : 3;
+		coordinates = buffers.allocate((long)numPoints*pointSize*8).asDoubleBuffer();
+	}
+
+	/**
+	 * Creates storage which is allocated in direct memory
+	 *
+	 * @param numPoints Number of points
+	 * @param homogenous true if homogenous coordinates are used
+	 */
+	public static ScenePointsPacked createDirect( int numPoints , boolean homogenous ) {
+		return new ScenePointsPacked(new PackedSceneBuffers(),numPoints,homogenous);
+	}
+
+	/**
+	 * Creates storage which is backed by a memory mapped file. If the file already exists it will be overwritten.
+	 *
+	 * @param file File used to store the points
+	 * @param numPoints Number of points
+	 * @param homogenous true if homogenous coordinates are used
+	 */
+	public static ScenePointsPacked createMapped( Path file , int numPoints , boolean homogenous ) throws IOException {
+		return new ScenePointsPacked(new PackedSceneBuffers(file),numPoints,homogenous);
+	}
+
+	/**
+	 * Creates direct memory storage and copies the coordinates of general points from the input into it
+	 */
+	public static ScenePointsPacked createDirect( SceneStructureCommon src ) {
+		ScenePointsPacked out = createDirect(src.points.size,src.isHomogenous());
+		for (int i = 0; i < src.points.size; i++) {
+			double[] c = src.points.data[i].coordinate;
+			for (int j = 0; j < out.pointSize; j++) {
+				out.coordinates.put(i*out.pointSize+j,c[j]);
+			}
+		}
+		return out;
+	}
+
+	public void set( int which , double x , double y , double z ) {
+		if( pointSize != 3 )
+			throw new IllegalArgumentException("Points are homogenous");
+		int index = which*3;
+		coordinates.put(index  ,x);
+		coordinates.put(index+1,y);
+		coordinates.put(index+2,z);
+	}
+
+	public void set( int which , double x , double y , double z , double w ) {
+		if( pointSize != 4 )
+			throw new IllegalArgumentException("Points are not homogenous");
+		int index = which*4;
+		coordinates.put(index  ,x);
+		coordinates.put(index+1,y);
+		coordinates.put(index+2,z);
+		coordinates.put(index+3,w);
+	}
+
+	public void get( int which , Point3D_F64 p ) {
+		int index = which*pointSize;
+		p.x = coordinates.get(index);
+		p.y = coordinates.get(index+1);
+		p.z = coordinates.get(index+2);
+	}
+
+	public void get( int which , Point4D_F64 p ) {
+		int index = which*pointSize;
+		p.x = coordinates.get(index);
+		p.y = coordinates.get(index+1);
+		p.z = coordinates.get(index+2);
+		p.w = pointSize == 4 ? coordinates.get(index+3) : 1.0;
+	}
+
+	/**
+	 * Returns a single element of a point's coordinate
+	 *
+	 * @param which Index of the point
+	 * @param axis Which element. 0 to 2 or 0 to 3 if homogenous
+	 */
+	public double getCoordinate( int which , int axis ) {
+		return coordinates.get(which*pointSize+axis);
+	}
+
+	/**
+	 * Copies the coordinates of all the points into an array
+	 *
+	 * @param output Array the coordinates are written into
+	 * @param offset Index of the first element which is written to
+	 */
+	public void copyTo( double[] output , int offset ) {
+		DoubleBuffer src = coordinates.duplicate();
+		src.position(0);
+		src.get(output,offset,numPoints*pointSize);
+	}
+
+	/**
+	 * Copies the coordinates of all the points from an array
+	 *
+	 * @param input Array the coordinates are read from
+	 * @param offset Index of the first element which is read
+	 */
+	public void copyFrom( double[] input , int offset ) {
+		DoubleBuffer dst = coordinates.duplicate();
+		dst.position(0);
+		dst.put(input,offset,numPoints*pointSize);
+	}
+
+	public int size() {
+		return numPoints;
+	}
+
+	public int getPointSize() {
+		return pointSize;
+	}
+
+	public boolean isHomogenous() {
+		return pointSize == 4;
+	}
+
+	public boolean isMapped() {
+		return buffers.isMapped();
+	}
+
+	/**
+	 * Closes the backing file if there is one.
+	 */
+	public void close() {
+		buffers.close();
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.cloud;
+
+import boofcv.concurrency.BoofConcurrency;
+
+/**
+ * {@link PointCloudWriter} which reduces a point cloud as it's being generated by accumulating points into a
+ * {@link VoxelGridHash}. Memory is proportional to the number of occupied voxels instead of the number of points.
+ * Once all the points have been added call {@link #writeTo} to prune the voxels and output the centroid and average
+ * color of each voxel. Points are buffered and added to the grid in batches using {@link VoxelGridHash#addAll},
+ * which lets {@link VoxelGridHash_MT} process them in parallel.
+ *
+ * <pre>
+ * VoxelGridFilter filter = new VoxelGridFilter(0.02);
+ * disparityToCloud.process(disparity, color, filter);
+ * filter.writeTo(PointCloudWriter.wrapF64RGB(cloud));
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class VoxelGridFilter implements PointCloudWriter {
+	/** Voxels with fewer points than this are discarded */
+	public int minPointsPerVoxel = 1;
+
+	/** Number of neighbors used in statistical outlier removal. If &le; 0 then outlier removal is skipped */
+	public int outlierNeighbors = 0;
+
+	/** Voxels with mean neighbor distance this many standard deviations above the mean are outliers */
+	public double outlierStdev = 2.0;
+
+	/** Number of points which are buffered before they are added to the grid */
+	public int batchSize = 50_000;
+
+	final VoxelGridHash grid;
+
+	// Points which have not been added to the grid yet
+	double[] batchXyz = new double[0];
+	int[] batchRgb = new int[0];
+	int batchCount;
+	// true if the points in the batch have color
+	boolean batchHasColor;
+
+	public VoxelGridFilter( VoxelGridHash grid ) {
+		this.grid = grid;
+	}
+
+	/**
+	 * Creates the filter with a concurrent grid if concurrency is turned on
+	 *
+	 * @param voxelSize Length of a side of each voxel
+	 */
+	public VoxelGridFilter( double voxelSize ) {
+		this(BoofConcurrency.USE_CONCURRENT ? new VoxelGridHash_MT(voxelSize) : new VoxelGridHash(voxelSize));
+	}
+
+	/**
+	 * Discards all previously added points
+	 */
+	@Override
+	public void init( int estimatedSize ) {
+		grid.reset();
+		batchCount = 0;
+	}
+
+	@Override
+	public void add( double x, double y, double z ) {
+		addToBatch(x,y,z,false,0);
+	}
+
+	@Override
+	public void add( double x, double y, double z, int rgb ) {
+		addToBatch(x,y,z,true,rgb);
+	}
+
+	private void addToBatch( double x, double y, double z, boolean hasColor, int rgb ) {
+		// a batch can't contain a mixture of points with and without color
+		if( batchCount > 0 && hasColor != batchHasColor )
+			flush();
+
+		if( batchCount == 0 ) {
+			batchHasColor = hasColor;
+			if( batchRgb.length < batchSize ) {
+				batchXyz = new double[batchSize*3];
+				batchRgb = new int[batchSize];
+			}
+		}
+
+		batchXyz[batchCount*3  ] = x;
+		batchXyz[batchCount*3+1] = y;
+		batchXyz[batchCount*3+2] = z;
+		batchRgb[batchCount] = rgb;
+		batchCount++;
+
+		if( batchCount >= batchSize || batchCount >= batchRgb.length )
+			flush();
+	}
+
+	/**
+	 * Adds all the buffered points to the grid
+	 */
+	public void flush() {
+		if( batchCount == 0 )
+			return;
+		grid.addAll(batchXyz,batchHasColor ? batchRgb : null,batchCount);
+		batchCount = 0;
+	}
+
+	/**
+	 * Removes sparse voxels and outliers then writes the reduced cloud to the output
+	 *
+	 * @param output (Output) Where the reduced cloud is written to
+	 */
+	public void writeTo( PointCloudWriter output ) {
+		flush();
+		if( minPointsPerVoxel > 1 )
+			grid.removeSparse(minPointsPerVoxel);
+		if( outlierNeighbors > 0 )
+			grid.removeOutliers(outlierNeighbors,outlierStdev);
+		grid.writeCentroids(output);
+	}
+
+	/**
+	 * Returns the grid after all the buffered points have been added to it
+	 */
+	public VoxelGridHash getGrid() {
+		flush();
+		return grid;
+	}
+}
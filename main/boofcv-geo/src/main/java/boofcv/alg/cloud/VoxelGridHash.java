@@ -0,0 +1,440 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.cloud;
+
+import boofcv.alg.nn.KdTreePointCloud_F64;
+import georegression.struct.point.Point3D_F64;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Spatial hash which partitions 3D space into a regular grid of cubic voxels and accumulates the points that
+ * fall inside of each voxel. Voxels are identified by a primitive long code which packs the integer
+ * coordinate of the voxel along each axis into 21-bits. The hash table uses open addressing and never
+ * boxes keys, which makes it practical for clouds with millions of points. For each voxel the sum of point
+ * locations and colors is maintained, allowing centroid and average color to be computed.
+ *
+ * Voxels are stored in the order they were first seen. Voxel coordinates must lie inside of
+ * [-2<sup>20</sup>, 2<sup>20</sup>) or an exception is thrown.
+ *
+ * @author Peter Abeles
+ */
+public class VoxelGridHash {
+	/** Number of bits used to encode each axis in the voxel key */
+	public static final int BITS = 21;
+	/** Offset which is added to a voxel coordinate to make it non-negative */
+	public static final int OFFSET = 1 << (BITS-1);
+	private static final long MASK = (1L << BITS)-1;
+
+	// length of a side of a voxel
+	protected double voxelSize;
+
+	// Number of voxels
+	protected int numVoxels;
+	// Key for each voxel
+	protected long[] keys = new long[0];
+	// Number of points inside each voxel and the number of which had a color
+	protected int[] counts = new int[0];
+	protected int[] colorCounts = new int[0];
+	// Sum of the location of points in each voxel. x,y,z interleaved
+	protected double[] sumXyz = new double[0];
+	// Sum of color channels in each voxel. r,g,b interleaved
+	protected long[] sumRgb = new long[0];
+
+	// Open addressing hash table. Each element is voxel index + 1 or 0 if empty
+	protected int[] table = new int[16];
+
+	/**
+	 * @param voxelSize Length of a side of each voxel
+	 */
+	public VoxelGridHash( double voxelSize ) {
+		setVoxelSize(voxelSize);
+	}
+
+	/**
+	 * Discards all the voxels
+	 */
+	public void reset() {
+		numVoxels = 0;
+		Arrays.fill(table,0);
+	}
+
+	/**
+	 * Adds a point without color information
+	 *
+	 * @return index of the voxel which the point was added to
+	 */
+	public int add( double x , double y , double z ) {
+		int voxel = lookupOrCreate(computeKey(x,y,z));
+		counts[voxel]++;
+		sumXyz[voxel*3  ] += x;
+		sumXyz[voxel*3+1] += y;
+		sumXyz[voxel*3+2] += z;
+		return voxel;
+	}
+
+	/**
+	 * Adds a point with color information
+	 *
+	 * @param rgb Color encoded as 0xRRGGBB
+	 * @return index of the voxel which the point was added to
+	 */
+	public int add( double x , double y , double z , int rgb ) {
+		int voxel = add(x,y,z);
+		colorCounts[voxel]++;
+		sumRgb[voxel*3  ] += (rgb >> 16) & 0xFF;
+		sumRgb[voxel*3+1] += (rgb >> 8) & 0xFF;
+		sumRgb[voxel*3+2] += rgb & 0xFF;
+		return voxel;
+	}
+
+	/**
+	 * Adds all the points in the array
+	 *
+	 * @param xyz Points with x,y,z interleaved
+	 * @param rgb (Optional) Color of each point
+	 * @param numPoints Number of points
+	 */
+	public void addAll( double[] xyz , @Nullable int[] rgb , int numPoints ) {
+		addRange(xyz,rgb,0,numPoints);
+	}
+
+	protected void addRange( double[] xyz , @Nullable int[] rgb , int idx0 , int idx1 ) {
+		if( rgb == null ) {
+			for (int i = idx0; i < idx1; i++) {
+				add(xyz[i*3],xyz[i*3+1],xyz[i*3+2]);
+			}
+		} else {
+			for (int i = idx0; i < idx1; i++) {
+				add(xyz[i*3],xyz[i*3+1],xyz[i*3+2],rgb[i]);
+			}
+		}
+	}
+
+	/**
+	 * Adds the accumulated statistics from another grid into this one. Voxels which are new to this grid
+	 * are appended in the order they appear in 'src'.
+	 */
+	public void merge( VoxelGridHash src ) {
+		if( src.voxelSize != voxelSize )
+			throw new IllegalArgumentException("Voxel sizes do not match");
+		for (int srcIdx = 0; srcIdx < src.numVoxels; srcIdx++) {
+			int voxel = lookupOrCreate(src.keys[srcIdx]);
+			counts[voxel] += src.counts[srcIdx];
+			colorCounts[voxel] += src.colorCounts[srcIdx];
+			for (int i = 0; i < 3; i++) {
+				sumXyz[voxel*3+i] += src.sumXyz[srcIdx*3+i];
+				sumRgb[voxel*3+i] += src.sumRgb[srcIdx*3+i];
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of the voxel which contains the point or -1 if there is no such voxel
+	 */
+	public int lookup( double x , double y , double z ) {
+		return lookupKey(computeKey(x,y,z));
+	}
+
+	/**
+	 * Returns the index of the voxel with the specified key or -1 if there is no such voxel
+	 */
+	public int lookupKey( long key ) {
+		int mask = table.length-1;
+		int slot = hash(key) & mask;
+		while( true ) {
+			int value = table[slot];
+			if( value == 0 )
+				return -1;
+			if( keys[value-1] == key )
+				return value-1;
+			slot = (slot+1) & mask;
+		}
+	}
+
+	protected int lookupOrCreate( long key ) {
+		int mask = table.length-1;
+		int slot = hash(key) & mask;
+		while( true ) {
+			int value = table[slot];
+			if( value == 0 )
+				break;
+			if( keys[value-1] == key )
+				return value-1;
+			slot = (slot+1) & mask;
+		}
+
+		int voxel = numVoxels++;
+		growVoxels(numVoxels);
+		keys[voxel] = key;
+		counts[voxel] = 0;
+		colorCounts[voxel] = 0;
+		Arrays.fill(sumXyz,voxel*3,voxel*3+3,0.0);
+		Arrays.fill(sumRgb,voxel*3,voxel*3+3,0L);
+
+		// keep the load factor at or below 0.5
+		if( numVoxels*2 > table.length ) {
+			rehash(table.length*2);
+		} else {
+			table[slot] = voxel+1;
+		}
+		return voxel;
+	}
+
+	/**
+	 * Removes all voxels which have fewer than the specified number of points inside of them
+	 *
+	 * @return Number of voxels removed
+	 */
+	public int removeSparse( int minPoints ) {
+		boolean[] remove = new boolean[numVoxels];
+		for (int i = 0; i < numVoxels; i++) {
+			remove[i] = counts[i] < minPoints;
+		}
+		return removeVoxels(remove);
+	}
+
+	/**
+	 * Statistical outlier removal applied to voxel centroids. For each voxel the mean distance to its
+	 * k-nearest neighbors is found. Voxels whose mean distance is more than the specified number of standard
+	 * deviations above the mean of all voxels are removed.
+	 *
+	 * @param numNeighbors Number of neighbors considered, k.
+	 * @param stdevThreshold Number of standard deviations above the mean before a voxel is an outlier
+	 * @return Number of voxels removed
+	 */
+	public int removeOutliers( int numNeighbors , double stdevThreshold ) {
+		if( numNeighbors <= 0 )
+			throw new IllegalArgumentException("numNeighbors must be > 0");
+		if( numVoxels <= numNeighbors )
+			return 0;
+
+		double[] centroids = new double[numVoxels*3];
+		for (int i = 0; i < numVoxels; i++) {
+			double n = counts[i];
+			centroids[i*3  ] = sumXyz[i*3  ]/n;
+			centroids[i*3+1] = sumXyz[i*3+1]/n;
+			centroids[i*3+2] = sumXyz[i*3+2]/n;
+		}
+
+		// The centroid will find itself, so search for one more
+		int k = numNeighbors+1;
+		KdTreePointCloud_F64 tree = createTree();
+		tree.setPoints(centroids,numVoxels);
+		int[] neighbors = new int[numVoxels*k];
+		double[] distanceSq = new double[numVoxels*k];
+		tree.findNearestBatch(centroids,numVoxels,k,Double.MAX_VALUE,neighbors,distanceSq);
+
+		double[] meanDistance = new double[numVoxels];
+		double sum = 0, sum2 = 0;
+		for (int i = 0; i < numVoxels; i++) {
+			double total = 0;
+			for (int j = 0; j < k; j++) {
+				if( neighbors[i*k+j] != i )
+					total += Math.sqrt(distanceSq[i*k+j]);
+			}
+			double d = total/numNeighbors;
+			meanDistance[i] = d;
+			sum += d;
+			sum2 += d*d;
+		}
+		double mean = sum/numVoxels;
+		double stdev = Math.sqrt(Math.max(0,sum2/numVoxels - mean*mean));
+		double threshold = mean + stdevThreshold*stdev;
+
+		boolean[] remove = new boolean[numVoxels];
+		for (int i = 0; i < numVoxels; i++) {
+			remove[i] = meanDistance[i] > threshold;
+		}
+		return removeVoxels(remove);
+	}
+
+	/**
+	 * Creates the KD-Tree used to find neighbors during outlier removal
+	 */
+	protected KdTreePointCloud_F64 createTree() {
+		return new KdTreePointCloud_F64();
+	}
+
+	/**
+	 * Removes the marked voxels while preserving the order of the remaining voxels
+	 */
+	protected int removeVoxels( boolean[] remove ) {
+		int dst = 0;
+		for (int src = 0; src < numVoxels; src++) {
+			if( remove[src] )
+				continue;
+			if( dst != src ) {
+				keys[dst] = keys[src];
+				counts[dst] = counts[src];
+				colorCounts[dst] = colorCounts[src];
+				System.arraycopy(sumXyz,src*3,sumXyz,dst*3,3);
+				System.arraycopy(sumRgb,src*3,sumRgb,dst*3,3);
+			}
+			dst++;
+		}
+		int removed = numVoxels-dst;
+		numVoxels = dst;
+		if( removed > 0 )
+			rehash(table.length);
+		return removed;
+	}
+
+	/**
+	 * Writes the centroid of every voxel into the writer. If any point in a voxel had a color then the
+	 * average color is written too.
+	 */
+	public void writeCentroids( PointCloudWriter output ) {
+		output.init(numVoxels);
+		for (int i = 0; i < numVoxels; i++) {
+			double n = counts[i];
+			double x = sumXyz[i*3]/n, y = sumXyz[i*3+1]/n, z = sumXyz[i*3+2]/n;
+			if( colorCounts[i] > 0 )
+				output.add(x,y,z,getAverageRgb(i));
+			else
+				output.add(x,y,z);
+		}
+	}
+
+	/**
+	 * Computes the centroid of the points inside the voxel
+	 */
+	public void getCentroid( int voxel , Point3D_F64 centroid ) {
+		double n = counts[voxel];
+		centroid.x = sumXyz[voxel*3  ]/n;
+		centroid.y = sumXyz[voxel*3+1]/n;
+		centroid.z = sumXyz[voxel*3+2]/n;
+	}
+
+	/**
+	 * Computes the average color of points inside the voxel which had color. Each channel is averaged
+	 * independently and rounded.
+	 *
+	 * @return Color encoded as 0xRRGGBB or 0 if no point had a color
+	 */
+	public int getAverageRgb( int voxel ) {
+		int n = colorCounts[voxel];
+		if( n == 0 )
+			return 0;
+		int r = (int)((sumRgb[voxel*3  ]+n/2)/n);
+		int g = (int)((sumRgb[voxel*3+1]+n/2)/n);
+		int b = (int)((sumRgb[voxel*3+2]+n/2)/n);
+		return r << 16 | g << 8 | b;
+	}
+
+	/**
+	 * Computes the key for the voxel which contains the point
+	 */
+	public long computeKey( double x , double y , double z ) {
+		return encode(
+				(int)Math.floor(x/voxelSize),
+				(int)Math.floor(y/voxelSize),
+				(int)Math.floor(z/voxelSize));
+	}
+
+	/**
+	 * Encodes the integer voxel coordinate into a long
+	 */
+	public static long encode( int x , int y , int z ) {
+		long ex = (long)x + OFFSET, ey = (long)y + OFFSET, ez = (long)z + OFFSET;
+		if( ((ex | ey | ez) & ~MASK) != 0 )
+			throw new IllegalArgumentException("Voxel coordinate out of range. "+x+" "+y+" "+z);
+		return ex << (2*BITS) | ey << BITS | ez;
+	}
+
+	/**
+	 * Decodes the voxel key into its integer coordinate
+	 *
+	 * @param output (Output) storage for the x,y,z coordinate
+	 */
+	public static void decode( long key , int[] output ) {
+		output[0] = (int)((key >>> (2*BITS)) & MASK) - OFFSET;
+		output[1] = (int)((key >>> BITS) & MASK) - OFFSET;
+		output[2] = (int)(key & MASK) - OFFSET;
+	}
+
+	private static int hash( long key ) {
+		long h = key*0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32));
+	}
+
+	private void rehash( int capacity ) {
+		if( table.length != capacity )
+			table = new int[capacity];
+		else
+			Arrays.fill(table,0);
+		int mask = capacity-1;
+		for (int voxel = 0; voxel < numVoxels; voxel++) {
+			int slot = hash(keys[voxel]) & mask;
+			while( table[slot] != 0 )
+				slot = (slot+1) & mask;
+			table[slot] = voxel+1;
+		}
+	}
+
+	private void growVoxels( int desired ) {
+		if( desired <= keys.length )
+			return;
+		int length = Math.max(16,Math.max(desired,keys.length*2));
+		keys = Arrays.copyOf(keys,length);
+		counts = Arrays.copyOf(counts,length);
+		colorCounts = Arrays.copyOf(colorCounts,length);
+		sumXyz = Arrays.copyOf(sumXyz,length*3);
+		sumRgb = Arrays.copyOf(sumRgb,length*3);
+	}
+
+	/**
+	 * Number of voxels which contain at least one point
+	 */
+	public int size() {
+		return numVoxels;
+	}
+
+	/**
+	 * Returns the number of points inside the voxel
+	 */
+	public int getCount( int voxel ) {
+		return counts[voxel];
+	}
+
+	/**
+	 * Returns the number of points with color inside the voxel
+	 */
+	public int getColorCount( int voxel ) {
+		return colorCounts[voxel];
+	}
+
+	public long getKey( int voxel ) {
+		return keys[voxel];
+	}
+
+	public double getVoxelSize() {
+		return voxelSize;
+	}
+
+	/**
+	 * Changes the voxel size. Any existing voxels are discarded.
+	 */
+	public void setVoxelSize( double voxelSize ) {
+		if( !(voxelSize > 0) )
+			throw new IllegalArgumentException("voxelSize must be > 0");
+		this.voxelSize = voxelSize;
+		reset();
+	}
+}
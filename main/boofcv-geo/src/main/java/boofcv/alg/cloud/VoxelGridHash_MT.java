@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.cloud;
+
+import boofcv.alg.nn.KdTreePointCloud_F64;
+import boofcv.alg.nn.KdTreePointCloud_F64_MT;
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link VoxelGridHash}. Points are inserted in parallel by having each thread
+ * fill its own grid for a block of points. The per-block grids are then merged in block order, so voxels
+ * have the same order and point counts as they would in the single threaded version. The sums are computed
+ * per block first, so centroids can differ from the single threaded version by floating point round off.
+ * Only {@link #addAll} is done in parallel.
+ *
+ * @author Peter Abeles
+ */
+public class VoxelGridHash_MT extends VoxelGridHash {
+	/** Minimum number of points processed by each thread */
+	public int minimumBlock = 10_000;
+
+	private final FastQueue<Block> blocks = new FastQueue<>(Block::new);
+	// Blocks sorted by their first point
+	private final List<Block> sorted = new ArrayList<>();
+
+	public VoxelGridHash_MT( double voxelSize ) {
+		super(voxelSize);
+	}
+
+	@Override
+	public void addAll( double[] xyz , @Nullable int[] rgb , int numPoints ) {
+		if( numPoints < minimumBlock*2 ) {
+			addRange(xyz,rgb,0,numPoints);
+			return;
+		}
+
+		blocks.reset();
+		BoofConcurrency.loopBlocks(0,numPoints,minimumBlock,blocks,(block,idx0,idx1)->{
+			block.idx0 = idx0;
+			if( block.grid.voxelSize != voxelSize )
+				block.grid.setVoxelSize(voxelSize);
+			else
+				block.grid.reset();
+			block.grid.addRange(xyz,rgb,idx0,idx1);
+		});
+
+		// The order of the workspace does not match the order of the blocks
+		sorted.clear();
+		for (int i = 0; i < blocks.size; i++) {
+			sorted.add(blocks.get(i));
+		}
+		sorted.sort(Comparator.comparingInt(b->b.idx0));
+		for (int i = 0; i < sorted.size(); i++) {
+			merge(sorted.get(i).grid);
+		}
+	}
+
+	@Override
+	protected KdTreePointCloud_F64 createTree() {
+		return new KdTreePointCloud_F64_MT();
+	}
+
+	/**
+	 * Grid for a block of points
+	 */
+	private class Block {
+		// index of the first point in the block
+		int idx0;
+		VoxelGridHash grid = new VoxelGridHash(voxelSize);
+	}
+}
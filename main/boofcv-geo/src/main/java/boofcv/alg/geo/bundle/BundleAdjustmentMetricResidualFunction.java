@@ -20,6 +20,8 @@ package boofcv.alg.geo.bundle;
 
 import boofcv.abst.geo.bundle.BundleAdjustmentSchur_DSCC;
 import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneObservationsPacked;
+import boofcv.abst.geo.bundle.ScenePointsPacked;
 import boofcv.abst.geo.bundle.SceneStructureMetric;
 import boofcv.struct.geo.PointIndex2D_F64;
 import georegression.struct.point.Point2D_F64;
@@ -38,6 +40,12 @@ import georegression.transform.se.SePointOps_F64;
  * cost(P) = (1/(m*n))*&sum;<sub>i</sub> &sum;<sub>j</sub> ||x<sub>j</sub> - (1/z)*[R<sub>i</sub>|T<sub>i</sub>]*X<sub>j</sub>||<sup>2</sup>
  * </p>
  *
+ * <p>
+ * Observations and general points can be provided using {@link SceneObservationsPacked} and {@link ScenePointsPacked}
+ * instead. Coordinates of general points are always read directly from the input parameters, which avoids
+ * touching point objects or packed storage while iterating.
+ * </p>
+ *
  * @see SceneStructureMetric
  * @see SceneObservations
  *
@@ -47,29 +55,31 @@ public class BundleAdjustmentMetricResidualFunction
 		implements BundleAdjustmentSchur_DSCC.FunctionResiduals<SceneStructureMetric>
 
 {
-	private SceneStructureMetric structure;
-	private SceneObservations observations;
+	protected SceneStructureMetric structure;
+	protected SceneObservations observations;
 
-	// feature location in world coordinates
-	private Point3D_F64 worldPt = new Point3D_F64();
+	// If not null then observations and points are read from packed storage
+	protected SceneObservationsPacked packedObservations;
+	protected ScenePointsPacked packedPoints;
+
+	// number of elements in a point. 3 or 4
+	private int lengthPoint;
+	// true if there are observations of rigid objects
+	private boolean hasRigid;
 
 	// number of parameters being optimised
 	private int numParameters;
 	// number of observations.  2 for each point in each view
 	private int numObservations;
 
-	// local variable which stores the predicted location of the feature in the camera frame
-	private Point3D_F64 cameraPt = new Point3D_F64();
-
-	// Storage for rendered output
-	private Point2D_F64 predictedPixel = new Point2D_F64();
-	private PointIndex2D_F64 observedPixel = new PointIndex2D_F64();
+	// index of the first observation in each view. General and rigid observations are both included
+	protected int[] viewFirstObservation = new int[0];
 
 	// Used to write the "unknown" paramters into the scene
-	CodecSceneStructureMetric codec = new CodecSceneStructureMetric();
+	protected CodecSceneStructureMetric codec = new CodecSceneStructureMetric();
 
-	Point3D_F64 p3 = new Point3D_F64();
-	Point4D_F64 p4 = new Point4D_F64();
+	// Workspace used by the single thread implementation
+	private final Workspace workspace = new Workspace();
 
 	/**
 	 * Specifies the scenes structure and observed feature locations
@@ -80,10 +90,56 @@ public class BundleAdjustmentMetricResidualFunction
 	{
 		this.structure = structure;
 		this.observations = observations;
+		this.packedObservations = null;
+		this.packedPoints = null;
 
 		numObservations = observations.getObservationCount();
 		numParameters = structure.getParameterCount();
+		lengthPoint = structure.isHomogenous() ? 4 : 3;
+		hasRigid = observations.hasRigid();
+		structure.assignIDsToRigidPoints();
+
+		// Pre-compute where each view writes its residuals so that views can be processed independently
+		viewFirstObservation = new int[structure.views.size+1];
+		for (int viewIndex = 0; viewIndex < structure.views.size; viewIndex++) {
+			int count = observations.views.get(viewIndex).size();
+			if( observations.hasRigid() )
+				count += observations.viewsRigid.get(viewIndex).size();
+			viewFirstObservation[viewIndex+1] = viewFirstObservation[viewIndex] + count;
+		}
+	}
+
+	/**
+	 * Specifies the scenes structure and observed feature locations with general points and observations
+	 * in packed storage. The structure's general points must be empty.
+	 */
+	public void configure(SceneStructureMetric structure ,
+						  ScenePointsPacked points,
+						  SceneObservationsPacked observations )
+	{
+		if( structure.points.size != 0 )
+			throw new IllegalArgumentException("General points must be stored in the packed storage only");
+		if( structure.views.size != observations.getViewCount() )
+			throw new IllegalArgumentException("Number of views do not match");
+		if( structure.isHomogenous() != points.isHomogenous() )
+			throw new IllegalArgumentException("Structure and packed points do not agree on homogenous");
+
+		this.structure = structure;
+		this.observations = null;
+		this.packedObservations = observations;
+		this.packedPoints = points;
+
+		numObservations = observations.getObservationCount();
+		lengthPoint = points.getPointSize();
+		numParameters = structure.getParameterCount() + points.size()*lengthPoint;
+		hasRigid = false;
 		structure.assignIDsToRigidPoints();
+
+		viewFirstObservation = new int[structure.views.size+1];
+		for (int viewIndex = 0; viewIndex < structure.views.size; viewIndex++) {
+			viewFirstObservation[viewIndex] = observations.getViewStart(viewIndex);
+		}
+		viewFirstObservation[structure.views.size] = observations.getObservationCount();
 	}
 
 	@Override
@@ -99,32 +155,81 @@ public class BundleAdjustmentMetricResidualFunction
 	@Override
 	public void process(double[] input, double[] output) {
 
-		// write the current parameters into the scene's structure
-		codec.decode(input,structure);
+		decodeStructure(input);
 
 		// Project the general scene now
+		projectViews(0,structure.views.size,input,output,workspace);
+	}
+
+	/**
+	 * Writes the current parameters into the scene's structure. Points in packed storage are not modified
+	 * since they are read directly from the input.
+	 */
+	protected void decodeStructure( double[] input ) {
+		if( packedPoints == null )
+			codec.decode(input,structure);
+		else
+			codec.decodeNonPoints(input,packedPoints.size()*lengthPoint,structure);
+	}
+
+	/**
+	 * Computes the residuals for all observations in views from viewStart to viewEnd. Only the workspace
+	 * is modified, which allows different blocks of views to be processed at the same time.
+	 *
+	 * @param viewStart First view, inclusive
+	 * @param viewEnd Last view, exclusive
+	 * @param input Parameters which general points are read from
+	 * @param output Storage for residuals
+	 * @param w Workspace
+	 */
+	protected void projectViews( int viewStart , int viewEnd , double[] input, double[] output, Workspace w ) {
 		if( structure.homogenous )
-			project4(output);
+			project4(viewStart,viewEnd,input,output,w);
 		else
-			project3(output);
+			project3(viewStart,viewEnd,input,output,w);
+	}
+
+	/**
+	 * Reads the observation from either the packed or regular storage
+	 *
+	 * @param obsView The view's observations or null if packed
+	 * @param firstObs Global index of the view's first observation. Only used with packed storage.
+	 * @param index Index of the observation in the view
+	 */
+	private void readObservation( SceneObservations.View obsView , int firstObs , int index,
+								  PointIndex2D_F64 observedPixel ) {
+		if( obsView == null )
+			packedObservations.get(firstObs+index,observedPixel);
+		else
+			obsView.get(index,observedPixel);
 	}
 
 	/**
 	 * projection from 3D coordinates
 	 */
-	private void project3(double[] output) {
-		int observationIndex = 0;
-		for( int viewIndex = 0; viewIndex < structure.views.size; viewIndex++ ) {
+	private void project3( int viewStart , int viewEnd , double[] input, double[] output, Workspace w ) {
+		final Point3D_F64 worldPt = w.worldPt;
+		final Point3D_F64 cameraPt = w.cameraPt;
+		final Point2D_F64 predictedPixel = w.predictedPixel;
+		final PointIndex2D_F64 observedPixel = w.observedPixel;
+		final Point3D_F64 p3 = w.p3;
+
+		int observationIndex = viewFirstObservation[viewStart];
+		for( int viewIndex = viewStart; viewIndex < viewEnd; viewIndex++ ) {
 			SceneStructureMetric.View view = structure.views.get(viewIndex);
 			SceneStructureMetric.Camera camera = structure.cameras.get(view.camera);
 
 			//=========== Project General Points in this View
 			{
-				SceneObservations.View obsView = observations.views.get(viewIndex);
-				for (int i = 0; i < obsView.size(); i++) {
-					obsView.get(i, observedPixel);
-					SceneStructureMetric.Point worldPt = structure.points.data[observedPixel.index];
-					worldPt.get(p3);
+				SceneObservations.View obsView = packedObservations == null ? observations.views.get(viewIndex) : null;
+				int firstObs = observationIndex;
+				int numObs = obsView != null ? obsView.size() : packedObservations.getViewSize(viewIndex);
+				for (int i = 0; i < numObs; i++) {
+					readObservation(obsView, firstObs, i, observedPixel);
+					int pointIndex = observedPixel.index*lengthPoint;
+					p3.x = input[pointIndex];
+					p3.y = input[pointIndex+1];
+					p3.z = input[pointIndex+2];
 
 					SePointOps_F64.transform(view.worldToView, p3, cameraPt);
 
@@ -138,7 +243,7 @@ public class BundleAdjustmentMetricResidualFunction
 			}
 
 			//=========== Project Rigid Object Points in this View
-			if( observations.hasRigid() )
+			if( hasRigid )
 			{
 				SceneObservations.View obsView = observations.viewsRigid.get(viewIndex);
 				for (int i = 0; i < obsView.size(); i++) {
@@ -173,20 +278,31 @@ public class BundleAdjustmentMetricResidualFunction
 	/**
 	 * projection from homogenous coordinates
 	 */
-	private void project4(double[] output) {
-		int observationIndex = 0;
-		for( int viewIndex = 0; viewIndex < structure.views.size; viewIndex++ ) {
+	private void project4( int viewStart , int viewEnd , double[] input, double[] output, Workspace w ) {
+		final Point3D_F64 worldPt = w.worldPt;
+		final Point3D_F64 cameraPt = w.cameraPt;
+		final Point2D_F64 predictedPixel = w.predictedPixel;
+		final PointIndex2D_F64 observedPixel = w.observedPixel;
+		final Point4D_F64 p4 = w.p4;
+
+		int observationIndex = viewFirstObservation[viewStart];
+		for( int viewIndex = viewStart; viewIndex < viewEnd; viewIndex++ ) {
 			SceneStructureMetric.View view = structure.views.get(viewIndex);
 			SceneStructureMetric.Camera camera = structure.cameras.get(view.camera);
 
 			//=========== Project General Points in this View
 			{
-				SceneObservations.View obsView = observations.views.get(viewIndex);
-
-				for (int i = 0; i < obsView.size(); i++) {
-					obsView.get(i, observedPixel);
-					SceneStructureMetric.Point worldPt = structure.points.data[observedPixel.index];
-					worldPt.get(p4);
+				SceneObservations.View obsView = packedObservations == null ? observations.views.get(viewIndex) : null;
+				int firstObs = observationIndex;
+				int numObs = obsView != null ? obsView.size() : packedObservations.getViewSize(viewIndex);
+
+				for (int i = 0; i < numObs; i++) {
+					readObservation(obsView, firstObs, i, observedPixel);
+					int pointIndex = observedPixel.index*lengthPoint;
+					p4.x = input[pointIndex];
+					p4.y = input[pointIndex+1];
+					p4.z = input[pointIndex+2];
+					p4.w = input[pointIndex+3];
 
 					// TODO Explain why this is correct. The last row is omited when converted to 3D
 					SePointOps_F64.transformV(view.worldToView, p4, cameraPt);
@@ -201,7 +317,7 @@ public class BundleAdjustmentMetricResidualFunction
 			}
 
 			//=========== Project Rigid Object Points in this View
-			if( observations.hasRigid() )
+			if( hasRigid )
 			{
 				SceneObservations.View obsView = observations.viewsRigid.get(viewIndex);
 
@@ -233,4 +349,19 @@ public class BundleAdjustmentMetricResidualFunction
 		}
 	}
 
+	/**
+	 * Storage for variables which are modified while computing the residuals
+	 */
+	protected static class Workspace {
+		// feature location in world coordinates
+		public final Point3D_F64 worldPt = new Point3D_F64();
+		// local variable which stores the predicted location of the feature in the camera frame
+		public final Point3D_F64 cameraPt = new Point3D_F64();
+		// Storage for rendered output
+		public final Point2D_F64 predictedPixel = new Point2D_F64();
+		public final PointIndex2D_F64 observedPixel = new PointIndex2D_F64();
+
+		public final Point3D_F64 p3 = new Point3D_F64();
+		public final Point4D_F64 p4 = new Point4D_F64();
+	}
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent version of {@link BundleAdjustmentMetricResidualFunction}. Views are split up into blocks and
+ * each block is processed by a different thread. Each view writes to its own section of the output array so
+ * the results are identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentMetricResidualFunction_MT extends BundleAdjustmentMetricResidualFunction {
+
+	// Storage for each thread
+	private final FastQueue<Workspace> workspaces = new FastQueue<>(Workspace::new);
+
+	@Override
+	public void process(double[] input, double[] output) {
+		decodeStructure(input);
+
+		BoofConcurrency.loopBlocks(0,structure.views.size,workspaces,(w,idx0,idx1)->
+				projectViews(idx0,idx1,input,output,w));
+	}
+}
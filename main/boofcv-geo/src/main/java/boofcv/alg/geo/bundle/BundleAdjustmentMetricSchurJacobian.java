@@ -20,6 +20,8 @@ package boofcv.alg.geo.bundle;
 
 import boofcv.abst.geo.bundle.BundleAdjustmentSchur;
 import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneObservationsPacked;
+import boofcv.abst.geo.bundle.ScenePointsPacked;
 import boofcv.abst.geo.bundle.SceneStructureMetric;
 import boofcv.alg.geo.bundle.jacobians.JacobianSo3;
 import boofcv.alg.geo.bundle.jacobians.JacobianSo3Rodrigues;
@@ -35,15 +37,26 @@ import org.ejml.dense.row.CommonOps_DDRM;
 
 /**
  * Computes the Jacobian for bundle adjustment with a Schur implementation. This is the base class
- * for specific types of matrices
+ * for specific types of matrices. General points and their observations can optionally be provided
+ * using {@link ScenePointsPacked} and {@link SceneObservationsPacked}.
  *
  * @author Peter Abeles
  */
 public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 		implements BundleAdjustmentSchur.Jacobian<SceneStructureMetric,M>
 {
-	private SceneStructureMetric structure;
-	private SceneObservations observations;
+	protected SceneStructureMetric structure;
+	protected SceneObservations observations;
+
+	// If not null then observations and points are read from packed storage
+	protected SceneObservationsPacked packedObservations;
+	protected ScenePointsPacked packedPoints;
+
+	// number of general points and observations
+	private int numPoints;
+	private int numObservations;
+	// true if there are observations of rigid objects
+	private boolean hasRigid;
 
 	// number of views with parameters that are going to be adjusted
 	private int numViewsUnknown;
@@ -84,6 +97,8 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 	private int viewParameterIndexes[];
 	// first index in input/parameters vector for each camera. Right side
 	private int cameraParameterIndexes[];
+	// index of the first observation in each view. General and rigid observations are both included
+	protected int[] viewFirstObservation = new int[0];
 
 	// Jacobian matrix index of x and y partial
 	private int jacRowX,jacRowY;
@@ -101,7 +116,58 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 	public void configure(SceneStructureMetric structure , SceneObservations observations ) {
 		this.structure = structure;
 		this.observations = observations;
+		this.packedObservations = null;
+		this.packedPoints = null;
+		this.numPoints = structure.points.size;
+		this.numObservations = observations.getObservationCount();
+		this.hasRigid = observations.hasRigid();
+
+		configureParameters();
+
+		// Pre-compute the first row in the Jacobian for each view so that views can be processed independently
+		viewFirstObservation = new int[structure.views.size+1];
+		for (int viewIndex = 0; viewIndex < structure.views.size; viewIndex++) {
+			int count = observations.views.get(viewIndex).size();
+			if( observations.hasRigid() )
+				count += observations.viewsRigid.get(viewIndex).size();
+			viewFirstObservation[viewIndex+1] = viewFirstObservation[viewIndex] + count;
+		}
+	}
 
+	/**
+	 * Specifies the scene with general points and observations in packed storage. The structure's
+	 * general points must be empty.
+	 */
+	public void configure(SceneStructureMetric structure , ScenePointsPacked points,
+						  SceneObservationsPacked observations ) {
+		if( structure.points.size != 0 )
+			throw new IllegalArgumentException("General points must be stored in the packed storage only");
+		if( structure.views.size != observations.getViewCount() )
+			throw new IllegalArgumentException("Number of views do not match");
+		if( structure.isHomogenous() != points.isHomogenous() )
+			throw new IllegalArgumentException("Structure and packed points do not agree on homogenous");
+
+		this.structure = structure;
+		this.observations = null;
+		this.packedObservations = observations;
+		this.packedPoints = points;
+		this.numPoints = points.size();
+		this.numObservations = observations.getObservationCount();
+		this.hasRigid = false;
+
+		configureParameters();
+
+		viewFirstObservation = new int[structure.views.size+1];
+		for (int viewIndex = 0; viewIndex < structure.views.size; viewIndex++) {
+			viewFirstObservation[viewIndex] = observations.getViewStart(viewIndex);
+		}
+		viewFirstObservation[structure.views.size] = numObservations;
+	}
+
+	/**
+	 * Pre-computes the location of each type of parameter
+	 */
+	private void configureParameters() {
 		if( !structure.isHomogenous() ) {
 			lengthPoint = 3;
 		} else {
@@ -116,7 +182,7 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 		numViewsUnknown = structure.getUnknownViewCount();
 		int numCameraParameters = structure.getUnknownCameraParameterCount();
 
-		indexFirstRigid = structure.points.size*lengthPoint;
+		indexFirstRigid = numPoints*lengthPoint;
 		indexFirstView = indexFirstRigid + numRigidUnknown*lengthSE3;
 		indexLastView = indexFirstView + numViewsUnknown*lengthSE3;
 		numParameters = indexLastView + numCameraParameters;
@@ -164,17 +230,19 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 
 	@Override
 	public int getNumOfOutputsM() {
-		return observations.getObservationCount()*2;
+		return numObservations*2;
 	}
 
 	private int computeGeneralPoints(DMatrix leftPoint, DMatrix rightView,
 									 double[] input, int observationIndex, int viewIndex,
 									 SceneStructureMetric.View view, SceneStructureMetric.Camera camera,
 									 int cameraParamStartIndex) {
-		SceneObservations.View obsView = observations.views.get(viewIndex);
+		SceneObservations.View obsView = packedObservations == null ? observations.views.get(viewIndex) : null;
+		int firstObs = observationIndex;
+		int numObs = obsView != null ? obsView.size() : packedObservations.getViewSize(viewIndex);
 
-		for (int i = 0; i < obsView.size(); i++) {
-			int featureIndex = obsView.point.get(i);
+		for (int i = 0; i < numObs; i++) {
+			int featureIndex = obsView != null ? obsView.point.get(i) : packedObservations.getPointId(firstObs+i);
 			int columnOfPointInJac = featureIndex*lengthPoint;
 
 			if( structure.isHomogenous() ) {
@@ -229,27 +297,66 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 	 * @param rightView Storage for right Jacobian
 	 */
 	public void internalProcess( double[] input, DMatrix leftPoint, DMatrix rightView) {
+		reshapeJacobian(leftPoint,rightView);
+		leftPoint.zero();
+		rightView.zero();
+
+		decodeRigid(input);
+		decodeCameras(input);
+
+		internalProcessViews(input,leftPoint,rightView,0,structure.views.size);
+	}
+
+	/**
+	 * Reshapes the left and right Jacobian matrices so that they are the correct size.
+	 */
+	protected void reshapeJacobian( DMatrix leftPoint, DMatrix rightView ) {
 		int numRows = getNumOfOutputsM();
 		// number of parameters on left. All points
-		int numPointParam = structure.points.size*lengthPoint + numRigidUnknown*lengthSE3;
+		int numPointParam = numPoints*lengthPoint + numRigidUnknown*lengthSE3;
 		// Number of paramters on right. views + camera
 		int numViewParam = numParameters-numPointParam; // view + camera
 
 		((ReshapeMatrix)leftPoint).reshape(numRows,numPointParam);
 		((ReshapeMatrix)rightView).reshape(numRows,numViewParam);
-		leftPoint.zero();
-		rightView.zero();
+	}
 
-		// parse parameters for rigid bodies. the translation + rotation is the same for all views
+	/**
+	 * Parse parameters for rigid bodies. the translation + rotation is the same for all views
+	 */
+	protected void decodeRigid( double[] input ) {
 		for (int rigidIndex = 0; rigidIndex < structure.rigids.size; rigidIndex++) {
 			if( !structure.rigids.get(rigidIndex).known ) {
 				jacRigidS03[rigidIndex].setParameters(input,indexFirstRigid+rigidParameterIndexes[rigidIndex]);
 			}
 		}
+	}
 
-		int observationIndex = 0;
+	/**
+	 * Writes the intrinsic parameters of unknown cameras into their models. Done once for each camera
+	 * since multiple views can reference the same camera.
+	 */
+	protected void decodeCameras( double[] input ) {
+		for (int cameraIndex = 0; cameraIndex < structure.cameras.size; cameraIndex++) {
+			SceneStructureMetric.Camera camera = structure.cameras.data[cameraIndex];
+			if( !camera.known ) {
+				camera.model.setIntrinsic(input,indexLastView+cameraParameterIndexes[cameraIndex]);
+			}
+		}
+	}
+
+	/**
+	 * Computes the Jacobian for all observations in views from viewStart to viewEnd. Rigid body and camera
+	 * parameters must have already been decoded. Each view writes to its own rows in the Jacobian.
+	 *
+	 * @param viewStart First view, inclusive
+	 * @param viewEnd Last view, exclusive
+	 */
+	protected void internalProcessViews( double[] input, DMatrix leftPoint, DMatrix rightView,
+										 int viewStart , int viewEnd ) {
+		int observationIndex = viewFirstObservation[viewStart];
 		// first decode the transformation
-		for( int viewIndex = 0; viewIndex < structure.views.size; viewIndex++ ) {
+		for( int viewIndex = viewStart; viewIndex < viewEnd; viewIndex++ ) {
 			SceneStructureMetric.View view = structure.views.data[viewIndex];
 			SceneStructureMetric.Camera camera = structure.cameras.data[view.camera];
 
@@ -267,12 +374,9 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 				worldToView.set(view.worldToView);
 			}
 			int cameraParamStartIndex = cameraParameterIndexes[view.camera];
-			if( !camera.known ) {
-				camera.model.setIntrinsic(input,indexLastView+cameraParamStartIndex);
-			}
 
 			observationIndex = computeGeneralPoints(leftPoint,rightView, input, observationIndex, viewIndex, view, camera, cameraParamStartIndex);
-			if( observations.hasRigid() )
+			if( hasRigid )
 				observationIndex = computeRigidPoints(leftPoint,rightView,observationIndex, viewIndex, view, camera, cameraParamStartIndex);
 		}
 	}
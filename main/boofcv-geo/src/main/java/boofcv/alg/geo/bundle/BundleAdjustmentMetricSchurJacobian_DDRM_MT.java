@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneObservationsPacked;
+import boofcv.abst.geo.bundle.ScenePointsPacked;
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+import org.ejml.data.DMatrixRMaj;
+
+/**
+ * Concurrent version of {@link BundleAdjustmentMetricSchurJacobian_DDRM}. Views are split into blocks and the
+ * Jacobian for each block is computed in its own thread. Each view writes to its own rows in the dense
+ * matrices so no merge step is required.
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentMetricSchurJacobian_DDRM_MT extends BundleAdjustmentMetricSchurJacobian_DDRM {
+
+	// Computes the Jacobian for a block of views. Each one has its own workspace.
+	private FastQueue<BundleAdjustmentMetricSchurJacobian_DDRM> workers = new FastQueue<>(this::createWorker);
+
+	@Override
+	public void configure( SceneStructureMetric structure, SceneObservations observations ) {
+		super.configure(structure, observations);
+		// Workers are configured when they are created so the old ones can't be recycled
+		workers = new FastQueue<>(this::createWorker);
+	}
+
+	@Override
+	public void configure( SceneStructureMetric structure, ScenePointsPacked points,
+						   SceneObservationsPacked observations ) {
+		super.configure(structure, points, observations);
+		workers = new FastQueue<>(this::createWorker);
+	}
+
+	@Override
+	public void process( double[] input, DMatrixRMaj left, DMatrixRMaj right ) {
+		reshapeJacobian(left,right);
+		left.zero();
+		right.zero();
+
+		// Camera models are shared between views and are only read from inside the threads
+		decodeCameras(input);
+
+		BoofConcurrency.loopBlocks(0,structure.views.size,workers,(worker,idx0,idx1)->{
+			worker.decodeRigid(input);
+			worker.internalProcessViews(input,left,right,idx0,idx1);
+		});
+	}
+
+	private BundleAdjustmentMetricSchurJacobian_DDRM createWorker() {
+		BundleAdjustmentMetricSchurJacobian_DDRM worker = new BundleAdjustmentMetricSchurJacobian_DDRM();
+		if( packedObservations != null )
+			worker.configure(structure,packedPoints,packedObservations);
+		else if( structure != null )
+			worker.configure(structure,observations);
+		return worker;
+	}
+}
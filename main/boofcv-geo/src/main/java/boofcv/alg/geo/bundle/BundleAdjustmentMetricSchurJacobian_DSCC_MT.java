@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneObservationsPacked;
+import boofcv.abst.geo.bundle.ScenePointsPacked;
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseTriplet;
+import org.ejml.ops.ConvertDMatrixStruct;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Concurrent version of {@link BundleAdjustmentMetricSchurJacobian_DSCC}. Views are split into blocks and the
+ * Jacobian for each block is computed in its own thread and stored in its own triplet matrices. The
+ * triplets are then merged in the order of the blocks, producing the same Jacobian as the single
+ * threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentMetricSchurJacobian_DSCC_MT extends BundleAdjustmentMetricSchurJacobian_DSCC {
+
+	// Computes the Jacobian for a block of views. Each one has its own workspace.
+	private final FastQueue<Block> workers = new FastQueue<>(Block::new);
+	// Workers sorted by the first view in their block
+	private final List<Block> sorted = new ArrayList<>();
+
+	@Override
+	public void configure( SceneStructureMetric structure, SceneObservations observations ) {
+		super.configure(structure, observations);
+		configureWorkers();
+	}
+
+	@Override
+	public void configure( SceneStructureMetric structure, ScenePointsPacked points,
+						   SceneObservationsPacked observations ) {
+		super.configure(structure, points, observations);
+		configureWorkers();
+	}
+
+	@Override
+	public void process( double[] input, DMatrixSparseCSC left, DMatrixSparseCSC right ) {
+		reshapeJacobian(leftTriplet,rightTriplet);
+		leftTriplet.zero();
+		rightTriplet.zero();
+
+		// Camera models are shared between views and are only read from inside the threads
+		decodeCameras(input);
+
+		BoofConcurrency.loopBlocks(0,structure.views.size,workers,(block,idx0,idx1)->{
+			BundleAdjustmentMetricSchurJacobian_DSCC worker = block.alg;
+			block.idx0 = idx0;
+			worker.reshapeJacobian(worker.leftTriplet,worker.rightTriplet);
+			worker.leftTriplet.zero();
+			worker.rightTriplet.zero();
+
+			worker.decodeRigid(input);
+			worker.internalProcessViews(input,worker.leftTriplet,worker.rightTriplet,idx0,idx1);
+		});
+
+		// The workspace is not in the same order as the blocks, so sort them to merge the results in the
+		// same order as the views
+		sorted.clear();
+		for (int i = 0; i < workers.size; i++) {
+			sorted.add(workers.get(i));
+		}
+		sorted.sort(Comparator.comparingInt(b->b.idx0));
+		for (int i = 0; i < sorted.size(); i++) {
+			BundleAdjustmentMetricSchurJacobian_DSCC worker = sorted.get(i).alg;
+			addAll(worker.leftTriplet,leftTriplet);
+			addAll(worker.rightTriplet,rightTriplet);
+		}
+
+		ConvertDMatrixStruct.convert(leftTriplet,left);
+		ConvertDMatrixStruct.convert(rightTriplet,right);
+	}
+
+	/**
+	 * Points the existing workers at the new scene. New workers are configured when they are created
+	 */
+	private void configureWorkers() {
+		for (int i = 0; i < workers.size; i++) {
+			configureWorker(workers.get(i).alg);
+		}
+	}
+
+	private void configureWorker( BundleAdjustmentMetricSchurJacobian_DSCC worker ) {
+		if( packedObservations != null )
+			worker.configure(structure,packedPoints,packedObservations);
+		else if( structure != null )
+			worker.configure(structure,observations);
+	}
+
+	/**
+	 * Adds all the elements in src to dst
+	 */
+	static void addAll( DMatrixSparseTriplet src , DMatrixSparseTriplet dst ) {
+		for (int i = 0; i < src.nz_length; i++) {
+			int row = src.nz_rowcol.data[i*2];
+			int col = src.nz_rowcol.data[i*2+1];
+			dst.addItem(row,col,src.nz_value.data[i]);
+		}
+	}
+
+	/**
+	 * Jacobian for a block of views
+	 */
+	private class Block {
+		// index of the first view in the block
+		int idx0;
+		BundleAdjustmentMetricSchurJacobian_DSCC alg = new BundleAdjustmentMetricSchurJacobian_DSCC();
+
+		Block() {
+			configureWorker(alg);
+		}
+	}
+}
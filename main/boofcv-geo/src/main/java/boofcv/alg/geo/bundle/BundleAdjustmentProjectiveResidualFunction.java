@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -44,28 +44,22 @@ import georegression.struct.point.Point4D_F64;
 public class BundleAdjustmentProjectiveResidualFunction
 	implements BundleAdjustmentSchur_DSCC.FunctionResiduals<SceneStructureProjective>
 {
-	private SceneStructureProjective structure;
-	private SceneObservations observations;
+	protected SceneStructureProjective structure;
+	protected SceneObservations observations;
 
 	// number of parameters being optimised
 	private int numParameters;
 	// number of observations.  2 for each point in each view
 	private int numObservations;
 
-
-	// Storage for rendered output
-	private Point2D_F64 predictedPixel = new Point2D_F64();
-	private PointIndex2D_F64 observedPixel = new PointIndex2D_F64();
+	// index of the first observation in each view
+	protected int[] viewFirstObservation = new int[0];
 
 	// Used to write the "unknown" paramters into the scene
-	private CodecSceneStructureProjective codec = new CodecSceneStructureProjective();
-
-	// Point in world frame
-	private Point3D_F64 p3 = new Point3D_F64();
-	private Point4D_F64 p4 = new Point4D_F64();
+	protected CodecSceneStructureProjective codec = new CodecSceneStructureProjective();
 
-	// Pixel in homogenous image coordinate
-	private Point3D_F64 pix = new Point3D_F64();
+	// Workspace used by the single thread implementation
+	private final Workspace workspace = new Workspace();
 
 	/**
 	 * Specifies the scenes structure and observed feature locations
@@ -79,6 +73,13 @@ public class BundleAdjustmentProjectiveResidualFunction
 
 		numObservations = observations.getObservationCount();
 		numParameters = structure.getParameterCount();
+
+		// Pre-compute where each view writes its residuals so that views can be processed independently
+		viewFirstObservation = new int[structure.views.size+1];
+		for (int viewIndex = 0; viewIndex < structure.views.size; viewIndex++) {
+			int count = observations.views.get(viewIndex).size();
+			viewFirstObservation[viewIndex+1] = viewFirstObservation[viewIndex] + count;
+		}
 	}
 
 	@Override
@@ -97,18 +98,36 @@ public class BundleAdjustmentProjectiveResidualFunction
 		// write the current parameters into the scene's structure
 		codec.decode(input,structure);
 
+		projectViews(0,structure.views.size,output,workspace);
+	}
+
+	/**
+	 * Computes the residuals for all observations in views from viewStart to viewEnd. Only the workspace
+	 * is modified, which allows different blocks of views to be processed at the same time.
+	 *
+	 * @param viewStart First view, inclusive
+	 * @param viewEnd Last view, exclusive
+	 * @param output Storage for residuals
+	 * @param w Workspace
+	 */
+	protected void projectViews( int viewStart , int viewEnd , double[] output, Workspace w ) {
 		if( structure.homogenous )
-			project4(output);
+			project4(viewStart,viewEnd,output,w);
 		else
-			project3(output);
+			project3(viewStart,viewEnd,output,w);
 	}
 
 	/**
 	 * projection from 3D coordinates
 	 */
-	private void project3(double[] output) {
-		int observationIndex = 0;
-		for( int viewIndex = 0; viewIndex < structure.views.size; viewIndex++ ) {
+	private void project3( int viewStart , int viewEnd , double[] output, Workspace w ) {
+		final Point2D_F64 predictedPixel = w.predictedPixel;
+		final PointIndex2D_F64 observedPixel = w.observedPixel;
+		final Point3D_F64 p3 = w.p3;
+		final Point3D_F64 pix = w.pix;
+
+		int observationIndex = viewFirstObservation[viewStart];
+		for( int viewIndex = viewStart; viewIndex < viewEnd; viewIndex++ ) {
 			SceneStructureProjective.View view = structure.views.data[viewIndex];
 			SceneObservations.View obsView = observations.views.data[viewIndex];
 			SceneStructureCommon.Camera camera = structure.cameras.get(view.camera);
@@ -136,9 +155,14 @@ public class BundleAdjustmentProjectiveResidualFunction
 	/**
 	 * projection from homogenous coordinates
 	 */
-	private void project4(double[] output) {
-		int observationIndex = 0;
-		for( int viewIndex = 0; viewIndex < structure.views.size; viewIndex++ ) {
+	private void project4( int viewStart , int viewEnd , double[] output, Workspace w ) {
+		final Point2D_F64 predictedPixel = w.predictedPixel;
+		final PointIndex2D_F64 observedPixel = w.observedPixel;
+		final Point4D_F64 p4 = w.p4;
+		final Point3D_F64 pix = w.pix;
+
+		int observationIndex = viewFirstObservation[viewStart];
+		for( int viewIndex = viewStart; viewIndex < viewEnd; viewIndex++ ) {
 			SceneStructureProjective.View view = structure.views.data[viewIndex];
 			SceneObservations.View obsView = observations.views.data[viewIndex];
 			SceneStructureCommon.Camera camera = structure.cameras.get(view.camera);
@@ -162,4 +186,20 @@ public class BundleAdjustmentProjectiveResidualFunction
 			}
 		}
 	}
+
+	/**
+	 * Storage for variables which are modified while computing the residuals
+	 */
+	protected static class Workspace {
+		// Storage for rendered output
+		public final Point2D_F64 predictedPixel = new Point2D_F64();
+		public final PointIndex2D_F64 observedPixel = new PointIndex2D_F64();
+
+		// Point in world frame
+		public final Point3D_F64 p3 = new Point3D_F64();
+		public final Point4D_F64 p4 = new Point4D_F64();
+
+		// Pixel in homogenous image coordinate
+		public final Point3D_F64 pix = new Point3D_F64();
+	}
 }
@@ -38,8 +38,8 @@ import org.jetbrains.annotations.Nullable;
 public abstract class BundleAdjustmentProjectiveSchurJacobian<M extends DMatrix>
 		implements BundleAdjustmentSchur.Jacobian<SceneStructureProjective,M>
 {
-	private SceneStructureProjective structure;
-	private SceneObservations observations;
+	protected SceneStructureProjective structure;
+	protected SceneObservations observations;
 
 	// work space for jacobian
 	private DMatrixRMaj worldToView = new DMatrixRMaj(3,4);
@@ -66,6 +66,8 @@ public abstract class BundleAdjustmentProjectiveSchurJacobian<M extends DMatrix>
 	private int viewParameterIndexes[];
 	// first index in input/parameters vector for each camera. Right side
 	private int cameraParameterIndexes[];
+	// index of the first observation in each view
+	protected int[] viewFirstObservation = new int[0];
 
 	// Jacobian matrix index of x and y partial
 	private int jacRowX,jacRowY;
@@ -125,6 +127,13 @@ public abstract class BundleAdjustmentProjectiveSchurJacobian<M extends DMatrix>
 
 		intrGradX = new double[largestCameraSize];
 		intrGradY = new double[largestCameraSize];
+
+		// Pre-compute the first row in the Jacobian for each view so that views can be processed independently
+		viewFirstObservation = new int[structure.views.size+1];
+		for (int viewIndex = 0; viewIndex < structure.views.size; viewIndex++) {
+			int count = observations.views.get(viewIndex).size();
+			viewFirstObservation[viewIndex+1] = viewFirstObservation[viewIndex] + count;
+		}
 	}
 
 	@Override
@@ -144,18 +153,37 @@ public abstract class BundleAdjustmentProjectiveSchurJacobian<M extends DMatrix>
 	 * @param rightView Storage for right Jacobian
 	 */
 	public void processInternal( double[] input, DMatrix leftPoint, DMatrix rightView) {
+		reshapeJacobian(leftPoint,rightView);
+		leftPoint.zero();
+		rightView.zero();
+
+		processInternalViews(input,leftPoint,rightView,0,structure.views.size);
+	}
+
+	/**
+	 * Reshapes the left and right Jacobian matrices so that they are the correct size.
+	 */
+	protected void reshapeJacobian( DMatrix leftPoint, DMatrix rightView ) {
 		int numRows = getNumOfOutputsM();
 		int numPointParam = structure.points.size*lengthPoint;
 		int numViewParam = numParameters-numPointParam; // view + camera
 
 		((ReshapeMatrix)leftPoint).reshape(numRows,numPointParam);
 		((ReshapeMatrix)rightView).reshape(numRows,numViewParam);
-		leftPoint.zero();
-		rightView.zero();
+	}
 
-		int observationIndex = 0;
+	/**
+	 * Computes the Jacobian for all observations in views from viewStart to viewEnd. Each view writes to its
+	 * own rows in the Jacobian.
+	 *
+	 * @param viewStart First view, inclusive
+	 * @param viewEnd Last view, exclusive
+	 */
+	protected void processInternalViews( double[] input, DMatrix leftPoint, DMatrix rightView,
+										 int viewStart , int viewEnd ) {
+		int observationIndex = viewFirstObservation[viewStart];
 		// first decode the transformation
-		for( int viewIndex = 0; viewIndex < structure.views.size; viewIndex++ ) {
+		for( int viewIndex = viewStart; viewIndex < viewEnd; viewIndex++ ) {
 			SceneStructureProjective.View view = structure.views.data[viewIndex];
 			SceneStructureCommon.Camera camera = structure.cameras.data[view.camera];
 			int cameraParamStartIndex = cameraParameterIndexes[view.camera];
@@ -245,10 +273,6 @@ public abstract class BundleAdjustmentProjectiveSchurJacobian<M extends DMatrix>
 				observationIndex++;
 			}
 		}
-
-//		left.print();
-//		right.print();
-//		System.out.println("Asdads");
 	}
 
 
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureProjective;
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.ops.ConvertDMatrixStruct;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Concurrent version of {@link BundleAdjustmentProjectiveSchurJacobian_DSCC}. Views are split into blocks and the
+ * Jacobian for each block is computed in its own thread and stored in its own triplet matrices. The
+ * triplets are then merged in the order of the blocks, producing the same Jacobian as the single
+ * threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentProjectiveSchurJacobian_DSCC_MT extends BundleAdjustmentProjectiveSchurJacobian_DSCC {
+
+	// Computes the Jacobian for a block of views. Each one has its own workspace.
+	private final FastQueue<Block> workers = new FastQueue<>(Block::new);
+	// Workers sorted by the first view in their block
+	private final List<Block> sorted = new ArrayList<>();
+
+	@Override
+	public void configure( SceneStructureProjective structure, SceneObservations observations ) {
+		super.configure(structure, observations);
+		// Point the existing workers at the new scene. New workers are configured when they are created
+		for (int i = 0; i < workers.size; i++) {
+			workers.get(i).alg.configure(structure,observations);
+		}
+	}
+
+	@Override
+	public void process( double[] input, DMatrixSparseCSC left, DMatrixSparseCSC right ) {
+		reshapeJacobian(leftTriplet,rightTriplet);
+		leftTriplet.zero();
+		rightTriplet.zero();
+
+		BoofConcurrency.loopBlocks(0,structure.views.size,workers,(block,idx0,idx1)->{
+			BundleAdjustmentProjectiveSchurJacobian_DSCC worker = block.alg;
+			block.idx0 = idx0;
+			worker.reshapeJacobian(worker.leftTriplet,worker.rightTriplet);
+			worker.leftTriplet.zero();
+			worker.rightTriplet.zero();
+
+			worker.processInternalViews(input,worker.leftTriplet,worker.rightTriplet,idx0,idx1);
+		});
+
+		// The workspace is not in the same order as the blocks, so sort them to merge the results in the
+		// same order as the views
+		sorted.clear();
+		for (int i = 0; i < workers.size; i++) {
+			sorted.add(workers.get(i));
+		}
+		sorted.sort(Comparator.comparingInt(b->b.idx0));
+		for (int i = 0; i < sorted.size(); i++) {
+			BundleAdjustmentProjectiveSchurJacobian_DSCC worker = sorted.get(i).alg;
+			BundleAdjustmentMetricSchurJacobian_DSCC_MT.addAll(worker.leftTriplet,leftTriplet);
+			BundleAdjustmentMetricSchurJacobian_DSCC_MT.addAll(worker.rightTriplet,rightTriplet);
+		}
+
+		ConvertDMatrixStruct.convert(leftTriplet,left);
+		ConvertDMatrixStruct.convert(rightTriplet,right);
+	}
+
+	/**
+	 * Jacobian for a block of views
+	 */
+	private class Block {
+		// index of the first view in the block
+		int idx0;
+		BundleAdjustmentProjectiveSchurJacobian_DSCC alg = new BundleAdjustmentProjectiveSchurJacobian_DSCC();
+
+		Block() {
+			if( structure != null )
+				alg.configure(structure,observations);
+		}
+	}
+}
@@ -19,6 +19,7 @@
 package boofcv.alg.geo.bundle;
 
 import boofcv.abst.geo.bundle.BundleAdjustmentSchur_DSCC;
+import boofcv.abst.geo.bundle.ScenePointsPacked;
 import boofcv.abst.geo.bundle.SceneStructureMetric;
 import boofcv.alg.geo.bundle.jacobians.JacobianSo3;
 import boofcv.alg.geo.bundle.jacobians.JacobianSo3Rodrigues;
@@ -34,6 +35,9 @@ import boofcv.alg.geo.bundle.jacobians.JacobianSo3Rodrigues;
  *
  * Default encoding for rotation matrix is {@link JacobianSo3Rodrigues}
  *
+ * If the points are stored in {@link ScenePointsPacked} then the features are read from and written to the
+ * packed storage and the general points in the scene structure must be empty.
+ *
  * @author Peter Abeles
  */
 public class CodecSceneStructureMetric implements BundleAdjustmentSchur_DSCC.Codec<SceneStructureMetric>
@@ -63,6 +67,26 @@ public class CodecSceneStructureMetric implements BundleAdjustmentSchur_DSCC.Cod
 				p.coordinate[3] = input[index++];
 		}
 
+		decodeNonPoints(input,index,structure);
+	}
+
+	/**
+	 * Decodes the parameters with the general points being written into packed storage
+	 */
+	public void decode(double[] input , SceneStructureMetric structure , ScenePointsPacked points ) {
+		checkPacked(structure,points);
+		points.copyFrom(input,0);
+		decodeNonPoints(input,points.size()*points.getPointSize(),structure);
+	}
+
+	/**
+	 * Decodes everything but the general points, i.e. rigid objects, views, and cameras.
+	 *
+	 * @param input Encoded parameters
+	 * @param index Index of the first parameter after the general points
+	 * @param structure Structure which is written to
+	 */
+	public void decodeNonPoints(double[] input , int index , SceneStructureMetric structure ) {
 		for (int rigidIndex = 0; rigidIndex < structure.rigids.size; rigidIndex++) {
 			SceneStructureMetric.Rigid rigid = structure.rigids.data[rigidIndex];
 			// Decode the rigid body transform from object to world
@@ -113,6 +137,26 @@ public class CodecSceneStructureMetric implements BundleAdjustmentSchur_DSCC.Cod
 				output[index++] = p.coordinate[3];
 		}
 
+		encodeNonPoints(structure,output,index);
+	}
+
+	/**
+	 * Encodes the parameters with the general points being read from packed storage
+	 */
+	public void encode(SceneStructureMetric structure , ScenePointsPacked points , double[] output ) {
+		checkPacked(structure,points);
+		points.copyTo(output,0);
+		encodeNonPoints(structure,output,points.size()*points.getPointSize());
+	}
+
+	/**
+	 * Encodes everything but the general points, i.e. rigid objects, views, and cameras.
+	 *
+	 * @param structure Structure which is read from
+	 * @param output Storage for encoded parameters
+	 * @param index Index of the first parameter after the general points
+	 */
+	public void encodeNonPoints(SceneStructureMetric structure , double[] output , int index ) {
 		for (int rigidIndex = 0; rigidIndex < structure.rigids.size; rigidIndex++) {
 			SceneStructureMetric.Rigid rigid = structure.rigids.data[rigidIndex];
 			// Decode the rigid body transform from object to world
@@ -147,4 +191,11 @@ public class CodecSceneStructureMetric implements BundleAdjustmentSchur_DSCC.Cod
 			}
 		}
 	}
+
+	private static void checkPacked( SceneStructureMetric structure , ScenePointsPacked points ) {
+		if( structure.points.size != 0 )
+			throw new IllegalArgumentException("General points must be stored in the packed storage only");
+		if( structure.isHomogenous() != points.isHomogenous() )
+			throw new IllegalArgumentException("Structure and packed points do not agree on homogenous");
+	}
 }
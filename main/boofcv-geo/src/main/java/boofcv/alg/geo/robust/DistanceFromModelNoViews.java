@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.robust;
+
+import boofcv.alg.geo.DistanceFromModelMultiView;
+import boofcv.struct.calib.CameraPinhole;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+
+import java.util.List;
+
+/**
+ * Wrapper around {@link DistanceFromModel} for models which don't need any intrinsic camera parameters, e.g.
+ * when the input is already in pixels. Lets them be used by algorithms which require
+ * {@link DistanceFromModelMultiView}.
+ *
+ * @author Peter Abeles
+ */
+public class DistanceFromModelNoViews<Model,Point> implements DistanceFromModelMultiView<Model,Point> {
+	DistanceFromModel<Model,Point> distance;
+
+	public DistanceFromModelNoViews( DistanceFromModel<Model, Point> distance ) {
+		this.distance = distance;
+	}
+
+	@Override
+	public void setIntrinsic( int view, CameraPinhole intrinsic ) {
+		throw new IllegalArgumentException("There are no views");
+	}
+
+	@Override
+	public int getNumberOfViews() {
+		return 0;
+	}
+
+	@Override
+	public void setModel( Model model ) {
+		distance.setModel(model);
+	}
+
+	@Override
+	public double computeDistance( Point pt ) {
+		return distance.computeDistance(pt);
+	}
+
+	@Override
+	public void computeDistance( List<Point> points, double[] distance ) {
+		this.distance.computeDistance(points,distance);
+	}
+
+	@Override
+	public Class<Point> getPointType() {
+		return distance.getPointType();
+	}
+
+	@Override
+	public Class<Model> getModelType() {
+		return distance.getModelType();
+	}
+}
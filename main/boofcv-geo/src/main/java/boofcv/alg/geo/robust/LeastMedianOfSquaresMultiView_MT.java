@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.robust;
+
+import boofcv.alg.geo.DistanceFromModelMultiView;
+import boofcv.misc.BoofLambdas;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.sorting.QuickSelect;
+
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link LeastMedianOfSquaresMultiView}. Hypotheses are generated and scored in
+ * parallel, see {@link RobustMultiViewBase_MT} for how the results are kept deterministic. The hypothesis with
+ * the smallest error at the specified error fraction is selected. Points with an error &le; to that value
+ * are considered inliers.
+ *
+ * @author Peter Abeles
+ */
+public class LeastMedianOfSquaresMultiView_MT<Model,Point> extends RobustMultiViewBase_MT<Model,Point> {
+
+	// fraction of points it selects the error at. 0.5 is the median
+	protected double errorFraction = 0.5;
+	// If the best model has a score larger than this then it's rejected
+	protected double maxMedianError;
+
+	/**
+	 * Creates a new instance of concurrent LMedS
+	 *
+	 * @param randSeed Seed for the master random number generator
+	 * @param totalCycles Number of hypotheses which are generated
+	 * @param maxMedianError If the best model's median error is larger than this it fails
+	 * @param modelManager Used to create and copy models
+	 * @param factoryGenerator Creates a model generator for each thread
+	 * @param factoryDistance Creates a distance function for each thread
+	 */
+	public LeastMedianOfSquaresMultiView_MT( long randSeed, int totalCycles, double maxMedianError,
+											 ModelManager<Model> modelManager,
+											 BoofLambdas.Factory<ModelGenerator<Model,Point>> factoryGenerator,
+											 BoofLambdas.Factory<DistanceFromModelMultiView<Model,Point>> factoryDistance )
+	{
+		super(randSeed, totalCycles, modelManager, factoryGenerator, factoryDistance);
+		this.maxMedianError = maxMedianError;
+	}
+
+	public LeastMedianOfSquaresMultiView_MT( long randSeed, int totalCycles,
+											 ModelManager<Model> modelManager,
+											 BoofLambdas.Factory<ModelGenerator<Model,Point>> factoryGenerator,
+											 BoofLambdas.Factory<DistanceFromModelMultiView<Model,Point>> factoryDistance )
+	{
+		this(randSeed, totalCycles, Double.MAX_VALUE, modelManager, factoryGenerator, factoryDistance);
+	}
+
+	@Override
+	protected double scoreHypothesis( Worker worker, List<Point> dataSet ) {
+		int N = dataSet.size();
+		worker.distance.computeDistance(dataSet,worker.errors);
+		return QuickSelect.select(worker.errors, selectIndex(N), N);
+	}
+
+	@Override
+	protected boolean isBetter( double a, double b ) {
+		return a < b;
+	}
+
+	@Override
+	protected boolean selectMatchSet( List<Point> dataSet ) {
+		if( bestScore > maxMedianError )
+			return false;
+
+		distance.setModel(bestModel);
+		for (int i = 0; i < dataSet.size(); i++) {
+			Point p = dataSet.get(i);
+			if( distance.computeDistance(p) <= bestScore ) {
+				matchSet.add(p);
+				matchToInput.add(i);
+			}
+		}
+		return true;
+	}
+
+	private int selectIndex( int N ) {
+		return Math.min(N-1,(int)(N*errorFraction));
+	}
+
+	/**
+	 * Error of the best model at the error fraction
+	 */
+	@Override
+	public double getFitQuality() {
+		return bestScore;
+	}
+
+	public double getErrorFraction() {
+		return errorFraction;
+	}
+
+	public void setErrorFraction( double errorFraction ) {
+		this.errorFraction = errorFraction;
+	}
+
+	public double getMaxMedianError() {
+		return maxMedianError;
+	}
+
+	public void setMaxMedianError( double maxMedianError ) {
+		this.maxMedianError = maxMedianError;
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.robust;
+
+import boofcv.alg.geo.DistanceFromModelMultiView;
+import boofcv.misc.BoofLambdas;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link RansacMultiView}. Hypotheses are generated and scored in parallel,
+ * see {@link RobustMultiViewBase_MT} for how the results are kept deterministic. The hypothesis with the most
+ * inliers is selected. A point is an inlier if its distance from the model is &le; the threshold.
+ *
+ * @author Peter Abeles
+ */
+public class RansacMultiView_MT<Model,Point> extends RobustMultiViewBase_MT<Model,Point> {
+
+	// Threshold for a point to be considered an inlier
+	protected final double thresholdFit;
+
+	/**
+	 * Creates a new instance of concurrent RANSAC
+	 *
+	 * @param randSeed Seed for the master random number generator
+	 * @param modelManager Used to create and copy models
+	 * @param factoryGenerator Creates a model generator for each thread
+	 * @param factoryDistance Creates a distance function for each thread
+	 * @param maxIterations Number of hypotheses which are generated
+	 * @param thresholdFit Maximum distance from the model a point can be and still be an inlier
+	 */
+	public RansacMultiView_MT( long randSeed,
+							   ModelManager<Model> modelManager,
+							   BoofLambdas.Factory<ModelGenerator<Model,Point>> factoryGenerator,
+							   BoofLambdas.Factory<DistanceFromModelMultiView<Model,Point>> factoryDistance,
+							   int maxIterations, double thresholdFit )
+	{
+		super(randSeed, maxIterations, modelManager, factoryGenerator, factoryDistance);
+		this.thresholdFit = thresholdFit;
+	}
+
+	@Override
+	protected double scoreHypothesis( Worker worker, List<Point> dataSet ) {
+		worker.distance.computeDistance(dataSet,worker.errors);
+		int total = 0;
+		for (int i = 0; i < dataSet.size(); i++) {
+			if( worker.errors[i] <= thresholdFit )
+				total++;
+		}
+		return total;
+	}
+
+	@Override
+	protected boolean isBetter( double a, double b ) {
+		return a > b;
+	}
+
+	@Override
+	protected boolean selectMatchSet( List<Point> dataSet ) {
+		distance.setModel(bestModel);
+		for (int i = 0; i < dataSet.size(); i++) {
+			Point p = dataSet.get(i);
+			if( distance.computeDistance(p) <= thresholdFit ) {
+				matchSet.add(p);
+				matchToInput.add(i);
+			}
+		}
+		return matchSet.size() > 0;
+	}
+
+	/**
+	 * Number of inliers in the best model
+	 */
+	@Override
+	public double getFitQuality() {
+		return bestScore;
+	}
+
+	public double getThresholdFit() {
+		return thresholdFit;
+	}
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.robust;
+
+import boofcv.alg.geo.DistanceFromModelMultiView;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.calib.CameraPinhole;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Common code for robust estimators which generate and score hypotheses in parallel. Each thread is given its own
+ * {@link ModelGenerator} and {@link DistanceFromModelMultiView}, created using the provided factories. Every
+ * hypothesis is assigned its own seed from the master random number generator before any work is done. This way
+ * the sampled points only depend on the hypothesis' index and not on which thread processed it, making the results
+ * independent of the number of threads. If multiple hypotheses have the same score the one with the lowest
+ * index is selected.
+ * </p>
+ *
+ * <p>NOTE: The sequence of hypotheses is different from the single threaded implementations in DDogleg, so
+ * the exact same results should not be expected.</p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class RobustMultiViewBase_MT<Model,Point> implements ModelMatcherMultiview<Model,Point> {
+
+	// seed for the master random number generator
+	protected final long randSeed;
+	// the master random number generator. Only used to create seeds for each hypothesis
+	protected final Random rand;
+
+	// number of hypotheses it will generate and evaluate
+	protected final int totalCycles;
+
+	protected final ModelManager<Model> manager;
+	protected final BoofLambdas.Factory<ModelGenerator<Model,Point>> factoryGenerator;
+	protected final BoofLambdas.Factory<DistanceFromModelMultiView<Model,Point>> factoryDistance;
+
+	// Used to evaluate the final model in the main thread
+	protected final DistanceFromModelMultiView<Model,Point> distance;
+	// minimum number of points needed to generate a hypothesis
+	protected final int sampleSize;
+
+	// intrinsic parameters for each view. Copied into each worker before processing
+	protected final CameraPinhole[] intrinsics;
+
+	// seed for each hypothesis
+	protected long[] seeds = new long[0];
+
+	// Workspace for each block of hypotheses
+	protected final FastQueue<Worker> workers;
+
+	// the best model which has been found
+	protected final Model bestModel;
+	// Points which are members of the best model
+	protected final List<Point> matchSet = new ArrayList<>();
+	// index of each point in the match set in the original input list
+	protected final GrowQueue_I32 matchToInput = new GrowQueue_I32();
+	// score of the best model
+	protected double bestScore;
+
+	protected RobustMultiViewBase_MT( long randSeed, int totalCycles,
+									  ModelManager<Model> manager,
+									  BoofLambdas.Factory<ModelGenerator<Model,Point>> factoryGenerator,
+									  BoofLambdas.Factory<DistanceFromModelMultiView<Model,Point>> factoryDistance )
+	{
+		this.randSeed = randSeed;
+		this.rand = new Random(randSeed);
+		this.totalCycles = totalCycles;
+		this.manager = manager;
+		this.factoryGenerator = factoryGenerator;
+		this.factoryDistance = factoryDistance;
+
+		this.distance = factoryDistance.newInstance();
+		this.sampleSize = factoryGenerator.newInstance().getMinimumPoints();
+		this.intrinsics = new CameraPinhole[distance.getNumberOfViews()];
+		this.bestModel = manager.createModelInstance();
+		this.workers = new FastQueue<>(Worker::new);
+	}
+
+	@Override
+	public boolean process( List<Point> dataSet ) {
+		matchSet.clear();
+		matchToInput.reset();
+
+		if( dataSet.size() < sampleSize )
+			return false;
+
+		// Seeds are selected up front so that the result doesn't depend on how the work is split up
+		if( seeds.length < totalCycles )
+			seeds = new long[totalCycles];
+		for (int i = 0; i < totalCycles; i++) {
+			seeds[i] = rand.nextLong();
+		}
+
+		BoofConcurrency.loopBlocks(0,totalCycles,workers,(worker,idx0,idx1)->{
+			worker.initialize(dataSet.size());
+			for (int i = idx0; i < idx1; i++) {
+				worker.evaluate(dataSet,i);
+			}
+		});
+
+		// The order of the workspace does not match the order of the blocks. When there's a tie select the
+		// hypothesis with the lowest index so that the result doesn't depend on the number of threads
+		Worker best = null;
+		for (int i = 0; i < workers.size; i++) {
+			Worker w = workers.get(i);
+			if( w.bestIndex < 0 )
+				continue;
+			if( best == null || isBetter(w.bestScore,best.bestScore) ||
+					(!isBetter(best.bestScore,w.bestScore) && w.bestIndex < best.bestIndex) )
+				best = w;
+		}
+
+		if( best == null )
+			return false;
+
+		manager.copyModel(best.bestModel,bestModel);
+		bestScore = best.bestScore;
+
+		return selectMatchSet(dataSet);
+	}
+
+	/**
+	 * Computes the score for the model which has already been passed to the worker's distance function.
+	 */
+	protected abstract double scoreHypothesis( Worker worker , List<Point> dataSet );
+
+	/**
+	 * Returns true if score 'a' is better than score 'b'
+	 */
+	protected abstract boolean isBetter( double a , double b );
+
+	/**
+	 * Using {@link #bestModel} find the set of points which are members of it
+	 *
+	 * @return true if the model is accepted
+	 */
+	protected abstract boolean selectMatchSet( List<Point> dataSet );
+
+	@Override
+	public Model getModelParameters() {
+		return bestModel;
+	}
+
+	@Override
+	public List<Point> getMatchSet() {
+		return matchSet;
+	}
+
+	@Override
+	public int getInputIndex( int matchIndex ) {
+		return matchToInput.get(matchIndex);
+	}
+
+	@Override
+	public int getMinimumSize() {
+		return sampleSize;
+	}
+
+	@Override
+	public void reset() {
+		rand.setSeed(randSeed);
+	}
+
+	@Override
+	public Class<Point> getPointType() {
+		return distance.getPointType();
+	}
+
+	@Override
+	public Class<Model> getModelType() {
+		return distance.getModelType();
+	}
+
+	@Override
+	public void setIntrinsic( int view, CameraPinhole intrinsic ) {
+		distance.setIntrinsic(view,intrinsic);
+		if( intrinsics[view] == null )
+			intrinsics[view] = new CameraPinhole();
+		intrinsics[view].set(intrinsic);
+	}
+
+	@Override
+	public int getNumberOfViews() {
+		return distance.getNumberOfViews();
+	}
+
+	public int getTotalCycles() {
+		return totalCycles;
+	}
+
+	/**
+	 * Data structures used by a single thread to generate and score hypotheses
+	 */
+	protected class Worker {
+		public final ModelGenerator<Model,Point> generator = factoryGenerator.newInstance();
+		public final DistanceFromModelMultiView<Model,Point> distance = factoryDistance.newInstance();
+		public final Random rand = new Random();
+
+		// Storage for the randomly selected sample
+		public final List<Point> sample = new ArrayList<>();
+		public final GrowQueue_I32 sampleIdx = new GrowQueue_I32();
+		// storage for the distance of each point from the model
+		public double[] errors = new double[0];
+
+		public final Model candidate = manager.createModelInstance();
+		public final Model bestModel = manager.createModelInstance();
+		public double bestScore;
+		// Index of the best hypothesis. -1 if none have been found
+		public int bestIndex;
+
+		public void initialize( int numPoints ) {
+			bestIndex = -1;
+			if( errors.length < numPoints )
+				errors = new double[numPoints];
+			for (int view = 0; view < intrinsics.length; view++) {
+				if( intrinsics[view] != null )
+					distance.setIntrinsic(view, intrinsics[view]);
+			}
+		}
+
+		public void evaluate( List<Point> dataSet , int hypothesis ) {
+			rand.setSeed(seeds[hypothesis]);
+			selectSample(dataSet);
+
+			if( !generator.generate(sample,candidate) )
+				return;
+
+			distance.setModel(candidate);
+			double score = scoreHypothesis(this,dataSet);
+
+			if( bestIndex < 0 || isBetter(score,bestScore) ) {
+				bestScore = score;
+				bestIndex = hypothesis;
+				manager.copyModel(candidate,bestModel);
+			}
+		}
+
+		/**
+		 * Randomly selects a set of unique points. Since the sample size is small, rejection is used instead of
+		 * shuffling, which would make the sample depend on previously processed hypotheses.
+		 */
+		void selectSample( List<Point> dataSet ) {
+			sample.clear();
+			sampleIdx.reset();
+			while( sampleIdx.size < sampleSize ) {
+				int idx = rand.nextInt(dataSet.size());
+				if( sampleIdx.indexOf(idx) >= 0 )
+					continue;
+				sampleIdx.add(idx);
+				sample.add(dataSet.get(idx));
+			}
+		}
+	}
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.triangulate;
+
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se3_F64;
+import org.ejml.data.DMatrixRMaj;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Triangulates a large number of points at once using a structure-of-arrays layout. Observations are provided
+ * in parallel primitive arrays and the results are written into a primitive output array. No memory is
+ * declared per point, making it suitable for processing millions of points without creating work for the garbage
+ * collector.
+ * </p>
+ *
+ * <p>
+ * Two types of problems are supported. 1) Two views with a known transform between them. The solution is the
+ * point which minimizes the distance between the two rays, same as {@link Triangulate2ViewsGeometricMetric}.
+ * 2) N-views where each track can be observed by any subset of the views. The solution is the point which
+ * minimizes the sum of squared distances to all of the rays and is found by solving a 3x3 linear system.
+ * </p>
+ *
+ * <p>
+ * All observations are in normalized image coordinates. If a point can't be triangulated, e.g. the rays are
+ * parallel or it has fewer than two observations, then its output is set to NaN.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TriangulateMetricBatch {
+
+	/**
+	 * For each view: rotation from view to world (R<sup>T</sup>) as a row-major 3x3 matrix, then the
+	 * location of the camera center in world coordinates.
+	 */
+	protected double[] views = new double[0];
+	protected int numViews;
+
+	/**
+	 * If the determinant of the linear system is less than this fraction of its scale, the geometry is
+	 * considered degenerate
+	 */
+	public double singularThreshold = 1e-12;
+
+	/**
+	 * Specifies the location of each view. Must be called before {@link #triangulateN}
+	 *
+	 * @param worldToView Transform from world to each view
+	 */
+	public void setViews( List<Se3_F64> worldToView ) {
+		numViews = worldToView.size();
+		if( views.length < numViews*12 )
+			views = new double[numViews*12];
+
+		for (int viewIdx = 0; viewIdx < numViews; viewIdx++) {
+			Se3_F64 w2v = worldToView.get(viewIdx);
+			double[] R = w2v.R.data;
+			Vector3D_F64 T = w2v.T;
+			int idx = viewIdx*12;
+
+			// view to world rotation
+			for (int row = 0; row < 3; row++) {
+				for (int col = 0; col < 3; col++) {
+					views[idx + row*3 + col] = R[col*3 + row];
+				}
+			}
+			// camera center = -R'*T
+			views[idx + 9]  = -(R[0]*T.x + R[3]*T.y + R[6]*T.z);
+			views[idx + 10] = -(R[1]*T.x + R[4]*T.y + R[7]*T.z);
+			views[idx + 11] = -(R[2]*T.x + R[5]*T.y + R[8]*T.z);
+		}
+	}
+
+	/**
+	 * Triangulates points which are observed in two views. The found points are in view 'a' reference frame.
+	 *
+	 * @param ax (Input) x-coordinate of observations in view 'a'
+	 * @param ay (Input) y-coordinate of observations in view 'a'
+	 * @param bx (Input) x-coordinate of observations in view 'b'
+	 * @param by (Input) y-coordinate of observations in view 'b'
+	 * @param numPoints Number of points
+	 * @param a_to_b (Input) Transform from view 'a' to view 'b'
+	 * @param output (Output) Found 3D points, interleaved x,y,z. Must have a length of at least 3*numPoints
+	 */
+	public void triangulate2( double[] ax, double[] ay, double[] bx, double[] by, int numPoints,
+							  Se3_F64 a_to_b, double[] output ) {
+		checkOutput(numPoints, output);
+		triangulate2(ax, ay, bx, by, a_to_b, output, 0, numPoints);
+	}
+
+	/**
+	 * Triangulates tracks which are observed in an arbitrary number of views. The observations for track 'i' are
+	 * stored from index trackStart[i] to trackStart[i+1]-1, in compressed row format. The found points are in world
+	 * coordinates.
+	 *
+	 * @param obsX (Input) x-coordinate of each observation
+	 * @param obsY (Input) y-coordinate of each observation
+	 * @param obsView (Input) Index of the view each observation was made in. See {@link #setViews}
+	 * @param trackStart (Input) Index of the first observation in each track. Length of numTracks+1
+	 * @param numTracks Number of tracks
+	 * @param output (Output) Found 3D points, interleaved x,y,z. Must have a length of at least 3*numTracks
+	 */
+	public void triangulateN( double[] obsX, double[] obsY, int[] obsView, int[] trackStart, int numTracks,
+							  double[] output ) {
+		checkOutput(numTracks, output);
+		triangulateN(obsX, obsY, obsView, trackStart, output, 0, numTracks);
+	}
+
+	protected static void checkOutput( int numPoints, double[] output ) {
+		if( output.length < numPoints*3 )
+			throw new IllegalArgumentException("Output array is too small. "+output.length+" < "+(numPoints*3));
+	}
+
+	/**
+	 * Triangulates two view points within the specified range
+	 */
+	protected void triangulate2( double[] ax, double[] ay, double[] bx, double[] by,
+								 Se3_F64 a_to_b, double[] output, int idx0, int idx1 ) {
+		DMatrixRMaj R = a_to_b.R;
+		Vector3D_F64 T = a_to_b.T;
+		double r11 = R.data[0], r12 = R.data[1], r13 = R.data[2];
+		double r21 = R.data[3], r22 = R.data[4], r23 = R.data[5];
+		double r31 = R.data[6], r32 = R.data[7], r33 = R.data[8];
+
+		// Camera 'b' center in 'a' = -R'*T
+		final double cx = -(r11*T.x + r21*T.y + r31*T.z);
+		final double cy = -(r12*T.x + r22*T.y + r32*T.z);
+		final double cz = -(r13*T.x + r23*T.y + r33*T.z);
+
+		for (int i = idx0; i < idx1; i++) {
+			// ray 'a' starts at the origin
+			final double ux = ax[i], uy = ay[i];
+			// rotate ray 'b' into 'a'
+			final double vx = r11*bx[i] + r21*by[i] + r31;
+			final double vy = r12*bx[i] + r22*by[i] + r32;
+			final double vz = r13*bx[i] + r23*by[i] + r33;
+
+			// Closest point between the two lines
+			double a = ux*ux + uy*uy + 1.0;
+			double b = ux*vx + uy*vy + vz;
+			double c = vx*vx + vy*vy + vz*vz;
+			double d = -(ux*cx + uy*cy + cz);
+			double e = -(vx*cx + vy*cy + vz*cz);
+
+			double denom = a*c - b*b;
+			int idx = i*3;
+			if( denom <= singularThreshold*a*c ) {
+				output[idx] = output[idx+1] = output[idx+2] = Double.NaN;
+				continue;
+			}
+
+			double t = (b*e - c*d)/denom;
+			double s = (a*e - b*d)/denom;
+
+			// mid point between the closest points on each line
+			output[idx  ] = (ux*t + cx + vx*s)*0.5;
+			output[idx+1] = (uy*t + cy + vy*s)*0.5;
+			output[idx+2] = (t + cz + vz*s)*0.5;
+		}
+	}
+
+	/**
+	 * Triangulates N-view tracks within the specified range
+	 */
+	protected void triangulateN( double[] obsX, double[] obsY, int[] obsView, int[] trackStart,
+								 double[] output, int idx0, int idx1 ) {
+		final double[] views = this.views;
+
+		for (int trackIdx = idx0; trackIdx < idx1; trackIdx++) {
+			int obs0 = trackStart[trackIdx];
+			int obs1 = trackStart[trackIdx+1];
+
+			// Linear system A*X = B, A is symmetric
+			double a11 = 0, a12 = 0, a13 = 0, a22 = 0, a23 = 0, a33 = 0;
+			double b1 = 0, b2 = 0, b3 = 0;
+
+			for (int obsIdx = obs0; obsIdx < obs1; obsIdx++) {
+				int v = obsView[obsIdx]*12;
+				double x = obsX[obsIdx], y = obsY[obsIdx];
+
+				// direction of the ray in world coordinates
+				double dx = views[v  ]*x + views[v+1]*y + views[v+2];
+				double dy = views[v+3]*x + views[v+4]*y + views[v+5];
+				double dz = views[v+6]*x + views[v+7]*y + views[v+8];
+				double n = Math.sqrt(dx*dx + dy*dy + dz*dz);
+				dx /= n; dy /= n; dz /= n;
+
+				// (I - d*d')
+				double m11 = 1.0 - dx*dx, m12 = -dx*dy, m13 = -dx*dz;
+				double m22 = 1.0 - dy*dy, m23 = -dy*dz;
+				double m33 = 1.0 - dz*dz;
+
+				double cx = views[v+9], cy = views[v+10], cz = views[v+11];
+
+				a11 += m11; a12 += m12; a13 += m13;
+				a22 += m22; a23 += m23;
+				a33 += m33;
+
+				b1 += m11*cx + m12*cy + m13*cz;
+				b2 += m12*cx + m22*cy + m23*cz;
+				b3 += m13*cx + m23*cy + m33*cz;
+			}
+
+			// solve using the adjugate
+			double c11 = a22*a33 - a23*a23;
+			double c12 = a13*a23 - a12*a33;
+			double c13 = a12*a23 - a13*a22;
+			double c22 = a11*a33 - a13*a13;
+			double c23 = a12*a13 - a11*a23;
+			double c33 = a11*a22 - a12*a12;
+
+			double det = a11*c11 + a12*c12 + a13*c13;
+			double scale = a11*a22*a33;
+
+			int idx = trackIdx*3;
+			if( obs1-obs0 < 2 || !(det > singularThreshold*scale) ) {
+				output[idx] = output[idx+1] = output[idx+2] = Double.NaN;
+				continue;
+			}
+
+			output[idx  ] = (c11*b1 + c12*b2 + c13*b3)/det;
+			output[idx+1] = (c12*b1 + c22*b2 + c23*b3)/det;
+			output[idx+2] = (c13*b1 + c23*b2 + c33*b3)/det;
+		}
+	}
+
+	public double getSingularThreshold() {
+		return singularThreshold;
+	}
+
+	public void setSingularThreshold( double singularThreshold ) {
+		this.singularThreshold = singularThreshold;
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.triangulate;
+
+import boofcv.concurrency.BoofConcurrency;
+import georegression.struct.se.Se3_F64;
+
+/**
+ * Concurrent implementation of {@link TriangulateMetricBatch}. Points are split up into blocks which are
+ * triangulated in parallel. Since each point is independent the results are identical to the single
+ * threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class TriangulateMetricBatch_MT extends TriangulateMetricBatch {
+
+	/**
+	 * The smallest number of points which will be processed in a single block. Blocks which are too
+	 * small will have more overhead than work.
+	 */
+	public int minBlock = 2000;
+
+	@Override
+	public void triangulate2( double[] ax, double[] ay, double[] bx, double[] by, int numPoints,
+							  Se3_F64 a_to_b, double[] output ) {
+		checkOutput(numPoints, output);
+		BoofConcurrency.loopBlocks(0, numPoints, minBlock, ( idx0, idx1 ) ->
+				triangulate2(ax, ay, bx, by, a_to_b, output, idx0, idx1));
+	}
+
+	@Override
+	public void triangulateN( double[] obsX, double[] obsY, int[] obsView, int[] trackStart, int numTracks,
+							  double[] output ) {
+		checkOutput(numTracks, output);
+		BoofConcurrency.loopBlocks(0, numTracks, minBlock, ( idx0, idx1 ) ->
+				triangulateN(obsX, obsY, obsView, trackStart, output, idx0, idx1));
+	}
+}
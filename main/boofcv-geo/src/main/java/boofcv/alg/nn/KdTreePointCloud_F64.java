@@ -0,0 +1,495 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.nn;
+
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * KD-Tree for 3D point clouds which is stored entirely in flat primitive arrays. Points are provided in an
+ * interleaved double[] array and are copied into an internal array which is reordered into tree order.
+ * No object is created for each node. Instead, the tree is implicit: the node for the range of
+ * points [lo,hi) is the median element (lo+hi)/2, which is partitioned along the axis with the largest
+ * spread. Ranges with {@link #leafSize} or fewer points are not split and are searched with brute force.
+ * </p>
+ *
+ * <p>
+ * Searches are done using {@link Search}, which contains all the workspace needed for a query. Create one
+ * for each thread. The batch search functions process many queries at once and are concurrent in
+ * {@link KdTreePointCloud_F64_MT}.
+ * </p>
+ *
+ * <p>All distances are Euclidean distance squared.</p>
+ *
+ * @author Peter Abeles
+ */
+public class KdTreePointCloud_F64 {
+	/**
+	 * Ranges of points this size or smaller are not split and are searched using brute force
+	 */
+	public int leafSize = 8;
+
+	// Coordinates of the points in tree order. Interleaved x,y,z
+	protected double[] coordinates = new double[0];
+	// Index of each point in the original input
+	protected int[] indexes = new int[0];
+	// Axis each node splits along. Indexed by the location of the node's point
+	protected byte[] splitAxis = new byte[0];
+	// Number of points in the tree
+	protected int numPoints;
+
+	// Used by the single threaded batch functions
+	private final Search batchSearch = createSearch();
+
+	/**
+	 * Builds the tree from the point cloud. The input array is not modified.
+	 *
+	 * @param xyz Point cloud in an interleaved format
+	 * @param numPoints Number of points in the cloud
+	 */
+	public void setPoints( double[] xyz , int numPoints ) {
+		if( xyz.length < numPoints*3 )
+			throw new IllegalArgumentException("Array is too small for the number of points");
+		this.numPoints = numPoints;
+		if( indexes.length < numPoints ) {
+			coordinates = new double[numPoints*3];
+			indexes = new int[numPoints];
+			splitAxis = new byte[numPoints];
+		}
+		System.arraycopy(xyz,0,coordinates,0,numPoints*3);
+		for (int i = 0; i < numPoints; i++) {
+			indexes[i] = i;
+		}
+		build();
+	}
+
+	/**
+	 * Builds the tree after the points have been copied
+	 */
+	protected void build() {
+		buildSubtree(0,numPoints);
+	}
+
+	/**
+	 * Recursively builds the tree for all the points in the range
+	 *
+	 * @param lo first point, inclusive
+	 * @param hi last point, exclusive
+	 */
+	protected void buildSubtree( int lo , int hi ) {
+		while( hi-lo > leafSize ) {
+			int m = splitNode(lo,hi);
+			buildSubtree(lo,m);
+			lo = m+1;
+		}
+	}
+
+	/**
+	 * Selects the split axis for the node and partitions its points around the median
+	 *
+	 * @return Location of the median point, which is the node
+	 */
+	protected int splitNode( int lo , int hi ) {
+		// Split along the axis with the largest spread
+		double x0 = Double.MAX_VALUE, x1 = -Double.MAX_VALUE;
+		double y0 = Double.MAX_VALUE, y1 = -Double.MAX_VALUE;
+		double z0 = Double.MAX_VALUE, z1 = -Double.MAX_VALUE;
+		for (int i = lo*3; i < hi*3; i += 3) {
+			double x = coordinates[i], y = coordinates[i+1], z = coordinates[i+2];
+			if( x < x0 ) x0 = x; if( x > x1 ) x1 = x;
+			if( y < y0 ) y0 = y; if( y > y1 ) y1 = y;
+			if( z < z0 ) z0 = z; if( z > z1 ) z1 = z;
+		}
+		double sx = x1-x0, sy = y1-y0, sz = z1-z0;
+		int axis = sx >= sy ? (sx >= sz ? 0 : 2) : (sy >= sz ? 1 : 2);
+
+		int m = (lo+hi) >>> 1;
+		select(lo,hi,m,axis);
+		splitAxis[m] = (byte)axis;
+		return m;
+	}
+
+	/**
+	 * Quick select with a three way partition so that duplicate values don't degrade performance. After this
+	 * is finished all points before k have a value less than or equal to the value at k and all points after
+	 * have a value greater than or equal to it.
+	 */
+	private void select( int lo , int hi , int k , int axis ) {
+		int left = lo, right = hi-1;
+		while( right > left ) {
+			// median of three pivot
+			double a = coordinates[left*3+axis];
+			double b = coordinates[((left+right)>>>1)*3+axis];
+			double c = coordinates[right*3+axis];
+			double pivot = a < b ? (b < c ? b : Math.max(a, c)) : (a < c ? a : Math.max(b, c));
+
+			// [left,lt) < pivot, [lt,gt] == pivot, (gt,right] > pivot
+			int lt = left, gt = right, i = left;
+			while( i <= gt ) {
+				double v = coordinates[i*3+axis];
+				if( v < pivot )
+					swap(lt++, i++);
+				else if( v > pivot )
+					swap(i, gt--);
+				else
+					i++;
+			}
+
+			if( k < lt )
+				right = lt-1;
+			else if( k > gt )
+				left = gt+1;
+			else
+				return;
+		}
+	}
+
+	private void swap( int a , int b ) {
+		int ia = a*3, ib = b*3;
+		for (int i = 0; i < 3; i++) {
+			double tmp = coordinates[ia+i];
+			coordinates[ia+i] = coordinates[ib+i];
+			coordinates[ib+i] = tmp;
+		}
+		int tmp = indexes[a];
+		indexes[a] = indexes[b];
+		indexes[b] = tmp;
+	}
+
+	/**
+	 * Creates a new search. Each thread needs its own search.
+	 */
+	public Search createSearch() {
+		return new Search();
+	}
+
+	/**
+	 * Finds the k-nearest neighbors for many points at once.
+	 *
+	 * @param queries Query points in an interleaved format
+	 * @param numQueries Number of query points
+	 * @param k Number of neighbors
+	 * @param maxDistanceSq Maximum distance a neighbor can be. Set to Double.MAX_VALUE for unlimited.
+	 * @param outIndexes (Output) Index of neighbors. Neighbor j of query i is at i*k+j, sorted by distance.
+	 * 					 If less than k neighbors are found the remaining elements are -1.
+	 * @param outDistanceSq (Output) Optional. Distance of each neighbor. Same layout as outIndexes.
+	 */
+	public void findNearestBatch( double[] queries , int numQueries , int k , double maxDistanceSq ,
+								  int[] outIndexes , @Nullable double[] outDistanceSq ) {
+		findNearestBlock(batchSearch,queries,0,numQueries,k,maxDistanceSq,outIndexes,outDistanceSq);
+	}
+
+	protected void findNearestBlock( Search search , double[] queries , int idx0 , int idx1 , int k ,
+									 double maxDistanceSq , int[] outIndexes , @Nullable double[] outDistanceSq ) {
+		for (int queryIdx = idx0; queryIdx < idx1; queryIdx++) {
+			int q = queryIdx*3;
+			search.findNearest(queries[q],queries[q+1],queries[q+2],maxDistanceSq,k,
+					search.resultIndexes,search.resultDistanceSq);
+
+			int found = search.resultIndexes.size;
+			int offset = queryIdx*k;
+			System.arraycopy(search.resultIndexes.data,0,outIndexes,offset,found);
+			for (int j = found; j < k; j++) {
+				outIndexes[offset+j] = -1;
+			}
+			if( outDistanceSq != null ) {
+				System.arraycopy(search.resultDistanceSq.data,0,outDistanceSq,offset,found);
+				for (int j = found; j < k; j++) {
+					outDistanceSq[offset+j] = Double.NaN;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds all the neighbors within the radius for many points at once. Results are stored in a compressed
+	 * format where the neighbors of query i are the elements from outStart[i] to outStart[i+1] in outIndexes.
+	 *
+	 * @param queries Query points in an interleaved format
+	 * @param numQueries Number of query points
+	 * @param maxDistanceSq Maximum distance a neighbor can be
+	 * @param outStart (Output) Index of the first neighbor for each query. Size is numQueries+1
+	 * @param outIndexes (Output) Neighbors of all the queries. Order inside a query is arbitrary.
+	 */
+	public void findRadiusBatch( double[] queries , int numQueries , double maxDistanceSq ,
+								 GrowQueue_I32 outStart , GrowQueue_I32 outIndexes ) {
+		findRadiusBlock(batchSearch,queries,0,numQueries,maxDistanceSq);
+		outStart.reset();
+		outIndexes.reset();
+		mergeRadiusBlocks(Collections.singletonList(batchSearch),outStart,outIndexes);
+	}
+
+	/**
+	 * Finds neighbors in the radius for a block of queries and saves the results inside the search
+	 */
+	protected void findRadiusBlock( Search search , double[] queries , int idx0 , int idx1 , double maxDistanceSq ) {
+		search.blockStart = idx0;
+		search.blockCounts.reset();
+		search.blockIndexes.reset();
+		for (int queryIdx = idx0; queryIdx < idx1; queryIdx++) {
+			int q = queryIdx*3;
+			search.findRadius(queries[q],queries[q+1],queries[q+2],maxDistanceSq,search.resultIndexes,null);
+			search.blockCounts.add(search.resultIndexes.size);
+			search.blockIndexes.addAll(search.resultIndexes);
+		}
+	}
+
+	/**
+	 * Combines the radius search results from each block. Blocks must be ordered by their first query.
+	 */
+	protected static void mergeRadiusBlocks( List<Search> blocks , GrowQueue_I32 outStart , GrowQueue_I32 outIndexes ) {
+		outStart.add(0);
+		for (int blockIdx = 0; blockIdx < blocks.size(); blockIdx++) {
+			Search s = blocks.get(blockIdx);
+			int start = outStart.data[outStart.size-1];
+			for (int i = 0; i < s.blockCounts.size; i++) {
+				start += s.blockCounts.data[i];
+				outStart.add(start);
+			}
+			outIndexes.addAll(s.blockIndexes);
+		}
+	}
+
+	/**
+	 * Number of points in the tree
+	 */
+	public int size() {
+		return numPoints;
+	}
+
+	/**
+	 * Search for nearest neighbors in the tree. Contains all the workspace for a search and is not thread safe.
+	 */
+	public class Search {
+		// query point
+		private final double[] query = new double[3];
+
+		// max heap of the best neighbors found so far
+		private double[] heapDistance = new double[0];
+		private int[] heapIndex = new int[0];
+		private int heapSize;
+		private int heapCapacity;
+		private double maxDistanceSq;
+
+		// Storage for radius search results
+		private GrowQueue_I32 radiusIndexes;
+		private @Nullable GrowQueue_F64 radiusDistanceSq;
+
+		// Workspace for batch searches
+		final GrowQueue_I32 resultIndexes = new GrowQueue_I32();
+		final GrowQueue_F64 resultDistanceSq = new GrowQueue_F64();
+		int blockStart;
+		final GrowQueue_I32 blockCounts = new GrowQueue_I32();
+		final GrowQueue_I32 blockIndexes = new GrowQueue_I32();
+
+		/**
+		 * Finds the k-nearest neighbors to the point
+		 *
+		 * @param maxDistanceSq Maximum distance a neighbor can be. Set to Double.MAX_VALUE for unlimited.
+		 * @param k Maximum number of neighbors
+		 * @param outIndexes (Output) Index of found neighbors in the original array. Sorted by distance.
+		 * @param outDistanceSq (Output) Optional. Distance of found neighbors.
+		 */
+		public void findNearest( double x , double y , double z , double maxDistanceSq , int k ,
+								 GrowQueue_I32 outIndexes , @Nullable GrowQueue_F64 outDistanceSq ) {
+			query[0] = x; query[1] = y; query[2] = z;
+			this.maxDistanceSq = maxDistanceSq;
+			if( heapDistance.length < k ) {
+				heapDistance = new double[k];
+				heapIndex = new int[k];
+			}
+			heapCapacity = k;
+			heapSize = 0;
+
+			if( k > 0 )
+				searchNearest(0,numPoints);
+
+			// Pop off the heap from the farthest to the closest
+			outIndexes.resize(heapSize);
+			if( outDistanceSq != null )
+				outDistanceSq.resize(heapSize);
+			for (int i = heapSize-1; i >= 0; i--) {
+				outIndexes.data[i] = indexes[heapIndex[0]];
+				if( outDistanceSq != null )
+					outDistanceSq.data[i] = heapDistance[0];
+				heapSize--;
+				heapDistance[0] = heapDistance[heapSize];
+				heapIndex[0] = heapIndex[heapSize];
+				siftDown();
+			}
+		}
+
+		/**
+		 * Finds the nearest point
+		 *
+		 * @param maxDistanceSq Maximum distance a neighbor can be. Set to Double.MAX_VALUE for unlimited.
+		 * @return Index of the nearest point in the original array or -1 if none were found
+		 */
+		public int findNearest( double x , double y , double z , double maxDistanceSq ) {
+			findNearest(x,y,z,maxDistanceSq,1,resultIndexes,null);
+			return resultIndexes.size == 0 ? -1 : resultIndexes.data[0];
+		}
+
+		/**
+		 * Finds all the points within the specified distance of the point
+		 *
+		 * @param maxDistanceSq Maximum distance a neighbor can be
+		 * @param outIndexes (Output) Index of found neighbors in the original array. Order is arbitrary.
+		 * @param outDistanceSq (Output) Optional. Distance of found neighbors.
+		 */
+		public void findRadius( double x , double y , double z , double maxDistanceSq ,
+								GrowQueue_I32 outIndexes , @Nullable GrowQueue_F64 outDistanceSq ) {
+			query[0] = x; query[1] = y; query[2] = z;
+			this.maxDistanceSq = maxDistanceSq;
+			this.radiusIndexes = outIndexes;
+			this.radiusDistanceSq = outDistanceSq;
+			outIndexes.reset();
+			if( outDistanceSq != null )
+				outDistanceSq.reset();
+			searchRadius(0,numPoints);
+		}
+
+		private void searchNearest( int lo , int hi ) {
+			while( true ) {
+				if( hi-lo <= leafSize ) {
+					for (int i = lo; i < hi; i++) {
+						checkNearest(i);
+					}
+					return;
+				}
+				int m = (lo+hi) >>> 1;
+				int axis = splitAxis[m];
+				checkNearest(m);
+
+				double diff = query[axis] - coordinates[m*3+axis];
+				// search the side the query is on first then the other side if it could be closer
+				if( diff < 0 ) {
+					searchNearest(lo,m);
+					if( diff*diff > bound() )
+						return;
+					lo = m+1;
+				} else {
+					searchNearest(m+1,hi);
+					if( diff*diff > bound() )
+						return;
+					hi = m;
+				}
+			}
+		}
+
+		private void searchRadius( int lo , int hi ) {
+			while( true ) {
+				if( hi-lo <= leafSize ) {
+					for (int i = lo; i < hi; i++) {
+						checkRadius(i);
+					}
+					return;
+				}
+				int m = (lo+hi) >>> 1;
+				int axis = splitAxis[m];
+				checkRadius(m);
+
+				double diff = query[axis] - coordinates[m*3+axis];
+				if( diff < 0 ) {
+					searchRadius(lo,m);
+					if( diff*diff > maxDistanceSq )
+						return;
+					lo = m+1;
+				} else {
+					searchRadius(m+1,hi);
+					if( diff*diff > maxDistanceSq )
+						return;
+					hi = m;
+				}
+			}
+		}
+
+		/**
+		 * The distance a point must be less than or equal to for it to be a candidate
+		 */
+		private double bound() {
+			return heapSize < heapCapacity ? maxDistanceSq : heapDistance[0];
+		}
+
+		private void checkNearest( int i ) {
+			double d = distanceSq(i);
+			if( heapSize < heapCapacity ) {
+				if( d > maxDistanceSq )
+					return;
+				// add to the end then sift up
+				int child = heapSize++;
+				while( child > 0 ) {
+					int parent = (child-1)/2;
+					if( heapDistance[parent] >= d )
+						break;
+					heapDistance[child] = heapDistance[parent];
+					heapIndex[child] = heapIndex[parent];
+					child = parent;
+				}
+				heapDistance[child] = d;
+				heapIndex[child] = i;
+			} else if( d < heapDistance[0] ) {
+				heapDistance[0] = d;
+				heapIndex[0] = i;
+				siftDown();
+			}
+		}
+
+		private void siftDown() {
+			double d = heapDistance[0];
+			int idx = heapIndex[0];
+			int parent = 0;
+			while( true ) {
+				int child = parent*2+1;
+				if( child >= heapSize )
+					break;
+				if( child+1 < heapSize && heapDistance[child+1] > heapDistance[child] )
+					child++;
+				if( heapDistance[child] <= d )
+					break;
+				heapDistance[parent] = heapDistance[child];
+				heapIndex[parent] = heapIndex[child];
+				parent = child;
+			}
+			heapDistance[parent] = d;
+			heapIndex[parent] = idx;
+		}
+
+		private void checkRadius( int i ) {
+			double d = distanceSq(i);
+			if( d <= maxDistanceSq ) {
+				radiusIndexes.add(indexes[i]);
+				if( radiusDistanceSq != null )
+					radiusDistanceSq.add(d);
+			}
+		}
+
+		private double distanceSq( int i ) {
+			int j = i*3;
+			double dx = coordinates[j  ] - query[0];
+			double dy = coordinates[j+1] - query[1];
+			double dz = coordinates[j+2] - query[2];
+			return dx*dx + dy*dy + dz*dz;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.nn;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Concurrent version of {@link KdTreePointCloud_F64}. The top of the tree is built one level at a time with
+ * every node in a level being partitioned in parallel. Once there are enough nodes each remaining sub-tree is
+ * built in its own thread. Batch searches are split into blocks of queries. The tree and search results are
+ * identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class KdTreePointCloud_F64_MT extends KdTreePointCloud_F64 {
+	/**
+	 * Minimum number of queries in each thread for batch searches
+	 */
+	public int minimumBlock = 500;
+
+	// Each thread has its own search
+	private final FastQueue<Search> searches = new FastQueue<>(this::createSearch);
+	// Searches sorted by the first query in their block
+	private final List<Search> sortedSearches = new ArrayList<>();
+
+	// Workspace for building the tree. Pairs of lo,hi for each node in the current level
+	private GrowQueue_I32 levelRanges = new GrowQueue_I32();
+	private GrowQueue_I32 nextRanges = new GrowQueue_I32();
+	private final GrowQueue_I32 medians = new GrowQueue_I32();
+
+	@Override
+	protected void build() {
+		// Number of sub-trees which will be built in parallel. More than the number of threads to balance the load
+		int targetNodes = 4*BoofConcurrency.getMaxThreads();
+
+		levelRanges.reset();
+		if( numPoints > leafSize ) {
+			levelRanges.add(0);
+			levelRanges.add(numPoints);
+		}
+
+		while( levelRanges.size > 0 && levelRanges.size/2 < targetNodes ) {
+			final int numNodes = levelRanges.size/2;
+			medians.resize(numNodes);
+			final int[] ranges = levelRanges.data;
+			BoofConcurrency.loopFor(0,numNodes,nodeIdx->
+					medians.data[nodeIdx] = splitNode(ranges[nodeIdx*2],ranges[nodeIdx*2+1]));
+
+			// Children which are large enough to be split are processed in the next level
+			nextRanges.reset();
+			for (int nodeIdx = 0; nodeIdx < numNodes; nodeIdx++) {
+				int lo = levelRanges.data[nodeIdx*2];
+				int hi = levelRanges.data[nodeIdx*2+1];
+				int m = medians.data[nodeIdx];
+				if( m-lo > leafSize ) {
+					nextRanges.add(lo);
+					nextRanges.add(m);
+				}
+				if( hi-m-1 > leafSize ) {
+					nextRanges.add(m+1);
+					nextRanges.add(hi);
+				}
+			}
+			GrowQueue_I32 tmp = levelRanges;
+			levelRanges = nextRanges;
+			nextRanges = tmp;
+		}
+
+		final int[] ranges = levelRanges.data;
+		BoofConcurrency.loopFor(0,levelRanges.size/2,nodeIdx->
+				buildSubtree(ranges[nodeIdx*2],ranges[nodeIdx*2+1]));
+	}
+
+	@Override
+	public void findNearestBatch( double[] queries , int numQueries , int k , double maxDistanceSq ,
+								  int[] outIndexes , @Nullable double[] outDistanceSq ) {
+		BoofConcurrency.loopBlocks(0,numQueries,minimumBlock,searches,(search,idx0,idx1)->
+				findNearestBlock(search,queries,idx0,idx1,k,maxDistanceSq,outIndexes,outDistanceSq));
+	}
+
+	@Override
+	public void findRadiusBatch( double[] queries , int numQueries , double maxDistanceSq ,
+								 GrowQueue_I32 outStart , GrowQueue_I32 outIndexes ) {
+		outStart.reset();
+		outIndexes.reset();
+		if( numQueries == 0 ) {
+			outStart.add(0);
+			return;
+		}
+
+		BoofConcurrency.loopBlocks(0,numQueries,minimumBlock,searches,(search,idx0,idx1)->
+				findRadiusBlock(search,queries,idx0,idx1,maxDistanceSq));
+
+		// The order of the workspace does not match the order of the blocks
+		sortedSearches.clear();
+		for (int i = 0; i < searches.size; i++) {
+			sortedSearches.add(searches.get(i));
+		}
+		sortedSearches.sort(Comparator.comparingInt(s->s.blockStart));
+		mergeRadiusBlocks(sortedSearches,outStart,outIndexes);
+	}
+}
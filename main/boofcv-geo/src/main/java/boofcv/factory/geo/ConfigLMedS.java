@@ -41,6 +41,12 @@ public class ConfigLMedS implements Configuration {
 	 */
 	public double errorFraction = 0.5;
 
+	/**
+	 * If true then hypotheses are generated and scored in parallel. Results are deterministic but will
+	 * not be identical to the single threaded implementation.
+	 */
+	public boolean concurrent = false;
+
 	public ConfigLMedS() {
 	}
 
@@ -53,6 +59,7 @@ public class ConfigLMedS implements Configuration {
 		this.randSeed = src.randSeed;
 		this.totalCycles = src.totalCycles;
 		this.errorFraction = src.errorFraction;
+		this.concurrent = src.concurrent;
 	}
 
 	@Override
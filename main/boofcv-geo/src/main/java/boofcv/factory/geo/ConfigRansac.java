@@ -38,6 +38,12 @@ public class ConfigRansac implements Configuration {
 	 * Inlier threshold.
 	 */
 	public double inlierThreshold;
+	/**
+	 * If true then hypotheses are generated and scored in parallel. Results are deterministic but will
+	 * not be identical to the single threaded implementation. Factory functions which return a single threaded
+	 * type, e.g. {@link org.ddogleg.fitting.modelset.ransac.Ransac}, throw an IllegalArgumentException if true.
+	 */
+	public boolean concurrent = false;
 
 	public ConfigRansac(int iterations, double inlierThreshold) {
 		this.iterations = iterations;
@@ -56,5 +62,6 @@ public class ConfigRansac implements Configuration {
 		this.randSeed = src.randSeed;
 		this.iterations = src.iterations;
 		this.inlierThreshold = src.inlierThreshold;
+		this.concurrent = src.concurrent;
 	}
 }
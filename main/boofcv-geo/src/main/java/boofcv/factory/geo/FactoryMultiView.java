@@ -46,6 +46,7 @@ import boofcv.alg.geo.selfcalib.SelfCalibrationPraticalGuessAndCheckFocus;
 import boofcv.alg.geo.triangulate.*;
 import boofcv.alg.geo.trifocal.RefineThreeViewProjectiveGeometric;
 import boofcv.alg.geo.trifocal.TrifocalAlgebraicPoint7;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.misc.ConfigConverge;
 import boofcv.struct.geo.AssociatedPair;
 import boofcv.struct.geo.AssociatedTriple;
@@ -92,10 +93,50 @@ public class FactoryMultiView {
 		else
 			minimizer = FactoryOptimizationSparse.levenbergMarquardtSchur((ConfigLevenbergMarquardt)config.configOptimizer);
 
-		return new BundleAdjustmentSchur_DSCC<>(minimizer,
-				new BundleAdjustmentMetricResidualFunction(),
-				new BundleAdjustmentMetricSchurJacobian_DSCC(),
-				new CodecSceneStructureMetric());
+		BundleAdjustmentMetricResidualFunction residuals;
+		BundleAdjustmentMetricSchurJacobian_DSCC jacobian;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			residuals = new BundleAdjustmentMetricResidualFunction_MT();
+			jacobian = new BundleAdjustmentMetricSchurJacobian_DSCC_MT();
+		} else {
+			residuals = new BundleAdjustmentMetricResidualFunction();
+			jacobian = new BundleAdjustmentMetricSchurJacobian_DSCC();
+		}
+
+		return new BundleAdjustmentSchur_DSCC<>(minimizer, residuals, jacobian, new CodecSceneStructureMetric());
+	}
+
+	/**
+	 * Returns sparse bundle adjustment for metric reconstruction where the general points and their observations
+	 * are stored in {@link ScenePointsPacked} and {@link SceneObservationsPacked}. Use this instead of
+	 * {@link #bundleSparseMetric} for scenes which are too large to have an object for every point and observation.
+	 *
+	 * @param config (Optional) configuration
+	 * @return bundle adjustment
+	 */
+	public static BundleAdjustmentMetricPacked<DMatrixSparseCSC>
+	bundleSparseMetricPacked( @Nullable ConfigBundleAdjustment config ) {
+		if( config == null )
+			config = new ConfigBundleAdjustment();
+
+		UnconstrainedLeastSquaresSchur<DMatrixSparseCSC> minimizer;
+
+		if( config.configOptimizer instanceof ConfigTrustRegion )
+			minimizer = FactoryOptimizationSparse.doglegSchur((ConfigTrustRegion)config.configOptimizer);
+		else
+			minimizer = FactoryOptimizationSparse.levenbergMarquardtSchur((ConfigLevenbergMarquardt)config.configOptimizer);
+
+		BundleAdjustmentMetricResidualFunction residuals;
+		BundleAdjustmentMetricSchurJacobian_DSCC jacobian;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			residuals = new BundleAdjustmentMetricResidualFunction_MT();
+			jacobian = new BundleAdjustmentMetricSchurJacobian_DSCC_MT();
+		} else {
+			residuals = new BundleAdjustmentMetricResidualFunction();
+			jacobian = new BundleAdjustmentMetricSchurJacobian_DSCC();
+		}
+
+		return new BundleAdjustmentMetricPacked<>(minimizer, residuals, jacobian, new CodecSceneStructureMetric());
 	}
 
 	/**
@@ -116,10 +157,17 @@ public class FactoryMultiView {
 		else
 			minimizer = FactoryOptimizationSparse.levenbergMarquardtSchur((ConfigLevenbergMarquardt)config.configOptimizer);
 
-		return new BundleAdjustmentSchur_DSCC<>(minimizer,
-				new BundleAdjustmentProjectiveResidualFunction(),
-				new BundleAdjustmentProjectiveSchurJacobian_DSCC(),
-				new CodecSceneStructureProjective());
+		BundleAdjustmentProjectiveResidualFunction residuals;
+		BundleAdjustmentProjectiveSchurJacobian_DSCC jacobian;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			residuals = new BundleAdjustmentProjectiveResidualFunction_MT();
+			jacobian = new BundleAdjustmentProjectiveSchurJacobian_DSCC_MT();
+		} else {
+			residuals = new BundleAdjustmentProjectiveResidualFunction();
+			jacobian = new BundleAdjustmentProjectiveSchurJacobian_DSCC();
+		}
+
+		return new BundleAdjustmentSchur_DSCC<>(minimizer, residuals, jacobian, new CodecSceneStructureProjective());
 	}
 
 	/**
@@ -142,10 +190,17 @@ public class FactoryMultiView {
 		else
 			minimizer = FactoryOptimization.levenbergMarquardtSchur(robust,(ConfigLevenbergMarquardt)config.configOptimizer);
 
-		return new BundleAdjustmentSchur_DDRM<>(minimizer,
-				new BundleAdjustmentMetricResidualFunction(),
-				new BundleAdjustmentMetricSchurJacobian_DDRM(),
-				new CodecSceneStructureMetric());
+		BundleAdjustmentMetricResidualFunction residuals;
+		BundleAdjustmentMetricSchurJacobian_DDRM jacobian;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			residuals = new BundleAdjustmentMetricResidualFunction_MT();
+			jacobian = new BundleAdjustmentMetricSchurJacobian_DDRM_MT();
+		} else {
+			residuals = new BundleAdjustmentMetricResidualFunction();
+			jacobian = new BundleAdjustmentMetricSchurJacobian_DDRM();
+		}
+
+		return new BundleAdjustmentSchur_DDRM<>(minimizer, residuals, jacobian, new CodecSceneStructureMetric());
 	}
 
 	/**
@@ -169,10 +224,17 @@ public class FactoryMultiView {
 			minimizer = FactoryOptimization.levenbergMarquardtSchur(robust,(ConfigLevenbergMarquardt)config.configOptimizer);
 
 
-		return new BundleAdjustmentSchur_DDRM<>(minimizer,
-				new BundleAdjustmentProjectiveResidualFunction(),
-				new BundleAdjustmentProjectiveSchurJacobian_DDRM(),
-				new CodecSceneStructureProjective());
+		BundleAdjustmentProjectiveResidualFunction residuals;
+		BundleAdjustmentProjectiveSchurJacobian_DDRM jacobian;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			residuals = new BundleAdjustmentProjectiveResidualFunction_MT();
+			jacobian = new BundleAdjustmentProjectiveSchurJacobian_DDRM_MT();
+		} else {
+			residuals = new BundleAdjustmentProjectiveResidualFunction();
+			jacobian = new BundleAdjustmentProjectiveSchurJacobian_DDRM();
+		}
+
+		return new BundleAdjustmentSchur_DDRM<>(minimizer, residuals, jacobian, new CodecSceneStructureProjective());
 	}
 
 
@@ -615,6 +677,21 @@ public class FactoryMultiView {
 		throw new IllegalArgumentException("Unknown or unsupported type "+config.type);
 	}
 
+	/**
+	 * Triangulates a large number of points at once with a calibrated camera. Input and output are stored in
+	 * primitive arrays.
+	 *
+	 * @see TriangulateMetricBatch
+	 *
+	 * @return Batch triangulation algorithm
+	 */
+	public static TriangulateMetricBatch triangulateMetricBatch() {
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new TriangulateMetricBatch_MT();
+		else
+			return new TriangulateMetricBatch();
+	}
+
 	/**
 	 * Triangulate N views using the Discrete Linear Transform (DLT) with an uncalibrated camera
 	 *
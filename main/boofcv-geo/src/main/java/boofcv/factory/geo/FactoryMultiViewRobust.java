@@ -82,6 +82,17 @@ public class FactoryMultiViewRobust {
 		configPnP.checkValidity();
 		configLMedS.checkValidity();
 
+		if( configLMedS.concurrent ) {
+			final ConfigPnP _configPnP = configPnP;
+			LeastMedianOfSquaresMultiView_MT<Se3_F64, Point2D3D> lmeds = new LeastMedianOfSquaresMultiView_MT<>(
+					configLMedS.randSeed, configLMedS.totalCycles, new ModelManagerSe3_F64(),
+					()->new EstimatorToGenerator<>(FactoryMultiView.pnp_1(
+							_configPnP.which, _configPnP.epnpIterations, _configPnP.numResolve)),
+					PnPDistanceReprojectionSq::new);
+			lmeds.setErrorFraction(configLMedS.errorFraction);
+			return lmeds;
+		}
+
 		Estimate1ofPnP estimatorPnP = FactoryMultiView.pnp_1( configPnP.which , configPnP.epnpIterations, configPnP.numResolve);
 
 		DistanceFromModelMultiView<Se3_F64,Point2D3D> distance = new PnPDistanceReprojectionSq();
@@ -116,15 +127,22 @@ public class FactoryMultiViewRobust {
 		pnp.checkValidity();
 		ransac.checkValidity();
 
+		// convert from pixels to pixels squared
+		double threshold = ransac.inlierThreshold*ransac.inlierThreshold;
+
+		if( ransac.concurrent ) {
+			final ConfigPnP _pnp = pnp;
+			return new RansacMultiView_MT<>(ransac.randSeed, new ModelManagerSe3_F64(),
+					()->new EstimatorToGenerator<>(FactoryMultiView.pnp_1(_pnp.which, _pnp.epnpIterations, _pnp.numResolve)),
+					PnPDistanceReprojectionSq::new, ransac.iterations, threshold);
+		}
+
 		Estimate1ofPnP estimatorPnP = FactoryMultiView.pnp_1(pnp.which, pnp.epnpIterations, pnp.numResolve);
 		DistanceFromModelMultiView<Se3_F64,Point2D3D> distance = new PnPDistanceReprojectionSq();
 		ModelManagerSe3_F64 manager = new ModelManagerSe3_F64();
 		EstimatorToGenerator<Se3_F64,Point2D3D> generator =
 				new EstimatorToGenerator<>(estimatorPnP);
 
-		// convert from pixels to pixels squared
-		double threshold = ransac.inlierThreshold*ransac.inlierThreshold;
-
 		return new RansacMultiView<>(ransac.randSeed, manager, generator, distance, ransac.iterations, threshold);
 	}
 
@@ -150,14 +168,21 @@ public class FactoryMultiViewRobust {
 		else
 			essential.checkValidity();
 
-		Estimate1ofEpipolar epipolar = FactoryMultiView.
-				essential_1(essential.which, essential.numResolve);
+		if( lmeds.concurrent ) {
+			final ConfigEssential _essential = essential;
+			LeastMedianOfSquaresMultiView_MT<Se3_F64, AssociatedPair> alg = new LeastMedianOfSquaresMultiView_MT<>(
+					lmeds.randSeed, lmeds.totalCycles, new ModelManagerSe3_F64(),
+					()->createSe3FromEssentialGenerator(_essential),
+					()->new DistanceSe3SymmetricSq(createTriangulateGeometric()));
+			alg.setErrorFraction(lmeds.errorFraction);
+			return alg;
+		}
 
-		Triangulate2ViewsMetric triangulate = FactoryMultiView.triangulate2ViewMetric(
-				new ConfigTriangulation(ConfigTriangulation.Type.GEOMETRIC));
+		Triangulate2ViewsMetric triangulate = createTriangulateGeometric();
 		ModelManager<Se3_F64> manager = new ModelManagerSe3_F64();
 		ModelGenerator<Se3_F64, AssociatedPair> generateEpipolarMotion =
-				new Se3FromEssentialGenerator(epipolar, triangulate);
+				new Se3FromEssentialGenerator(FactoryMultiView.
+						essential_1(essential.which, essential.numResolve), triangulate);
 
 		DistanceFromModelMultiView<Se3_F64, AssociatedPair> distanceSe3 = new DistanceSe3SymmetricSq(triangulate);
 
@@ -224,20 +249,25 @@ public class FactoryMultiViewRobust {
 			throw new RuntimeException("Error model has to be Euclidean");
 		}
 
-		Estimate1ofEpipolar epipolar = FactoryMultiView.
-				essential_1(essential.which, essential.numResolve);
+		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold * 2.0;
+
+		if( ransac.concurrent ) {
+			final ConfigEssential _essential = essential;
+			return new RansacMultiView_MT<>(ransac.randSeed, new ModelManagerSe3_F64(),
+					()->createSe3FromEssentialGenerator(_essential),
+					()->new DistanceSe3SymmetricSq(createTriangulateGeometric()),
+					ransac.iterations, ransacTOL);
+		}
 
-		Triangulate2ViewsMetric triangulate = FactoryMultiView.triangulate2ViewMetric(
-				new ConfigTriangulation(ConfigTriangulation.Type.GEOMETRIC));
+		Triangulate2ViewsMetric triangulate = createTriangulateGeometric();
 		ModelManager<Se3_F64> manager = new ModelManagerSe3_F64();
 		ModelGenerator<Se3_F64, AssociatedPair> generateEpipolarMotion =
-				new Se3FromEssentialGenerator(epipolar, triangulate);
+				new Se3FromEssentialGenerator(FactoryMultiView.
+						essential_1(essential.which, essential.numResolve), triangulate);
 
 		DistanceFromModelMultiView<Se3_F64, AssociatedPair> distanceSe3 =
 				new DistanceSe3SymmetricSq(triangulate);
 
-		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold * 2.0;
-
 		return new RansacMultiView<>(ransac.randSeed, manager, generateEpipolarMotion, distanceSe3,
 				ransac.iterations, ransacTOL);
 	}
@@ -258,6 +288,15 @@ public class FactoryMultiViewRobust {
 		}
 
 		ModelManager<DMatrixRMaj> managerE = new ModelManagerEpipolarMatrix();
+		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold;
+
+		if( ransac.concurrent ) {
+			final ConfigEssential _essential = essential;
+			return new RansacMultiView_MT<>(ransac.randSeed, managerE,
+					()->new GenerateEpipolarMatrix(FactoryMultiView.essential_1(_essential.which, _essential.numResolve)),
+					DistanceMultiView_EssentialSampson::new, ransac.iterations, ransacTOL);
+		}
+
 		Estimate1ofEpipolar estimateF = FactoryMultiView.essential_1(essential.which,
 				essential.numResolve);
 		GenerateEpipolarMatrix generateE = new GenerateEpipolarMatrix(estimateF);
@@ -265,7 +304,6 @@ public class FactoryMultiViewRobust {
 		// How the error is measured
 		DistanceFromModelMultiView<DMatrixRMaj,AssociatedPair> errorMetric =
 				new DistanceMultiView_EssentialSampson();
-		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold;
 
 		return new RansacMultiView<>(ransac.randSeed, managerE, generateE, errorMetric,
 				ransac.iterations, ransacTOL);
@@ -280,29 +318,37 @@ public class FactoryMultiViewRobust {
 		ransac.checkValidity();
 
 		ModelManager<DMatrixRMaj> managerF = new ModelManagerEpipolarMatrix();
+		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold;
+
+		if( ransac.concurrent ) {
+			return new RansacMultiView_MT<DMatrixRMaj, AssociatedPair>(ransac.randSeed, managerF,
+					()->new GenerateEpipolarMatrix(
+							FactoryMultiView.fundamental_1(fundamental.which, fundamental.numResolve)),
+					()->new DistanceFromModelNoViews<>(createFundamentalDistance(fundamental)),
+					ransac.iterations, ransacTOL);
+		}
+
 		Estimate1ofEpipolar estimateF = FactoryMultiView.fundamental_1(fundamental.which,
 				fundamental.numResolve);
 		GenerateEpipolarMatrix generateF = new GenerateEpipolarMatrix(estimateF);
 
 		// How the error is measured
-		DistanceFromModel<DMatrixRMaj,AssociatedPair> errorMetric;
+		DistanceFromModel<DMatrixRMaj,AssociatedPair> errorMetric = createFundamentalDistance(fundamental);
+
+		return new Ransac<>(ransac.randSeed, managerF, generateF, errorMetric, ransac.iterations, ransacTOL);
+	}
 
+	private static DistanceFromModel<DMatrixRMaj,AssociatedPair> createFundamentalDistance( ConfigFundamental fundamental ) {
 		switch( fundamental.errorModel ) {
 			case SAMPSON:
-				errorMetric = new DistanceFromModelResidual<>(new FundamentalResidualSampson());
-				break;
+				return new DistanceFromModelResidual<>(new FundamentalResidualSampson());
 
 			case GEOMETRIC:
-				errorMetric = new DistanceFundamentalGeometric();
-				break;
+				return new DistanceFundamentalGeometric();
 
 			default:
 				throw new RuntimeException("Unknown");
 		}
-
-		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold;
-
-		return new Ransac<>(ransac.randSeed, managerF, generateF, errorMetric, ransac.iterations, ransacTOL);
 	}
 
 	/**
@@ -347,6 +393,8 @@ public class FactoryMultiViewRobust {
 	 *
 	 * <p>See code for all the details.</p>
 	 *
+	 * <p>{@link ConfigRansac#concurrent} is not supported since the returned type is the single threaded implementation.</p>
+	 *
 	 * @param homography Homography estimation parameters.  If null default is used.
 	 * @param ransac Parameters for RANSAC.  Can't be null.
 	 * @return Homography estimator
@@ -354,6 +402,9 @@ public class FactoryMultiViewRobust {
 	public static Ransac<Homography2D_F64,AssociatedPair>
 	homographyRansac( @Nullable ConfigHomography homography , ConfigRansac ransac )
 	{
+		if( ransac.concurrent )
+			throw new IllegalArgumentException("Concurrent RANSAC is not supported for this model");
+
 		if( homography == null )
 			homography = new ConfigHomography();
 
@@ -369,6 +420,8 @@ public class FactoryMultiViewRobust {
 	/**
 	 * Estimates a homography from normalized image coordinates but computes the error in pixel coordinates
 	 *
+	 * <p>{@link ConfigRansac#concurrent} is not supported since the returned type is the single threaded implementation.</p>
+	 *
 	 * @see GenerateHomographyLinear
 	 * @see DistanceHomographyCalibratedSq
 	 *
@@ -378,6 +431,9 @@ public class FactoryMultiViewRobust {
 	public static RansacMultiView<Homography2D_F64,AssociatedPair>
 	homographyCalibratedRansac( ConfigRansac ransac )
 	{
+		if( ransac.concurrent )
+			throw new IllegalArgumentException("Concurrent RANSAC is not supported for this model");
+
 		ModelManager<Homography2D_F64> manager = new ModelManagerHomography2D_F64();
 		GenerateHomographyLinear modelFitter = new GenerateHomographyLinear(false);
 		DistanceHomographyCalibratedSq distance = new DistanceHomographyCalibratedSq();
@@ -398,7 +454,7 @@ public class FactoryMultiViewRobust {
 	 * @param ransac Configuration for RANSAC
 	 * @return RANSAC
 	 */
-	public static Ransac<TrifocalTensor, AssociatedTriple>
+	public static ModelMatcher<TrifocalTensor, AssociatedTriple>
 	trifocalRansac( @Nullable ConfigTrifocal trifocal ,
 					@Nullable ConfigTrifocalError error,
 					ConfigRansac ransac ) {
@@ -409,35 +465,45 @@ public class FactoryMultiViewRobust {
 
 		trifocal.checkValidity();
 
-		double ransacTol;
-		DistanceFromModel<TrifocalTensor,AssociatedTriple> distance;
-
-		switch (error.model) {
-			case REPROJECTION -> {
-				ransacTol = 3.0 * ransac.inlierThreshold * ransac.inlierThreshold;
-				distance = new DistanceTrifocalReprojectionSq();
-			}
-			case REPROJECTION_REFINE -> {
-				ransacTol = 3.0 * ransac.inlierThreshold * ransac.inlierThreshold;
-				distance = new DistanceTrifocalReprojectionSq(error.converge.gtol, error.converge.maxIterations);
-			}
-			case POINT_TRANSFER -> {
-				ransacTol = 2.0 * ransac.inlierThreshold * ransac.inlierThreshold;
-				distance = new DistanceTrifocalTransferSq();
-			}
+		double ransacTol = switch (error.model) {
+			case REPROJECTION, REPROJECTION_REFINE -> 3.0 * ransac.inlierThreshold * ransac.inlierThreshold;
+			case POINT_TRANSFER -> 2.0 * ransac.inlierThreshold * ransac.inlierThreshold;
 			default -> throw new IllegalArgumentException("Unknown error model " + error.model);
+		};
+
+		ModelManager<TrifocalTensor> manager = new ManagerTrifocalTensor();
+
+		if( ransac.concurrent ) {
+			final ConfigTrifocal _trifocal = trifocal;
+			final ConfigTrifocalError _error = error;
+			return new RansacMultiView_MT<TrifocalTensor, AssociatedTriple>(ransac.randSeed, manager,
+					()->new GenerateTrifocalTensor(FactoryMultiView.trifocal_1(_trifocal)),
+					()->new DistanceFromModelNoViews<>(createTrifocalDistance(_error)),
+					ransac.iterations, ransacTol);
 		}
 
 		Estimate1ofTrifocalTensor estimator = FactoryMultiView.trifocal_1(trifocal);
-		ModelManager<TrifocalTensor> manager = new ManagerTrifocalTensor();
 		ModelGenerator<TrifocalTensor,AssociatedTriple> generator = new GenerateTrifocalTensor(estimator);
+		DistanceFromModel<TrifocalTensor,AssociatedTriple> distance = createTrifocalDistance(error);
 
 		return new Ransac<>(ransac.randSeed, manager, generator, distance, ransac.iterations, ransacTol);
 	}
 
+	private static DistanceFromModel<TrifocalTensor,AssociatedTriple> createTrifocalDistance( ConfigTrifocalError error ) {
+		return switch (error.model) {
+			case REPROJECTION -> new DistanceTrifocalReprojectionSq();
+			case REPROJECTION_REFINE ->
+					new DistanceTrifocalReprojectionSq(error.converge.gtol, error.converge.maxIterations);
+			case POINT_TRANSFER -> new DistanceTrifocalTransferSq();
+			default -> throw new IllegalArgumentException("Unknown error model " + error.model);
+		};
+	}
+
 	/**
 	 * Projective to metric self calibration from 3-views
 	 *
+	 * <p>{@link ConfigRansac#concurrent} is not supported since the returned type is the single threaded implementation.</p>
+	 *
 	 * @param selfcalib (Input) configuration for self calibration
 	 * @param ransac (Input) configuration for RANSAC
 	 * @return RANSAC
@@ -446,6 +512,9 @@ public class FactoryMultiViewRobust {
 	metricThreeViewRansac( @Nullable ConfigPixelsToMetric selfcalib,
 						   ConfigRansac ransac)
 	{
+		if( ransac.concurrent )
+			throw new IllegalArgumentException("Concurrent RANSAC is not supported for this model");
+
 		// Pixel error squared in two views
 		double ransacTol = ransac.inlierThreshold*ransac.inlierThreshold*2;
 
@@ -456,4 +525,13 @@ public class FactoryMultiViewRobust {
 
 		return new RansacProjective<>(ransac.randSeed, manager, generator, distance, ransac.iterations, ransacTol);
 	}
+
+	private static Triangulate2ViewsMetric createTriangulateGeometric() {
+		return FactoryMultiView.triangulate2ViewMetric(new ConfigTriangulation(ConfigTriangulation.Type.GEOMETRIC));
+	}
+
+	private static Se3FromEssentialGenerator createSe3FromEssentialGenerator( ConfigEssential essential ) {
+		Estimate1ofEpipolar epipolar = FactoryMultiView.essential_1(essential.which, essential.numResolve);
+		return new Se3FromEssentialGenerator(epipolar, createTriangulateGeometric());
+	}
 }
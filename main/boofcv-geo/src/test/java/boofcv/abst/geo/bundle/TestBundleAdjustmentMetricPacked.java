@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.geo.bundle;
+
+import boofcv.factory.geo.FactoryMultiView;
+import org.ddogleg.struct.Tuple2;
+import org.ejml.data.DMatrixSparseCSC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBundleAdjustmentMetricPacked {
+
+	GenericBundleAdjustmentMetricChecks checks = new TestBundleAdjustmentSchur_DSCC_Metric();
+
+	/**
+	 * Packed storage should converge to the same solution as the regular implementation
+	 */
+	@Test
+	public void compareToRegular() {
+		Tuple2<SceneStructureMetric, SceneObservations> expected = createNoisyScene();
+		BundleAdjustment<SceneStructureMetric> regular = checks.createAlg();
+		regular.setParameters(expected.d0,expected.d1);
+		regular.optimize(expected.d0);
+
+		Tuple2<SceneStructureMetric, SceneObservations> found = createNoisyScene();
+		ScenePointsPacked points = ScenePointsPacked.createDirect(found.d0);
+		SceneObservationsPacked observations = SceneObservationsPacked.createDirect(found.d1);
+		found.d0.points.reset();
+
+		BundleAdjustmentMetricPacked<DMatrixSparseCSC> alg = FactoryMultiView.bundleSparseMetricPacked(null);
+		alg.configure(1e-5,1e-5,20);
+		alg.setParameters(found.d0,points,observations);
+		assertTrue(alg.optimize(found.d0,points));
+
+		// observations are stored as floats so the solutions will not be identical
+		assertEquals(expected.d0.points.size, points.size());
+		for (int i = 0; i < points.size(); i++) {
+			double[] c = expected.d0.points.data[i].coordinate;
+			for (int axis = 0; axis < points.getPointSize(); axis++) {
+				assertEquals(c[axis], points.getCoordinate(i,axis), 1e-3);
+			}
+		}
+		// found has no general points so only the views are compared
+		GenericBundleAdjustmentMetricChecks.assertEquals(found.d0,expected.d0,1e-3,1e-3,1e-3);
+	}
+
+	private Tuple2<SceneStructureMetric, SceneObservations> createNoisyScene() {
+		Random rand = new Random(234);
+		Tuple2<SceneStructureMetric, SceneObservations> a = checks.createHorizontalMotion(123,true);
+		for (int i = 0; i < a.d0.points.size; i++) {
+			double[] c = a.d0.points.data[i].coordinate;
+			c[0] += rand.nextGaussian()*0.1;
+			c[1] += rand.nextGaussian()*0.1;
+			c[2] += rand.nextGaussian()*0.1;
+		}
+		return a;
+	}
+}
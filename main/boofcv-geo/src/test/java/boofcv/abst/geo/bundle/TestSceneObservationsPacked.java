@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.geo.bundle;
+
+import boofcv.struct.geo.PointIndex2D_F64;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSceneObservationsPacked {
+	@Test
+	void set_get() {
+		SceneObservationsPacked alg = SceneObservationsPacked.createDirect(new int[]{2,0,3});
+
+		assertEquals(3,alg.getViewCount());
+		assertEquals(5,alg.getObservationCount());
+		assertEquals(0,alg.getViewStart(0));
+		assertEquals(2,alg.getViewStart(1));
+		assertEquals(2,alg.getViewStart(2));
+		assertEquals(0,alg.getViewSize(1));
+		assertEquals(3,alg.getViewSize(2));
+
+		alg.set(2,1,9,1.5f,2.5f);
+		assertEquals(9,alg.getPointId(3));
+		assertEquals(1.5f,alg.getX(3));
+		assertEquals(2.5f,alg.getY(3));
+
+		PointIndex2D_F64 found = new PointIndex2D_F64();
+		alg.get(3,found);
+		assertEquals(9,found.index);
+		assertEquals(0.0,found.distance(1.5,2.5));
+
+		// Index outside of the view
+		assertThrows(IndexOutOfBoundsException.class,()->alg.set(0,2,1,0,0));
+	}
+
+	@Test
+	void createDirect_observations() {
+		SceneObservations src = new SceneObservations();
+		src.initialize(2);
+		src.getView(0).add(3,1,2);
+		src.getView(1).add(4,3,4);
+		src.getView(1).add(0,5,6);
+
+		SceneObservationsPacked alg = SceneObservationsPacked.createDirect(src);
+		assertFalse(alg.isMapped());
+		assertEquals(src.getObservationCount(),alg.getObservationCount());
+		assertEquals(3,alg.getPointId(0));
+		assertEquals(0,alg.getPointId(2));
+		assertEquals(3,alg.getX(1));
+		assertEquals(6,alg.getY(2));
+	}
+
+	@Test
+	void mapped() throws IOException {
+		File temp = File.createTempFile("observations", ".bin");
+		temp.deleteOnExit();
+
+		SceneObservationsPacked alg = SceneObservationsPacked.createMapped(temp.toPath(),new int[]{5,6});
+		assertTrue(alg.isMapped());
+		alg.set(1,5,2,3,4);
+		alg.close();
+
+		assertEquals(2,alg.getPointId(10));
+		assertEquals(3,alg.getX(10));
+		assertEquals(4,alg.getY(10));
+		// 4 bytes for the point and 8 for the pixel
+		assertEquals(11*12,temp.length());
+	}
+}
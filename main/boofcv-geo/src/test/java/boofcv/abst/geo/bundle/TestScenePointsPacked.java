@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.geo.bundle;
+
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Point4D_F64;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestScenePointsPacked {
+	@Test
+	void set_get() {
+		ScenePointsPacked alg = ScenePointsPacked.createDirect(4,false);
+		alg.set(2,1,2,3);
+
+		Point3D_F64 p = new Point3D_F64();
+		alg.get(2,p);
+		assertEquals(0.0,p.distance(1,2,3));
+		assertEquals(2,alg.getCoordinate(2,1));
+
+		// Setting a homogenous point should fail
+		assertThrows(IllegalArgumentException.class,()->alg.set(2,1,2,3,4));
+
+		ScenePointsPacked algH = ScenePointsPacked.createDirect(4,true);
+		algH.set(3,1,2,3,4);
+		Point4D_F64 p4 = new Point4D_F64();
+		algH.get(3,p4);
+		assertEquals(1,p4.x);
+		assertEquals(2,p4.y);
+		assertEquals(3,p4.z);
+		assertEquals(4,p4.w);
+	}
+
+	@Test
+	void createDirect_structure() {
+		SceneStructureMetric structure = new SceneStructureMetric(true);
+		structure.initialize(1,1,3);
+		structure.setPoint(0,1,2,3,4);
+		structure.setPoint(2,5,6,7,8);
+
+		ScenePointsPacked alg = ScenePointsPacked.createDirect(structure);
+		assertEquals(3,alg.size());
+		assertTrue(alg.isHomogenous());
+		assertFalse(alg.isMapped());
+		for (int i = 0; i < 4; i++) {
+			assertEquals(structure.points.get(0).coordinate[i],alg.getCoordinate(0,i));
+			assertEquals(structure.points.get(2).coordinate[i],alg.getCoordinate(2,i));
+		}
+	}
+
+	@Test
+	void copyTo_copyFrom() {
+		ScenePointsPacked alg = ScenePointsPacked.createDirect(3,false);
+		double[] input = new double[]{-1,1,2,3,4,5,6,7,8,9};
+		alg.copyFrom(input,1);
+		assertEquals(4,alg.getCoordinate(1,0));
+
+		double[] found = new double[11];
+		alg.copyTo(found,2);
+		for (int i = 0; i < 9; i++) {
+			assertEquals(input[i+1],found[i+2]);
+		}
+	}
+
+	@Test
+	void mapped() throws IOException {
+		File temp = File.createTempFile("points", ".bin");
+		temp.deleteOnExit();
+
+		ScenePointsPacked alg = ScenePointsPacked.createMapped(temp.toPath(),10,false);
+		assertTrue(alg.isMapped());
+		for (int i = 0; i < 10; i++) {
+			alg.set(i,i,i+1,i+2);
+		}
+		alg.close();
+
+		// The data should still be accessible after closing the file
+		Point3D_F64 p = new Point3D_F64();
+		alg.get(7,p);
+		assertEquals(0.0,p.distance(7,8,9));
+		assertEquals(10*3*8,temp.length());
+	}
+}
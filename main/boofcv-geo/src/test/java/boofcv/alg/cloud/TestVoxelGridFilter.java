@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.cloud;
+
+import boofcv.struct.Point3dRgbI_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestVoxelGridFilter {
+	@Test
+	void writeTo() {
+		VoxelGridFilter alg = new VoxelGridFilter(new VoxelGridHash(1.0));
+		alg.minPointsPerVoxel = 2;
+
+		// should be discarded by init()
+		alg.add(10.5,0.5,0.5);
+		alg.add(10.5,0.5,0.5);
+
+		alg.init(10);
+		alg.add(0.1,0.1,0.1,0x101010);
+		alg.add(0.3,0.3,0.3,0x303030);
+		alg.add(2.5,0.5,0.5);
+		alg.add(3.5,0.5,0.5);
+		alg.add(3.7,0.7,0.7);
+
+		FastQueue<Point3dRgbI_F64> cloud = new FastQueue<>(Point3dRgbI_F64::new);
+		alg.writeTo(PointCloudWriter.wrapF64RGB(cloud));
+
+		assertEquals(2,cloud.size);
+		assertEquals(0,cloud.get(0).distance(0.2,0.2,0.2),1e-8);
+		assertEquals(0x202020,cloud.get(0).rgb);
+		assertEquals(0,cloud.get(1).distance(3.6,0.6,0.6),1e-8);
+	}
+
+	/**
+	 * Points are added in batches. The grid should be the same as adding them one at a time
+	 */
+	@Test
+	void batches() {
+		Random rand = new Random(234);
+		VoxelGridHash expected = new VoxelGridHash(0.5);
+		VoxelGridFilter alg = new VoxelGridFilter(new VoxelGridHash(0.5));
+		alg.batchSize = 7;
+
+		alg.init(10);
+		for (int i = 0; i < 100; i++) {
+			double x = rand.nextGaussian(), y = rand.nextGaussian(), z = rand.nextGaussian();
+			// switch between points with and without color
+			if( (i/5)%2 == 0 ) {
+				int rgb = rand.nextInt(0xFFFFFF);
+				expected.add(x,y,z,rgb);
+				alg.add(x,y,z,rgb);
+			} else {
+				expected.add(x,y,z);
+				alg.add(x,y,z);
+			}
+		}
+
+		VoxelGridHash found = alg.getGrid();
+		assertEquals(expected.size(),found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.getKey(i),found.getKey(i));
+			assertEquals(expected.getCount(i),found.getCount(i));
+			assertEquals(expected.getColorCount(i),found.getColorCount(i));
+			assertEquals(expected.getAverageRgb(i),found.getAverageRgb(i));
+		}
+	}
+}
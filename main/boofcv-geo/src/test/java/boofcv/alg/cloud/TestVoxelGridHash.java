@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.cloud;
+
+import georegression.struct.point.Point3D_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestVoxelGridHash {
+	Random rand = new Random(234);
+
+	@Test
+	void encode_decode() {
+		int[] found = new int[3];
+		int max = VoxelGridHash.OFFSET-1;
+		int min = -VoxelGridHash.OFFSET;
+		int[][] cases = {{0,0,0},{1,-2,3},{max,min,max},{min,max,-1}};
+		for( int[] c : cases ) {
+			VoxelGridHash.decode(VoxelGridHash.encode(c[0],c[1],c[2]),found);
+			assertArrayEquals(c,found);
+		}
+		assertNotEquals(VoxelGridHash.encode(1,0,0),VoxelGridHash.encode(0,1,0));
+		assertThrows(IllegalArgumentException.class,()->VoxelGridHash.encode(max+1,0,0));
+		assertThrows(IllegalArgumentException.class,()->VoxelGridHash.encode(0,min-1,0));
+	}
+
+	/**
+	 * Points on either side of zero should go into different voxels
+	 */
+	@Test
+	void computeKey_negative() {
+		VoxelGridHash alg = new VoxelGridHash(0.5);
+		int[] found = new int[3];
+		VoxelGridHash.decode(alg.computeKey(-0.1,0.1,0.6),found);
+		assertArrayEquals(new int[]{-1,0,1},found);
+	}
+
+	@Test
+	void centroid_color() {
+		VoxelGridHash alg = new VoxelGridHash(1.0);
+		int a = alg.add(0.1,0.2,0.3, 0x102030);
+		assertEquals(a,alg.add(0.3,0.4,0.5, 0x204060));
+		int b = alg.add(1.5,0.2,0.3);
+		assertNotEquals(a,b);
+		assertEquals(2,alg.size());
+
+		Point3D_F64 centroid = new Point3D_F64();
+		alg.getCentroid(a,centroid);
+		assertEquals(0,centroid.distance(0.2,0.3,0.4),1e-12);
+		assertEquals(0x183048,alg.getAverageRgb(a));
+		assertEquals(2,alg.getCount(a));
+		assertEquals(2,alg.getColorCount(a));
+
+		// no color information
+		assertEquals(0,alg.getColorCount(b));
+		assertEquals(0,alg.getAverageRgb(b));
+
+		assertEquals(a,alg.lookup(0.9,0.9,0.9));
+		assertEquals(b,alg.lookup(1.1,0.9,0.9));
+		assertEquals(-1,alg.lookup(-0.5,0,0));
+	}
+
+	/**
+	 * Add enough voxels to force the table to be resized several times
+	 */
+	@Test
+	void manyVoxels() {
+		VoxelGridHash alg = new VoxelGridHash(1.0);
+		for (int i = 0; i < 3; i++) {
+			for (int z = 0; z < 20; z++) {
+				for (int y = -20; y < 20; y++) {
+					for (int x = -20; x < 20; x++) {
+						alg.add(x+0.5,y+0.5,z+0.5);
+					}
+				}
+			}
+		}
+		assertEquals(20*40*40,alg.size());
+		int expected = 0;
+		for (int z = 0; z < 20; z++) {
+			for (int y = -20; y < 20; y++) {
+				for (int x = -20; x < 20; x++) {
+					int voxel = alg.lookup(x+0.1,y+0.1,z+0.1);
+					assertEquals(expected++,voxel);
+					assertEquals(3,alg.getCount(voxel));
+				}
+			}
+		}
+
+		alg.reset();
+		assertEquals(0,alg.size());
+		assertEquals(-1,alg.lookup(0.5,0.5,0.5));
+	}
+
+	@Test
+	void merge() {
+		VoxelGridHash a = new VoxelGridHash(1.0);
+		VoxelGridHash b = new VoxelGridHash(1.0);
+		a.add(0.5,0.5,0.5,0xFF0000);
+		b.add(2.5,0.5,0.5);
+		b.add(0.1,0.1,0.1,0x0000FF);
+
+		a.merge(b);
+		assertEquals(2,a.size());
+		assertEquals(2,a.getCount(0));
+		assertEquals(2,a.getColorCount(0));
+		assertEquals(0x800080,a.getAverageRgb(0));
+		assertEquals(1,a.getCount(1));
+		assertEquals(b.getKey(0),a.getKey(1));
+
+		assertThrows(IllegalArgumentException.class,()->a.merge(new VoxelGridHash(2.0)));
+	}
+
+	@Test
+	void removeSparse() {
+		VoxelGridHash alg = new VoxelGridHash(1.0);
+		alg.add(0.5,0.5,0.5);
+		alg.add(1.5,0.5,0.5);
+		alg.add(1.6,0.5,0.5);
+		alg.add(2.5,0.5,0.5);
+
+		assertEquals(2,alg.removeSparse(2));
+		assertEquals(1,alg.size());
+		assertEquals(0,alg.lookup(1.5,0.5,0.5));
+		assertEquals(-1,alg.lookup(0.5,0.5,0.5));
+		assertEquals(-1,alg.lookup(2.5,0.5,0.5));
+
+		// should be able to keep on adding points after removal
+		assertEquals(1,alg.add(0.5,0.5,0.5));
+		assertEquals(0,alg.add(1.5,0.5,0.5));
+	}
+
+	@Test
+	void removeOutliers() {
+		VoxelGridHash alg = new VoxelGridHash(0.1);
+		for (int i = 0; i < 2000; i++) {
+			alg.add(rand.nextGaussian()*0.5,rand.nextGaussian()*0.5,rand.nextGaussian()*0.5);
+		}
+		int numInliers = alg.size();
+		alg.add(20,0,0);
+		alg.add(0,-30,0);
+		int removed = alg.removeOutliers(5,3.0);
+		assertTrue(removed >= 2);
+		assertTrue(removed < numInliers/20);
+		assertEquals(-1,alg.lookup(20,0,0));
+		assertEquals(-1,alg.lookup(0,-30,0));
+
+		// Not enough voxels to do anything
+		alg.reset();
+		alg.add(0,0,0);
+		assertEquals(0,alg.removeOutliers(5,3.0));
+	}
+
+	@Test
+	void writeCentroids() {
+		VoxelGridHash alg = new VoxelGridHash(1.0);
+		alg.add(0.2,0.2,0.2,0x010203);
+		alg.add(0.4,0.4,0.4,0x030507);
+		alg.add(5.5,5.5,5.5);
+
+		PointCloudWriter.CloudArraysF32 cloud = new PointCloudWriter.CloudArraysF32();
+		alg.writeCentroids(cloud);
+		assertEquals(6,cloud.cloudXyz.size);
+		assertEquals(1,cloud.cloudRgb.size);
+		assertEquals(0.3f,cloud.cloudXyz.get(0),1e-6f);
+		assertEquals(5.5f,cloud.cloudXyz.get(5),1e-6f);
+		assertEquals(0x020405,cloud.cloudRgb.get(0));
+	}
+}
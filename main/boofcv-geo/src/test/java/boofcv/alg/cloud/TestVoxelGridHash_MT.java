@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.cloud;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestVoxelGridHash_MT {
+	Random rand = new Random(234);
+
+	/**
+	 * Voxels should be in the same order with the same statistics as the single threaded version
+	 */
+	@Test
+	void compare() {
+		int N = 50_000;
+		double[] xyz = new double[N*3];
+		int[] rgb = new int[N];
+		for (int i = 0; i < xyz.length; i++) {
+			xyz[i] = rand.nextGaussian()*2;
+		}
+		for (int i = 0; i < N; i++) {
+			rgb[i] = rand.nextInt(0xFFFFFF);
+		}
+
+		VoxelGridHash expected = new VoxelGridHash(0.3);
+		VoxelGridHash_MT found = new VoxelGridHash_MT(0.3);
+		found.minimumBlock = 1000;
+
+		// call it twice to make sure the workspace is handled correctly
+		for (int trial = 0; trial < 2; trial++) {
+			expected.reset();
+			found.reset();
+			expected.addAll(xyz,trial == 0 ? rgb : null,N);
+			found.addAll(xyz,trial == 0 ? rgb : null,N);
+
+			assertEquals(expected.size(),found.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.getKey(i),found.getKey(i));
+				assertEquals(expected.getCount(i),found.getCount(i));
+				assertEquals(expected.getColorCount(i),found.getColorCount(i));
+				assertEquals(expected.getAverageRgb(i),found.getAverageRgb(i));
+				for (int j = 0; j < 3; j++) {
+					assertEquals(expected.sumXyz[i*3+j],found.sumXyz[i*3+j],1e-8);
+				}
+			}
+
+			assertEquals(expected.removeOutliers(4,2.0),found.removeOutliers(4,2.0));
+			assertEquals(expected.size(),found.size());
+		}
+	}
+}
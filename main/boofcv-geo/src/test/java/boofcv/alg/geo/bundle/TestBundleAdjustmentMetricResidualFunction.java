@@ -19,6 +19,8 @@
 package boofcv.alg.geo.bundle;
 
 import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneObservationsPacked;
+import boofcv.abst.geo.bundle.ScenePointsPacked;
 import boofcv.abst.geo.bundle.SceneStructureMetric;
 import org.ejml.UtilEjml;
 import org.junit.jupiter.api.Test;
@@ -27,6 +29,7 @@ import java.util.Random;
 
 import static boofcv.alg.geo.bundle.TestCodecSceneStructureMetric.createScene;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
 /**
@@ -108,6 +111,46 @@ class TestBundleAdjustmentMetricResidualFunction {
 		}
 	}
 
+	/**
+	 * Packed storage should produce the same residuals as the regular storage
+	 */
+	@Test
+	void packedStorage() {
+		packedStorage(true);
+		packedStorage(false);
+	}
+
+	void packedStorage(boolean homogenous) {
+		SceneStructureMetric structure = createScene(rand, homogenous, false);
+		SceneObservations obs = createObservations(rand, structure);
+
+		CodecSceneStructureMetric codec = new CodecSceneStructureMetric();
+		double[] param = new double[structure.getParameterCount()];
+		codec.encode(structure, param);
+
+		BundleAdjustmentMetricResidualFunction alg = new BundleAdjustmentMetricResidualFunction();
+		alg.configure(structure, obs);
+		double[] expected = new double[alg.getNumOfOutputsM()];
+		alg.process(param, expected);
+
+		// Move the points and observations into packed storage
+		ScenePointsPacked packedPoints = ScenePointsPacked.createDirect(structure);
+		SceneObservationsPacked packedObs = SceneObservationsPacked.createDirect(obs);
+		structure.points.reset();
+
+		double[] paramPacked = new double[param.length];
+		codec.encode(structure, packedPoints, paramPacked);
+		assertArrayEquals(param, paramPacked, 0.0);
+
+		alg.configure(structure, packedPoints, packedObs);
+		assertEquals(param.length, alg.getNumOfInputsN());
+		assertEquals(expected.length, alg.getNumOfOutputsM());
+
+		double[] found = new double[alg.getNumOfOutputsM()];
+		alg.process(paramPacked, found);
+		assertArrayEquals(expected, found, 0.0);
+	}
+
 	static SceneObservations createObservations(Random rand, SceneStructureMetric structure) {
 		SceneObservations obs = new SceneObservations();
 		obs.initialize(structure.views.size, structure.hasRigid());
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentMetricResidualFunction.createObservations;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureMetric.createScene;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestBundleAdjustmentMetricSchurJacobian_DDRM_MT {
+	private Random rand = new Random(48854);
+
+	/**
+	 * Output should be identical to the single threaded version
+	 */
+	@Test
+	void compare() {
+		compare(true, false);
+		compare(false, false);
+		compare(true, true);
+		compare(false, true);
+	}
+
+	void compare( boolean homogenous, boolean hasRigid ) {
+		SceneStructureMetric structure = createScene(rand, homogenous, hasRigid);
+		SceneObservations observations = createObservations(rand, structure);
+
+		double[] param = new double[structure.getParameterCount()];
+		new CodecSceneStructureMetric().encode(structure, param);
+
+		BundleAdjustmentMetricSchurJacobian_DDRM sequentialAlg = new BundleAdjustmentMetricSchurJacobian_DDRM();
+		BundleAdjustmentMetricSchurJacobian_DDRM_MT parallelAlg = new BundleAdjustmentMetricSchurJacobian_DDRM_MT();
+		sequentialAlg.configure(structure, observations);
+		parallelAlg.configure(structure, observations);
+
+		DMatrixRMaj expectedLeft = new DMatrixRMaj(1,1);
+		DMatrixRMaj expectedRight = new DMatrixRMaj(1,1);
+		DMatrixRMaj foundLeft = new DMatrixRMaj(1,1);
+		DMatrixRMaj foundRight = new DMatrixRMaj(1,1);
+
+		sequentialAlg.process(param, expectedLeft, expectedRight);
+		parallelAlg.process(param, foundLeft, foundRight);
+
+		assertTrue(MatrixFeatures_DDRM.isIdentical(expectedLeft, foundLeft, 0.0));
+		assertTrue(MatrixFeatures_DDRM.isIdentical(expectedRight, foundRight, 0.0));
+	}
+}
@@ -19,6 +19,8 @@
 package boofcv.alg.geo.bundle;
 
 import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneObservationsPacked;
+import boofcv.abst.geo.bundle.ScenePointsPacked;
 import boofcv.abst.geo.bundle.SceneStructureMetric;
 import org.ddogleg.optimization.DerivativeChecker;
 import org.ddogleg.optimization.functions.FunctionNtoMxN;
@@ -67,4 +69,32 @@ public class TestBundleAdjustmentMetricSchurJacobian_DSCC {
 //		DerivativeChecker.jacobianPrint(func, jac, param, 100*UtilEjml.TEST_F64_SQ );
 		assertTrue(DerivativeChecker.jacobian(func, jac, param, 100*UtilEjml.TEST_F64_SQ ));
 	}
+
+	@Test
+	public void compareToNumerical_packed() {
+		compareToNumerical_packed(true);
+		compareToNumerical_packed(false);
+	}
+
+	public void compareToNumerical_packed(boolean homogenous) {
+		SceneStructureMetric structure = createScene(rand,homogenous, false);
+		SceneObservations observations = createObservations(rand,structure);
+
+		ScenePointsPacked points = ScenePointsPacked.createDirect(structure);
+		SceneObservationsPacked packedObs = SceneObservationsPacked.createDirect(observations);
+		structure.points.reset();
+
+		double param[] = new double[structure.getParameterCount()+points.size()*points.getPointSize()];
+		new CodecSceneStructureMetric().encode(structure,points,param);
+
+		BundleAdjustmentMetricSchurJacobian_DSCC alg = new BundleAdjustmentMetricSchurJacobian_DSCC();
+
+		FunctionNtoMxN<DMatrixSparseCSC> jac = new SchurJacobian_to_NtoMxN.DSCC(alg);
+		BundleAdjustmentMetricResidualFunction func = new BundleAdjustmentMetricResidualFunction();
+
+		alg.configure(structure,points,packedObs);
+		func.configure(structure,points,packedObs);
+
+		assertTrue(DerivativeChecker.jacobian(func, jac, param, 100*UtilEjml.TEST_F64_SQ ));
+	}
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureProjective;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentProjectiveResidualFunction.createObservations;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureProjective.createScene3D;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureProjective.createSceneH;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class TestBundleAdjustmentProjectiveResidualFunction_MT {
+	private Random rand = new Random(234);
+
+	/**
+	 * Output should be identical to the single threaded version
+	 */
+	@Test
+	void compare() {
+		compare(true);
+		compare(false);
+	}
+
+	void compare( boolean homogenous ) {
+		SceneStructureProjective structure = homogenous ? createSceneH(rand) : createScene3D(rand);
+		SceneObservations obs = createObservations(rand, structure);
+
+		double[] param = new double[structure.getParameterCount()];
+		new CodecSceneStructureProjective().encode(structure, param);
+
+		BundleAdjustmentProjectiveResidualFunction sequentialAlg = new BundleAdjustmentProjectiveResidualFunction();
+		BundleAdjustmentProjectiveResidualFunction_MT parallelAlg = new BundleAdjustmentProjectiveResidualFunction_MT();
+		sequentialAlg.configure(structure, obs);
+		parallelAlg.configure(structure, obs);
+
+		double[] expected = new double[sequentialAlg.getNumOfOutputsM()];
+		double[] found = new double[parallelAlg.getNumOfOutputsM()];
+
+		sequentialAlg.process(param, expected);
+		parallelAlg.process(param, found);
+
+		assertArrayEquals(expected, found, 0.0);
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureProjective;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentProjectiveResidualFunction.createObservations;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureProjective.createScene3D;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureProjective.createSceneH;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestBundleAdjustmentProjectiveSchurJacobian_DDRM_MT {
+	private Random rand = new Random(48854);
+
+	/**
+	 * Output should be identical to the single threaded version
+	 */
+	@Test
+	void compare() {
+		compare(true);
+		compare(false);
+	}
+
+	void compare( boolean homogenous ) {
+		SceneStructureProjective structure = homogenous ? createSceneH(rand) : createScene3D(rand);
+		SceneObservations observations = createObservations(rand, structure);
+
+		double[] param = new double[structure.getParameterCount()];
+		new CodecSceneStructureProjective().encode(structure, param);
+
+		BundleAdjustmentProjectiveSchurJacobian_DDRM sequentialAlg = new BundleAdjustmentProjectiveSchurJacobian_DDRM();
+		BundleAdjustmentProjectiveSchurJacobian_DDRM_MT parallelAlg = new BundleAdjustmentProjectiveSchurJacobian_DDRM_MT();
+		sequentialAlg.configure(structure, observations);
+		parallelAlg.configure(structure, observations);
+
+		DMatrixRMaj expectedLeft = new DMatrixRMaj(1,1);
+		DMatrixRMaj expectedRight = new DMatrixRMaj(1,1);
+		DMatrixRMaj foundLeft = new DMatrixRMaj(1,1);
+		DMatrixRMaj foundRight = new DMatrixRMaj(1,1);
+
+		sequentialAlg.process(param, expectedLeft, expectedRight);
+		parallelAlg.process(param, foundLeft, foundRight);
+
+		assertTrue(MatrixFeatures_DDRM.isIdentical(expectedLeft, foundLeft, 0.0));
+		assertTrue(MatrixFeatures_DDRM.isIdentical(expectedRight, foundRight, 0.0));
+	}
+}
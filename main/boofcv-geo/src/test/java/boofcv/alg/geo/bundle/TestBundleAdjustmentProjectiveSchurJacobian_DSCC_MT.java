@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureProjective;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentProjectiveResidualFunction.createObservations;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureProjective.createScene3D;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureProjective.createSceneH;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestBundleAdjustmentProjectiveSchurJacobian_DSCC_MT {
+	private Random rand = new Random(48854);
+
+	/**
+	 * Output should be identical to the single threaded version
+	 */
+	@Test
+	void compare() {
+		compare(true);
+		compare(false);
+	}
+
+	void compare( boolean homogenous ) {
+		SceneStructureProjective structure = homogenous ? createSceneH(rand) : createScene3D(rand);
+		SceneObservations observations = createObservations(rand, structure);
+
+		double[] param = new double[structure.getParameterCount()];
+		new CodecSceneStructureProjective().encode(structure, param);
+
+		BundleAdjustmentProjectiveSchurJacobian_DSCC sequentialAlg = new BundleAdjustmentProjectiveSchurJacobian_DSCC();
+		BundleAdjustmentProjectiveSchurJacobian_DSCC_MT parallelAlg = new BundleAdjustmentProjectiveSchurJacobian_DSCC_MT();
+		sequentialAlg.configure(structure, observations);
+		parallelAlg.configure(structure, observations);
+
+		DMatrixSparseCSC expectedLeft = new DMatrixSparseCSC(1,1,1);
+		DMatrixSparseCSC expectedRight = new DMatrixSparseCSC(1,1,1);
+		DMatrixSparseCSC foundLeft = new DMatrixSparseCSC(1,1,1);
+		DMatrixSparseCSC foundRight = new DMatrixSparseCSC(1,1,1);
+
+		sequentialAlg.process(param, expectedLeft, expectedRight);
+		// call it twice to make sure the workspace is correctly reset
+		parallelAlg.process(param, foundLeft, foundRight);
+		parallelAlg.process(param, foundLeft, foundRight);
+
+		assertIdentical(expectedLeft, foundLeft);
+		assertIdentical(expectedRight, foundRight);
+	}
+
+	private static void assertIdentical( DMatrixSparseCSC expected , DMatrixSparseCSC found ) {
+		DMatrixRMaj denseExpected = ConvertDMatrixStruct.convert(expected,(DMatrixRMaj)null);
+		DMatrixRMaj denseFound = ConvertDMatrixStruct.convert(found,(DMatrixRMaj)null);
+		assertTrue(MatrixFeatures_DDRM.isIdentical(denseExpected, denseFound, 0.0));
+	}
+}
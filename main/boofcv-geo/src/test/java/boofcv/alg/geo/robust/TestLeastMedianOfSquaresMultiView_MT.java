@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.robust;
+
+import boofcv.struct.geo.AssociatedPair;
+import georegression.fitting.homography.ModelManagerHomography2D_F64;
+import georegression.struct.homography.Homography2D_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.alg.geo.robust.TestRansacMultiView_MT.checkDeterministic;
+import static boofcv.alg.geo.robust.TestRansacMultiView_MT.createHomographyData;
+import static boofcv.alg.geo.robust.TestRansacMultiView_MT.createIntrinsic;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestLeastMedianOfSquaresMultiView_MT {
+	private Random rand = new Random(234);
+
+	/**
+	 * With less than 50% outliers the median error of the best model should be zero and every inlier
+	 * found
+	 */
+	@Test
+	void findInliers() {
+		List<AssociatedPair> pairs = createHomographyData(rand,200,50);
+		LeastMedianOfSquaresMultiView_MT<Homography2D_F64,AssociatedPair> alg = createAlg();
+
+		assertTrue(alg.process(pairs));
+		assertEquals(0.0, alg.getFitQuality(), 1e-8);
+		assertTrue(alg.getMatchSet().size() >= 125);
+		for (int i = 0; i < alg.getMatchSet().size(); i++) {
+			assertSame(pairs.get(alg.getInputIndex(i)), alg.getMatchSet().get(i));
+			assertTrue(alg.getInputIndex(i) < 200);
+		}
+	}
+
+	/**
+	 * If the median error is too large it should fail
+	 */
+	@Test
+	void maxMedianError() {
+		List<AssociatedPair> pairs = createHomographyData(rand,50,200);
+		LeastMedianOfSquaresMultiView_MT<Homography2D_F64,AssociatedPair> alg = createAlg();
+		alg.setMaxMedianError(1e-4);
+
+		assertFalse(alg.process(pairs));
+		assertEquals(0, alg.getMatchSet().size());
+	}
+
+	/**
+	 * The results should not depend on the number of threads and be repeatable after reset
+	 */
+	@Test
+	void deterministic() {
+		List<AssociatedPair> pairs = createHomographyData(rand,150,100);
+		checkDeterministic(pairs,createAlg(),createAlg());
+	}
+
+	static LeastMedianOfSquaresMultiView_MT<Homography2D_F64,AssociatedPair> createAlg() {
+		LeastMedianOfSquaresMultiView_MT<Homography2D_F64,AssociatedPair> alg =
+				new LeastMedianOfSquaresMultiView_MT<>(0xBEEF,200,new ModelManagerHomography2D_F64(),
+						()->new GenerateHomographyLinear(true), DistanceHomographyCalibratedSq::new);
+		alg.setIntrinsic(0,createIntrinsic());
+		alg.setIntrinsic(1,createIntrinsic());
+		return alg;
+	}
+}
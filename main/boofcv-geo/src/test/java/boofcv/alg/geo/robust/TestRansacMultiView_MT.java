@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.robust;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.calib.CameraPinhole;
+import boofcv.struct.geo.AssociatedPair;
+import georegression.fitting.homography.ModelManagerHomography2D_F64;
+import georegression.struct.homography.Homography2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.transform.homography.HomographyPointOps_F64;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestRansacMultiView_MT {
+	private Random rand = new Random(234);
+
+	/**
+	 * Give it data with outliers and see if it finds all the inliers
+	 */
+	@Test
+	void findInliers() {
+		List<AssociatedPair> pairs = createHomographyData(rand,200,50);
+		RansacMultiView_MT<Homography2D_F64,AssociatedPair> alg = createAlg();
+
+		assertTrue(alg.process(pairs));
+		assertEquals(200, alg.getMatchSet().size());
+		assertEquals(200, alg.getFitQuality());
+		for (int i = 0; i < alg.getMatchSet().size(); i++) {
+			assertSame(pairs.get(alg.getInputIndex(i)), alg.getMatchSet().get(i));
+			assertTrue(alg.getInputIndex(i) < 200);
+		}
+	}
+
+	/**
+	 * The results should not depend on the number of threads and be repeatable after reset
+	 */
+	@Test
+	void deterministic() {
+		List<AssociatedPair> pairs = createHomographyData(rand,100,100);
+		checkDeterministic(pairs,createAlg(),createAlg());
+	}
+
+	static RansacMultiView_MT<Homography2D_F64,AssociatedPair> createAlg() {
+		RansacMultiView_MT<Homography2D_F64,AssociatedPair> alg =
+				new RansacMultiView_MT<>(0xBEEF,new ModelManagerHomography2D_F64(),
+						()->new GenerateHomographyLinear(true), DistanceHomographyCalibratedSq::new, 200, 2.0*2.0);
+		alg.setIntrinsic(0,createIntrinsic());
+		alg.setIntrinsic(1,createIntrinsic());
+		return alg;
+	}
+
+	static <Model> void checkDeterministic( List<AssociatedPair> pairs,
+											ModelMatcher<Model,AssociatedPair> algA,
+											ModelMatcher<Model,AssociatedPair> algB ) {
+		int original = BoofConcurrency.getMaxThreads();
+		try {
+			BoofConcurrency.setMaxThreads(2);
+			assertTrue(algA.process(pairs));
+			BoofConcurrency.setMaxThreads(5);
+			assertTrue(algB.process(pairs));
+			compareResults(algA, algB);
+
+			// run it again after a reset and it should get the same results
+			algB.reset();
+			assertTrue(algB.process(pairs));
+			compareResults(algA, algB);
+		} finally {
+			BoofConcurrency.setMaxThreads(original);
+		}
+	}
+
+	static <Model> void compareResults( ModelMatcher<Model,AssociatedPair> algA,
+										ModelMatcher<Model,AssociatedPair> algB ) {
+		assertEquals(algA.getFitQuality(), algB.getFitQuality());
+		assertEquals(algA.getMatchSet().size(), algB.getMatchSet().size());
+		for (int i = 0; i < algA.getMatchSet().size(); i++) {
+			assertEquals(algA.getInputIndex(i), algB.getInputIndex(i));
+		}
+	}
+
+	static CameraPinhole createIntrinsic() {
+		return new CameraPinhole(400,410,0,320,240,640,480);
+	}
+
+	/**
+	 * Creates a set of pairs which are related by a homography in normalized image coordinates. The first
+	 * 'numInliers' pairs are inliers and the remaining are outliers.
+	 */
+	static List<AssociatedPair> createHomographyData( Random rand, int numInliers, int numOutliers ) {
+		Homography2D_F64 H = new Homography2D_F64(1.1,0.05,0.1,-0.05,0.95,-0.1,0.01,-0.02,1.0);
+
+		List<AssociatedPair> pairs = new ArrayList<>();
+		for (int i = 0; i < numInliers + numOutliers; i++) {
+			Point2D_F64 p1 = new Point2D_F64(rand.nextDouble()*2-1, rand.nextDouble()*2-1);
+			Point2D_F64 p2 = new Point2D_F64();
+			if( i < numInliers ) {
+				HomographyPointOps_F64.transform(H, p1, p2);
+			} else {
+				p2.set(rand.nextDouble()*2-1, rand.nextDouble()*2-1);
+			}
+			pairs.add(new AssociatedPair(p1, p2));
+		}
+		return pairs;
+	}
+}
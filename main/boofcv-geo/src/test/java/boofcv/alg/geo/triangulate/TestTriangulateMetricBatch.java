@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.triangulate;
+
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestTriangulateMetricBatch extends CommonTriangulationChecks {
+
+	/**
+	 * Compare against the point at a time implementation with noisy observations
+	 */
+	@Test
+	void triangulate2() {
+		createMetricScene();
+
+		int numPoints = N-1;
+		double[] ax = new double[numPoints], ay = new double[numPoints];
+		double[] bx = new double[numPoints], by = new double[numPoints];
+
+		Se3_F64 a_to_b = motionWorldToCamera.get(1);
+		for (int i = 0; i < numPoints; i++) {
+			ax[i] = obsPts.get(0).x + rand.nextGaussian()*0.001;
+			ay[i] = obsPts.get(0).y + rand.nextGaussian()*0.001;
+			bx[i] = obsPts.get(1).x + rand.nextGaussian()*0.001;
+			by[i] = obsPts.get(1).y + rand.nextGaussian()*0.001;
+		}
+
+		double[] output = new double[numPoints*3];
+		createAlg().triangulate2(ax,ay,bx,by,numPoints,a_to_b,output);
+
+		Triangulate2ViewsGeometricMetric single = new Triangulate2ViewsGeometricMetric();
+		Point3D_F64 expected = new Point3D_F64();
+		for (int i = 0; i < numPoints; i++) {
+			single.triangulate(new Point2D_F64(ax[i],ay[i]),new Point2D_F64(bx[i],by[i]),a_to_b,expected);
+			assertEquals(expected.x, output[i*3  ], 1e-8);
+			assertEquals(expected.y, output[i*3+1], 1e-8);
+			assertEquals(expected.z, output[i*3+2], 1e-8);
+		}
+	}
+
+	/**
+	 * Rays which are parallel can't be triangulated
+	 */
+	@Test
+	void triangulate2_parallel() {
+		double[] output = new double[3];
+		createAlg().triangulate2(new double[]{0.1},new double[]{0.2},new double[]{0.1},new double[]{0.2},
+				1,new Se3_F64(),output);
+
+		for (int i = 0; i < 3; i++) {
+			assertTrue(Double.isNaN(output[i]));
+		}
+	}
+
+	/**
+	 * Tracks with a different number of views in each. Perfect observations.
+	 */
+	@Test
+	void triangulateN() {
+		createMetricScene();
+
+		// track 'i' is observed in views 0 to i+1, the last track only has one view
+		int numTracks = 5;
+		int[] trackStart = new int[numTracks+1];
+		for (int trackIdx = 0; trackIdx < numTracks-1; trackIdx++) {
+			trackStart[trackIdx+1] = trackStart[trackIdx] + trackIdx+2;
+		}
+		trackStart[numTracks] = trackStart[numTracks-1]+1;
+
+		int numObs = trackStart[numTracks];
+		double[] obsX = new double[numObs], obsY = new double[numObs];
+		int[] obsView = new int[numObs];
+		for (int trackIdx = 0; trackIdx < numTracks; trackIdx++) {
+			for (int obsIdx = trackStart[trackIdx]; obsIdx < trackStart[trackIdx+1]; obsIdx++) {
+				int viewIdx = obsIdx-trackStart[trackIdx];
+				obsX[obsIdx] = obsPts.get(viewIdx).x;
+				obsY[obsIdx] = obsPts.get(viewIdx).y;
+				obsView[obsIdx] = viewIdx;
+			}
+		}
+
+		TriangulateMetricBatch alg = createAlg();
+		alg.setViews(motionWorldToCamera);
+
+		double[] output = new double[numTracks*3];
+		alg.triangulateN(obsX,obsY,obsView,trackStart,numTracks,output);
+
+		for (int trackIdx = 0; trackIdx < numTracks-1; trackIdx++) {
+			assertEquals(worldPoint.x, output[trackIdx*3  ], 1e-8);
+			assertEquals(worldPoint.y, output[trackIdx*3+1], 1e-8);
+			assertEquals(worldPoint.z, output[trackIdx*3+2], 1e-8);
+		}
+		for (int i = 0; i < 3; i++) {
+			assertTrue(Double.isNaN(output[(numTracks-1)*3+i]));
+		}
+	}
+
+	protected TriangulateMetricBatch createAlg() {
+		return new TriangulateMetricBatch();
+	}
+}
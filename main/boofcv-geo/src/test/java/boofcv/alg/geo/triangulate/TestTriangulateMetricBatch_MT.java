@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.triangulate;
+
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class TestTriangulateMetricBatch_MT {
+	private Random rand = new Random(234);
+
+	int numPoints = 20000;
+	int numViews = 3;
+
+	/**
+	 * Output should be identical to the single threaded version
+	 */
+	@Test
+	void compare() {
+		List<Se3_F64> worldToView = new ArrayList<>();
+		for (int viewIdx = 0; viewIdx < numViews; viewIdx++) {
+			Se3_F64 w2v = new Se3_F64();
+			w2v.T.set(-0.2*viewIdx, rand.nextGaussian()*0.01, rand.nextGaussian()*0.01);
+			worldToView.add(w2v);
+		}
+
+		double[] obsX = new double[numPoints*numViews], obsY = new double[numPoints*numViews];
+		int[] obsView = new int[numPoints*numViews];
+		int[] trackStart = new int[numPoints+1];
+		double[] ax = new double[numPoints], ay = new double[numPoints];
+		double[] bx = new double[numPoints], by = new double[numPoints];
+
+		Point3D_F64 X = new Point3D_F64();
+		Point3D_F64 viewX = new Point3D_F64();
+		for (int pointIdx = 0; pointIdx < numPoints; pointIdx++) {
+			X.set(rand.nextGaussian(), rand.nextGaussian(), 4 + rand.nextGaussian()*0.5);
+			trackStart[pointIdx+1] = (pointIdx+1)*numViews;
+			for (int viewIdx = 0; viewIdx < numViews; viewIdx++) {
+				SePointOps_F64.transform(worldToView.get(viewIdx), X, viewX);
+				int obsIdx = pointIdx*numViews + viewIdx;
+				obsX[obsIdx] = viewX.x/viewX.z + rand.nextGaussian()*0.001;
+				obsY[obsIdx] = viewX.y/viewX.z + rand.nextGaussian()*0.001;
+				obsView[obsIdx] = viewIdx;
+			}
+			ax[pointIdx] = obsX[pointIdx*numViews];
+			ay[pointIdx] = obsY[pointIdx*numViews];
+			bx[pointIdx] = obsX[pointIdx*numViews+1];
+			by[pointIdx] = obsY[pointIdx*numViews+1];
+		}
+
+		TriangulateMetricBatch sequentialAlg = new TriangulateMetricBatch();
+		TriangulateMetricBatch_MT parallelAlg = new TriangulateMetricBatch_MT();
+		parallelAlg.minBlock = 100;
+		sequentialAlg.setViews(worldToView);
+		parallelAlg.setViews(worldToView);
+
+		double[] expected = new double[numPoints*3];
+		double[] found = new double[numPoints*3];
+
+		sequentialAlg.triangulate2(ax, ay, bx, by, numPoints, worldToView.get(1), expected);
+		parallelAlg.triangulate2(ax, ay, bx, by, numPoints, worldToView.get(1), found);
+		assertArrayEquals(expected, found, 0.0);
+
+		sequentialAlg.triangulateN(obsX, obsY, obsView, trackStart, numPoints, expected);
+		parallelAlg.triangulateN(obsX, obsY, obsView, trackStart, numPoints, found);
+		assertArrayEquals(expected, found, 0.0);
+	}
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.nn;
+
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestKdTreePointCloud_F64 {
+	Random rand = new Random(234);
+
+	/**
+	 * Compare k-nearest neighbor results against brute force. Points are quantized so that there are many
+	 * duplicate values, which is a pathological case for partitioning.
+	 */
+	@Test
+	void findNearest_bruteForce() {
+		for( int leafSize : new int[]{1,8,30}) {
+			int N = 2000;
+			double[] cloud = createCloud(N);
+			KdTreePointCloud_F64 alg = new KdTreePointCloud_F64();
+			alg.leafSize = leafSize;
+			alg.setPoints(cloud,N);
+			assertEquals(N,alg.size());
+
+			KdTreePointCloud_F64.Search search = alg.createSearch();
+			GrowQueue_I32 foundIdx = new GrowQueue_I32();
+			GrowQueue_F64 foundDist = new GrowQueue_F64();
+
+			for (int trial = 0; trial < 100; trial++) {
+				double x = rand.nextGaussian()*5, y = rand.nextGaussian()*5, z = rand.nextGaussian()*5;
+				double[] expected = bruteForceSorted(cloud,N,x,y,z);
+
+				search.findNearest(x,y,z,Double.MAX_VALUE,7,foundIdx,foundDist);
+				assertEquals(7,foundIdx.size);
+				for (int i = 0; i < 7; i++) {
+					assertEquals(expected[i],foundDist.get(i));
+					assertEquals(foundDist.get(i),distanceSq(cloud,foundIdx.get(i),x,y,z));
+				}
+
+				// limit the distance so that fewer than k are found
+				double maxDistanceSq = expected[3];
+				search.findNearest(x,y,z,maxDistanceSq,7,foundIdx,foundDist);
+				int count = 0;
+				while( count < 7 && expected[count] <= maxDistanceSq )
+					count++;
+				assertEquals(count,foundIdx.size);
+
+				assertEquals(expected[0],distanceSq(cloud,search.findNearest(x,y,z,Double.MAX_VALUE),x,y,z));
+			}
+		}
+	}
+
+	@Test
+	void findRadius_bruteForce() {
+		int N = 2000;
+		double[] cloud = createCloud(N);
+		KdTreePointCloud_F64 alg = new KdTreePointCloud_F64();
+		alg.setPoints(cloud,N);
+
+		KdTreePointCloud_F64.Search search = alg.createSearch();
+		GrowQueue_I32 foundIdx = new GrowQueue_I32();
+		GrowQueue_F64 foundDist = new GrowQueue_F64();
+
+		for (int trial = 0; trial < 100; trial++) {
+			double x = rand.nextGaussian()*5, y = rand.nextGaussian()*5, z = rand.nextGaussian()*5;
+			double maxDistanceSq = 4.0;
+			search.findRadius(x,y,z,maxDistanceSq,foundIdx,foundDist);
+
+			int expected = 0;
+			for (int i = 0; i < N; i++) {
+				if( distanceSq(cloud,i,x,y,z) <= maxDistanceSq )
+					expected++;
+			}
+			assertEquals(expected,foundIdx.size);
+			for (int i = 0; i < foundIdx.size; i++) {
+				assertEquals(foundDist.get(i),distanceSq(cloud,foundIdx.get(i),x,y,z));
+				assertTrue(foundDist.get(i) <= maxDistanceSq);
+			}
+		}
+	}
+
+	@Test
+	void findNearestBatch() {
+		int N = 500, numQueries = 40, k = 4;
+		double[] cloud = createCloud(N);
+		double[] queries = createCloud(numQueries);
+		KdTreePointCloud_F64 alg = new KdTreePointCloud_F64();
+		alg.setPoints(cloud,N);
+
+		int[] outIndexes = new int[numQueries*k];
+		double[] outDistances = new double[numQueries*k];
+		alg.findNearestBatch(queries,numQueries,k,1.0,outIndexes,outDistances);
+
+		KdTreePointCloud_F64.Search search = alg.createSearch();
+		GrowQueue_I32 foundIdx = new GrowQueue_I32();
+		for (int i = 0; i < numQueries; i++) {
+			search.findNearest(queries[i*3],queries[i*3+1],queries[i*3+2],1.0,k,foundIdx,null);
+			for (int j = 0; j < k; j++) {
+				if( j < foundIdx.size ) {
+					assertEquals(foundIdx.get(j), outIndexes[i*k+j]);
+				} else {
+					assertEquals(-1, outIndexes[i*k+j]);
+					assertTrue(Double.isNaN(outDistances[i*k+j]));
+				}
+			}
+		}
+	}
+
+	@Test
+	void findRadiusBatch() {
+		int N = 500, numQueries = 40;
+		double[] cloud = createCloud(N);
+		double[] queries = createCloud(numQueries);
+		KdTreePointCloud_F64 alg = new KdTreePointCloud_F64();
+		alg.setPoints(cloud,N);
+
+		GrowQueue_I32 outStart = new GrowQueue_I32();
+		GrowQueue_I32 outIndexes = new GrowQueue_I32();
+		alg.findRadiusBatch(queries,numQueries,2.0,outStart,outIndexes);
+		assertEquals(numQueries+1,outStart.size);
+		assertEquals(outIndexes.size,outStart.get(numQueries));
+
+		KdTreePointCloud_F64.Search search = alg.createSearch();
+		GrowQueue_I32 foundIdx = new GrowQueue_I32();
+		for (int i = 0; i < numQueries; i++) {
+			search.findRadius(queries[i*3],queries[i*3+1],queries[i*3+2],2.0,foundIdx,null);
+			assertEquals(foundIdx.size,outStart.get(i+1)-outStart.get(i));
+			for (int j = 0; j < foundIdx.size; j++) {
+				assertEquals(foundIdx.get(j),outIndexes.get(outStart.get(i)+j));
+			}
+		}
+	}
+
+	/**
+	 * Empty trees and trees smaller than a leaf
+	 */
+	@Test
+	void smallTrees() {
+		KdTreePointCloud_F64 alg = new KdTreePointCloud_F64();
+		KdTreePointCloud_F64.Search search = alg.createSearch();
+		GrowQueue_I32 foundIdx = new GrowQueue_I32();
+
+		alg.setPoints(new double[0],0);
+		assertEquals(-1,search.findNearest(1,2,3,Double.MAX_VALUE));
+
+		alg.setPoints(new double[]{1,2,3, 4,5,6},2);
+		search.findNearest(4,5,5,Double.MAX_VALUE,5,foundIdx,null);
+		assertEquals(2,foundIdx.size);
+		assertEquals(1,foundIdx.get(0));
+		assertEquals(0,foundIdx.get(1));
+	}
+
+	/**
+	 * The input array should not be modified
+	 */
+	@Test
+	void inputNotModified() {
+		double[] cloud = createCloud(100);
+		double[] copy = cloud.clone();
+		new KdTreePointCloud_F64().setPoints(cloud,100);
+		assertArrayEquals(copy,cloud,0.0);
+	}
+
+	double[] createCloud( int N ) {
+		double[] cloud = new double[N*3];
+		for (int i = 0; i < cloud.length; i++) {
+			cloud[i] = Math.round(rand.nextGaussian()*10)/2.0;
+		}
+		return cloud;
+	}
+
+	static double[] bruteForceSorted( double[] cloud , int N , double x , double y , double z ) {
+		double[] distances = new double[N];
+		for (int i = 0; i < N; i++) {
+			distances[i] = distanceSq(cloud,i,x,y,z);
+		}
+		Arrays.sort(distances);
+		return distances;
+	}
+
+	static double distanceSq( double[] cloud , int i , double x , double y , double z ) {
+		double dx = cloud[i*3]-x, dy = cloud[i*3+1]-y, dz = cloud[i*3+2]-z;
+		return dx*dx + dy*dy + dz*dz;
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.nn;
+
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestKdTreePointCloud_F64_MT {
+	Random rand = new Random(234);
+
+	/**
+	 * The tree and all batch results should be identical to the single threaded version
+	 */
+	@Test
+	void compare() {
+		int N = 20000, numQueries = 3000, k = 5;
+		double[] cloud = new double[N*3];
+		for (int i = 0; i < cloud.length; i++) {
+			cloud[i] = Math.round(rand.nextGaussian()*20)/2.0;
+		}
+		double[] queries = new double[numQueries*3];
+		for (int i = 0; i < queries.length; i++) {
+			queries[i] = rand.nextGaussian()*10;
+		}
+
+		KdTreePointCloud_F64 sequential = new KdTreePointCloud_F64();
+		KdTreePointCloud_F64_MT parallel = new KdTreePointCloud_F64_MT();
+		parallel.minimumBlock = 100;
+		sequential.setPoints(cloud,N);
+		parallel.setPoints(cloud,N);
+
+		assertArrayEquals(sequential.indexes,parallel.indexes);
+		assertArrayEquals(sequential.coordinates,parallel.coordinates,0.0);
+		assertArrayEquals(sequential.splitAxis,parallel.splitAxis);
+
+		int[] expectedIdx = new int[numQueries*k], foundIdx = new int[numQueries*k];
+		double[] expectedDist = new double[numQueries*k], foundDist = new double[numQueries*k];
+		sequential.findNearestBatch(queries,numQueries,k,9.0,expectedIdx,expectedDist);
+		parallel.findNearestBatch(queries,numQueries,k,9.0,foundIdx,foundDist);
+		assertArrayEquals(expectedIdx,foundIdx);
+		assertArrayEquals(expectedDist,foundDist,0.0);
+
+		GrowQueue_I32 expectedStart = new GrowQueue_I32(), expectedNeighbors = new GrowQueue_I32();
+		GrowQueue_I32 foundStart = new GrowQueue_I32(), foundNeighbors = new GrowQueue_I32();
+		sequential.findRadiusBatch(queries,numQueries,4.0,expectedStart,expectedNeighbors);
+		// call it twice to make sure the workspace is reset
+		parallel.findRadiusBatch(queries,numQueries,4.0,foundStart,foundNeighbors);
+		parallel.findRadiusBatch(queries,numQueries,4.0,foundStart,foundNeighbors);
+		assertEquals(expectedStart.size,foundStart.size);
+		assertEquals(expectedNeighbors.size,foundNeighbors.size);
+		for (int i = 0; i < expectedStart.size; i++) {
+			assertEquals(expectedStart.get(i),foundStart.get(i));
+		}
+		for (int i = 0; i < expectedNeighbors.size; i++) {
+			assertEquals(expectedNeighbors.get(i),foundNeighbors.get(i));
+		}
+	}
+}
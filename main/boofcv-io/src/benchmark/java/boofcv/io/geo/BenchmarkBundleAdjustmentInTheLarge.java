@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.geo;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import boofcv.alg.geo.bundle.*;
+import boofcv.io.UtilIO;
+import org.ejml.data.DMatrixSparseCSC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares single and multi threaded residual and Jacobian computations for metric bundle adjustment
+ * using data sets from Bundle Adjustment in the Large.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkBundleAdjustmentInTheLarge {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"sfm/problem-16-22106-pre.txt"})
+	public String problem;
+
+	SceneStructureMetric scene;
+	SceneObservations observations;
+
+	BundleAdjustmentMetricResidualFunction residuals;
+	BundleAdjustmentMetricSchurJacobian_DSCC jacobian;
+
+	double[] parameters;
+	double[] output;
+	DMatrixSparseCSC left = new DMatrixSparseCSC(1,1,1);
+	DMatrixSparseCSC right = new DMatrixSparseCSC(1,1,1);
+
+	@Setup
+	public void setup() throws IOException {
+		CodecBundleAdjustmentInTheLarge parser = new CodecBundleAdjustmentInTheLarge();
+		parser.parse(new File(UtilIO.pathExample(problem)));
+		scene = parser.scene;
+		observations = parser.observations;
+
+		if( concurrent ) {
+			residuals = new BundleAdjustmentMetricResidualFunction_MT();
+			jacobian = new BundleAdjustmentMetricSchurJacobian_DSCC_MT();
+		} else {
+			residuals = new BundleAdjustmentMetricResidualFunction();
+			jacobian = new BundleAdjustmentMetricSchurJacobian_DSCC();
+		}
+		residuals.configure(scene,observations);
+		jacobian.configure(scene,observations);
+
+		parameters = new double[scene.getParameterCount()];
+		new CodecSceneStructureMetric().encode(scene,parameters);
+		output = new double[residuals.getNumOfOutputsM()];
+	}
+
+	@Benchmark
+	public void residuals() {
+		residuals.process(parameters,output);
+	}
+
+	@Benchmark
+	public void jacobian() {
+		jacobian.process(parameters,left,right);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkBundleAdjustmentInTheLarge.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,452 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.image;
+
+import boofcv.struct.image.*;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>
+ * Reads and writes images using a {@link FileChannel}. Data is transferred directly into or out of the image's
+ * internal array. 8-bit images are read without any intermediate copies while other types are converted through
+ * a small buffer. This is much faster than going through an {@link java.io.InputStream} or ImageIO.
+ * </p>
+ *
+ * <p>
+ * Supported formats are binary PGM (P5) and PPM (P6) with a maximum value of 255, and raw headerless images.
+ * In a raw image the rows are written one after another with no padding. Interleaved images have their bands
+ * interleaved inside each row and the bands of a {@link Planar} image are written one after another. For
+ * a file format which also stores the image's type and shape see {@link ImageStackWriter}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ChannelImageIO {
+
+	// Size of the buffer used to convert bytes into other primitive types
+	static final int WORK_SIZE = 64*1024;
+
+	// The header in a PNM file should be much smaller than this
+	private static final int MAX_PNM_HEADER = 1024;
+
+	/**
+	 * Loads a binary PGM image.
+	 *
+	 * @param fileName Location of PGM image
+	 * @param storage (Optional) Storage for output image. Reshaped to the size of the image being read.
+	 * @return The image
+	 */
+	public static GrayU8 loadPGM( String fileName , @Nullable GrayU8 storage ) throws IOException {
+		try( FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ) ) {
+			PnmHeader header = readPnmHeader(channel);
+			if( header.type != 5 )
+				throw new IOException("Expected a binary PGM image (P5) not P"+header.type);
+
+			if( storage == null )
+				storage = new GrayU8(header.width, header.height);
+			else
+				storage.reshape(header.width, header.height);
+
+			read(channel, storage, ByteOrder.BIG_ENDIAN);
+			return storage;
+		}
+	}
+
+	/**
+	 * Loads a binary PPM image.
+	 *
+	 * @param fileName Location of PPM image
+	 * @param storage (Optional) Storage for output image. Reshaped to the size of the image being read.
+	 * @return The image with the bands in RGB order
+	 */
+	public static InterleavedU8 loadPPM( String fileName , @Nullable InterleavedU8 storage ) throws IOException {
+		try( FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ) ) {
+			PnmHeader header = readPnmHeader(channel);
+			if( header.type != 6 )
+				throw new IOException("Expected a binary PPM image (P6) not P"+header.type);
+
+			if( storage == null )
+				storage = new InterleavedU8(header.width, header.height, 3);
+			else {
+				storage.setNumberOfBands(3);
+				storage.reshape(header.width, header.height);
+			}
+
+			read(channel, storage, ByteOrder.BIG_ENDIAN);
+			return storage;
+		}
+	}
+
+	/**
+	 * Saves an image in binary PGM format.
+	 */
+	public static void savePGM( GrayU8 image , String fileName ) throws IOException {
+		savePNM(image, fileName, 5);
+	}
+
+	/**
+	 * Saves an image in binary PPM format.
+	 *
+	 * @param image Image with 3 bands in RGB order.
+	 */
+	public static void savePPM( InterleavedU8 image , String fileName ) throws IOException {
+		if( image.numBands != 3 )
+			throw new IllegalArgumentException("Image must have 3 bands");
+		savePNM(image, fileName, 6);
+	}
+
+	private static void savePNM( ImageBase<?> image , String fileName , int type ) throws IOException {
+		try( FileChannel channel = FileChannel.open(Paths.get(fileName),
+				StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING) ) {
+			String header = String.format("P%d\n%d %d\n255\n", type, image.width, image.height);
+			writeFully(channel, ByteBuffer.wrap(header.getBytes(StandardCharsets.US_ASCII)));
+			write(channel, image, ByteOrder.BIG_ENDIAN);
+		}
+	}
+
+	/**
+	 * Reads a raw image from a file into an image which has already been reshaped to the expected size.
+	 *
+	 * @param fileName Location of the raw image
+	 * @param offset Number of bytes from the start of the file that the image begins at
+	 * @param image (Output) Image that's read into. Must be the correct shape and type.
+	 * @param order Byte order of the data in the file
+	 */
+	public static void readRaw( String fileName , long offset , ImageBase<?> image , ByteOrder order )
+			throws IOException
+	{
+		try( FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ) ) {
+			channel.position(offset);
+			read(channel, image, order);
+		}
+	}
+
+	/**
+	 * Writes the image to a raw file with no header.
+	 *
+	 * @param image The image that is written
+	 * @param fileName Location of the raw image
+	 * @param order Byte order of the data in the file
+	 */
+	public static void writeRaw( ImageBase<?> image , String fileName , ByteOrder order ) throws IOException {
+		try( FileChannel channel = FileChannel.open(Paths.get(fileName),
+				StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING) ) {
+			write(channel, image, order);
+		}
+	}
+
+	/**
+	 * Reads the image's pixels from the channel's current position.
+	 *
+	 * @param channel Channel that's read from
+	 * @param image (Output) Image that's read into. Must be the correct shape and type.
+	 * @param order Byte order of the data in the file
+	 */
+	public static void read( FileChannel channel , ImageBase<?> image , ByteOrder order ) throws IOException {
+		read(channel, image, ByteBuffer.allocateDirect(WORK_SIZE).order(order));
+	}
+
+	/**
+	 * Reads the image's pixels using the provided buffer to convert bytes. The buffer's byte order is used.
+	 */
+	static void read( FileChannel channel , ImageBase<?> image , ByteBuffer work ) throws IOException {
+		processRows(image, (array, offset, length) -> readArray(channel, work, array, offset, length));
+	}
+
+	/**
+	 * Writes the image's pixels at the channel's current position.
+	 *
+	 * @param channel Channel that's written to
+	 * @param image The image that is written
+	 * @param order Byte order of the data in the file
+	 */
+	public static void write( FileChannel channel , ImageBase<?> image , ByteOrder order ) throws IOException {
+		write(channel, image, ByteBuffer.allocateDirect(WORK_SIZE).order(order));
+	}
+
+	/**
+	 * Writes the image's pixels using the provided buffer to convert bytes. The buffer's byte order is used.
+	 */
+	static void write( FileChannel channel , ImageBase<?> image , ByteBuffer work ) throws IOException {
+		processRows(image, (array, offset, length) -> writeArray(channel, work, array, offset, length));
+	}
+
+	/**
+	 * Passes each row in the image to the function. Rows which are next to each other in memory are passed
+	 * in at once. The bands of a {@link Planar} image are processed one after another.
+	 */
+	static void processRows( ImageBase<?> image , ArrayFunction function ) throws IOException {
+		if( image instanceof Planar ) {
+			Planar<?> planar = (Planar<?>)image;
+			for( int i = 0; i < planar.getNumBands(); i++ ) {
+				processRows(planar.getBand(i), function);
+			}
+			return;
+		}
+
+		Object data = getData(image);
+		int rowLength = image.width*(image instanceof ImageInterleaved ? ((ImageInterleaved)image).numBands : 1);
+
+		if( image.stride == rowLength ) {
+			function.process(data, image.startIndex, rowLength*image.height);
+		} else {
+			for( int y = 0; y < image.height; y++ ) {
+				function.process(data, image.startIndex + y*image.stride, rowLength);
+			}
+		}
+	}
+
+	/**
+	 * Returns the array used internally to store the image's pixels
+	 */
+	static Object getData( ImageBase<?> image ) {
+		if( image instanceof GrayI8 )
+			return ((GrayI8)image).data;
+		else if( image instanceof GrayI16 )
+			return ((GrayI16)image).data;
+		else if( image instanceof GrayS32 )
+			return ((GrayS32)image).data;
+		else if( image instanceof GrayS64 )
+			return ((GrayS64)image).data;
+		else if( image instanceof GrayF32 )
+			return ((GrayF32)image).data;
+		else if( image instanceof GrayF64 )
+			return ((GrayF64)image).data;
+		else if( image instanceof InterleavedI8 )
+			return ((InterleavedI8)image).data;
+		else if( image instanceof InterleavedI16 )
+			return ((InterleavedI16)image).data;
+		else if( image instanceof InterleavedS32 )
+			return ((InterleavedS32)image).data;
+		else if( image instanceof InterleavedS64 )
+			return ((InterleavedS64)image).data;
+		else if( image instanceof InterleavedF32 )
+			return ((InterleavedF32)image).data;
+		else if( image instanceof InterleavedF64 )
+			return ((InterleavedF64)image).data;
+		else
+			throw new IllegalArgumentException("Unsupported image type "+image.getClass().getSimpleName());
+	}
+
+	/**
+	 * Number of bytes in each element of the array
+	 */
+	static int elementSize( Object array ) {
+		if( array instanceof byte[] )
+			return 1;
+		else if( array instanceof short[] )
+			return 2;
+		else if( array instanceof int[] || array instanceof float[] )
+			return 4;
+		else if( array instanceof long[] || array instanceof double[] )
+			return 8;
+		else
+			throw new IllegalArgumentException("Unsupported array type");
+	}
+
+	/**
+	 * Copies elements from the buffer into the array. The buffer's position is advanced past the elements
+	 */
+	static void bufferToArray( ByteBuffer src , Object array , int offset , int length ) {
+		if( array instanceof byte[] ) {
+			src.get((byte[])array, offset, length);
+			return;
+		} else if( array instanceof short[] ) {
+			src.asShortBuffer().get((short[])array, offset, length);
+		} else if( array instanceof int[] ) {
+			src.asIntBuffer().get((int[])array, offset, length);
+		} else if( array instanceof long[] ) {
+			src.asLongBuffer().get((long[])array, offset, length);
+		} else if( array instanceof float[] ) {
+			src.asFloatBuffer().get((float[])array, offset, length);
+		} else if( array instanceof double[] ) {
+			src.asDoubleBuffer().get((double[])array, offset, length);
+		} else {
+			throw new IllegalArgumentException("Unsupported array type");
+		}
+		src.position(src.position() + length*elementSize(array));
+	}
+
+	/**
+	 * Copies elements from the array into the buffer. The buffer's position is advanced past the elements
+	 */
+	static void arrayToBuffer( Object array , int offset , int length , ByteBuffer dst ) {
+		if( array instanceof byte[] ) {
+			dst.put((byte[])array, offset, length);
+			return;
+		} else if( array instanceof short[] ) {
+			dst.asShortBuffer().put((short[])array, offset, length);
+		} else if( array instanceof int[] ) {
+			dst.asIntBuffer().put((int[])array, offset, length);
+		} else if( array instanceof long[] ) {
+			dst.asLongBuffer().put((long[])array, offset, length);
+		} else if( array instanceof float[] ) {
+			dst.asFloatBuffer().put((float[])array, offset, length);
+		} else if( array instanceof double[] ) {
+			dst.asDoubleBuffer().put((double[])array, offset, length);
+		} else {
+			throw new IllegalArgumentException("Unsupported array type");
+		}
+		dst.position(dst.position() + length*elementSize(array));
+	}
+
+	/**
+	 * Reads elements from the channel into the array
+	 */
+	static void readArray( FileChannel channel , ByteBuffer work , Object array , int offset , int length )
+			throws IOException
+	{
+		// bytes can be read directly into the array
+		if( array instanceof byte[] ) {
+			readFully(channel, ByteBuffer.wrap((byte[])array, offset, length));
+			return;
+		}
+
+		int size = elementSize(array);
+		int maxElements = work.capacity()/size;
+		while( length > 0 ) {
+			int n = Math.min(length, maxElements);
+			work.clear();
+			work.limit(n*size);
+			readFully(channel, work);
+			work.flip();
+			bufferToArray(work, array, offset, n);
+			offset += n;
+			length -= n;
+		}
+	}
+
+	/**
+	 * Writes elements in the array to the channel
+	 */
+	static void writeArray( FileChannel channel , ByteBuffer work , Object array , int offset , int length )
+			throws IOException
+	{
+		// bytes can be written directly from the array
+		if( array instanceof byte[] ) {
+			writeFully(channel, ByteBuffer.wrap((byte[])array, offset, length));
+			return;
+		}
+
+		int size = elementSize(array);
+		int maxElements = work.capacity()/size;
+		while( length > 0 ) {
+			int n = Math.min(length, maxElements);
+			work.clear();
+			arrayToBuffer(array, offset, n, work);
+			work.flip();
+			writeFully(channel, work);
+			offset += n;
+			length -= n;
+		}
+	}
+
+	static void readFully( FileChannel channel , ByteBuffer buffer ) throws IOException {
+		while( buffer.hasRemaining() ) {
+			if( channel.read(buffer) < 0 )
+				throw new EOFException("Unexpected end of file");
+		}
+	}
+
+	static void writeFully( FileChannel channel , ByteBuffer buffer ) throws IOException {
+		while( buffer.hasRemaining() ) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Reads the header of a PNM image and leaves the channel's position at the start of the pixel data.
+	 */
+	static PnmHeader readPnmHeader( FileChannel channel ) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(MAX_PNM_HEADER);
+		long start = channel.position();
+		while( buffer.hasRemaining() && channel.read(buffer) >= 0 ) {}
+		buffer.flip();
+
+		if( buffer.remaining() < 2 || buffer.get() != 'P' )
+			throw new IOException("Not a PNM image");
+
+		PnmHeader header = new PnmHeader();
+		header.type = buffer.get() - '0';
+		header.width = readPnmInteger(buffer);
+		header.height = readPnmInteger(buffer);
+		int maxValue = readPnmInteger(buffer);
+		if( maxValue > 255 )
+			throw new IOException("Only 8-bit PNM images are supported. max value = "+maxValue);
+
+		// a single white space character separates the header from the data
+		if( !buffer.hasRemaining() )
+			throw new IOException("Truncated PNM header");
+		buffer.get();
+		channel.position(start + buffer.position());
+		return header;
+	}
+
+	/**
+	 * Reads the next integer in the PNM header while skipping white space and comments
+	 */
+	private static int readPnmInteger( ByteBuffer buffer ) throws IOException {
+		while( buffer.hasRemaining() ) {
+			byte b = buffer.get(buffer.position());
+			if( b == '#' ) {
+				while( buffer.hasRemaining() && buffer.get() != '\n' ) {}
+			} else if( Character.isWhitespace(b) ) {
+				buffer.get();
+			} else {
+				break;
+			}
+		}
+
+		int value = 0;
+		int digits = 0;
+		while( buffer.hasRemaining() ) {
+			byte b = buffer.get(buffer.position());
+			if( b < '0' || b > '9' )
+				break;
+			value = value*10 + (b - '0');
+			digits++;
+			buffer.get();
+		}
+		if( digits == 0 )
+			throw new IOException("Bad PNM header");
+		return value;
+	}
+
+	/**
+	 * Function which processes a range of elements in an image's array
+	 */
+	interface ArrayFunction {
+		void process( Object array , int offset , int length ) throws IOException;
+	}
+
+	static class PnmHeader {
+		// 5 = PGM, 6 = PPM
+		int type;
+		int width;
+		int height;
+	}
+}
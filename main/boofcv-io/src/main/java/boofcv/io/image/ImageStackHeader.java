@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.image;
+
+import boofcv.struct.image.ImageDataType;
+import boofcv.struct.image.ImageType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>
+ * Header for the BoofCV binary image stack format. The header is always {@link #SIZE} bytes and is followed
+ * by the images. All images have the same type and shape. Inside each image the rows are written one after
+ * another with 'stride' elements between the start of each row. The bands in a planar image are written one
+ * after another.
+ * </p>
+ *
+ * <pre>
+ * Bytes    Description
+ *  0 -  7  "BOOFIMG" followed by the format version
+ *       8  Byte order of the pixel data. 'B' = big endian and 'L' = little endian
+ *  9 - 20  {@link ImageType.Family} name in ASCII, padded with spaces
+ * 21 - 24  {@link ImageDataType} name in ASCII, padded with spaces
+ * 28 - 47  Big endian integers: number of bands, width, height, stride, number of images
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+class ImageStackHeader {
+	// Number of bytes in the header
+	public static final int SIZE = 64;
+	public static final byte VERSION = 1;
+	private static final byte[] MAGIC = "BOOFIMG".getBytes(StandardCharsets.US_ASCII);
+
+	ImageType<?> imageType;
+	ByteOrder order;
+	int width, height;
+	// number of elements between the start of each row
+	int stride;
+	int numImages;
+
+	ImageStackHeader( ImageType<?> imageType, ByteOrder order, int width, int height ) {
+		this.imageType = imageType;
+		this.order = order;
+		this.width = width;
+		this.height = height;
+		this.stride = width*(imageType.getFamily() == ImageType.Family.INTERLEAVED ? imageType.getNumBands() : 1);
+	}
+
+	private ImageStackHeader() {}
+
+	/**
+	 * Number of bytes used to store a single image
+	 */
+	public long bytesPerImage() {
+		int numPlanes = imageType.getFamily() == ImageType.Family.PLANAR ? imageType.getNumBands() : 1;
+		return (long)stride*height*numPlanes*(imageType.getDataType().getNumBits()/8);
+	}
+
+	/**
+	 * Number of elements in each row of an image
+	 */
+	public int rowLength() {
+		return width*(imageType.getFamily() == ImageType.Family.INTERLEAVED ? imageType.getNumBands() : 1);
+	}
+
+	public ByteBuffer encode() {
+		ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+		buffer.put(MAGIC);
+		buffer.put(VERSION);
+		buffer.put((byte)(order == ByteOrder.BIG_ENDIAN ? 'B' : 'L'));
+		putString(buffer, imageType.getFamily().name(), 12);
+		putString(buffer, imageType.getDataType().name(), 4);
+		buffer.position(28);
+		buffer.putInt(imageType.getNumBands());
+		buffer.putInt(width);
+		buffer.putInt(height);
+		buffer.putInt(stride);
+		buffer.putInt(numImages);
+		buffer.clear();
+		return buffer;
+	}
+
+	public static ImageStackHeader decode( ByteBuffer buffer ) throws IOException {
+		buffer.order(ByteOrder.BIG_ENDIAN);
+		byte[] magic = new byte[MAGIC.length];
+		buffer.get(magic);
+		for( int i = 0; i < magic.length; i++ ) {
+			if( magic[i] != MAGIC[i] )
+				throw new IOException("Not a BoofCV image stack");
+		}
+		byte version = buffer.get();
+		if( version != VERSION )
+			throw new IOException("Unsupported version "+version);
+
+		ImageStackHeader header = new ImageStackHeader();
+		header.order = buffer.get() == 'B' ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+		try {
+			ImageType.Family family = ImageType.Family.valueOf(getString(buffer, 12));
+			ImageDataType dataType = ImageDataType.valueOf(getString(buffer, 4));
+			buffer.position(28);
+			int numBands = buffer.getInt();
+			header.imageType = new ImageType<>(family, dataType, numBands);
+		} catch( IllegalArgumentException e ) {
+			throw new IOException("Unknown image type in header");
+		}
+		header.width = buffer.getInt();
+		header.height = buffer.getInt();
+		header.stride = buffer.getInt();
+		header.numImages = buffer.getInt();
+
+		if( header.stride < header.rowLength() )
+			throw new IOException("Stride is less than the length of a row");
+		return header;
+	}
+
+	private static void putString( ByteBuffer buffer , String text , int length ) {
+		byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+		for( int i = 0; i < length; i++ ) {
+			buffer.put(i < bytes.length ? bytes[i] : (byte)' ');
+		}
+	}
+
+	private static String getString( ByteBuffer buffer , int length ) {
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.US_ASCII).trim();
+	}
+}
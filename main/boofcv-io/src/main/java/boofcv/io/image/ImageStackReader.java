@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.image;
+
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageMultiBand;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads images from a file in the BoofCV binary image stack format, see {@link ImageStackWriter}. The file
+ * is memory mapped so that any image in a large stack can be read without loading the whole file. Large files
+ * are mapped in several windows and only one is mapped at any time.
+ *
+ * @author Peter Abeles
+ */
+public class ImageStackReader<T extends ImageBase<T>> implements Closeable {
+	// Maximum size of a memory mapped region
+	static long WINDOW_SIZE = 512L*1024L*1024L;
+
+	FileChannel channel;
+	ImageStackHeader header;
+	long bytesPerImage;
+
+	// Memory mapped region and the images which it contains
+	@Nullable MappedByteBuffer window;
+	int windowFirst, windowCount;
+
+	/**
+	 * Opens the file and reads the header
+	 *
+	 * @param fileName Location of the file
+	 */
+	public ImageStackReader( String fileName ) throws IOException {
+		channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+		try {
+			ByteBuffer buffer = ByteBuffer.allocate(ImageStackHeader.SIZE);
+			ChannelImageIO.readFully(channel, buffer);
+			buffer.flip();
+			header = ImageStackHeader.decode(buffer);
+
+			bytesPerImage = header.bytesPerImage();
+			if( bytesPerImage > Integer.MAX_VALUE )
+				throw new IOException("Image is too large to be memory mapped");
+		} catch( IOException e ) {
+			channel.close();
+			throw e;
+		}
+
+		// If the file was truncated, only use the images which were completely written
+		long available = (channel.size() - ImageStackHeader.SIZE)/Math.max(1, bytesPerImage);
+		header.numImages = (int)Math.min(header.numImages, available);
+	}
+
+	/**
+	 * Reads an image from the stack
+	 *
+	 * @param index Which image is to be read
+	 * @param storage (Optional) Storage for the image. Reshaped to the size of the images in the stack.
+	 * @return The image
+	 */
+	public T read( int index , @Nullable T storage ) throws IOException {
+		if( index < 0 || index >= header.numImages )
+			throw new IllegalArgumentException("Index out of bounds. index = "+index+" size = "+header.numImages);
+
+		ImageType<T> imageType = getImageType();
+		if( storage == null ) {
+			storage = imageType.createImage(header.width, header.height);
+		} else {
+			if( !imageType.isSameType(storage.getImageType()) && storage instanceof ImageMultiBand )
+				((ImageMultiBand)storage).setNumberOfBands(imageType.getNumBands());
+			storage.reshape(header.width, header.height);
+		}
+		if( !imageType.isSameType(storage.getImageType()) )
+			throw new IllegalArgumentException("Storage doesn't match the type of images in the stack");
+
+		if( window == null || index < windowFirst || index >= windowFirst + windowCount )
+			mapWindow(index);
+
+		ByteBuffer src = window.duplicate().order(header.order);
+		int imageStart = (int)((index - windowFirst)*bytesPerImage);
+		int elementSize = header.imageType.getDataType().getNumBits()/8;
+		int rowLength = header.rowLength();
+
+		if( storage instanceof Planar ) {
+			Planar<?> planar = (Planar<?>)storage;
+			for( int band = 0; band < planar.getNumBands(); band++ ) {
+				int bandStart = imageStart + band*header.height*header.stride*elementSize;
+				readRows(src, bandStart, planar.getBand(band), rowLength, elementSize);
+			}
+		} else {
+			readRows(src, imageStart, storage, rowLength, elementSize);
+		}
+
+		return storage;
+	}
+
+	private void readRows( ByteBuffer src , int start , ImageBase<?> image , int rowLength , int elementSize ) {
+		Object data = ChannelImageIO.getData(image);
+		if( header.stride == rowLength && image.stride == rowLength ) {
+			// Both are contiguous so it can be copied all at once
+			src.position(start);
+			ChannelImageIO.bufferToArray(src, data, image.startIndex, rowLength*image.height);
+		} else {
+			for( int y = 0; y < image.height; y++ ) {
+				src.position(start + y*header.stride*elementSize);
+				ChannelImageIO.bufferToArray(src, data, image.startIndex + y*image.stride, rowLength);
+			}
+		}
+	}
+
+	/**
+	 * Memory maps a window of images which starts at the specified image
+	 */
+	private void mapWindow( int first ) throws IOException {
+		windowFirst = first;
+		windowCount = (int)Math.min(header.numImages - first, Math.max(1, WINDOW_SIZE/Math.max(1, bytesPerImage)));
+		window = channel.map(FileChannel.MapMode.READ_ONLY,
+				ImageStackHeader.SIZE + first*bytesPerImage, windowCount*bytesPerImage);
+	}
+
+	/**
+	 * Number of images in the stack
+	 */
+	public int size() {
+		return header.numImages;
+	}
+
+	public int getWidth() {
+		return header.width;
+	}
+
+	public int getHeight() {
+		return header.height;
+	}
+
+	public ImageType<T> getImageType() {
+		return (ImageType<T>)header.imageType;
+	}
+
+	@Override
+	public void close() throws IOException {
+		window = null;
+		channel.close();
+	}
+}
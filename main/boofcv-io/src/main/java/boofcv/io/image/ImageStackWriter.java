@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.image;
+
+import boofcv.struct.image.ImageBase;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>
+ * Writes images into the BoofCV binary image stack format. This is a compact format which stores the
+ * {@link boofcv.struct.image.ImageType}, shape, and raw pixel data for one or more images. All images in the
+ * stack must have the same type and shape, which are determined by the first image. Use {@link ImageStackReader}
+ * to read the images back in.
+ * </p>
+ *
+ * <p>
+ * The number of images in the header is updated after every image is written, so the file is valid even
+ * if it's never closed.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImageStackWriter implements Closeable {
+	FileChannel channel;
+	ByteBuffer work;
+	ByteOrder order;
+
+	// Header for the file. null until the first image has been written
+	@Nullable ImageStackHeader header;
+
+	/**
+	 * Creates a new file which is written with the native byte order
+	 *
+	 * @param fileName Location of the file. If it already exists it's overwritten
+	 */
+	public ImageStackWriter( String fileName ) throws IOException {
+		this(fileName, ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Creates a new file
+	 *
+	 * @param fileName Location of the file. If it already exists it's overwritten
+	 * @param order Byte order the pixels are written in
+	 */
+	public ImageStackWriter( String fileName , ByteOrder order ) throws IOException {
+		this.order = order;
+		this.work = ByteBuffer.allocateDirect(ChannelImageIO.WORK_SIZE).order(order);
+		this.channel = FileChannel.open(Paths.get(fileName),
+				StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	/**
+	 * Writes the image to the end of the file
+	 *
+	 * @param image The image. Must have the same shape and type as the first image.
+	 */
+	public void append( ImageBase<?> image ) throws IOException {
+		if( header == null ) {
+			header = new ImageStackHeader(image.getImageType(), order, image.width, image.height);
+			channel.position(ImageStackHeader.SIZE);
+		} else if( !header.imageType.isSameType(image.getImageType()) ) {
+			throw new IllegalArgumentException("Image type doesn't match the first image");
+		} else if( header.width != image.width || header.height != image.height ) {
+			throw new IllegalArgumentException("Image shape doesn't match the first image");
+		}
+
+		ChannelImageIO.write(channel, image, work);
+		header.numImages++;
+
+		// Update the header without changing the channel's position
+		ByteBuffer encoded = header.encode();
+		while( encoded.hasRemaining() ) {
+			channel.write(encoded, encoded.position());
+		}
+	}
+
+	/**
+	 * Number of images which have been written
+	 */
+	public int size() {
+		return header == null ? 0 : header.numImages;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
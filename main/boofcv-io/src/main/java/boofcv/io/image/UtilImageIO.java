@@ -18,6 +18,7 @@
 
 package boofcv.io.image;
 
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.io.UtilIO;
 import boofcv.struct.image.*;
 import org.apache.commons.io.FilenameUtils;
@@ -28,7 +29,11 @@ import java.awt.image.*;
 import java.io.*;
 import java.net.URL;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -82,25 +87,65 @@ public class UtilImageIO {
 	}
 
 	/**
-	 * Loads all the image in the specified directory which match the provided regex
+	 * Loads all the image in the specified directory which match the provided regex. Images are
+	 * decoded in parallel if {@link BoofConcurrency#USE_CONCURRENT} is true.
+	 *
 	 * @param directory File directory
 	 * @param regex Regex used to match file names
 	 * @return List of found images.
 	 */
 	public static List<BufferedImage> loadImages( String directory , final String regex ) {
-
 		List<String> paths = UtilIO.listByRegex(directory,regex);
 
+		// Sort so that the order is deterministic
+		Collections.sort(paths);
+
+		BufferedImage[] images = new BufferedImage[paths.size()];
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopFor(0, paths.size(), i -> images[i] = loadImage(paths.get(i)));
+		} else {
+			for (int i = 0; i < paths.size(); i++) {
+				images[i] = loadImage(paths.get(i));
+			}
+		}
+
 		List<BufferedImage> ret = new ArrayList<>();
+		for( BufferedImage img : images ) {
+			if( img != null )
+				ret.add( img );
+		}
 
-		if( paths.size() == 0 )
-			return ret;
+		return ret;
+	}
+
+	/**
+	 * Loads all the image in the specified directory which match the provided regex and converts them into
+	 * the specified type. Images are decoded and converted in parallel if {@link BoofConcurrency#USE_CONCURRENT}
+	 * is true.
+	 *
+	 * @param directory File directory
+	 * @param regex Regex used to match file names
+	 * @param imageType Type of image that should be returned.
+	 * @return List of found images.
+	 */
+	public static <T extends ImageBase<T>> List<T> loadImages( String directory , final String regex ,
+															   ImageType<T> imageType ) {
+		List<String> paths = UtilIO.listByRegex(directory,regex);
 
 		// Sort so that the order is deterministic
 		Collections.sort(paths);
 
-		for( String path : paths ) {
-			BufferedImage img = loadImage(path);
+		T[] images = imageType.createArray(paths.size());
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopFor(0, paths.size(), i -> images[i] = loadImage(paths.get(i), true, imageType));
+		} else {
+			for (int i = 0; i < paths.size(); i++) {
+				images[i] = loadImage(paths.get(i), true, imageType);
+			}
+		}
+
+		List<T> ret = new ArrayList<>();
+		for( T img : images ) {
 			if( img != null )
 				ret.add( img );
 		}
@@ -161,7 +206,19 @@ public class UtilImageIO {
 	}
 
 	public static <T extends ImageBase<T>> T loadImage( File image, boolean orderRgb, ImageType<T> imageType ) {
-		BufferedImage img = loadImage(image.getAbsolutePath());
+		return loadImage(image.getAbsolutePath(), orderRgb, imageType);
+	}
+
+	/**
+	 * Loads the image and converts into the specified image type.
+	 *
+	 * @param fileName Path to image file.
+	 * @param orderRgb If true it will rearrange bands into RGB order
+	 * @param imageType Type of image that should be returned.
+	 * @return The image or null if the image could not be loaded.
+	 */
+	public static <T extends ImageBase<T>> T loadImage( String fileName, boolean orderRgb, ImageType<T> imageType ) {
+		BufferedImage img = loadImage(fileName);
 		if( img == null )
 			return null;
 
@@ -378,7 +435,19 @@ public class UtilImageIO {
 	public static Planar<GrayU8> loadPPM_U8(String fileName , Planar<GrayU8> storage , GrowQueue_I8 temp )
 			throws IOException
 	{
-		return loadPPM_U8(new FileInputStream(fileName),storage,temp);
+		try( FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ) ) {
+			ChannelImageIO.PnmHeader header = ChannelImageIO.readPnmHeader(channel);
+			if( header.type != 6 )
+				throw new IOException("Expected a binary PPM image (P6) not P"+header.type);
+
+			int length = header.width*header.height*3;
+			if( temp == null )
+				temp = new GrowQueue_I8(length);
+			temp.resize(length);
+			ChannelImageIO.readFully(channel, ByteBuffer.wrap(temp.data, 0, length));
+
+			return interleavedToPlanar(temp.data, header.width, header.height, storage);
+		}
 	}
 
 	/**
@@ -406,11 +475,6 @@ public class UtilImageIO {
 		int h = Integer.parseInt(s[1]);
 		readLine(in);
 
-		if( storage == null || storage.getNumBands() != 3 )
-			storage = new Planar<>(GrayU8.class,w,h,3 );
-		else
-			storage.reshape(w,h);
-
 		int length = w*h*3;
 		if( temp == null )
 			temp = new GrowQueue_I8(length);
@@ -419,6 +483,18 @@ public class UtilImageIO {
 		byte[] data = temp.data;
 		read(in,data,length);
 
+		return interleavedToPlanar(data, w, h, storage);
+	}
+
+	/**
+	 * Copies interleaved RGB data into a Planar<GrayU8> image
+	 */
+	private static Planar<GrayU8> interleavedToPlanar( byte[] data , int w , int h , Planar<GrayU8> storage ) {
+		if( storage == null || storage.getNumBands() != 3 )
+			storage = new Planar<>(GrayU8.class,w,h,3 );
+		else
+			storage.reshape(w,h);
+
 		GrayU8 band0 = storage.getBand(0);
 		GrayU8 band1 = storage.getBand(1);
 		GrayU8 band2 = storage.getBand(2);
@@ -448,7 +524,7 @@ public class UtilImageIO {
 	public static GrayU8 loadPGM_U8(String fileName , GrayU8 storage )
 			throws IOException
 	{
-		return loadPGM_U8(new FileInputStream(fileName),storage);
+		return ChannelImageIO.loadPGM(fileName,storage);
 	}
 
 	/**
@@ -527,15 +603,7 @@ public class UtilImageIO {
 	 * @throws IOException Thrown if there is a problem reading the image
 	 */
 	public static void savePGM(GrayU8 gray , String fileName ) throws IOException {
-		File out = new File(fileName);
-		DataOutputStream os = new DataOutputStream(new FileOutputStream(out));
-
-		String header = String.format("P5\n%d %d\n255\n", gray.width, gray.height);
-		os.write(header.getBytes());
-
-		os.write(gray.data,0,gray.width*gray.height);
-
-		os.close();
+		ChannelImageIO.savePGM(gray, fileName);
 	}
 
 	private static String readLine( DataInputStream in ) throws IOException {
@@ -31,6 +31,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteOrder;
+import java.nio.file.Path;
 
 /**
  * Code for reading different point cloud formats
@@ -89,6 +90,38 @@ public class PointCloudIO {
 		return storage;
 	}
 
+	/**
+	 * Loads a binary PLY file into primitive arrays using memory mapped IO. Avoids creating an object for
+	 * each point and is much faster than reading from an {@link InputStream}.
+	 *
+	 * @see PlyCodec#readMapped(Path, int, PlyCodec.ChunkReader_F32)
+	 *
+	 * @param file Path to binary PLY file
+	 * @param storage (Output) Storage for the point cloud. If null a new instance is created.
+	 * @return The point cloud
+	 */
+	public static PointCloudWriter.CloudArraysF32
+	loadMapped3D32F( Path file , @Nullable PointCloudWriter.CloudArraysF32 storage ) throws IOException {
+		if( storage == null )
+			storage = new PointCloudWriter.CloudArraysF32();
+		final PointCloudWriter.CloudArraysF32 output = storage;
+		PlyCodec.readMapped(file, 1_000_000, new PlyCodec.ChunkReader_F32() {
+			@Override
+			public void init(int totalPoints, boolean hasRgb) {
+				output.cloudXyz.resize(totalPoints*3);
+				output.cloudRgb.resize(hasRgb ? totalPoints : 0);
+			}
+
+			@Override
+			public void chunk(int firstPoint, float[] xyz, @Nullable int[] rgb, int count) {
+				System.arraycopy(xyz,0,output.cloudXyz.data,firstPoint*3,count*3);
+				if( rgb != null )
+					System.arraycopy(rgb,0,output.cloudRgb.data,firstPoint,count);
+			}
+		});
+		return storage;
+	}
+
 	public static void
 	load(Format format , InputStream input , PointCloudWriter output ) throws IOException {
 		switch( format ) {
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.points.impl;
+
+import boofcv.alg.cloud.PointCloudWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes points directly into a binary PLY file as they are added, e.g. from
+ * {@link boofcv.alg.cloud.DisparityToColorPointCloud}, without storing the cloud in memory. Since the number of
+ * points isn't known until the end, a zero padded place holder is written into the header and is updated
+ * when {@link #close()} is called.
+ *
+ * @author Peter Abeles
+ */
+public class PlyBinaryWriter implements PointCloudWriter, Closeable {
+	// Number of digits in the vertex count place holder
+	private static final int COUNT_DIGITS = 10;
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+	private final boolean saveRgb;
+	private final boolean saveAsFloat;
+	// location of the vertex count in the header
+	private final int countLocation;
+
+	// number of points written so far
+	private int totalPoints;
+
+	/**
+	 * Creates the file and writes the header
+	 *
+	 * @param file Where the PLY file is written to. Overwritten if it exists.
+	 * @param order The byte order of the binary data
+	 * @param saveRgb if true it will save RGB information
+	 * @param saveAsFloat if true it will save it as a 4-byte float and if false as an 8-byte double
+	 * @param chunkSize Number of points which are buffered before being written to disk
+	 */
+	public PlyBinaryWriter( Path file , ByteOrder order , boolean saveRgb , boolean saveAsFloat , int chunkSize )
+			throws IOException {
+		this.saveRgb = saveRgb;
+		this.saveAsFloat = saveAsFloat;
+
+		String placeHolder = String.format("%0"+COUNT_DIGITS+"d",0);
+		byte[] header = PlyCodec.createBinaryHeader(order,saveRgb,saveAsFloat,placeHolder);
+		countLocation = new String(header, StandardCharsets.UTF_8).indexOf("element vertex ")+"element vertex ".length();
+
+		int bytesPerPoint = (saveAsFloat ? 12 : 24) + (saveRgb ? 3 : 0);
+		buffer = ByteBuffer.allocateDirect(bytesPerPoint*Math.max(1,chunkSize));
+		buffer.order(order);
+
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		writeFully(ByteBuffer.wrap(header));
+	}
+
+	public PlyBinaryWriter( Path file , boolean saveRgb ) throws IOException {
+		this(file, ByteOrder.BIG_ENDIAN, saveRgb, true, 100_000);
+	}
+
+	/**
+	 * Does nothing since the points are written as they arrive
+	 */
+	@Override
+	public void init(int estimatedSize) {}
+
+	@Override
+	public void add(double x, double y, double z) {
+		add(x,y,z,0);
+	}
+
+	@Override
+	public void add(double x, double y, double z, int rgb) {
+		if( totalPoints == Integer.MAX_VALUE )
+			throw new IllegalArgumentException("Too many points");
+		if( saveAsFloat ) {
+			buffer.putFloat((float)x);
+			buffer.putFloat((float)y);
+			buffer.putFloat((float)z);
+		} else {
+			buffer.putDouble(x);
+			buffer.putDouble(y);
+			buffer.putDouble(z);
+		}
+		if( saveRgb ) {
+			buffer.put((byte)(rgb >> 16));
+			buffer.put((byte)(rgb >> 8));
+			buffer.put((byte)rgb);
+		}
+		totalPoints++;
+
+		if( buffer.remaining() == 0 ) {
+			try {
+				flush();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Writes all buffered points to disk
+	 */
+	public void flush() throws IOException {
+		buffer.flip();
+		writeFully(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Writes the remaining points, updates the vertex count in the header, and closes the file
+	 */
+	@Override
+	public void close() throws IOException {
+		if( !channel.isOpen() )
+			return;
+		flush();
+		String count = String.format("%0"+COUNT_DIGITS+"d",totalPoints);
+		channel.write(ByteBuffer.wrap(count.getBytes(StandardCharsets.UTF_8)),countLocation);
+		channel.close();
+	}
+
+	private void writeFully( ByteBuffer src ) throws IOException {
+		while( src.hasRemaining() ) {
+			channel.write(src);
+		}
+	}
+
+	/**
+	 * Number of points written so far
+	 */
+	public int getTotalPoints() {
+		return totalPoints;
+	}
+}
@@ -23,12 +23,20 @@ import boofcv.alg.cloud.PointCloudWriter;
 import boofcv.io.UtilIO;
 import georegression.struct.point.Point3D_F64;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -82,24 +90,8 @@ public class PlyCodec {
 	 */
 	public static void saveBinary(PointCloudReader cloud , ByteOrder order, boolean saveRgb , boolean saveAsFloat ,
 								  OutputStream outputWriter ) throws IOException {
-		String format = "UTF-8";
-		String dataType = saveAsFloat ? "float" : "double";
 		int dataLength = saveAsFloat ? 4 : 8;
-		outputWriter.write("ply\n".getBytes(format));
-		outputWriter.write("format binary_big_endian 1.0\n".getBytes(format));
-		outputWriter.write("comment Created using BoofCV!\n".getBytes(format));
-		outputWriter.write(("element vertex "+cloud.size()+"\n").getBytes(format));
-		outputWriter.write((
-				"property "+dataType+" x\n" +
-				"property "+dataType+" y\n" +
-				"property "+dataType+" z\n").getBytes(format));
-		if( saveRgb ) {
-			outputWriter.write(
-					("property uchar red\n" +
-					 "property uchar green\n" +
-					 "property uchar blue\n").getBytes(format));
-		}
-		outputWriter.write("end_header\n".getBytes(format));
+		outputWriter.write(createBinaryHeader(order,saveRgb,saveAsFloat,""+cloud.size()));
 
 		int end = dataLength*3;
 		var bytes = ByteBuffer.allocate(dataLength*3 + (saveRgb?3:0));
@@ -131,6 +123,30 @@ public class PlyCodec {
 		outputWriter.flush();
 	}
 
+	/**
+	 * Creates the header for a binary PLY file
+	 *
+	 * @param vertexCount String that's written for the number of vertexes
+	 */
+	static byte[] createBinaryHeader( ByteOrder order , boolean saveRgb , boolean saveAsFloat , String vertexCount ) {
+		String dataType = saveAsFloat ? "float" : "double";
+		String endian = order == ByteOrder.BIG_ENDIAN ? "binary_big_endian" : "binary_little_endian";
+		String header = "ply\n" +
+				"format "+endian+" 1.0\n" +
+				"comment Created using BoofCV!\n" +
+				"element vertex "+vertexCount+"\n" +
+				"property "+dataType+" x\n" +
+				"property "+dataType+" y\n" +
+				"property "+dataType+" z\n";
+		if( saveRgb ) {
+			header += "property uchar red\n" +
+					"property uchar green\n" +
+					"property uchar blue\n";
+		}
+		header += "end_header\n";
+		return header.getBytes(StandardCharsets.UTF_8);
+	}
+
 	private static String readNextPly(InputStream reader , boolean failIfNull , StringBuffer buffer ) throws IOException {
 		String line = UtilIO.readLine(reader,buffer);
 		while( line.length() != 0 ) {
@@ -147,6 +163,128 @@ public class PlyCodec {
 
 	public static void read(InputStream input, PointCloudWriter output ) throws IOException {
 		StringBuffer buffer = new StringBuffer();
+		Header header = readHeader(input, buffer);
+
+		output.init(header.vertexCount);
+
+		switch (header.format) {
+			case ASCII:readAscii(output, input, header.dataWords, buffer, header.vertexCount, header.rgb);break;
+			case BINARY_LITTLE:readBinary(output, input, header.dataWords, ByteOrder.LITTLE_ENDIAN, header.vertexCount, header.rgb);break;
+			case BINARY_BIG:readBinary(output, input, header.dataWords, ByteOrder.BIG_ENDIAN, header.vertexCount, header.rgb);break;
+			default: throw new RuntimeException("BUG!");
+		}
+	}
+
+	/**
+	 * Reads a binary PLY file by memory mapping it and decoding the points in fixed size chunks into primitive
+	 * arrays. Much faster and uses much less memory than reading through an InputStream for large files.
+	 *
+	 * @param file Path to the PLY file. Must be in a binary format.
+	 * @param chunkSize Maximum number of points in each chunk
+	 * @param output Receives the decoded points
+	 */
+	public static void readMapped( Path file , int chunkSize , ChunkReader_F32 output ) throws IOException {
+		readMapped(file,chunkSize,output,null);
+	}
+
+	/**
+	 * Same as {@link #readMapped(Path, int, ChunkReader_F32)} but with points in double precision
+	 */
+	public static void readMapped( Path file , int chunkSize , ChunkReader_F64 output ) throws IOException {
+		readMapped(file,chunkSize,null,output);
+	}
+
+	private static void readMapped( Path file , int chunkSize ,
+									@Nullable ChunkReader_F32 outputF32, @Nullable ChunkReader_F64 outputF64 )
+			throws IOException {
+		if( chunkSize <= 0 )
+			throw new IllegalArgumentException("chunkSize must be positive");
+
+		try( FileChannel channel = FileChannel.open(file, StandardOpenOption.READ) ) {
+			// The header is read one byte at a time so the channel's position will be at the start of the data
+			Header header = readHeader(Channels.newInputStream(channel), new StringBuffer());
+			if( header.format == Format.ASCII )
+				throw new IOException("Memory mapped reading requires a binary PLY file");
+			ByteOrder order = header.format == Format.BINARY_BIG ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+
+			// Pre-compute where each word is inside a vertex
+			int numWords = header.dataWords.size();
+			int[] offsets = new int[numWords];
+			int bytesPerVertex = 0;
+			for (int i = 0; i < numWords; i++) {
+				offsets[i] = bytesPerVertex;
+				bytesPerVertex += header.dataWords.get(i).data.size;
+			}
+
+			long dataStart = channel.position();
+			if( dataStart + (long)header.vertexCount*bytesPerVertex > channel.size() )
+				throw new IOException("File is too small for the number of vertexes");
+
+			chunkSize = Math.min(chunkSize,Math.max(1,header.vertexCount));
+			chunkSize = Math.min(chunkSize,Integer.MAX_VALUE/bytesPerVertex);
+			float[] xyzF32 = outputF32 != null ? new float[chunkSize*3] : null;
+			double[] xyzF64 = outputF64 != null ? new double[chunkSize*3] : null;
+			int[] rgb = header.rgb ? new int[chunkSize] : null;
+
+			if( outputF32 != null )
+				outputF32.init(header.vertexCount,header.rgb);
+			else
+				outputF64.init(header.vertexCount,header.rgb);
+
+			for (int firstPoint = 0; firstPoint < header.vertexCount; firstPoint += chunkSize) {
+				int count = Math.min(chunkSize,header.vertexCount-firstPoint);
+				MappedByteBuffer bb = channel.map(FileChannel.MapMode.READ_ONLY,
+						dataStart+(long)firstPoint*bytesPerVertex, (long)count*bytesPerVertex);
+				bb.order(order);
+
+				for (int pointIdx = 0; pointIdx < count; pointIdx++) {
+					int vertexStart = pointIdx*bytesPerVertex;
+					int r=0,g=0,b=0;
+					for (int j = 0; j < numWords; j++) {
+						DataWord d = header.dataWords.get(j);
+						int location = vertexStart+offsets[j];
+						switch( d.var ) {
+							case X: case Y: case Z: {
+								double value = readValue(bb,location,d.data);
+								int axis = pointIdx*3 + d.var.ordinal();
+								if( xyzF32 != null )
+									xyzF32[axis] = (float)value;
+								else
+									xyzF64[axis] = value;
+							} break;
+							case R: r = (int)readValue(bb,location,d.data); break;
+							case G: g = (int)readValue(bb,location,d.data); break;
+							case B: b = (int)readValue(bb,location,d.data); break;
+							default: break;
+						}
+					}
+					if( rgb != null )
+						rgb[pointIdx] = r << 16 | g << 8 | b;
+				}
+
+				if( outputF32 != null )
+					outputF32.chunk(firstPoint,xyzF32,rgb,count);
+				else
+					outputF64.chunk(firstPoint,xyzF64,rgb,count);
+			}
+		}
+	}
+
+	private static double readValue( ByteBuffer bb , int location , DataType type ) {
+		switch( type ) {
+			case FLOAT:  return bb.getFloat(location);
+			case DOUBLE: return bb.getDouble(location);
+			case CHAR:   return bb.get(location);
+			case UCHAR:  return bb.get(location)&0xFF;
+			case SHORT:  return bb.getShort(location);
+			case USHORT: return bb.getShort(location)&0xFFFF;
+			case INT:    return bb.getInt(location);
+			case UINT:   return bb.getInt(location)&0xFFFFFFFFL;
+			default: throw new RuntimeException("Unsupported");
+		}
+	}
+
+	private static Header readHeader( InputStream input , StringBuffer buffer ) throws IOException {
 
 		String line = UtilIO.readLine(input,buffer);
 		if( line.length() == 0 ) throw new IOException("Missing first line");
@@ -210,14 +348,12 @@ public class PlyCodec {
 		if( format == null )
 			throw new IOException("Format is never specified");
 
-		output.init(vertexCount);
-
-		switch (format) {
-			case ASCII:readAscii(output, input, dataWords, buffer, vertexCount, rgb);break;
-			case BINARY_LITTLE:readBinary(output, input, dataWords, ByteOrder.LITTLE_ENDIAN, vertexCount, rgb);break;
-			case BINARY_BIG:readBinary(output, input, dataWords, ByteOrder.BIG_ENDIAN, vertexCount, rgb);break;
-			default: throw new RuntimeException("BUG!");
-		}
+		Header header = new Header();
+		header.dataWords = dataWords;
+		header.vertexCount = vertexCount;
+		header.format = format;
+		header.rgb = rgb;
+		return header;
 	}
 
 	private static void readAscii(PointCloudWriter output, InputStream reader, List<DataWord> dataWords,
@@ -328,6 +464,45 @@ public class PlyCodec {
 		}
 	}
 
+	/**
+	 * Receives points in chunks as they are read. Arrays are recycled between chunks.
+	 */
+	public interface ChunkReader_F32 {
+		/**
+		 * Called once before any chunks are read
+		 *
+		 * @param totalPoints Number of points in the file
+		 * @param hasRgb true if the points have color
+		 */
+		void init( int totalPoints , boolean hasRgb );
+
+		/**
+		 * Passes in a chunk of points
+		 *
+		 * @param firstPoint Index of the first point in this chunk
+		 * @param xyz Interleaved point coordinates
+		 * @param rgb RGB of each point or null if there is no color
+		 * @param count Number of points in the chunk
+		 */
+		void chunk( int firstPoint , float[] xyz , @Nullable int[] rgb , int count );
+	}
+
+	/**
+	 * Double precision version of {@link ChunkReader_F32}
+	 */
+	public interface ChunkReader_F64 {
+		void init( int totalPoints , boolean hasRgb );
+
+		void chunk( int firstPoint , double[] xyz , @Nullable int[] rgb , int count );
+	}
+
+	private static class Header {
+		List<DataWord> dataWords;
+		int vertexCount;
+		Format format;
+		boolean rgb;
+	}
+
 	private static class DataWord
 	{
 		VarType var;
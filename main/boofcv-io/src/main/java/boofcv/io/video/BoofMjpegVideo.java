@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,12 +18,14 @@
 
 package boofcv.io.video;
 
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.io.image.SimpleImageSequence;
+import boofcv.io.wrapper.images.MjpegPrefetchSequence;
 import boofcv.io.wrapper.images.MjpegStreamSequence;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 
-import java.io.FileNotFoundException;
+import java.io.IOException;
 
 /**
  * @author Peter Abeles
@@ -33,8 +35,11 @@ public class BoofMjpegVideo implements VideoInterface {
 	public <T extends ImageBase<T>> SimpleImageSequence<T> load(String fileName, ImageType<T> imageType) {
 
 		try {
-			return new MjpegStreamSequence(fileName,imageType);
-		} catch (FileNotFoundException e) {
+			if( BoofConcurrency.USE_CONCURRENT )
+				return new MjpegPrefetchSequence<>(fileName,imageType);
+			else
+				return new MjpegStreamSequence<>(fileName,imageType);
+		} catch (IOException e) {
 			return null;
 		}
 	}
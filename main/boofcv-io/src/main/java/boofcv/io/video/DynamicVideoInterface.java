@@ -18,18 +18,22 @@
 
 package boofcv.io.video;
 
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.io.UtilIO;
 import boofcv.io.image.SimpleImageSequence;
 import boofcv.io.wrapper.images.ImageStreamSequence;
 import boofcv.io.wrapper.images.JpegByteImageSequence;
 import boofcv.io.wrapper.images.LoadFileImageSequence;
+import boofcv.io.wrapper.images.PrefetchFileImageSequence;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationTargetException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.List;
 
@@ -66,8 +70,12 @@ public class DynamicVideoInterface implements VideoInterface {
 		// See if it's a directory and then assume it's an image sequence
 		if( protocol.equals("file") ) {
 			File f = new File(url.getFile());
-			if( f.isDirectory() )
-				return new LoadFileImageSequence<>(imageType,url.getFile(),null);
+			if( f.isDirectory() ) {
+				if( BoofConcurrency.USE_CONCURRENT )
+					return new PrefetchFileImageSequence<>(imageType,url.getFile(),null);
+				else
+					return new LoadFileImageSequence<>(imageType,url.getFile(),null);
+			}
 		}
 
 		String lowerName = fileName.toLowerCase();
@@ -78,6 +86,13 @@ public class DynamicVideoInterface implements VideoInterface {
 
 			// Use built in movie readers for these file types
 			if( lowerName.endsWith("mjpeg") || lowerName.endsWith("mjpg") ) {
+				// Local files are decoded in parallel without loading the whole file into memory. If that
+				// fails then fall back to the stream decoder
+				if( protocol.equals("file") && BoofConcurrency.USE_CONCURRENT ) {
+					SimpleImageSequence<T> sequence = loadLocalMjpeg(url, imageType);
+					if( sequence != null )
+						return sequence;
+				}
 				VideoMjpegCodec codec = new VideoMjpegCodec();
 				List<byte[]> data = codec.read(stream);
 				return new JpegByteImageSequence<>(imageType, data, false);
@@ -122,6 +137,20 @@ public class DynamicVideoInterface implements VideoInterface {
 		return null;
 	}
 
+	/**
+	 * Opens a local MJPEG file with {@link BoofMjpegVideo}. The URL's path is percent encoded so it's converted
+	 * into a file path first.
+	 *
+	 * @return The sequence or null if it couldn't be opened
+	 */
+	private <T extends ImageBase<T>> SimpleImageSequence<T> loadLocalMjpeg( URL url, ImageType<T> imageType ) {
+		try {
+			return mjpeg.load(new File(url.toURI()).getPath(), imageType);
+		} catch( URISyntaxException | IllegalArgumentException | UncheckedIOException e ) {
+			return null;
+		}
+	}
+
 	/**
 	 * Loads the specified default {@link VideoInterface}.
 	 *
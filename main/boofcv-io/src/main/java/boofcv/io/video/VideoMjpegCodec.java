@@ -20,7 +20,9 @@ package boofcv.io.video;
 
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -42,16 +44,49 @@ public class VideoMjpegCodec {
 			byte[] b = convertToByteArray(streamIn);
 //			System.out.println("MJPEG file is "+b.length+" bytes");
 
-			DataInputStream in = new DataInputStream(new ByteArrayInputStream(b));
-
-			while( findMarker(in,SOI) && in.available() > 0 ) {
-				byte data[] = readJpegData(in, EOI);
-				ret.add(data);
+			ByteBuffer buffer = ByteBuffer.wrap(b);
+			int location = 0;
+			while( true ) {
+				int start = findMarker(buffer, location, SOI);
+				if( start < 0 )
+					break;
+				int end = findFrameEnd(buffer, start);
+				ret.add(Arrays.copyOfRange(b,start,end));
+				location = end;
 			}
 		} catch (IOException ignore) {}
 		return ret;
 	}
 
+	/**
+	 * Searches for the next marker. Only the bytes from position 'offset' to the buffer's limit are
+	 * searched. The buffer's position is not modified.
+	 *
+	 * @param buffer Buffer containing the MJPEG stream
+	 * @param offset Index of the first byte which is searched
+	 * @param marker The second byte in the marker
+	 * @return Index of the 0xFF byte which starts the marker or -1 if it was not found
+	 */
+	public static int findMarker( ByteBuffer buffer , int offset , byte marker ) {
+		final int end = buffer.limit()-1;
+		for( int i = offset; i < end; i++ ) {
+			if( buffer.get(i) == (byte)0xFF && buffer.get(i+1) == marker )
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Finds the end of a JPEG frame that starts at 'start'. If the end of the image marker is not found then
+	 * the frame is assumed to be truncated and it extends to the end of the buffer.
+	 *
+	 * @return Index of the byte after the frame's end of image marker
+	 */
+	public static int findFrameEnd( ByteBuffer buffer , int start ) {
+		int end = findMarker(buffer, start+2, EOI);
+		return end < 0 ? buffer.limit() : end+2;
+	}
+
 	/**
 	 * Read a single frame at a time
 	 */
@@ -23,12 +23,12 @@ import boofcv.io.image.SimpleImageSequence;
 import boofcv.io.image.UtilImageIO;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
+import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.FilenameFilter;
 import java.util.ArrayList;
 import java.util.Collections;
 
@@ -95,21 +95,32 @@ public class LoadFileImageSequence<T extends ImageBase<T>> implements SimpleImag
 	}
 
 	private void findImages() {
-		File dir = new File(directoryName);
+		fileNames = listImages(directoryName, suffix);
+	}
+
+	/**
+	 * Returns a sorted list of all the images in the directory which contain the suffix.
+	 *
+	 * @param directory The directory containing the images.
+	 * @param suffix The suffix that the images have. If null then all images are returned.
+	 * @return Absolute path to each image
+	 */
+	public static java.util.List<String> listImages( String directory , @Nullable String suffix ) {
+		File dir = new File(directory);
 
 		if (!dir.isDirectory())
-			throw new IllegalArgumentException("directory must specify a directory.  path = "+directoryName);
+			throw new IllegalArgumentException("directory must specify a directory.  path = "+directory);
 
-		fileNames.clear();
+		java.util.List<String> fileNames = new ArrayList<>();
 
 		File[] files;
 		if( suffix != null )
-			files = dir.listFiles(new Filter());
+			files = dir.listFiles((d,name)->name.contains(suffix));
 		else
 			files = dir.listFiles();
 
 		if( files == null )
-			return;
+			return fileNames;
 
 		for (File f : files) {
 			if( UtilImageIO.isImage(f))
@@ -117,6 +128,7 @@ public class LoadFileImageSequence<T extends ImageBase<T>> implements SimpleImag
 		}
 
 		Collections.sort(fileNames);
+		return fileNames;
 	}
 
 	@Override
@@ -231,12 +243,4 @@ public class LoadFileImageSequence<T extends ImageBase<T>> implements SimpleImag
 	public void setIndex(int index) {
 		this.index = index;
 	}
-
-	private class Filter implements FilenameFilter {
-
-		@Override
-		public boolean accept(File dir, String name) {
-			return name.contains(suffix);
-		}
-	}
 }
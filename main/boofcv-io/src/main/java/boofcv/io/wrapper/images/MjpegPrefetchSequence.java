@@ -0,0 +1,402 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.wrapper.images;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.io.image.ConvertBufferedImage;
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.io.video.VideoMjpegCodec;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Reads a MJPEG file by decoding several frames ahead of the frame being processed on a pool of threads. The
+ * file is memory mapped and the boundaries of each frame are found by scanning for the start and end of image
+ * markers, so the whole file is never loaded into memory at once. Images and {@link BufferedImage BufferedImages}
+ * are recycled once the consumer has moved on to the next frame.
+ * </p>
+ *
+ * <p>
+ * NOTE: The image returned by {@link #next()} and {@link #getGuiImage()} are only valid until the next
+ * call to {@link #next()}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MjpegPrefetchSequence<T extends ImageBase<T>>
+		implements SimpleImageSequence<T>
+{
+	// Size of the region in the file which is memory mapped at once
+	private static final long WINDOW_SIZE = 1024L*1024L*1024L;
+
+	ImageType<T> imageType;
+
+	FileChannel channel;
+	// region of the file which is currently memory mapped
+	MappedByteBuffer window;
+	long windowStart;
+	// location in the file that the search for the next frame starts at
+	long filePosition;
+	// number of frames which have been found in the file since it was last reset
+	int framesFound;
+
+	// maximum number of frames which are decoded ahead of the current frame
+	int lookAhead;
+	ExecutorService executor;
+	// frames which are being decoded. Ordered by frame number
+	ArrayDeque<Future<Frame<T>>> pending = new ArrayDeque<>();
+	// frames which are no longer being used and can be recycled
+	ArrayDeque<Frame<T>> unused = new ArrayDeque<>();
+	// every frame which has been created. Used to release resources when closed
+	List<Frame<T>> allFrames = new ArrayList<>();
+	Frame<T> current;
+
+	boolean loop = false;
+
+	/**
+	 * Opens the file and starts decoding frames
+	 *
+	 * @param fileName Path to the MJPEG file
+	 * @param imageType Type of image it outputs
+	 * @param numThreads Number of threads used to decode frames
+	 * @param lookAhead Maximum number of frames decoded ahead of the current frame. Must be &ge; 1
+	 */
+	public MjpegPrefetchSequence( String fileName , ImageType<T> imageType , int numThreads , int lookAhead )
+			throws IOException
+	{
+		if( numThreads < 1 || lookAhead < 1 )
+			throw new IllegalArgumentException("numThreads and lookAhead must be at least 1");
+
+		this.imageType = imageType;
+		this.lookAhead = lookAhead;
+		this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+		this.executor = Executors.newFixedThreadPool(numThreads, r -> {
+			Thread thread = new Thread(r, "MJPEG Decoder");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		mapWindow(0);
+		fillPipeline();
+	}
+
+	/**
+	 * Uses {@link BoofConcurrency#getMaxThreads()} threads and decodes twice that number of frames ahead.
+	 */
+	public MjpegPrefetchSequence( String fileName , ImageType<T> imageType ) throws IOException {
+		this(fileName, imageType, BoofConcurrency.getMaxThreads(), 2*BoofConcurrency.getMaxThreads());
+	}
+
+	/**
+	 * Submits frames for decoding until the look ahead limit has been reached or there are no more frames
+	 */
+	private void fillPipeline() {
+		while( pending.size() < lookAhead ) {
+			int frameIndex = framesFound;
+			ByteBuffer jpeg = findNextFrame();
+			if( jpeg == null ) {
+				// go back to the start of the file, unless it has no frames in it
+				if( !loop || framesFound == 0 )
+					break;
+				restartScan();
+				continue;
+			}
+
+			Frame<T> frame;
+			if( unused.isEmpty() ) {
+				frame = new Frame<>(imageType.createImage(1, 1));
+				allFrames.add(frame);
+			} else {
+				frame = unused.pop();
+			}
+			frame.index = frameIndex;
+			pending.add(executor.submit(() -> frame.decode(jpeg)));
+		}
+	}
+
+	/**
+	 * Scans the file for the next JPEG image
+	 *
+	 * @return Buffer containing just the JPEG image or null if there are no more images
+	 */
+	private ByteBuffer findNextFrame() {
+		try {
+			while( true ) {
+				boolean windowAtEnd = windowStart + window.limit() >= channel.size();
+				int start = VideoMjpegCodec.findMarker(window, (int)(filePosition - windowStart), VideoMjpegCodec.SOI);
+				if( start < 0 ) {
+					if( windowAtEnd )
+						return null;
+					// the marker could be split across windows, so make sure it's included in the next one
+					mapWindow(windowStart + window.limit() - 1);
+					continue;
+				}
+
+				int end = VideoMjpegCodec.findMarker(window, start + 2, VideoMjpegCodec.EOI);
+				if( end < 0 ) {
+					if( !windowAtEnd ) {
+						if( start == 0 )
+							throw new IOException("JPEG image is larger than the memory mapped window");
+						// Map a new window which starts at the start of this image
+						mapWindow(windowStart + start);
+						continue;
+					}
+					// the last image was truncated
+					end = window.limit();
+				} else {
+					end += 2;
+				}
+
+				filePosition = windowStart + end;
+				framesFound++;
+
+				ByteBuffer jpeg = window.duplicate();
+				jpeg.limit(end);
+				jpeg.position(start);
+				return jpeg.slice();
+			}
+		} catch( IOException e ) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Memory maps a region of the file starting at the specified location
+	 */
+	private void mapWindow( long start ) throws IOException {
+		long length = Math.min(WINDOW_SIZE, channel.size() - start);
+		window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+		windowStart = start;
+		filePosition = Math.max(filePosition, start);
+	}
+
+	/**
+	 * Starts the search for frames at the beginning of the file
+	 */
+	private void restartScan() {
+		framesFound = 0;
+		filePosition = 0;
+		try {
+			if( windowStart != 0 )
+				mapWindow(0);
+		} catch( IOException e ) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Blocks until the frame has been decoded
+	 */
+	private Frame<T> waitFor( Future<Frame<T>> future ) {
+		try {
+			return future.get();
+		} catch( InterruptedException e ) {
+			throw new RuntimeException(e);
+		} catch( ExecutionException e ) {
+			if( e.getCause() instanceof IOException )
+				throw new UncheckedIOException((IOException)e.getCause());
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	/**
+	 * Returns the next frame, or the current frame if there are no more frames. Same as other sequences.
+	 *
+	 * @return The frame or null if the file has no frames
+	 */
+	private Frame<T> peekFrame() {
+		if( !pending.isEmpty() )
+			return waitFor(pending.peek());
+		return current;
+	}
+
+	/**
+	 * @return Width of the next image or -1 if the file has no frames
+	 */
+	@Override
+	public int getWidth() {
+		Frame<T> frame = peekFrame();
+		return frame == null ? -1 : frame.gui.getWidth();
+	}
+
+	/**
+	 * @return Height of the next image or -1 if the file has no frames
+	 */
+	@Override
+	public int getHeight() {
+		Frame<T> frame = peekFrame();
+		return frame == null ? -1 : frame.gui.getHeight();
+	}
+
+	@Override
+	public boolean hasNext() {
+		return !pending.isEmpty();
+	}
+
+	@Override
+	public T next() {
+		Frame<T> frame = waitFor(pending.poll());
+		// The previous frame is no longer being used
+		if( current != null )
+			unused.push(current);
+		current = frame;
+		fillPipeline();
+		return getImage();
+	}
+
+	@Override
+	public T getImage() {
+		return current.image;
+	}
+
+	@Override
+	public BufferedImage getGuiImage() {
+		return current.gui;
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+		pending.clear();
+		window = null;
+		try {
+			channel.close();
+		} catch (IOException ignore) {}
+
+		// The readers can only be released once nothing is decoding with them
+		try {
+			if( !executor.awaitTermination(5, TimeUnit.SECONDS) )
+				return;
+		} catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		for (int i = 0; i < allFrames.size(); i++) {
+			allFrames.get(i).dispose();
+		}
+	}
+
+	@Override
+	public int getFrameNumber() {
+		return current.index;
+	}
+
+	@Override
+	public void setLoop(boolean loop) {
+		this.loop = loop;
+		fillPipeline();
+	}
+
+	@Override
+	public ImageType<T> getImageType() {
+		return imageType;
+	}
+
+	@Override
+	public void reset() {
+		// Frames which are still being decoded can't be recycled, so they are discarded
+		for( Iterator<Future<Frame<T>>> iter = pending.iterator(); iter.hasNext(); ) {
+			iter.next().cancel(false);
+		}
+		pending.clear();
+		restartScan();
+		fillPipeline();
+	}
+
+	/**
+	 * Storage for a decoded frame. Images are recycled when the frame is reused.
+	 */
+	private static class Frame<T extends ImageBase<T>> {
+		// index of the frame in the file
+		int index;
+		T image;
+		BufferedImage gui;
+		// copy of the encoded JPEG
+		byte[] data = new byte[0];
+		ImageReader reader;
+
+		Frame( T image ) {
+			this.image = image;
+		}
+
+		Frame<T> decode( ByteBuffer jpeg ) throws IOException {
+			int length = jpeg.remaining();
+			if( data.length < length )
+				data = new byte[length];
+			jpeg.get(data, 0, length);
+
+			if( reader == null ) {
+				Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName("jpeg");
+				if( !readers.hasNext() )
+					throw new IOException("No JPEG reader available");
+				reader = readers.next();
+			}
+
+			reader.setInput(new MemoryCacheImageInputStream(new ByteArrayInputStream(data, 0, length)), true, true);
+			try {
+				// Decode into the previous BufferedImage if it's compatible
+				ImageReadParam param = reader.getDefaultReadParam();
+				if( gui != null && gui.getType() != BufferedImage.TYPE_CUSTOM &&
+						gui.getWidth() == reader.getWidth(0) && gui.getHeight() == reader.getHeight(0) ) {
+					Iterator<ImageTypeSpecifier> types = reader.getImageTypes(0);
+					if( types.hasNext() && types.next().getBufferedImageType() == gui.getType() )
+						param.setDestination(gui);
+				}
+				gui = reader.read(0, param);
+			} finally {
+				reader.setInput(null);
+			}
+
+			image.reshape(gui.getWidth(), gui.getHeight());
+			ConvertBufferedImage.convertFrom(gui, image, true);
+			return this;
+		}
+
+		void dispose() {
+			if( reader != null ) {
+				reader.dispose();
+				reader = null;
+			}
+		}
+	}
+}
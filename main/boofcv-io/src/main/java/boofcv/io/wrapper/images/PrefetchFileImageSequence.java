@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.wrapper.images;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.io.image.ConvertBufferedImage;
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.io.image.UtilImageIO;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>
+ * Image sequence which loads a list of image files while reading ahead. Several of the images after the current
+ * one are loaded and converted into the output image type in parallel on a pool of threads. This hides
+ * the latency of reading from disk and decoding. Output images are recycled once the consumer has moved on.
+ * </p>
+ *
+ * <p>
+ * The number of images loaded ahead is limited by the look ahead and by a memory budget. Memory used by each image
+ * is estimated from the size of the most recently loaded image. At least one image is always loaded ahead.
+ * When looping the sequence goes back and forth through the images.
+ * </p>
+ *
+ * <p>
+ * NOTE: The image returned by {@link #next()} and {@link #getGuiImage()} are only valid until the next
+ * call to {@link #next()}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PrefetchFileImageSequence<T extends ImageBase<T>> implements SimpleImageSequence<T> {
+
+	// path to each image in the sequence
+	List<String> fileNames;
+
+	// type of image it outputs
+	ImageType<T> type;
+
+	// maximum number of images loaded ahead of the current image
+	int lookAhead;
+	// Maximum number of bytes used by images loaded ahead of the current image
+	long memoryBudget;
+	// Estimated number of bytes used by a single loaded image. 0 if unknown
+	long bytesPerImage;
+
+	ExecutorService executor;
+	// images which are being loaded. Ordered by when they will be returned
+	ArrayDeque<Future<Frame<T>>> pending = new ArrayDeque<>();
+	// Images which are no longer being used and can be recycled
+	ArrayDeque<Frame<T>> unused = new ArrayDeque<>();
+	Frame<T> current;
+
+	// Number of images which have been submitted to be loaded since the last reset
+	int scheduled;
+
+	boolean loop = false;
+
+	/**
+	 * Creates an image sequence from the provided list of files
+	 *
+	 * @param type Type of image it outputs
+	 * @param fileNames Path to each image in the order they will be returned
+	 * @param numThreads Number of threads used to load images
+	 * @param lookAhead Maximum number of images loaded ahead of the current image. Must be &ge; 1
+	 * @param memoryBudget Maximum number of bytes used by images loaded ahead of the current image.
+	 */
+	public PrefetchFileImageSequence( ImageType<T> type, List<String> fileNames,
+									  int numThreads, int lookAhead, long memoryBudget ) {
+		if( numThreads < 1 || lookAhead < 1 )
+			throw new IllegalArgumentException("numThreads and lookAhead must be at least 1");
+
+		this.type = type;
+		this.fileNames = fileNames;
+		this.lookAhead = lookAhead;
+		this.memoryBudget = memoryBudget;
+		this.executor = Executors.newFixedThreadPool(numThreads, r -> {
+			Thread thread = new Thread(r, "Image Prefetch");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		fillPipeline();
+	}
+
+	/**
+	 * Loads all the images in the directory with the specified suffix. Uses {@link BoofConcurrency#getMaxThreads()}
+	 * threads, loads up to twice that many images ahead, and has a memory budget of 1/4 the maximum heap size.
+	 *
+	 * @param directory The directory containing the images.
+	 * @param suffix The suffix that the images have. If null all images are loaded.
+	 */
+	public PrefetchFileImageSequence( ImageType<T> type, String directory, @Nullable String suffix ) {
+		this(type, LoadFileImageSequence.listImages(directory, suffix), BoofConcurrency.getMaxThreads(),
+				2*BoofConcurrency.getMaxThreads(), Runtime.getRuntime().maxMemory()/4);
+	}
+
+	/**
+	 * Submits images to be loaded until the look ahead or memory limit has been reached or there are no more images
+	 */
+	private void fillPipeline() {
+		int maxPending = lookAhead;
+		if( bytesPerImage > 0 )
+			maxPending = (int)Math.max(1, Math.min(lookAhead, memoryBudget/bytesPerImage));
+		else if( current == null )
+			maxPending = 1; // The image size is unknown so be conservative
+
+		while( pending.size() < maxPending ) {
+			int index = indexOfScheduled(scheduled);
+			if( index < 0 )
+				break;
+			scheduled++;
+
+			Frame<T> frame = unused.isEmpty() ? new Frame<>(type.createImage(1, 1)) : unused.pop();
+			frame.index = index;
+			String fileName = fileNames.get(index);
+			pending.add(executor.submit(() -> frame.load(fileName)));
+		}
+	}
+
+	/**
+	 * Returns the index of the file which is loaded when the specified number of images have already been loaded.
+	 * When looping it goes back and forth through the list.
+	 *
+	 * @return index of file or -1 if there are no more files
+	 */
+	int indexOfScheduled( int count ) {
+		int N = fileNames.size();
+		if( count < N )
+			return count;
+		if( !loop || N == 0 )
+			return -1;
+		if( N == 1 )
+			return 0;
+
+		int period = 2*(N-1);
+		int location = count % period;
+		return location < N ? location : period - location;
+	}
+
+	/**
+	 * Blocks until the image has been loaded
+	 */
+	private Frame<T> waitFor( Future<Frame<T>> future ) {
+		try {
+			return future.get();
+		} catch( InterruptedException e ) {
+			throw new RuntimeException(e);
+		} catch( ExecutionException e ) {
+			if( e.getCause() instanceof RuntimeException )
+				throw (RuntimeException)e.getCause();
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	@Override
+	public int getWidth() {
+		return pending.isEmpty() ? current.image.getWidth() : waitFor(pending.peek()).image.getWidth();
+	}
+
+	@Override
+	public int getHeight() {
+		return pending.isEmpty() ? current.image.getHeight() : waitFor(pending.peek()).image.getHeight();
+	}
+
+	@Override
+	public boolean hasNext() {
+		return !pending.isEmpty();
+	}
+
+	@Override
+	public T next() {
+		Frame<T> frame = waitFor(pending.poll());
+		// The previous image is no longer being used
+		if( current != null )
+			unused.push(current);
+		current = frame;
+		bytesPerImage = frame.estimateBytes();
+		fillPipeline();
+		return getImage();
+	}
+
+	@Override
+	public T getImage() {
+		return current.image;
+	}
+
+	@Override
+	public BufferedImage getGuiImage() {
+		return current.gui;
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+		pending.clear();
+	}
+
+	@Override
+	public int getFrameNumber() {
+		return current.index;
+	}
+
+	@Override
+	public void setLoop( boolean loop ) {
+		this.loop = loop;
+		fillPipeline();
+	}
+
+	public boolean isLoop() {
+		return loop;
+	}
+
+	@Override
+	public ImageType<T> getImageType() {
+		return type;
+	}
+
+	@Override
+	public void reset() {
+		// Images which are still being loaded can't be recycled, so they are discarded
+		for( Future<Frame<T>> f : pending ) {
+			f.cancel(false);
+		}
+		pending.clear();
+		scheduled = 0;
+		fillPipeline();
+	}
+
+	/**
+	 * Storage for a loaded image. The output image is recycled when the frame is reused.
+	 */
+	private static class Frame<T extends ImageBase<T>> {
+		// index of the image in the list of files
+		int index;
+		T image;
+		BufferedImage gui;
+
+		Frame( T image ) {
+			this.image = image;
+		}
+
+		Frame<T> load( String fileName ) {
+			gui = UtilImageIO.loadImage(fileName);
+			if( gui == null )
+				throw new RuntimeException("Could not load image "+fileName);
+
+			image.reshape(gui.getWidth(), gui.getHeight());
+			ConvertBufferedImage.convertFrom(gui, image, true);
+			return this;
+		}
+
+		/**
+		 * Estimates the number of bytes used by the BufferedImage and the output image
+		 */
+		long estimateBytes() {
+			long pixels = (long)gui.getWidth()*gui.getHeight();
+			int bytesGui = gui.getColorModel().getPixelSize()/8;
+			int bytesImage = image.getImageType().getNumBands()*image.getImageType().getDataType().getNumBits()/8;
+			return pixels*(Math.max(1, bytesGui) + Math.max(1, bytesImage));
+		}
+	}
+}
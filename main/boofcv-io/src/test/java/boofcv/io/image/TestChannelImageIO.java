@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.image;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestChannelImageIO {
+
+	Random rand = new Random(234);
+	int width = 20;
+	int height = 30;
+
+	@Test
+	void saveLoadPGM() throws IOException {
+		GrayU8 orig = new GrayU8(width,height);
+		GImageMiscOps.fillUniform(orig,rand,0,256);
+
+		File temp = File.createTempFile("temp", ".pgm");
+		temp.deleteOnExit();
+
+		// sub-images should be handled correctly
+		ChannelImageIO.savePGM(BoofTesting.createSubImageOf(orig),temp.getPath());
+		GrayU8 found = ChannelImageIO.loadPGM(temp.getPath(),new GrayU8(2,3));
+		BoofTesting.assertEquals(orig,found,0);
+
+		// should be compatible with the stream reader
+		found = UtilImageIO.loadPGM_U8(new java.io.FileInputStream(temp),null);
+		BoofTesting.assertEquals(orig,found,0);
+	}
+
+	@Test
+	void saveLoadPPM() throws IOException {
+		InterleavedU8 orig = new InterleavedU8(width,height,3);
+		GImageMiscOps.fillUniform(orig,rand,0,256);
+
+		File temp = File.createTempFile("temp", ".ppm");
+		temp.deleteOnExit();
+
+		ChannelImageIO.savePPM(BoofTesting.createSubImageOf(orig),temp.getPath());
+		InterleavedU8 found = ChannelImageIO.loadPPM(temp.getPath(),null);
+		BoofTesting.assertEquals(orig,found,0);
+
+		// compare against reading it into a planar image
+		Planar<GrayU8> planar = UtilImageIO.loadPPM_U8(temp.getPath(),null,null);
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				for( int band = 0; band < 3; band++ ) {
+					assertEquals(orig.getBand(x,y,band), planar.getBand(band).get(x,y));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Comments and different white space in the header
+	 */
+	@Test
+	void loadPGM_header() throws IOException {
+		File temp = File.createTempFile("temp", ".pgm");
+		temp.deleteOnExit();
+
+		try( FileOutputStream out = new FileOutputStream(temp) ) {
+			out.write("P5\n# a comment\n3  2\r\n# another\n255\n".getBytes(StandardCharsets.US_ASCII));
+			out.write(new byte[]{1,2,3,4,5,(byte)200});
+		}
+
+		GrayU8 found = ChannelImageIO.loadPGM(temp.getPath(),null);
+		assertEquals(3,found.width);
+		assertEquals(2,found.height);
+		assertEquals(1,found.get(0,0));
+		assertEquals(4,found.get(0,1));
+		assertEquals(200,found.get(2,1));
+	}
+
+	@Test
+	void readWriteRaw() throws IOException {
+		ImageType[] types = new ImageType[]{
+				ImageType.single(GrayU8.class),ImageType.single(GrayS16.class),ImageType.single(GrayF32.class),
+				ImageType.single(GrayS64.class),ImageType.il(3,InterleavedF64.class),ImageType.il(2,InterleavedU16.class),
+				ImageType.pl(2,GrayS32.class)};
+
+		File temp = File.createTempFile("temp", ".raw");
+		temp.deleteOnExit();
+
+		for( ImageType type : types ) {
+			for( ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN,ByteOrder.LITTLE_ENDIAN}) {
+				// large enough that the work buffer is used multiple times
+				ImageBase orig = type.createImage(150,100);
+				GImageMiscOps.fillUniform(orig,rand,0,100);
+
+				ChannelImageIO.writeRaw(BoofTesting.createSubImageOf(orig),temp.getPath(),order);
+
+				int elementSize = type.getDataType().getNumBits()/8;
+				int numBands = type.getFamily() == ImageType.Family.GRAY ? 1 : type.getNumBands();
+				assertEquals(150*100*numBands*elementSize, temp.length());
+
+				ImageBase found = BoofTesting.createSubImageOf(type.createImage(150,100));
+				ChannelImageIO.readRaw(temp.getPath(),0,found,order);
+				BoofTesting.assertEquals(orig,found,0);
+			}
+		}
+	}
+
+	/**
+	 * Read a raw image which is after a header
+	 */
+	@Test
+	void readRaw_offset() throws IOException {
+		File temp = File.createTempFile("temp", ".raw");
+		temp.deleteOnExit();
+
+		try( FileOutputStream out = new FileOutputStream(temp) ) {
+			out.write(new byte[]{9,9,9,1,0,2,0});
+		}
+
+		GrayU16 found = new GrayU16(2,1);
+		ChannelImageIO.readRaw(temp.getPath(),3,found,ByteOrder.LITTLE_ENDIAN);
+		assertEquals(1,found.get(0,0));
+		assertEquals(2,found.get(1,0));
+	}
+}
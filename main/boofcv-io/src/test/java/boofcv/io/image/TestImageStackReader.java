@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.image;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestImageStackReader {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Write then read images of different types and see if they are the same
+	 */
+	@Test
+	void writeThenRead() throws IOException {
+		ImageType[] types = new ImageType[]{
+				ImageType.single(GrayU8.class),ImageType.single(GrayF32.class),
+				ImageType.il(3,InterleavedS16.class),ImageType.pl(2,GrayF64.class)};
+
+		for( ImageType type : types ) {
+			for( ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN,ByteOrder.LITTLE_ENDIAN}) {
+				List<ImageBase> images = createImages(type, 4);
+				File file = writeStack(images, order);
+
+				ImageStackReader<?> reader = new ImageStackReader<>(file.getPath());
+				assertEquals(4, reader.size());
+				assertEquals(30, reader.getWidth());
+				assertEquals(25, reader.getHeight());
+				assertTrue(type.isSameType(reader.getImageType()));
+
+				// read out of order and into sub-images
+				ImageBase storage = BoofTesting.createSubImageOf(type.createImage(30,25));
+				for( int i : new int[]{2,0,3,1} ) {
+					BoofTesting.assertEquals(images.get(i), reader.read(i,null), 0);
+					BoofTesting.assertEquals(images.get(i), ((ImageStackReader)reader).read(i,storage), 0);
+				}
+				reader.close();
+			}
+		}
+	}
+
+	/**
+	 * Make the window small so that it needs to be mapped several times
+	 */
+	@Test
+	void multipleWindows() throws IOException {
+		List<ImageBase> images = createImages(ImageType.single(GrayF32.class), 7);
+		File file = writeStack(images, ByteOrder.nativeOrder());
+
+		long original = ImageStackReader.WINDOW_SIZE;
+		try {
+			ImageStackReader.WINDOW_SIZE = 2*30*25*4;
+			ImageStackReader<GrayF32> reader = new ImageStackReader<>(file.getPath());
+			for( int i : new int[]{0,1,2,6,5,3,4} ) {
+				BoofTesting.assertEquals(images.get(i), reader.read(i,null), 0);
+			}
+			reader.close();
+		} finally {
+			ImageStackReader.WINDOW_SIZE = original;
+		}
+	}
+
+	/**
+	 * If the file is truncated only the complete images should be read
+	 */
+	@Test
+	void truncatedFile() throws IOException {
+		List<ImageBase> images = createImages(ImageType.single(GrayU8.class), 3);
+		File file = writeStack(images, ByteOrder.nativeOrder());
+
+		try( RandomAccessFile raf = new RandomAccessFile(file,"rw") ) {
+			raf.setLength(raf.length()-10);
+		}
+
+		ImageStackReader<GrayU8> reader = new ImageStackReader<>(file.getPath());
+		assertEquals(2, reader.size());
+		BoofTesting.assertEquals(images.get(1), reader.read(1,null), 0);
+		assertThrows(IllegalArgumentException.class, () -> reader.read(2,null));
+		reader.close();
+	}
+
+	@Test
+	void notAStack() throws IOException {
+		File file = File.createTempFile("stack", ".raw");
+		file.deleteOnExit();
+		ChannelImageIO.writeRaw(new GrayU8(20,20), file.getPath(), ByteOrder.nativeOrder());
+
+		assertThrows(IOException.class, () -> new ImageStackReader<>(file.getPath()));
+	}
+
+	private List<ImageBase> createImages( ImageType type , int count ) {
+		List<ImageBase> images = new ArrayList<>();
+		for( int i = 0; i < count; i++ ) {
+			ImageBase image = type.createImage(30,25);
+			GImageMiscOps.fillUniform(image,rand,0,100);
+			images.add(image);
+		}
+		return images;
+	}
+
+	private File writeStack( List<ImageBase> images , ByteOrder order ) throws IOException {
+		File file = File.createTempFile("stack", ".boof");
+		file.deleteOnExit();
+
+		try( ImageStackWriter writer = new ImageStackWriter(file.getPath(), order) ) {
+			for( ImageBase image : images ) {
+				writer.append(BoofTesting.createSubImageOf(image));
+			}
+			assertEquals(images.size(), writer.size());
+		}
+		return file;
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.image;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Peter Abeles
+ */
+class TestImageStackWriter {
+
+	/**
+	 * The header should be valid before the writer has been closed
+	 */
+	@Test
+	void headerUpdatedAfterAppend() throws IOException {
+		File file = File.createTempFile("stack", ".boof");
+		file.deleteOnExit();
+
+		ImageStackWriter writer = new ImageStackWriter(file.getPath());
+		writer.append(new GrayU8(10,12));
+		writer.append(new GrayU8(10,12));
+
+		ImageStackReader<GrayU8> reader = new ImageStackReader<>(file.getPath());
+		assertEquals(2, reader.size());
+		reader.close();
+
+		writer.append(new GrayU8(10,12));
+		reader = new ImageStackReader<>(file.getPath());
+		assertEquals(3, reader.size());
+		assertEquals(ImageStackHeader.SIZE + 3*10*12, file.length());
+		reader.close();
+		writer.close();
+	}
+
+	@Test
+	void mismatchedImages() throws IOException {
+		File file = File.createTempFile("stack", ".boof");
+		file.deleteOnExit();
+
+		try( ImageStackWriter writer = new ImageStackWriter(file.getPath()) ) {
+			writer.append(new GrayU8(10,12));
+			assertThrows(IllegalArgumentException.class, () -> writer.append(new GrayU8(10,13)));
+			assertThrows(IllegalArgumentException.class, () -> writer.append(new GrayF32(10,12)));
+			assertEquals(1, writer.size());
+		}
+	}
+}
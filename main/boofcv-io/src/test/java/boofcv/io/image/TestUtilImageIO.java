@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,13 +19,18 @@
 package boofcv.io.image;
 
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
 import boofcv.struct.image.Planar;
+import boofcv.testing.BoofTesting;
 import org.junit.jupiter.api.Test;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -113,6 +118,32 @@ public class TestUtilImageIO {
 	/**
 	 * See if load image fails gracefully if an image is not present
 	 */
+	/**
+	 * Load the images in a directory with and without concurrency and see if the results are the same
+	 */
+	@Test
+	public void loadImages() {
+		String directory = getClass().getResource("/boofcv/io/image/wrapper/images/").getFile();
+		boolean original = BoofConcurrency.USE_CONCURRENT;
+		try {
+			for( boolean concurrent : new boolean[]{false,true} ) {
+				BoofConcurrency.USE_CONCURRENT = concurrent;
+
+				List<BufferedImage> buffered = UtilImageIO.loadImages(directory, ".*png");
+				List<GrayF32> gray = UtilImageIO.loadImages(directory, ".*png", ImageType.single(GrayF32.class));
+
+				assertEquals(3, buffered.size());
+				assertEquals(3, gray.size());
+				for (int i = 0; i < buffered.size(); i++) {
+					GrayF32 expected = ConvertBufferedImage.convertFrom(buffered.get(i), (GrayF32)null);
+					BoofTesting.assertEquals(expected, gray.get(i), 1e-4);
+				}
+			}
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = original;
+		}
+	}
+
 	@Test
 	public void loadImage_negative() {
 		assertTrue( UtilImageIO.loadImage("asdasdasdasd") == null );
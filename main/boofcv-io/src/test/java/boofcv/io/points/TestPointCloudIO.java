@@ -19,6 +19,7 @@
 package boofcv.io.points;
 
 import boofcv.alg.cloud.PointCloudReader;
+import boofcv.alg.cloud.PointCloudWriter;
 import boofcv.io.points.PointCloudIO.Format;
 import georegression.struct.point.Point3D_F32;
 import georegression.struct.point.Point3D_F64;
@@ -26,10 +27,7 @@ import org.ddogleg.struct.FastQueue;
 import org.ejml.UtilEjml;
 import org.junit.jupiter.api.Test;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -88,4 +86,27 @@ class TestPointCloudIO {
 			}
 		}
 	}
-}
\ No newline at end of file
+
+	@Test
+	void loadMapped3D32F() throws IOException {
+		List<Point3D_F64> expected = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			expected.add( new Point3D_F64(i*123.45,i-1.01,i+2.34));
+		}
+
+		File file = File.createTempFile("cloud", ".ply");
+		file.deleteOnExit();
+		try( OutputStream output = new FileOutputStream(file) ) {
+			PointCloudIO.save3D(Format.PLY, PointCloudReader.wrapF64(expected), false, output);
+		}
+
+		PointCloudWriter.CloudArraysF32 found = PointCloudIO.loadMapped3D32F(file.toPath(), null);
+		assertEquals(expected.size()*3, found.cloudXyz.size);
+		assertEquals(0, found.cloudRgb.size);
+		for (int i = 0; i < expected.size(); i++) {
+			Point3D_F64 e = expected.get(i);
+			assertEquals(0.0, e.distance(found.cloudXyz.get(i*3), found.cloudXyz.get(i*3+1), found.cloudXyz.get(i*3+2)),
+					UtilEjml.TEST_F32*1000);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.points.impl;
+
+import boofcv.alg.cloud.PointCloudWriter;
+import boofcv.struct.Point3dRgbI_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ejml.UtilEjml;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPlyBinaryWriter {
+	/**
+	 * Write points and see if they can be read back in. Chunk size is small so that it will flush multiple times
+	 */
+	@Test
+	void write_read() throws IOException {
+		File file = File.createTempFile("writer", ".ply");
+		file.deleteOnExit();
+
+		for( ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN,ByteOrder.LITTLE_ENDIAN}) {
+			for (boolean asFloat : new boolean[]{true, false}) {
+				PlyBinaryWriter alg = new PlyBinaryWriter(file.toPath(), order, true, asFloat, 3);
+				alg.init(100);
+				for (int i = 0; i < 11; i++) {
+					alg.add(i*1.5, i-2, i+0.25, i << 16 | i);
+				}
+				assertEquals(11, alg.getTotalPoints());
+				alg.close();
+
+				FastQueue<Point3dRgbI_F64> found = new FastQueue<>(Point3dRgbI_F64::new);
+				try (InputStream input = new FileInputStream(file)) {
+					PlyCodec.read(input, PointCloudWriter.wrapF64RGB(found));
+				}
+
+				assertEquals(11, found.size);
+				for (int i = 0; i < found.size; i++) {
+					Point3dRgbI_F64 p = found.get(i);
+					assertEquals(0.0, p.distance(i*1.5, i-2, i+0.25), UtilEjml.TEST_F32);
+					assertEquals(i << 16 | i, p.rgb);
+				}
+			}
+		}
+	}
+
+	/**
+	 * No points are written
+	 */
+	@Test
+	void empty() throws IOException {
+		File file = File.createTempFile("writer", ".ply");
+		file.deleteOnExit();
+
+		new PlyBinaryWriter(file.toPath(), false).close();
+
+		FastQueue<Point3dRgbI_F64> found = new FastQueue<>(Point3dRgbI_F64::new);
+		try (InputStream input = new FileInputStream(file)) {
+			PlyCodec.read(input, PointCloudWriter.wrapF64RGB(found));
+		}
+		assertEquals(0, found.size);
+	}
+}
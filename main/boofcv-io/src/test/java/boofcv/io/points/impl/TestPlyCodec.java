@@ -31,7 +31,7 @@ import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author Peter Abeles
@@ -135,4 +135,67 @@ class TestPlyCodec {
 		}
 	}
 
-}
\ No newline at end of file
+	@Test
+	void readMapped() throws IOException {
+		List<Point3dRgbI_F64> expected = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			expected.add( new Point3dRgbI_F64(i*123.45,i-1.01,i+2.34,(i*10)<<16 | (i*2) << 8 | i));
+		}
+
+		File file = File.createTempFile("mapped", ".ply");
+		file.deleteOnExit();
+
+		for( ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN,ByteOrder.LITTLE_ENDIAN}) {
+			for( boolean asFloat : new boolean[]{true,false}) {
+				for( boolean saveRgb : new boolean[]{true,false}) {
+					try( OutputStream output = new FileOutputStream(file) ) {
+						PlyCodec.saveBinary(PointCloudReader.wrapF64RGB(expected), order, saveRgb, asFloat, output);
+					}
+
+					double tol = asFloat ? UtilEjml.TEST_F32 : UtilEjml.TEST_F64;
+					// chunk size is selected so that the last chunk is partially full
+					PlyCodec.readMapped(file.toPath(), 7, new PlyCodec.ChunkReader_F64() {
+						int totalRead = 0;
+						@Override
+						public void init(int totalPoints, boolean hasRgb) {
+							assertEquals(expected.size(), totalPoints);
+							assertEquals(saveRgb, hasRgb);
+						}
+
+						@Override
+						public void chunk(int firstPoint, double[] xyz, int[] rgb, int count) {
+							assertEquals(totalRead, firstPoint);
+							assertTrue(count <= 7);
+							for (int i = 0; i < count; i++) {
+								Point3dRgbI_F64 e = expected.get(firstPoint+i);
+								assertEquals(e.x, xyz[i*3], tol*Math.abs(e.x)+tol);
+								assertEquals(e.y, xyz[i*3+1], tol*Math.abs(e.y)+tol);
+								assertEquals(e.z, xyz[i*3+2], tol*Math.abs(e.z)+tol);
+								if( saveRgb )
+									assertEquals(e.rgb, rgb[i]);
+							}
+							totalRead += count;
+						}
+					});
+				}
+			}
+		}
+	}
+
+	@Test
+	void readMapped_ascii() throws IOException {
+		File file = File.createTempFile("mapped", ".ply");
+		file.deleteOnExit();
+
+		List<Point3D_F64> expected = new ArrayList<>();
+		expected.add(new Point3D_F64(1,2,3));
+		try( Writer output = new FileWriter(file) ) {
+			PlyCodec.saveAscii(PointCloudReader.wrapF64(expected),false,output);
+		}
+
+		assertThrows(IOException.class,()->PlyCodec.readMapped(file.toPath(), 10, new PlyCodec.ChunkReader_F32() {
+			@Override public void init(int totalPoints, boolean hasRgb) {}
+			@Override public void chunk(int firstPoint, float[] xyz, int[] rgb, int count) {}
+		}));
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.video;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestDynamicVideoInterface {
+
+	boolean originalConcurrent = BoofConcurrency.USE_CONCURRENT;
+
+	@AfterEach
+	void restoreConcurrency() {
+		BoofConcurrency.USE_CONCURRENT = originalConcurrent;
+	}
+
+	/**
+	 * Characters in the path which are escaped in a URL should not prevent a MJPEG file from being opened
+	 */
+	@Test
+	void mjpeg_escapedPath() throws IOException {
+		File directory = Files.createTempDirectory("dynamic video ü").toFile();
+		File file = new File(directory, "video with space.mjpeg");
+		try {
+			try (OutputStream out = new FileOutputStream(file)) {
+				for (int i = 0; i < 3; i++) {
+					assertTrue(ImageIO.write(new BufferedImage(20, 15, BufferedImage.TYPE_3BYTE_BGR), "jpg", out));
+				}
+			}
+
+			for (boolean concurrent : new boolean[]{false, true}) {
+				BoofConcurrency.USE_CONCURRENT = concurrent;
+				SimpleImageSequence<GrayU8> sequence =
+						new DynamicVideoInterface().load(file.getPath(), ImageType.single(GrayU8.class));
+				assertNotNull(sequence);
+
+				int total = 0;
+				while (sequence.hasNext()) {
+					GrayU8 image = sequence.next();
+					assertEquals(20, image.width);
+					assertEquals(15, image.height);
+					total++;
+				}
+				assertEquals(3, total);
+				sequence.close();
+			}
+		} finally {
+			file.delete();
+			directory.delete();
+		}
+	}
+}
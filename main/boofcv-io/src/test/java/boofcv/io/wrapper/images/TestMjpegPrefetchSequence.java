@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.wrapper.images;
+
+import boofcv.io.video.VideoMjpegCodec;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestMjpegPrefetchSequence {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compares decoded frames against the frames decoded one at a time from memory
+	 */
+	@Test
+	void compareToJpegByte() throws IOException {
+		File file = createMjpeg(12);
+		List<byte[]> frames = new VideoMjpegCodec().read(new FileInputStream(file));
+		assertEquals(12, frames.size());
+
+		ImageType<Planar<GrayU8>> imageType = ImageType.pl(3, GrayU8.class);
+
+		// try different amount of look ahead, including more than the number of frames
+		for( int lookAhead : new int[]{1,3,20}) {
+			var expected = new JpegByteImageSequence<>(imageType, frames, false);
+			var alg = new MjpegPrefetchSequence<>(file.getPath(), imageType, 2, lookAhead);
+
+			int total = 0;
+			while( expected.hasNext() ) {
+				assertTrue(alg.hasNext());
+				assertEquals(expected.getWidth(), alg.getWidth());
+				assertEquals(expected.getHeight(), alg.getHeight());
+
+				BoofTesting.assertEquals(expected.next(), alg.next(), 0);
+				assertEquals(total++, alg.getFrameNumber());
+				BufferedImage gui = alg.getGuiImage();
+				assertEquals(alg.getImage().width, gui.getWidth());
+			}
+			assertFalse(alg.hasNext());
+			alg.close();
+		}
+	}
+
+	@Test
+	void reset() throws IOException {
+		File file = createMjpeg(5);
+		var alg = new MjpegPrefetchSequence<>(file.getPath(), ImageType.single(GrayU8.class), 2, 2);
+
+		GrayU8 first = alg.next().clone();
+		alg.next();
+		alg.next();
+		alg.reset();
+
+		assertTrue(alg.hasNext());
+		BoofTesting.assertEquals(first, alg.next(), 0);
+		assertEquals(0, alg.getFrameNumber());
+
+		int total = 1;
+		while( alg.hasNext() ) {
+			alg.next();
+			total++;
+		}
+		assertEquals(5, total);
+		alg.close();
+	}
+
+	@Test
+	void loop() throws IOException {
+		File file = createMjpeg(3);
+		var alg = new MjpegPrefetchSequence<>(file.getPath(), ImageType.single(GrayU8.class), 2, 2);
+		alg.setLoop(true);
+
+		for( int i = 0; i < 10; i++ ) {
+			assertTrue(alg.hasNext());
+			alg.next();
+			assertEquals(i%3, alg.getFrameNumber());
+		}
+		alg.close();
+	}
+
+	/**
+	 * A file with no images in it
+	 */
+	@Test
+	void empty() throws IOException {
+		File file = File.createTempFile("empty", ".mjpeg");
+		file.deleteOnExit();
+
+		var alg = new MjpegPrefetchSequence<>(file.getPath(), ImageType.single(GrayU8.class), 2, 2);
+		assertFalse(alg.hasNext());
+		assertEquals(-1, alg.getWidth());
+		assertEquals(-1, alg.getHeight());
+		alg.setLoop(true);
+		assertFalse(alg.hasNext());
+		alg.close();
+	}
+
+	/**
+	 * Creates a MJPEG file with images of different sizes and random content
+	 */
+	private File createMjpeg( int numFrames ) throws IOException {
+		File file = File.createTempFile("video", ".mjpeg");
+		file.deleteOnExit();
+
+		try( OutputStream out = new FileOutputStream(file) ) {
+			for( int i = 0; i < numFrames; i++ ) {
+				BufferedImage image = new BufferedImage(40+i%3, 30+i%2, BufferedImage.TYPE_3BYTE_BGR);
+				for( int y = 0; y < image.getHeight(); y++ ) {
+					for( int x = 0; x < image.getWidth(); x++ ) {
+						image.setRGB(x, y, rand.nextInt(0xFFFFFF));
+					}
+				}
+				assertTrue(ImageIO.write(image, "jpg", out));
+			}
+		}
+		return file;
+	}
+}
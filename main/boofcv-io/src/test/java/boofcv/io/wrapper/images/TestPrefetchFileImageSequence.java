@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.wrapper.images;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPrefetchFileImageSequence {
+
+	private String imagePath = getClass().getResource("/boofcv/io/image/wrapper/images/").getFile();
+
+	/**
+	 * Images should be the same as the ones loaded one at a time
+	 */
+	@Test
+	void compareToLoadFile() {
+		ImageType<GrayF32> imageType = ImageType.single(GrayF32.class);
+		List<String> files = LoadFileImageSequence.listImages(imagePath, "png");
+
+		// different look ahead and memory budget, including a budget too small for a single image
+		for( int lookAhead : new int[]{1,2,5} ) {
+			for( long budget : new long[]{1,Long.MAX_VALUE} ) {
+				var expected = new LoadFileImageSequence<>(imageType, imagePath, "png");
+				var alg = new PrefetchFileImageSequence<>(imageType, files, 2, lookAhead, budget);
+
+				assertSame(imageType, alg.getImageType());
+				assertFalse(alg.isLoop());
+
+				while( expected.hasNext() ) {
+					assertTrue(alg.hasNext());
+					GrayF32 found = alg.next();
+					BoofTesting.assertEquals(expected.next(), found, 0);
+					assertEquals(expected.getFrameNumber(), alg.getFrameNumber());
+					assertEquals(100, alg.getGuiImage().getWidth());
+					assertTrue(alg.pending.size() <= lookAhead);
+				}
+				assertFalse(alg.hasNext());
+				alg.close();
+			}
+		}
+	}
+
+	@Test
+	void checkLoop() {
+		var alg = new PrefetchFileImageSequence<>(ImageType.single(GrayF32.class), imagePath, "png");
+		alg.setLoop(true);
+		assertTrue(alg.isLoop());
+
+		// goes back and forth through the images
+		int[] expected = new int[]{0,1,2,1,0,1,2,1};
+		for( int i = 0; i < expected.length; i++ ) {
+			assertTrue(alg.hasNext());
+			alg.next();
+			assertEquals(expected[i], alg.getFrameNumber());
+		}
+
+		// turn off looping and it should stop
+		alg.setLoop(false);
+		int total = 0;
+		while( alg.hasNext() ) {
+			alg.next();
+			total++;
+		}
+		assertTrue(total <= alg.lookAhead);
+		alg.close();
+	}
+
+	@Test
+	void reset() {
+		var alg = new PrefetchFileImageSequence<>(ImageType.single(GrayF32.class), imagePath, "png");
+		GrayF32 first = alg.next().clone();
+		alg.next();
+		alg.reset();
+
+		GrayF32 found = alg.next();
+		assertEquals(0, alg.getFrameNumber());
+		BoofTesting.assertEquals(first, found, 0);
+		alg.close();
+	}
+
+	@Test
+	void indexOfScheduled() {
+		var alg = new PrefetchFileImageSequence<>(ImageType.single(GrayF32.class), List.of("a","b","c"), 1, 1, 0);
+		alg.close();
+
+		assertEquals(2, alg.indexOfScheduled(2));
+		assertEquals(-1, alg.indexOfScheduled(3));
+		alg.loop = true;
+		assertEquals(1, alg.indexOfScheduled(3));
+		assertEquals(0, alg.indexOfScheduled(4));
+		assertEquals(1, alg.indexOfScheduled(5));
+	}
+}
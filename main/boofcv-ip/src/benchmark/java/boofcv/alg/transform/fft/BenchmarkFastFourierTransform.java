@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,6 +19,7 @@
 package boofcv.alg.transform.fft;
 
 import boofcv.abst.transform.fft.DiscreteFourierTransform;
+import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F32;
 import boofcv.alg.misc.ImageMiscOps;
 import boofcv.misc.PerformerBase;
 import boofcv.misc.ProfileOperation;
@@ -43,13 +44,24 @@ public class BenchmarkFastFourierTransform {
 
 	public static class ComputeFFT extends PerformerBase {
 
-		DiscreteFourierTransform dft = DiscreteFourierTransformOps.createTransformF32();
+		DiscreteFourierTransform<GrayF32,InterleavedF32> dft;
+		String name;
+
+		public ComputeFFT( boolean concurrent ) {
+			dft = new GeneralFft_to_DiscreteFourierTransform_F32(concurrent);
+			name = concurrent ? "ComputeFFT_MT" : "ComputeFFT";
+		}
 
 		@Override
 		public void process() {
 			dft.forward(input,fourier);
 			dft.inverse(fourier,output);
 		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
 	}
 
 	public static void main( String args[] ) {
@@ -60,6 +72,7 @@ public class BenchmarkFastFourierTransform {
 		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
 		System.out.println();
 
-		ProfileOperation.printOpsPerSec(new ComputeFFT(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new ComputeFFT(false), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new ComputeFFT(true), TEST_TIME);
 	}
 }
@@ -49,6 +49,7 @@ public class BenchmarkImagePyramids {
 	static double scalesF[] = new double[]{1,2,4,8};
 
 	static PyramidDiscrete<GrayF32> pyramidD;
+	static PyramidDiscrete<GrayF32> pyramidD_MT;
 	static PyramidFloat<GrayF32> pyramidF;
 
 	static Class<GrayF32> imageType = GrayF32.class;
@@ -69,9 +70,18 @@ public class BenchmarkImagePyramids {
 		}
 	}
 
+	public static class Discrete_MT_F32 extends PerformerBase {
+
+		@Override
+		public void process() {
+			pyramidD_MT.process(input);
+		}
+	}
+
 	private static void createUpdate() {
 		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,-1.0,2);
 		pyramidD = new PyramidDiscreteSampleBlur<>(kernel,2, ImageType.single(GrayF32.class),true,configD);
+		pyramidD_MT = new PyramidDiscreteSampleBlur_MT<>(kernel,2, ImageType.single(GrayF32.class),true,configD);
 
 		pyramidF = FactoryPyramid.scaleSpacePyramid(scalesF, GrayF32.class);
 
@@ -88,5 +98,6 @@ public class BenchmarkImagePyramids {
 
 		ProfileOperation.printOpsPerSec(new Float_F32(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new Discrete_F32(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Discrete_MT_F32(), TEST_TIME);
 	}
 }
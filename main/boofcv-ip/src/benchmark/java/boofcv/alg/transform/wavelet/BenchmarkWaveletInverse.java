@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,7 +19,10 @@
 package boofcv.alg.transform.wavelet;
 
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.wavelet.impl.ImplWaveletTransformInner;
+import boofcv.alg.transform.wavelet.impl.ImplWaveletTransformInner_MT;
 import boofcv.alg.transform.wavelet.impl.ImplWaveletTransformNaive;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.transform.wavelet.FactoryWaveletDaub;
 import boofcv.misc.PerformerBase;
 import boofcv.misc.ProfileOperation;
@@ -86,6 +89,49 @@ public class BenchmarkWaveletInverse {
 	}
 
 
+	public static class Inner_F32 extends PerformerBase {
+
+		@Override
+		public void process() {
+			ImplWaveletTransformInner.verticalInverse(desc_F32.getInverse().getInnerCoefficients(), tran_F32, temp1_F32);
+			ImplWaveletTransformInner.horizontalInverse(desc_F32.getInverse().getInnerCoefficients(), temp1_F32, temp2_F32);
+		}
+	}
+
+	public static class Inner_F32_MT extends PerformerBase {
+
+		@Override
+		public void process() {
+			ImplWaveletTransformInner_MT.verticalInverse(desc_F32.getInverse().getInnerCoefficients(), tran_F32, temp1_F32);
+			ImplWaveletTransformInner_MT.horizontalInverse(desc_F32.getInverse().getInnerCoefficients(), temp1_F32, temp2_F32);
+		}
+	}
+
+	public static class FullLevel3_F32 extends PerformerBase {
+
+		GrayF32 copy = new GrayF32(imgWidth,imgHeight);
+		GrayF32 output = new GrayF32(imgWidth,imgHeight);
+		GrayF32 storage = new GrayF32(imgWidth,imgHeight);
+		boolean concurrent;
+
+		public FullLevel3_F32( boolean concurrent ) {
+			this.concurrent = concurrent;
+		}
+
+		@Override
+		public void process() {
+			// don't modify the input image
+			copy.setTo(tran_F32);
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			WaveletTransformOps.inverseN(desc_F32,copy,output,storage,3,0,255);
+		}
+
+		@Override
+		public String getName() {
+			return concurrent ? "FullLevel3_F32_MT" : "FullLevel3_F32";
+		}
+	}
+
 	public static void main(String args[]) {
 
 		Random rand = new Random(234);
@@ -95,6 +141,10 @@ public class BenchmarkWaveletInverse {
 		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
 		System.out.println();
 
+		ProfileOperation.printOpsPerSec(new FullLevel3_F32(false), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new FullLevel3_F32(true), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Inner_F32(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Inner_F32_MT(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new Naive_F32(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new Standard_F32(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new Naive_I32(), TEST_TIME);
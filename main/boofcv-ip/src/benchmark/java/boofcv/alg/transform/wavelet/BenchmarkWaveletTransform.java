@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,7 +19,10 @@
 package boofcv.alg.transform.wavelet;
 
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.wavelet.impl.ImplWaveletTransformInner;
+import boofcv.alg.transform.wavelet.impl.ImplWaveletTransformInner_MT;
 import boofcv.alg.transform.wavelet.impl.ImplWaveletTransformNaive;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.transform.wavelet.FactoryWaveletDaub;
 import boofcv.misc.PerformerBase;
 import boofcv.misc.ProfileOperation;
@@ -86,13 +89,34 @@ public class BenchmarkWaveletTransform {
 		}
 	}
 
+	public static class Inner_F32 extends PerformerBase {
+
+		@Override
+		public void process() {
+			ImplWaveletTransformInner.horizontal(desc_F32.getForward(),orig_F32,temp1_F32);
+			ImplWaveletTransformInner.vertical(desc_F32.getForward(),temp1_F32,temp2_F32);
+		}
+	}
+
+	public static class Inner_F32_MT extends PerformerBase {
+
+		@Override
+		public void process() {
+			ImplWaveletTransformInner_MT.horizontal(desc_F32.getForward(),orig_F32,temp1_F32);
+			ImplWaveletTransformInner_MT.vertical(desc_F32.getForward(),temp1_F32,temp2_F32);
+		}
+	}
+
 	public static class FullLevel3_F32 extends PerformerBase {
 
 		static GrayF32 copy = new GrayF32(imgWidth,imgHeight);
 		GrayF32 tran;
 		GrayF32 storage;
 
-		public FullLevel3_F32() {
+		boolean concurrent;
+
+		public FullLevel3_F32( boolean concurrent ) {
+			this.concurrent = concurrent;
 			ImageDimension dim = UtilWavelet.transformDimension(copy,3);
 			tran = new GrayF32(dim.width,dim.height);
 			storage = new GrayF32(dim.width,dim.height);
@@ -102,8 +126,14 @@ public class BenchmarkWaveletTransform {
 		public void process() {
 			// don't modify the input image
 			copy.setTo(orig_F32);
+			BoofConcurrency.USE_CONCURRENT = concurrent;
 			WaveletTransformOps.transformN(desc_F32,copy,tran,storage,3);
 		}
+
+		@Override
+		public String getName() {
+			return concurrent ? "FullLevel3_F32_MT" : "FullLevel3_F32";
+		}
 	}
 
 
@@ -116,7 +146,10 @@ public class BenchmarkWaveletTransform {
 		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
 		System.out.println();
 
-		ProfileOperation.printOpsPerSec(new FullLevel3_F32(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new FullLevel3_F32(false), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new FullLevel3_F32(true), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Inner_F32(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Inner_F32_MT(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new Naive_F32(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new Standard_F32(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new Naive_I32(), TEST_TIME);
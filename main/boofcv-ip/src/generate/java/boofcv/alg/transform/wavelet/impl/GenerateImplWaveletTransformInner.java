@@ -55,6 +55,7 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 	private void printPreamble() {
 
 		out.print("import boofcv.alg.transform.wavelet.UtilWavelet;\n" +
+				"//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;\n" +
 				"import boofcv.struct.image.*;\n" +
 				"import boofcv.struct.wavelet.WlCoef_F32;\n" +
 				"import boofcv.struct.wavelet.WlCoef_I32;\n" +
@@ -117,6 +118,7 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 				"\t\tfinal int startX = UtilWavelet.borderForwardLower(coefficients);\n" +
 				"\t\tfinal int endOffsetX = input.width - UtilWavelet.borderForwardUpper(coefficients,input.width) - startX;\n" +
 				"\n" +
+				"\t\t//CONCURRENT_BELOW BoofConcurrency.loopFor(0,height,y->{\n" +
 				"\t\tfor( int y = 0; y < height; y++ ) {\n" +
 				"\n" +
 				"\t\t\tint indexIn = input.startIndex + input.stride*y + startX;\n" +
@@ -146,6 +148,7 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 				"\t\t\t\tdataOut[ indexOut++ ] = "+outputCast+"scale;\n" +
 				"\t\t\t}\n" +
 				"\t\t}\n" +
+				"\t\t//CONCURRENT_ABOVE });\n" +
 				"\t}\n\n");
 	}
 
@@ -166,10 +169,12 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 				"\t\tfinal int startY = UtilWavelet.borderForwardLower(coefficients);\n" +
 				"\t\tfinal int endY = input.height - UtilWavelet.borderForwardUpper(coefficients,input.width);\n" +
 				"\n" +
-				"\t\tfor( int y = startY; y < endY; y += 2 ) {\n" +
+				"\t\t//CONCURRENT_BELOW BoofConcurrency.loopFor(startY/2,(endY+1)/2,yOut->{\n" +
+				"\t\tfor( int yOut = startY/2; yOut < (endY+1)/2; yOut++ ) {\n" +
+				"\t\t\tint y = yOut*2;\n" +
 				"\n" +
 				"\t\t\tint indexIn = input.startIndex + input.stride*y;\n" +
-				"\t\t\tint indexOut = output.startIndex + output.stride*(y/2);\n" +
+				"\t\t\tint indexOut = output.startIndex + output.stride*yOut;\n" +
 				"\n" +
 				"\t\t\tfor( int x = 0; x < width; x++, indexIn++) {\n" +
 				"\n" +
@@ -196,6 +201,7 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 				"\n" +
 				"\t\t\t}\n" +
 				"\t\t}\n" +
+				"\t\t//CONCURRENT_ABOVE });\n" +
 				"\t}\n\n");
 	}
 
@@ -207,9 +213,6 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 				"\t\tfinal "+sumType+"[] alpha = coefficients.scaling;\n" +
 				"\t\tfinal "+sumType+"[] beta = coefficients.wavelet;\n" +
 				"\n" +
-				"\t\t"+sumType+" []trends = new "+sumType+"[ output.width ];\n" +
-				"\t\t"+sumType+" []details = new "+sumType+"[ output.width ];\n" +
-				"\n" +
 				"\t\tfinal int width = input.width;\n" +
 				"\t\tfinal int height = output.height;\n" +
 				"\t\tfinal int widthD2 = width/2;\n" +
@@ -224,7 +227,11 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 					"\n");
 		}
 
-		out.print("\t\tfor( int y = 0; y < height; y++ ) {\n" +
+		out.print("\t\t//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0,height,(y0,y1)->{\n" +
+				"\t\tfinal int y0 = 0, y1 = height;\n" +
+				"\t\t"+sumType+" []trends = new "+sumType+"[ output.width ];\n" +
+				"\t\t"+sumType+" []details = new "+sumType+"[ output.width ];\n" +
+				"\t\tfor( int y = y0; y < y1; y++ ) {\n" +
 				"\n" +
 				"\t\t\t// initialize details and trends arrays\n" +
 				"\t\t\tint indexSrc = input.startIndex + y*input.stride+lowerBorder/2;\n" +
@@ -274,6 +281,7 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 
 		out.print("\t\t\t}\n" +
 				"\t\t}\n" +
+				"\t\t//CONCURRENT_INLINE });\n" +
 				"\t}\n\n");
 	}
 
@@ -285,9 +293,6 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 				"\t\tfinal "+sumType+"[] alpha = coefficients.scaling;\n" +
 				"\t\tfinal "+sumType+"[] beta = coefficients.wavelet;\n" +
 				"\n" +
-				"\t\t"+sumType+" []trends = new "+sumType+"[ output.height ];\n" +
-				"\t\t"+sumType+" []details = new "+sumType+"[ output.height ];\n" +
-				"\n" +
 				"\t\tfinal int width = output.width;\n" +
 				"\t\tfinal int height = input.height;\n" +
 				"\t\tfinal int heightD2 = (height/2)*input.stride;\n" +
@@ -302,7 +307,11 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 					"\t\tfinal int ef2 = ef/2;\n" +
 					"\n");
 		}
-		out.print("\t\tfor( int x = 0; x < width; x++) {\n" +
+		out.print("\t\t//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0,width,(x0,x1)->{\n" +
+				"\t\tfinal int x0 = 0, x1 = width;\n" +
+				"\t\t"+sumType+" []trends = new "+sumType+"[ output.height ];\n" +
+				"\t\t"+sumType+" []details = new "+sumType+"[ output.height ];\n" +
+				"\t\tfor( int x = x0; x < x1; x++) {\n" +
 				"\n" +
 				"\t\t\tint indexSrc = input.startIndex + (lowerBorder/2)*input.stride + x;\n" +
 				"\t\t\tfor( int y = lowerBorder; y < upperBorder; y += 2 , indexSrc += input.stride ) {\n" +
@@ -350,6 +359,7 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 		}
 		out.print("\t\t\t}\n" +
 				"\t\t}\n" +
+				"\t\t//CONCURRENT_INLINE });\n" +
 				"\t}\n\n");
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,12 +20,19 @@ package boofcv.abst.transform.fft;
 
 import boofcv.alg.transform.fft.DiscreteFourierTransformOps;
 import boofcv.alg.transform.fft.GeneralPurposeFFT_F64_2D;
+import boofcv.alg.transform.fft.GeneralPurposeFFT_F64_2D_MT;
 import boofcv.struct.image.GrayF64;
 import boofcv.struct.image.InterleavedF64;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Wrapper around {@link GeneralPurposeFFT_F64_2D} which implements {@link DiscreteFourierTransform}
  *
+ * <p>Declaring the transform for a new image shape requires computing lookup tables. If the image shape changes
+ * often then set {@link #setMaxCachedPlans(int)} and previously declared transforms will be reused.</p>
+ *
  * @author Peter Abeles
  */
 public class GeneralFft_to_DiscreteFourierTransform_F64
@@ -38,12 +45,39 @@ public class GeneralFft_to_DiscreteFourierTransform_F64
 	// performs the FFT
 	private GeneralPurposeFFT_F64_2D alg;
 
+	// if true then the concurrent implementation of the FFT is used
+	private final boolean concurrent;
+
+	// maximum number of transforms that are saved for reuse. if 0 then nothing is saved
+	private int maxCachedPlans = 0;
+
+	// previously declared transforms. key = (height << 32) | width. Least recently used is discarded first
+	private final Map<Long,GeneralPurposeFFT_F64_2D> plans = new LinkedHashMap<>(16,0.75f,true) {
+		@Override
+		protected boolean removeEldestEntry( Map.Entry<Long,GeneralPurposeFFT_F64_2D> eldest ) {
+			return size() > maxCachedPlans;
+		}
+	};
+
 	// storage for temporary results
 	private InterleavedF64 tmp = new InterleavedF64(1,1,2);
 
 	// if true then it can modify the input images
 	private boolean modifyInputs = false;
 
+	/**
+	 * Configures the transform
+	 *
+	 * @param concurrent If true then the concurrent implementation is used
+	 */
+	public GeneralFft_to_DiscreteFourierTransform_F64( boolean concurrent ) {
+		this.concurrent = concurrent;
+	}
+
+	public GeneralFft_to_DiscreteFourierTransform_F64() {
+		this(false);
+	}
+
 	@Override
 	public void forward(GrayF64 image, InterleavedF64 transform ) {
 		DiscreteFourierTransformOps.checkImageArguments(image,transform);
@@ -93,10 +127,37 @@ public class GeneralFft_to_DiscreteFourierTransform_F64
 		if( prevWidth != image.width || prevHeight != image.height ) {
 			prevWidth = image.width;
 			prevHeight = image.height;
-			alg = new GeneralPurposeFFT_F64_2D(image.height,image.width);
+			if( maxCachedPlans <= 0 ) {
+				alg = createAlg(image.height,image.width);
+			} else {
+				long key = ((long)image.height << 32) | image.width;
+				alg = plans.computeIfAbsent(key,k->createAlg(image.height,image.width));
+			}
 		}
 	}
 
+	private GeneralPurposeFFT_F64_2D createAlg( int rows , int columns ) {
+		if( concurrent )
+			return new GeneralPurposeFFT_F64_2D_MT(rows,columns);
+		else
+			return new GeneralPurposeFFT_F64_2D(rows,columns);
+	}
+
+	/**
+	 * Specifies the maximum number of transforms which are saved and reused when the image shape changes.
+	 * Any previously saved transforms are discarded.
+	 *
+	 * @param maxCachedPlans Maximum number of saved transforms. If &le; 0 then nothing is saved.
+	 */
+	public void setMaxCachedPlans( int maxCachedPlans ) {
+		this.maxCachedPlans = maxCachedPlans;
+		this.plans.clear();
+	}
+
+	public int getMaxCachedPlans() {
+		return maxCachedPlans;
+	}
+
 	@Override
 	public void setModifyInputs(boolean modify) {
 		this.modifyInputs = modify;
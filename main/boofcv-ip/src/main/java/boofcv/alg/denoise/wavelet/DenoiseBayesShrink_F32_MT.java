@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.denoise.wavelet;
+
+import boofcv.alg.denoise.ShrinkThresholdRule;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link DenoiseBayesShrink_F32}. Each subband is processed in its own thread.
+ *
+ * @author Peter Abeles
+ */
+public class DenoiseBayesShrink_F32_MT extends DenoiseBayesShrink_F32 {
+
+	public DenoiseBayesShrink_F32_MT( ShrinkThresholdRule<GrayF32> rule ) {
+		super(rule);
+	}
+
+	@Override
+	protected void shrinkSubbands( List<GrayF32> subbands ) {
+		BoofConcurrency.loopFor(0,subbands.size(),i->{
+			GrayF32 subband = subbands.get(i);
+			rule.process(subband,computeThreshold(subband));
+		});
+	}
+}
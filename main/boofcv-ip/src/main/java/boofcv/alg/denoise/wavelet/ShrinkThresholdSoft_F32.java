@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,7 @@ package boofcv.alg.denoise.wavelet;
 
 import boofcv.alg.denoise.ShrinkThresholdRule;
 import boofcv.alg.misc.ImageMiscOps;
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 
 
@@ -42,6 +43,7 @@ public class ShrinkThresholdSoft_F32 implements ShrinkThresholdRule<GrayF32> {
 			return;
 		}
 
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0,image.height,y->{
 		for( int y = 0; y < image.height; y++ ) {
 			int index = image.startIndex + y*image.stride;
 		    int end = index + image.width;
@@ -57,5 +59,6 @@ public class ShrinkThresholdSoft_F32 implements ShrinkThresholdRule<GrayF32> {
 				}
 			}
 		}
+		//CONCURRENT_ABOVE });
 	}
 }
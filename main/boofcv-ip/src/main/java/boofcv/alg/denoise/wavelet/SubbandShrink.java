@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -22,6 +22,9 @@ import boofcv.alg.denoise.DenoiseWavelet;
 import boofcv.alg.denoise.ShrinkThresholdRule;
 import boofcv.struct.image.ImageGray;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 /**
  * Performs an adaptive threshold based wavelet shrinkage across each of the wavelet subbands in each
@@ -34,6 +37,9 @@ public abstract class SubbandShrink<I extends ImageGray<I>> implements DenoiseWa
 	// specifies how the threshold is applied to each pixel in the image
 	protected ShrinkThresholdRule<I> rule;
 
+	// storage for the subbands in all the levels
+	protected List<I> subbands = new ArrayList<>();
+
 	protected SubbandShrink(ShrinkThresholdRule<I> rule) {
 		this.rule = rule;
 	}
@@ -55,38 +61,35 @@ public abstract class SubbandShrink<I extends ImageGray<I>> implements DenoiseWa
 	 */
 	protected void performShrinkage( I transform , int numLevels ) {
 
-		// step through each layer in the pyramid.
+		subbands.clear();
+
+		// step through each layer in the pyramid and collect the HL, LH, and HH subbands
 		for( int i = 0; i < numLevels; i++ ) {
 			int w = transform.width;
 			int h = transform.height;
 			int ww = w/2;
 			int hh = h/2;
-			Number threshold;
-			I subband;
-
-			// HL
-			subband = transform.subimage(ww,0,w,hh, null);
-			threshold = computeThreshold(subband);
-			rule.process(subband,threshold);
-
-//			System.out.print("HL = "+threshold);
-
-			// LH
-			subband = transform.subimage(0,hh,ww,h, null);
-			threshold = computeThreshold(subband);
-			rule.process(subband,threshold);
-
-//			System.out.print("  LH = "+threshold);
 
-			// HH
-			subband = transform.subimage(ww,hh,w,h, null);
-			threshold = computeThreshold(subband);
-			rule.process(subband,threshold);
-
-//			System.out.println("  HH = "+threshold);
+			subbands.add(transform.subimage(ww,0,w,hh, null));  // HL
+			subbands.add(transform.subimage(0,hh,ww,h, null));  // LH
+			subbands.add(transform.subimage(ww,hh,w,h, null));  // HH
 
 			transform = transform.subimage(0,0,ww,hh, null);
 		}
 
+		shrinkSubbands(subbands);
+	}
+
+	/**
+	 * Computes the threshold for each subband and applies the shrinkage rule to it. Subbands
+	 * do not overlap so they can be processed independently.
+	 *
+	 * @param subbands List of all the subbands being shrunk
+	 */
+	protected void shrinkSubbands( List<I> subbands ) {
+		for( int i = 0; i < subbands.size(); i++ ) {
+			I subband = subbands.get(i);
+			rule.process(subband,computeThreshold(subband));
+		}
 	}
 }
@@ -29,6 +29,10 @@ import georegression.struct.point.Point2D_F32;
  * To overcome this problem the distortion is computed once and cached.  Then when the image is distorted
  * again the save results are simply recalled and not computed again.
  *
+ * If the model is a {@link PixelTransformMap_F32} with the same shape as the output image then it's used
+ * directly as the cache. This allows a single precomputed map, possibly loaded from disk, to be shared
+ * between multiple instances.
+ *
  * @author Peter Abeles
  */
 public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends ImageGray<Output>>
@@ -36,9 +40,10 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 
 	protected AssignPixelValue_SB<Output> assigner;
 
-	// size of output image
-	protected int width=-1,height=-1;
-	protected Point2D_F32 map[];
+	// storage for the cached transform when it's computed internally
+	protected final PixelTransformMap_F32 workMap = new PixelTransformMap_F32();
+	// the cached transform which is being used
+	protected PixelTransformMap_F32 map = workMap;
 	// sub pixel interpolation
 	protected InterpolatePixelS<Input> interp;
 
@@ -114,23 +119,18 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 	}
 
 	protected void init(Input srcImg, Output dstImg) {
-		if( dirty || width != dstImg.width || height != dstImg.height) {
-			width = dstImg.width;
-			height = dstImg.height;
-			map = new Point2D_F32[width*height];
-			for( int i = 0; i < map.length; i++ ) {
-				map[i] = new Point2D_F32();
-			}
-
-			int index = 0;
-			for( int y = 0; y < height; y++ ) {
-				for( int x = 0; x < width; x++ ) {
-					dstToSrc.compute(x,y,map[index++]);
-				}
+		if( dirty || map.width != dstImg.width || map.height != dstImg.height) {
+			if( dstToSrc instanceof PixelTransformMap_F32 ) {
+				map = (PixelTransformMap_F32)dstToSrc;
+				if( map.width != dstImg.width || map.height != dstImg.height )
+					throw new IllegalArgumentException("Precomputed map doesn't match dstImg dimension");
+			} else {
+				map = workMap;
+				map.reshape(dstImg.width, dstImg.height);
+				computeMap();
 			}
 			dirty = false;
-		} else if( dstImg.width != width || dstImg.height != height )
-			throw new IllegalArgumentException("Unexpected dstImg dimension");
+		}
 
 		this.srcImg = srcImg;
 		this.dstImg = dstImg;
@@ -138,16 +138,24 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 		assigner.setImage(dstImg);
 	}
 
+	/**
+	 * Computes the transform for every pixel in the output image
+	 */
+	protected void computeMap() {
+		map.compute(dstToSrc);
+	}
+
 	protected void renderAll() {
 
 		// todo TO make this faster first apply inside the region which can process the fast border
 		// then do the slower border thingy
 		for( int y = y0; y < y1; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
-			for( int x = x0; x < x1; x++ , indexDst++ ) {
-				Point2D_F32 s = map[indexDst];
+			int indexMap = (y*map.width + x0)*2;
+			for( int x = x0; x < x1; x++ , indexDst++ , indexMap += 2 ) {
+				float sx = map.data[indexMap], sy = map.data[indexMap+1];
 
-				assigner.assign(indexDst,interp.get(s.x, s.y));
+				assigner.assign(indexDst,interp.get(sx, sy));
 			}
 		}
 	}
@@ -159,13 +167,14 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 
 		for( int y = y0; y < y1; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
+			int indexMap = (y*map.width + x0)*2;
 			int indexMsk = mask.startIndex + mask.stride*y + x0;
 
-			for( int x = x0; x < x1; x++ , indexDst++ , indexMsk++ ) {
-				Point2D_F32 s = map[indexDst];
+			for( int x = x0; x < x1; x++ , indexDst++ , indexMsk++ , indexMap += 2 ) {
+				float sx = map.data[indexMap], sy = map.data[indexMap+1];
 
-				assigner.assign(indexDst,interp.get(s.x, s.y));
-				if( s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight ) {
+				assigner.assign(indexDst,interp.get(sx, sy));
+				if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
 					mask.data[indexMsk] = 1;
 				} else {
 					mask.data[indexMsk] = 0;
@@ -180,11 +189,12 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 
 		for( int y = y0; y < y1; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
-			for( int x = x0; x < x1; x++ , indexDst++ ) {
-				Point2D_F32 s = map[indexDst];
+			int indexMap = (y*map.width + x0)*2;
+			for( int x = x0; x < x1; x++ , indexDst++ , indexMap += 2 ) {
+				float sx = map.data[indexMap], sy = map.data[indexMap+1];
 
-				if( s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight ) {
-					assigner.assign(indexDst,interp.get(s.x, s.y));
+				if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
+					assigner.assign(indexDst,interp.get(sx, sy));
 				}
 			}
 		}
@@ -196,13 +206,14 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 
 		for( int y = y0; y < y1; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
+			int indexMap = (y*map.width + x0)*2;
 			int indexMsk = mask.startIndex + mask.stride*y + x0;
 
-			for( int x = x0; x < x1; x++ , indexDst++ , indexMsk++ ) {
-				Point2D_F32 s = map[indexDst];
+			for( int x = x0; x < x1; x++ , indexDst++ , indexMsk++ , indexMap += 2 ) {
+				float sx = map.data[indexMap], sy = map.data[indexMap+1];
 
-				if( s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight ) {
-					assigner.assign(indexDst,interp.get(s.x, s.y));
+				if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
+					assigner.assign(indexDst,interp.get(sx, sy));
 					mask.data[indexMsk] = 1;
 				} else {
 					mask.data[indexMsk] = 0;
@@ -211,7 +222,7 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 		}
 	}
 
-	public Point2D_F32[] getMap() {
+	public PixelTransformMap_F32 getMap() {
 		return map;
 	}
 
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.distort;
+
+import boofcv.struct.distort.PixelTransform;
+import georegression.struct.point.Point2D_F32;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Precomputed transform for every pixel in an image stored in a single interleaved float array, i.e.
+ * (x0,y0,x1,y1,...). Compared to an array of points this uses much less memory and is faster to traverse.
+ * Once computed the map is read only and can be shared between threads and by multiple {@link ImageDistort}.
+ * Can be saved to and loaded from a stream to avoid recomputing an expensive transform.
+ *
+ * @author Peter Abeles
+ */
+public class PixelTransformMap_F32 implements PixelTransform<Point2D_F32>, Serializable {
+	private static final long serialVersionUID = 1L;
+
+	// Used to identify the start of a saved map
+	private static final int MAGIC = 0x50544D46;
+	// Number of floats which are read or written at once
+	private static final int CHUNK = 1 << 14;
+
+	// Shape of the image the transform was computed for
+	int width, height;
+	// The transformed pixel coordinates. x and y interleaved
+	float[] data = new float[0];
+
+	/**
+	 * Creates a map for an image with the specified shape
+	 */
+	public PixelTransformMap_F32( int width, int height ) {
+		reshape(width,height);
+	}
+
+	public PixelTransformMap_F32() {
+	}
+
+	/**
+	 * Changes the shape. The array is only declared again if it needs to grow.
+	 */
+	public void reshape( int width , int height ) {
+		this.width = width;
+		this.height = height;
+		if( data.length < width*height*2 )
+			data = new float[width*height*2];
+	}
+
+	/**
+	 * Computes the transform for every pixel in the image
+	 */
+	public void compute( PixelTransform<Point2D_F32> transform ) {
+		computeRows(transform,0,height);
+	}
+
+	/**
+	 * Computes the transform for every pixel inside the range of rows
+	 *
+	 * @param transform The transform. Must not be used by another thread.
+	 * @param y0 First row, inclusive
+	 * @param y1 Last row, exclusive
+	 */
+	public void computeRows( PixelTransform<Point2D_F32> transform , int y0 , int y1 ) {
+		Point2D_F32 p = new Point2D_F32();
+		for (int y = y0; y < y1; y++) {
+			int index = y*width*2;
+			for (int x = 0; x < width; x++) {
+				transform.compute(x,y,p);
+				data[index++] = p.x;
+				data[index++] = p.y;
+			}
+		}
+	}
+
+	@Override
+	public void compute( int x, int y, Point2D_F32 output ) {
+		int index = (y*width + x)*2;
+		output.x = data[index];
+		output.y = data[index+1];
+	}
+
+	/**
+	 * The map is never modified while being used so the same instance is returned
+	 */
+	@Override
+	public PixelTransform<Point2D_F32> copyConcurrent() {
+		return this;
+	}
+
+	/**
+	 * Saves the map in a binary format
+	 */
+	public void save( OutputStream output ) throws IOException {
+		var header = new DataOutputStream(output);
+		header.writeInt(MAGIC);
+		header.writeInt(width);
+		header.writeInt(height);
+
+		ByteBuffer buffer = ByteBuffer.allocate(CHUNK*4).order(ByteOrder.LITTLE_ENDIAN);
+		int length = width*height*2;
+		for (int start = 0; start < length; start += CHUNK) {
+			int count = Math.min(CHUNK,length-start);
+			buffer.clear();
+			buffer.asFloatBuffer().put(data,start,count);
+			header.write(buffer.array(),0,count*4);
+		}
+		header.flush();
+	}
+
+	/**
+	 * Loads a map which was saved using {@link #save}
+	 */
+	public static PixelTransformMap_F32 load( InputStream input ) throws IOException {
+		var header = new DataInputStream(input);
+		if( header.readInt() != MAGIC )
+			throw new IOException("Not a saved pixel transform map");
+		int width = header.readInt();
+		int height = header.readInt();
+		if( width < 0 || height < 0 )
+			throw new IOException("Invalid shape "+width+"x"+height);
+
+		var ret = new PixelTransformMap_F32(width,height);
+		byte[] bytes = new byte[CHUNK*4];
+		ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		int length = width*height*2;
+		for (int start = 0; start < length; start += CHUNK) {
+			int count = Math.min(CHUNK,length-start);
+			header.readFully(bytes,0,count*4);
+			buffer.clear();
+			buffer.asFloatBuffer().get(ret.data,start,count);
+		}
+		return ret;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the internal array. x and y are interleaved and row major.
+	 */
+	public float[] getData() {
+		return data;
+	}
+}
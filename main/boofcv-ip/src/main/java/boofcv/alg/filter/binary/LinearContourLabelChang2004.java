@@ -69,11 +69,11 @@ public class LinearContourLabelChang2004 {
 	private ContourTracer tracer;
 
 	// binary image with a border of zero.
-	private GrayU8 border = new GrayU8(1,1);
+	protected GrayU8 border = new GrayU8(1,1);
 
 	// predeclared/recycled data structures
 	PackedSetsPoint2D_I32 packedPoints = new PackedSetsPoint2D_I32(2000);
-	private FastQueue<ContourPacked> contours = new FastQueue<>(ContourPacked::new);
+	protected FastQueue<ContourPacked> contours = new FastQueue<>(ContourPacked::new);
 
 	// internal book keeping variables
 	private int x,y,indexIn,indexOut;
@@ -97,12 +97,7 @@ public class LinearContourLabelChang2004 {
 		// initialize data structures
 		labeled.reshape(binary.width,binary.height);
 
-		// ensure that the image border pixels are filled with zero by enlarging the image
-		if( border.width != binary.width+2 || border.height != binary.height+2)  {
-			border.reshape(binary.width + 2, binary.height + 2);
-			ImageMiscOps.fillBorder(border, 0, 1);
-		}
-		border.subimage(1,1,border.width-1,border.height-1, null).setTo(binary);
+		copyIntoBorder(binary);
 
 		// labeled image must initially be filled with zeros
 		ImageMiscOps.fill(labeled,0);
@@ -151,6 +146,18 @@ public class LinearContourLabelChang2004 {
 		}
 	}
 
+	/**
+	 * Copies the binary image into the inner portion of {@link #border}, ensuring that the image border
+	 * pixels are filled with zero.
+	 */
+	protected void copyIntoBorder( GrayU8 binary ) {
+		if( border.width != binary.width+2 || border.height != binary.height+2)  {
+			border.reshape(binary.width + 2, binary.height + 2);
+			ImageMiscOps.fillBorder(border, 0, 1);
+		}
+		border.subimage(1,1,border.width-1,border.height-1, null).setTo(binary);
+	}
+
 	/**
 	 * Faster when there's a specialized function which searches for one pixels
 	 */
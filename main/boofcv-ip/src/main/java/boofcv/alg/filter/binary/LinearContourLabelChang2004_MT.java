@@ -0,0 +1,438 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.PackedSetsPoint2D_I32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Concurrent version of {@link LinearContourLabelChang2004}. The output is identical to the single threaded
+ * version, including blob IDs and the order contours are saved in {@link #getPackedPoints()}.
+ * </p>
+ *
+ * <p>
+ * Processing is done in three steps. 1) The image is broken up into horizontal strips which are labeled
+ * concurrently using union-find. Strips are then connected by merging labels across their boundaries. Each
+ * blob's root is its first pixel in raster order, which is also the order the blobs are encountered in the
+ * single threaded algorithm. 2) Each blob's contours are traced concurrently. The external contour is traced
+ * in the shared image and internal contours are traced in a local copy of the blob's bounding box. 3) Contours
+ * are copied into the output in the order the single threaded algorithm would have encountered them.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearContourLabelChang2004_MT extends LinearContourLabelChang2004 {
+
+	// Number of horizontal strips the image is split into. If &le; 0 then it's the number of threads
+	int numberOfStrips = 0;
+
+	// Union-find forest for each pixel. -1 = background. While labeling a root points to itself
+	// and once labels are assigned a root stores -(label+1)
+	int[] parent = new int[0];
+	// number of blobs in each strip
+	GrowQueue_I32 stripRoots = new GrowQueue_I32();
+	// index of the first pixel in each blob
+	GrowQueue_I32 firstPixel = new GrowQueue_I32();
+
+	// Workspace for tracing contours in each thread
+	FastQueue<Worker> workers = new FastQueue<>(Worker::new);
+
+	// Used to sort contours into the order they were encountered in. (encounter order << 31) | contour
+	long[] sortKeys = new long[0];
+	// look up table from contour to worker and set inside the worker
+	GrowQueue_I32 setWorker = new GrowQueue_I32();
+	GrowQueue_I32 setLocal = new GrowQueue_I32();
+
+	/**
+	 * Configures the algorithm.
+	 *
+	 * @param rule Connectivity rule.  4 or 8
+	 */
+	public LinearContourLabelChang2004_MT( ConnectRule rule ) {
+		super(rule);
+	}
+
+	@Override
+	public void process(GrayU8 binary , GrayS32 labeled ) {
+		labeled.reshape(binary.width,binary.height);
+		copyIntoBorder(binary);
+		packedPoints.reset();
+		contours.reset();
+
+		if( binary.width == 0 || binary.height == 0 )
+			return;
+
+		int numBlobs = labelBlobs(binary,labeled);
+		if( numBlobs == 0 )
+			return;
+
+		BoofConcurrency.loopBlocks(1,numBlobs+1,workers,(worker,label0,label1)->{
+			worker.reset(getConnectRule());
+			for (int label = label0; label < label1; label++) {
+				traceBlob(worker,labeled,label);
+			}
+		});
+
+		mergeContours(numBlobs);
+	}
+
+	/**
+	 * Labels all the blobs in the image and records the first pixel in each blob.
+	 *
+	 * @return number of blobs
+	 */
+	int labelBlobs( GrayU8 binary , GrayS32 labeled ) {
+		final int width = binary.width;
+		final int height = binary.height;
+
+		int N = width*height;
+		if( parent.length < N )
+			parent = new int[N];
+
+		int numStrips = numberOfStrips > 0 ? numberOfStrips : BoofConcurrency.getMaxThreads();
+		final int strips = Math.max(1,Math.min(numStrips,height));
+		stripRoots.resize(strips);
+
+		// label each strip independently
+		BoofConcurrency.loopFor(0,strips,strip->
+				labelStrip(binary,strip*height/strips,(strip+1)*height/strips));
+
+		// connect blobs which cross strip boundaries
+		for (int strip = 1; strip < strips; strip++) {
+			mergeBoundary(width,strip*height/strips);
+		}
+
+		// Assign labels to roots in raster order. That's the same order as the single threaded algorithm
+		BoofConcurrency.loopFor(0,strips,strip->
+				stripRoots.data[strip] = countRoots(width*(strip*height/strips),width*((strip+1)*height/strips)));
+
+		int total = 0;
+		for (int strip = 0; strip < strips; strip++) {
+			int count = stripRoots.data[strip];
+			stripRoots.data[strip] = total;
+			total += count;
+		}
+		firstPixel.resize(total);
+
+		BoofConcurrency.loopFor(0,strips,strip->
+				labelRoots(width*(strip*height/strips),width*((strip+1)*height/strips),stripRoots.data[strip]));
+
+		// every other pixel is assigned the label of its root
+		BoofConcurrency.loopFor(0,strips,strip->
+				labelPixels(labeled,strip*height/strips,(strip+1)*height/strips));
+
+		return total;
+	}
+
+	/**
+	 * Union-find on pixels inside the strip. Only pixels inside the strip are modified.
+	 */
+	void labelStrip( GrayU8 binary , int y0 , int y1 ) {
+		final int width = binary.width;
+		final boolean eight = getConnectRule() == ConnectRule.EIGHT;
+
+		for (int y = y0; y < y1; y++) {
+			int indexIn = binary.startIndex + y*binary.stride;
+			int index = y*width;
+			for (int x = 0; x < width; x++, indexIn++, index++) {
+				if( binary.data[indexIn] != 1 ) {
+					parent[index] = -1;
+					continue;
+				}
+				parent[index] = index;
+
+				if( x > 0 && parent[index-1] != -1 )
+					union(index,index-1);
+				if( y > y0 ) {
+					int above = index-width;
+					if( parent[above] != -1 )
+						union(index,above);
+					if( eight ) {
+						if( x > 0 && parent[above-1] != -1 )
+							union(index,above-1);
+						if( x < width-1 && parent[above+1] != -1 )
+							union(index,above+1);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Merges blobs in the first row of a strip with the blobs in the last row of the strip above it
+	 */
+	void mergeBoundary( int width , int y ) {
+		final boolean eight = getConnectRule() == ConnectRule.EIGHT;
+
+		int index = y*width;
+		for (int x = 0; x < width; x++, index++) {
+			if( parent[index] == -1 )
+				continue;
+			int above = index-width;
+			if( parent[above] != -1 )
+				union(index,above);
+			if( eight ) {
+				if( x > 0 && parent[above-1] != -1 )
+					union(index,above-1);
+				if( x < width-1 && parent[above+1] != -1 )
+					union(index,above+1);
+			}
+		}
+	}
+
+	/**
+	 * Joins the two trees. The root with the smaller index becomes the new root, ensuring that each blob's root
+	 * is its first pixel in raster order.
+	 */
+	void union( int a , int b ) {
+		a = find(a);
+		b = find(b);
+		if( a == b )
+			return;
+		if( a < b )
+			parent[b] = a;
+		else
+			parent[a] = b;
+	}
+
+	/**
+	 * Finds the root using path halving
+	 */
+	int find( int index ) {
+		while( parent[index] != index ) {
+			parent[index] = parent[parent[index]];
+			index = parent[index];
+		}
+		return index;
+	}
+
+	int countRoots( int index0 , int index1 ) {
+		int total = 0;
+		for (int index = index0; index < index1; index++) {
+			if( parent[index] == index )
+				total++;
+		}
+		return total;
+	}
+
+	/**
+	 * Assigns a label to each root. The label is saved inside the root using -(label+1)
+	 */
+	void labelRoots( int index0 , int index1 , int labelOffset ) {
+		int label = labelOffset;
+		for (int index = index0; index < index1; index++) {
+			if( parent[index] == index ) {
+				firstPixel.data[label++] = index;
+				parent[index] = -(label+1);
+			}
+		}
+	}
+
+	void labelPixels( GrayS32 labeled , int y0 , int y1 ) {
+		final int width = labeled.width;
+
+		for (int y = y0; y < y1; y++) {
+			int indexOut = labeled.startIndex + y*labeled.stride;
+			int index = y*width;
+			for (int x = 0; x < width; x++, index++) {
+				int root = index;
+				while( parent[root] >= 0 )
+					root = parent[root];
+				labeled.data[indexOut++] = parent[root] == -1 ? 0 : -(parent[root]+1);
+			}
+		}
+	}
+
+	/**
+	 * Traces the external and internal contours of a single blob
+	 */
+	void traceBlob( Worker worker , GrayS32 labeled , int label ) {
+		final int width = labeled.width;
+		final int first = firstPixel.data[label-1];
+		final int firstX = first%width;
+		final int firstY = first/width;
+
+		// Trace the external contour in the shared image. Other threads will only mark background pixels,
+		// which never changes the path of a trace, and write the same labels
+		ContourTracer tracer = worker.tracer;
+		PackedSetsPoint2D_I32 scratch = worker.scratch;
+		scratch.reset();
+		scratch.grow();
+		tracer.setInputs(border,labeled,scratch);
+		tracer.setMaxContourSize(Integer.MAX_VALUE);
+		tracer.trace(label,firstX+1,firstY+1,true);
+
+		// the external contour contains the blob's bounding box
+		int x0 = width, y0 = Integer.MAX_VALUE, x1 = -1, y1 = -1;
+		worker.iterator.setup(0);
+		while( worker.iterator.hasNext() ) {
+			Point2D_I32 p = worker.iterator.next();
+			x0 = Math.min(x0,p.x); x1 = Math.max(x1,p.x);
+			y0 = Math.min(y0,p.y); y1 = Math.max(y1,p.y);
+		}
+		saveContour(worker,0,0,true);
+		worker.setPixel.add(first*2);
+		worker.setLabel.add(-label);
+
+		// Copy the blob into a local image with a border of zeros so that internal contours can be found
+		// the same way as the single threaded algorithm without interference from other threads
+		int blobWidth = x1-x0+1, blobHeight = y1-y0+1;
+		GrayU8 local = worker.binary;
+		local.reshape(blobWidth+2,blobHeight+2);
+		ImageMiscOps.fill(local,0);
+		for (int y = 0; y < blobHeight; y++) {
+			int indexIn = labeled.startIndex + (y0+y)*labeled.stride + x0;
+			int indexOut = local.startIndex + (y+1)*local.stride + 1;
+			for (int x = 0; x < blobWidth; x++) {
+				local.data[indexOut++] = (byte)(labeled.data[indexIn++] == label ? 1 : 0);
+			}
+		}
+		labeled.subimage(x0,y0,x0+blobWidth,y0+blobHeight,worker.labeled);
+		tracer.setInputs(local,worker.labeled,scratch);
+
+		// mark the background outside of the blob
+		scratch.reset();
+		scratch.grow();
+		tracer.setMaxContourSize(0);
+		tracer.trace(label,firstX-x0+1,firstY-y0+1,true);
+
+		// Step 2: If the pixel below is unmarked and zero then it must be an internal contour
+		final boolean save = isSaveInternalContours();
+		tracer.setMaxContourSize(save ? Integer.MAX_VALUE : 0);
+		final int stride = local.stride;
+		for (int y = 1; y <= blobHeight; y++) {
+			int index = local.startIndex + y*stride + 1;
+			for (int x = 1; x <= blobWidth; x++, index++) {
+				if( local.data[index] != 1 || local.data[index+stride] != 0 )
+					continue;
+				scratch.reset();
+				scratch.grow();
+				tracer.trace(label,x,y,false);
+				saveContour(worker,x0,y0,save);
+				worker.setPixel.add(((y0+y-1)*width + x0+x-1)*2+1);
+				worker.setLabel.add(label);
+			}
+		}
+	}
+
+	/**
+	 * Copies the contour in scratch into the worker's storage. If it's too small or too large then the set
+	 * is left empty, just like in the single threaded algorithm.
+	 */
+	void saveContour( Worker worker , int offsetX , int offsetY , boolean save ) {
+		worker.sets.grow();
+		int length = worker.scratch.sizeOfSet(0);
+		if( !save || length >= getMaxContourSize() || length < getMinContourSize() )
+			return;
+		worker.iterator.setup(0);
+		while( worker.iterator.hasNext() ) {
+			Point2D_I32 p = worker.iterator.next();
+			worker.sets.addPointToTail(p.x+offsetX,p.y+offsetY);
+		}
+	}
+
+	/**
+	 * Copies contours from all the workers into the output in the order that they would have been encountered
+	 * by the single threaded algorithm
+	 */
+	void mergeContours( int numBlobs ) {
+		for (int label = 1; label <= numBlobs; label++) {
+			ContourPacked c = contours.grow();
+			c.reset();
+			c.id = label;
+		}
+
+		int total = 0;
+		for (int i = 0; i < workers.size; i++) {
+			total += workers.get(i).sets.size();
+		}
+		if( sortKeys.length < total )
+			sortKeys = new long[total];
+		setWorker.resize(total);
+		setLocal.resize(total);
+
+		int contour = 0;
+		for (int i = 0; i < workers.size; i++) {
+			Worker w = workers.get(i);
+			for (int j = 0; j < w.sets.size(); j++, contour++) {
+				sortKeys[contour] = ((w.setPixel.data[j] & 0xFFFFFFFFL) << 31) | contour;
+				setWorker.data[contour] = i;
+				setLocal.data[contour] = j;
+			}
+		}
+		Arrays.sort(sortKeys,0,total);
+
+		for (int i = 0; i < total; i++) {
+			contour = (int)(sortKeys[i] & 0x7FFFFFFF);
+			Worker w = workers.get(setWorker.data[contour]);
+			int local = setLocal.data[contour];
+			int label = w.setLabel.data[local];
+
+			if( label < 0 ) {
+				contours.get(-label-1).externalIndex = packedPoints.size();
+			} else {
+				contours.get(label-1).internalIndexes.add(packedPoints.size());
+			}
+			packedPoints.grow();
+			w.setsIterator.setup(local);
+			while( w.setsIterator.hasNext() ) {
+				Point2D_I32 p = w.setsIterator.next();
+				packedPoints.addPointToTail(p.x,p.y);
+			}
+		}
+	}
+
+	/**
+	 * Storage for tracing contours in a single thread
+	 */
+	class Worker {
+		ContourTracer tracer;
+		// local copy of a blob with a border of zeros
+		GrayU8 binary = new GrayU8(1,1);
+		// sub-image of the labeled image which matches the local blob
+		GrayS32 labeled = new GrayS32(1,1);
+		// contour that was just traced
+		PackedSetsPoint2D_I32 scratch = new PackedSetsPoint2D_I32();
+		PackedSetsPoint2D_I32.SetIterator iterator = scratch.createIterator();
+		// saved contours
+		PackedSetsPoint2D_I32 sets = new PackedSetsPoint2D_I32();
+		PackedSetsPoint2D_I32.SetIterator setsIterator = sets.createIterator();
+		// Index of the pixel the contour was encountered at times two. Plus one if it's an internal contour
+		GrowQueue_I32 setPixel = new GrowQueue_I32();
+		// Label of the blob. Negative if it's an external contour
+		GrowQueue_I32 setLabel = new GrowQueue_I32();
+
+		void reset( ConnectRule rule ) {
+			if( tracer == null || tracer.getConnectRule() != rule )
+				tracer = new ContourTracer(rule);
+			sets.reset();
+			setPixel.reset();
+			setLabel.reset();
+		}
+	}
+}
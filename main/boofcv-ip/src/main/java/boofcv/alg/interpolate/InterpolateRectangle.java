@@ -52,5 +52,10 @@ public interface InterpolateRectangle<T extends ImageGray<T>> {
 	 * @param dest Where the interpolated region is to be copied into
 	 */
 	public void region(float tl_x, float tl_y, GrayF32 dest );
+
+	/**
+	 * Creates a new instance of this interpolation method. The image is not copied.
+	 */
+	public InterpolateRectangle<T> copy();
 //	public void region(float tl_x, float tl_y, float[] results, int regWidth, int regHeight);
 }
@@ -60,6 +60,11 @@ public class BilinearRectangle_F32 implements InterpolateRectangle<GrayF32> {
 		return orig;
 	}
 
+	@Override
+	public BilinearRectangle_F32 copy() {
+		return new BilinearRectangle_F32();
+	}
+
 	@Override
 	public void region(float tl_x, float tl_y, GrayF32 output ) {
 		if( tl_x < 0 || tl_y < 0 || tl_x + output.width > orig.width || tl_y + output.height > orig.height ) {
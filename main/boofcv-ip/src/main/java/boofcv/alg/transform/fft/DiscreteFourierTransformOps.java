@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -22,6 +22,7 @@ import boofcv.abst.transform.fft.DiscreteFourierTransform;
 import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F32;
 import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F64;
 import boofcv.alg.InputSanityCheck;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.*;
 
 /**
@@ -39,7 +40,7 @@ public class DiscreteFourierTransformOps {
 	 * @return {@link DiscreteFourierTransform}
 	 */
 	public static DiscreteFourierTransform<GrayF32,InterleavedF32>  createTransformF32() {
-		return new GeneralFft_to_DiscreteFourierTransform_F32();
+		return new GeneralFft_to_DiscreteFourierTransform_F32(BoofConcurrency.USE_CONCURRENT);
 	}
 
 	/**
@@ -50,7 +51,7 @@ public class DiscreteFourierTransformOps {
 	 * @return {@link DiscreteFourierTransform}
 	 */
 	public static DiscreteFourierTransform<GrayF64,InterleavedF64>  createTransformF64() {
-		return new GeneralFft_to_DiscreteFourierTransform_F64();
+		return new GeneralFft_to_DiscreteFourierTransform_F64(BoofConcurrency.USE_CONCURRENT);
 	}
 
 	/**
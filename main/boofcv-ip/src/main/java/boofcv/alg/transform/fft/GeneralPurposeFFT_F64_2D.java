@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -26,8 +26,8 @@ package boofcv.alg.transform.fft;
  * <p></p>
  * This code has a bit of a history.  Originally from General Purpose FFT.  Which was then ported into
  * JFFTPack written by Baoshe Zhang (http://jfftpack.sourceforge.net/), and then into JTransforms by Piotr Wendykier.
- * The major modification from JTransforms is that the SMP code has been stripped out.  It might be added back in
- * once an SMP strategy has been finalized in BoofCV.
+ * The major modification from JTransforms is that the SMP code has been stripped out.  Passes over rows and
+ * columns are done through {@link #loop} so that {@link GeneralPurposeFFT_F64_2D_MT} can process them concurrently.
  * <p></p>
  * Code License:  The original license of General Purpose FFT Package is shown below.  This file will fall
  * under the same license:
@@ -44,20 +44,20 @@ package boofcv.alg.transform.fft;
  */
 public class GeneralPurposeFFT_F64_2D {
 
-	private int rows;
+	protected final int rows;
 
-	private int columns;
+	protected final int columns;
 
-	private double[] t;
+	protected GeneralPurposeFFT_F64_1D fftColumns, fftRows;
 
-	private GeneralPurposeFFT_F64_1D fftColumns, fftRows;
-
-	private boolean isPowerOfTwo = false;
+	protected boolean isPowerOfTwo = false;
 
 	// local storage pre-declared
-	private double[] temp;
 	private double[][] temp2;
 
+	// 1D transforms and work space used to process a range of rows or columns
+	protected Workspace work = new Workspace();
+
 	/**
 	 * Creates new instance of DoubleFFT_2D.
 	 *
@@ -83,7 +83,7 @@ public class GeneralPurposeFFT_F64_2D {
 			} else if (2 * columns < 4 * oldNthreads) {
 				nt >>= 2;
 			}
-			t = new double[nt];
+			work.t = new double[nt];
 		}
 
 		fftRows = new GeneralPurposeFFT_F64_1D(rows);
@@ -93,7 +93,35 @@ public class GeneralPurposeFFT_F64_2D {
 			fftColumns = new GeneralPurposeFFT_F64_1D(columns);
 		}
 
-		temp = new double[2 * rows];
+		work.fftRows = fftRows;
+		work.fftColumns = fftColumns;
+		work.temp = new double[2 * rows];
+	}
+
+	/**
+	 * Creates a new work space with its own 1D transforms. The 1D transforms have internal storage
+	 * and can't be shared between threads.
+	 */
+	protected Workspace createWorkspace() {
+		Workspace w = new Workspace();
+		w.fftRows = new GeneralPurposeFFT_F64_1D(rows);
+		if (rows == columns) {
+			w.fftColumns = w.fftRows;
+		} else {
+			w.fftColumns = new GeneralPurposeFFT_F64_1D(columns);
+		}
+		if (work.t != null)
+			w.t = new double[work.t.length];
+		w.temp = new double[work.temp.length];
+		return w;
+	}
+
+	/**
+	 * Processes the rows or columns from idx0 to idx1-1. By default everything is processed in the calling
+	 * thread using {@link #work}. Sub classes can override this to process them concurrently.
+	 */
+	protected void loop( int idx0, int idx1, Pass pass ) {
+		pass.process(work, idx0, idx1);
 	}
 
 	/**
@@ -121,37 +149,36 @@ public class GeneralPurposeFFT_F64_2D {
 			return;
 		}
 
-		if (isPowerOfTwo) {
-			int oldn2 = columns;
-			columns = 2 * columns;
-			for (int r = 0; r < rows; r++) {
-				fftColumns.complexForward(a, r * columns);
-			}
-			cdft2d_sub(-1, a, true);
-			columns = oldn2;
-		} else {
-			final int rowStride = 2 * columns;
+		final int rowStride = 2 * columns;
 
-			for (int r = 0; r < rows; r++) {
-				fftColumns.complexForward(a, r * rowStride);
+		loop(0, rows, (w, r0, r1) -> {
+			for (int r = r0; r < r1; r++) {
+				w.fftColumns.complexForward(a, r * rowStride);
 			}
+		});
 
-			for (int c = 0; c < columns; c++) {
-				int idx0 = 2 * c;
-				for (int r = 0; r < rows; r++) {
-					int idx1 = 2 * r;
-					int idx2 = r * rowStride + idx0;
-					temp[idx1] = a[idx2];
-					temp[idx1 + 1] = a[idx2 + 1];
-				}
-				fftRows.complexForward(temp);
-				for (int r = 0; r < rows; r++) {
-					int idx1 = 2 * r;
-					int idx2 = r * rowStride + idx0;
-					a[idx2] = temp[idx1];
-					a[idx2 + 1] = temp[idx1 + 1];
+		if (isPowerOfTwo) {
+			cdft2d_sub(-1, a, true, 2 * columns);
+		} else {
+			loop(0, columns, (w, c0, c1) -> {
+				final double[] temp = w.temp;
+				for (int c = c0; c < c1; c++) {
+					int idx0 = 2 * c;
+					for (int r = 0; r < rows; r++) {
+						int idx1 = 2 * r;
+						int idx2 = r * rowStride + idx0;
+						temp[idx1] = a[idx2];
+						temp[idx1 + 1] = a[idx2 + 1];
+					}
+					w.fftRows.complexForward(temp);
+					for (int r = 0; r < rows; r++) {
+						int idx1 = 2 * r;
+						int idx2 = r * rowStride + idx0;
+						a[idx2] = temp[idx1];
+						a[idx2 + 1] = temp[idx1 + 1];
+					}
 				}
-			}
+			});
 		}
 	}
 
@@ -184,36 +211,36 @@ public class GeneralPurposeFFT_F64_2D {
 			return;
 		}
 
-		if (isPowerOfTwo) {
-			int oldn2 = columns;
-			columns = 2 * columns;
-			for (int r = 0; r < rows; r++) {
-				fftColumns.complexInverse(a, r * columns, scale);
-			}
-			cdft2d_sub(1, a, scale);
-			columns = oldn2;
-		} else {
-			final int rowspan = 2 * columns;
-			for (int r = 0; r < rows; r++) {
-				fftColumns.complexInverse(a, r * rowspan, scale);
+		final int rowspan = 2 * columns;
+
+		loop(0, rows, (w, r0, r1) -> {
+			for (int r = r0; r < r1; r++) {
+				w.fftColumns.complexInverse(a, r * rowspan, scale);
 			}
+		});
 
-			for (int c = 0; c < columns; c++) {
-				int idx1 = 2 * c;
-				for (int r = 0; r < rows; r++) {
-					int idx2 = 2 * r;
-					int idx3 = r * rowspan + idx1;
-					temp[idx2] = a[idx3];
-					temp[idx2 + 1] = a[idx3 + 1];
-				}
-				fftRows.complexInverse(temp, scale);
-				for (int r = 0; r < rows; r++) {
-					int idx2 = 2 * r;
-					int idx3 = r * rowspan + idx1;
-					a[idx3] = temp[idx2];
-					a[idx3 + 1] = temp[idx2 + 1];
+		if (isPowerOfTwo) {
+			cdft2d_sub(1, a, scale, 2 * columns);
+		} else {
+			loop(0, columns, (w, c0, c1) -> {
+				final double[] temp = w.temp;
+				for (int c = c0; c < c1; c++) {
+					int idx1 = 2 * c;
+					for (int r = 0; r < rows; r++) {
+						int idx2 = 2 * r;
+						int idx3 = r * rowspan + idx1;
+						temp[idx2] = a[idx3];
+						temp[idx2 + 1] = a[idx3 + 1];
+					}
+					w.fftRows.complexInverse(temp, scale);
+					for (int r = 0; r < rows; r++) {
+						int idx2 = 2 * r;
+						int idx3 = r * rowspan + idx1;
+						a[idx3] = temp[idx2];
+						a[idx3 + 1] = temp[idx2 + 1];
+					}
 				}
-			}
+			});
 		}
 	}
 
@@ -262,10 +289,8 @@ public class GeneralPurposeFFT_F64_2D {
 		if (isPowerOfTwo == false) {
 			throw new IllegalArgumentException("rows and columns must be power of two numbers");
 		} else {
-			for (int r = 0; r < rows; r++) {
-				fftColumns.realForward(a, r * columns);
-			}
-			cdft2d_sub(-1, a, true);
+			realForwardRows(a);
+			cdft2d_sub(-1, a, true, columns);
 			rdft2d_sub(1, a);
 		}
 	}
@@ -293,10 +318,8 @@ public class GeneralPurposeFFT_F64_2D {
 		}
 
 		if (isPowerOfTwo) {
-			for (int r = 0; r < rows; r++) {
-				fftColumns.realForward(a, r * columns);
-			}
-			cdft2d_sub(-1, a, true);
+			realForwardRows(a);
+			cdft2d_sub(-1, a, true, columns);
 			rdft2d_sub(1, a);
 			fillSymmetric(a);
 		} else {
@@ -353,10 +376,12 @@ public class GeneralPurposeFFT_F64_2D {
 			throw new IllegalArgumentException("rows and columns must be power of two numbers");
 		} else {
 			rdft2d_sub(-1, a);
-			cdft2d_sub(1, a, scale);
-			for (int r = 0; r < rows; r++) {
-				fftColumns.realInverse(a, r * columns, scale);
-			}
+			cdft2d_sub(1, a, scale, columns);
+			loop(0, rows, (w, r0, r1) -> {
+				for (int r = r0; r < r1; r++) {
+					w.fftColumns.realInverse(a, r * columns, scale);
+				}
+			});
 		}
 	}
 
@@ -385,10 +410,8 @@ public class GeneralPurposeFFT_F64_2D {
 		}
 
 		if (isPowerOfTwo) {
-			for (int r = 0; r < rows; r++) {
-				fftColumns.realInverse2(a, r * columns, scale);
-			}
-			cdft2d_sub(1, a, scale);
+			realInverse2Rows(a, scale);
+			cdft2d_sub(1, a, scale, columns);
 			rdft2d_sub(1, a);
 			fillSymmetric(a);
 		} else {
@@ -397,6 +420,49 @@ public class GeneralPurposeFFT_F64_2D {
 		}
 	}
 
+	/**
+	 * Applies the 1D real forward transform to each row
+	 */
+	private void realForwardRows(final double[] a) {
+		loop(0, rows, (w, r0, r1) -> {
+			for (int r = r0; r < r1; r++) {
+				w.fftColumns.realForward(a, r * columns);
+			}
+		});
+	}
+
+	/**
+	 * Applies the 1D real inverse transform to each row
+	 */
+	private void realInverse2Rows(final double[] a, final boolean scale) {
+		loop(0, rows, (w, r0, r1) -> {
+			for (int r = r0; r < r1; r++) {
+				w.fftColumns.realInverse2(a, r * columns, scale);
+			}
+		});
+	}
+
+	/**
+	 * Copies the columns computed by the mixed radix real transforms back into the output array
+	 */
+	private void copyRadixColumns(final double[] a) {
+		final int rowStride = 2 * columns;
+		final int n2d2 = columns / 2 + 1;
+		final double[][] temp = temp2;
+
+		loop(0, rows, (w, r0, r1) -> {
+			for (int r = r0; r < r1; r++) {
+				int idx1 = 2 * r;
+				for (int c = 0; c < n2d2; c++) {
+					int idx0 = 2 * c;
+					int idx2 = r * rowStride + idx0;
+					a[idx2] = temp[c][idx1];
+					a[idx2 + 1] = temp[c][idx1 + 1];
+				}
+			}
+		});
+	}
+
 	private void declareRadixRealData() {
 		if( temp2 == null ) {
 			final int n2d2 = columns / 2 + 1;
@@ -409,24 +475,24 @@ public class GeneralPurposeFFT_F64_2D {
 		final int n2d2 = columns / 2 + 1;
 		final double[][] temp = temp2;
 
-		for (int r = 0; r < rows; r++) {
-			fftColumns.realForward(a, r * columns);
-		}
+		realForwardRows(a);
 		for (int r = 0; r < rows; r++) {
 			temp[0][r] = a[r * columns]; //first column is always real
 		}
 		fftRows.realForwardFull(temp[0]);
 
-		for (int c = 1; c < n2d2 - 1; c++) {
-			int idx0 = 2 * c;
-			for (int r = 0; r < rows; r++) {
-				int idx1 = 2 * r;
-				int idx2 = r * columns + idx0;
-				temp[c][idx1] = a[idx2];
-				temp[c][idx1 + 1] = a[idx2 + 1];
+		loop(1, n2d2 - 1, (w, c0, c1) -> {
+			for (int c = c0; c < c1; c++) {
+				int idx0 = 2 * c;
+				for (int r = 0; r < rows; r++) {
+					int idx1 = 2 * r;
+					int idx2 = r * columns + idx0;
+					temp[c][idx1] = a[idx2];
+					temp[c][idx1 + 1] = a[idx2 + 1];
+				}
+				w.fftRows.complexForward(temp[c]);
 			}
-			fftRows.complexForward(temp[c]);
-		}
+		});
 
 		if ((columns % 2) == 0) {
 			for (int r = 0; r < rows; r++) {
@@ -446,15 +512,7 @@ public class GeneralPurposeFFT_F64_2D {
 			fftRows.complexForward(temp[n2d2 - 1]);
 		}
 
-		for (int r = 0; r < rows; r++) {
-			int idx1 = 2 * r;
-			for (int c = 0; c < n2d2; c++) {
-				int idx0 = 2 * c;
-				int idx2 = r * rowStride + idx0;
-				a[idx2] = temp[c][idx1];
-				a[idx2 + 1] = temp[c][idx1 + 1];
-			}
-		}
+		copyRadixColumns(a);
 
 		//fill symmetric
 		for (int r = 1; r < rows; r++) {
@@ -478,24 +536,24 @@ public class GeneralPurposeFFT_F64_2D {
 		final int n2d2 = columns / 2 + 1;
 		final double[][] temp = temp2;
 
-		for (int r = 0; r < rows; r++) {
-			fftColumns.realInverse2(a, r * columns, scale);
-		}
+		realInverse2Rows(a, scale);
 		for (int r = 0; r < rows; r++) {
 			temp[0][r] = a[r * columns]; //first column is always real
 		}
 		fftRows.realInverseFull(temp[0], scale);
 
-		for (int c = 1; c < n2d2 - 1; c++) {
-			int idx0 = 2 * c;
-			for (int r = 0; r < rows; r++) {
-				int idx1 = 2 * r;
-				int idx2 = r * columns + idx0;
-				temp[c][idx1] = a[idx2];
-				temp[c][idx1 + 1] = a[idx2 + 1];
+		loop(1, n2d2 - 1, (w, c0, c1) -> {
+			for (int c = c0; c < c1; c++) {
+				int idx0 = 2 * c;
+				for (int r = 0; r < rows; r++) {
+					int idx1 = 2 * r;
+					int idx2 = r * columns + idx0;
+					temp[c][idx1] = a[idx2];
+					temp[c][idx1 + 1] = a[idx2 + 1];
+				}
+				w.fftRows.complexInverse(temp[c], scale);
 			}
-			fftRows.complexInverse(temp[c], scale);
-		}
+		});
 
 		if ((columns % 2) == 0) {
 			for (int r = 0; r < rows; r++) {
@@ -515,15 +573,7 @@ public class GeneralPurposeFFT_F64_2D {
 			fftRows.complexInverse(temp[n2d2 - 1], scale);
 		}
 
-		for (int r = 0; r < rows; r++) {
-			int idx1 = 2 * r;
-			for (int c = 0; c < n2d2; c++) {
-				int idx0 = 2 * c;
-				int idx2 = r * rowStride + idx0;
-				a[idx2] = temp[c][idx1];
-				a[idx2 + 1] = temp[c][idx1 + 1];
-			}
-		}
+		copyRadixColumns(a);
 
 		//fill symmetric
 		for (int r = 1; r < rows; r++) {
@@ -573,13 +623,28 @@ public class GeneralPurposeFFT_F64_2D {
 		}
 	}
 
-	private void cdft2d_sub(int isgn, double[] a, boolean scale) {
+	private void cdft2d_sub(final int isgn, final double[] a, final boolean scale, final int stride) {
+		if (stride > 4) {
+			// each block of 8 elements is processed independently
+			loop(0, stride / 8, (w, b0, b1) -> cdft2d_sub(isgn, a, scale, stride, w, 8 * b0, 8 * b1));
+		} else {
+			cdft2d_sub(isgn, a, scale, stride, work, 0, stride);
+		}
+	}
+
+	/**
+	 * Transforms the columns from c0 to c1-1. Columns are only split into blocks when there are more than 4.
+	 * Each row in 'a' has 'stride' elements, which is twice the number of columns for complex data.
+	 */
+	private void cdft2d_sub(int isgn, double[] a, boolean scale, int stride, Workspace w, int c0, int c1) {
+		final double[] t = w.t;
+		final GeneralPurposeFFT_F64_1D fftRows = w.fftRows;
 		int idx1, idx2, idx3, idx4, idx5;
 		if (isgn == -1) {
-			if (columns > 4) {
-				for (int c = 0; c < columns; c += 8) {
+			if (stride > 4) {
+				for (int c = c0; c < c1; c += 8) {
 					for (int r = 0; r < rows; r++) {
-						idx1 = r * columns + c;
+						idx1 = r * stride + c;
 						idx2 = 2 * r;
 						idx3 = 2 * rows + 2 * r;
 						idx4 = idx3 + 2 * rows;
@@ -598,7 +663,7 @@ public class GeneralPurposeFFT_F64_2D {
 					fftRows.complexForward(t, 4 * rows);
 					fftRows.complexForward(t, 6 * rows);
 					for (int r = 0; r < rows; r++) {
-						idx1 = r * columns + c;
+						idx1 = r * stride + c;
 						idx2 = 2 * r;
 						idx3 = 2 * rows + 2 * r;
 						idx4 = idx3 + 2 * rows;
@@ -613,9 +678,9 @@ public class GeneralPurposeFFT_F64_2D {
 						a[idx1 + 7] = t[idx5 + 1];
 					}
 				}
-			} else if (columns == 4) {
+			} else if (stride == 4) {
 				for (int r = 0; r < rows; r++) {
-					idx1 = r * columns;
+					idx1 = r * stride;
 					idx2 = 2 * r;
 					idx3 = 2 * rows + 2 * r;
 					t[idx2] = a[idx1];
@@ -626,7 +691,7 @@ public class GeneralPurposeFFT_F64_2D {
 				fftRows.complexForward(t, 0);
 				fftRows.complexForward(t, 2 * rows);
 				for (int r = 0; r < rows; r++) {
-					idx1 = r * columns;
+					idx1 = r * stride;
 					idx2 = 2 * r;
 					idx3 = 2 * rows + 2 * r;
 					a[idx1] = t[idx2];
@@ -634,26 +699,26 @@ public class GeneralPurposeFFT_F64_2D {
 					a[idx1 + 2] = t[idx3];
 					a[idx1 + 3] = t[idx3 + 1];
 				}
-			} else if (columns == 2) {
+			} else if (stride == 2) {
 				for (int r = 0; r < rows; r++) {
-					idx1 = r * columns;
+					idx1 = r * stride;
 					idx2 = 2 * r;
 					t[idx2] = a[idx1];
 					t[idx2 + 1] = a[idx1 + 1];
 				}
 				fftRows.complexForward(t, 0);
 				for (int r = 0; r < rows; r++) {
-					idx1 = r * columns;
+					idx1 = r * stride;
 					idx2 = 2 * r;
 					a[idx1] = t[idx2];
 					a[idx1 + 1] = t[idx2 + 1];
 				}
 			}
 		} else {
-			if (columns > 4) {
-				for (int c = 0; c < columns; c += 8) {
+			if (stride > 4) {
+				for (int c = c0; c < c1; c += 8) {
 					for (int r = 0; r < rows; r++) {
-						idx1 = r * columns + c;
+						idx1 = r * stride + c;
 						idx2 = 2 * r;
 						idx3 = 2 * rows + 2 * r;
 						idx4 = idx3 + 2 * rows;
@@ -672,7 +737,7 @@ public class GeneralPurposeFFT_F64_2D {
 					fftRows.complexInverse(t, 4 * rows, scale);
 					fftRows.complexInverse(t, 6 * rows, scale);
 					for (int r = 0; r < rows; r++) {
-						idx1 = r * columns + c;
+						idx1 = r * stride + c;
 						idx2 = 2 * r;
 						idx3 = 2 * rows + 2 * r;
 						idx4 = idx3 + 2 * rows;
@@ -687,9 +752,9 @@ public class GeneralPurposeFFT_F64_2D {
 						a[idx1 + 7] = t[idx5 + 1];
 					}
 				}
-			} else if (columns == 4) {
+			} else if (stride == 4) {
 				for (int r = 0; r < rows; r++) {
-					idx1 = r * columns;
+					idx1 = r * stride;
 					idx2 = 2 * r;
 					idx3 = 2 * rows + 2 * r;
 					t[idx2] = a[idx1];
@@ -700,7 +765,7 @@ public class GeneralPurposeFFT_F64_2D {
 				fftRows.complexInverse(t, 0, scale);
 				fftRows.complexInverse(t, 2 * rows, scale);
 				for (int r = 0; r < rows; r++) {
-					idx1 = r * columns;
+					idx1 = r * stride;
 					idx2 = 2 * r;
 					idx3 = 2 * rows + 2 * r;
 					a[idx1] = t[idx2];
@@ -708,16 +773,16 @@ public class GeneralPurposeFFT_F64_2D {
 					a[idx1 + 2] = t[idx3];
 					a[idx1 + 3] = t[idx3 + 1];
 				}
-			} else if (columns == 2) {
+			} else if (stride == 2) {
 				for (int r = 0; r < rows; r++) {
-					idx1 = r * columns;
+					idx1 = r * stride;
 					idx2 = 2 * r;
 					t[idx2] = a[idx1];
 					t[idx2 + 1] = a[idx1 + 1];
 				}
 				fftRows.complexInverse(t, 0, scale);
 				for (int r = 0; r < rows; r++) {
-					idx1 = r * columns;
+					idx1 = r * stride;
 					idx2 = 2 * r;
 					a[idx1] = t[idx2];
 					a[idx1 + 1] = t[idx2 + 1];
@@ -726,147 +791,6 @@ public class GeneralPurposeFFT_F64_2D {
 		}
 	}
 
-	private void cdft2d_sub(int isgn, double[][] a, boolean scale) {
-		int idx2, idx3, idx4, idx5;
-		if (isgn == -1) {
-			if (columns > 4) {
-				for (int c = 0; c < columns; c += 8) {
-					for (int r = 0; r < rows; r++) {
-						idx2 = 2 * r;
-						idx3 = 2 * rows + 2 * r;
-						idx4 = idx3 + 2 * rows;
-						idx5 = idx4 + 2 * rows;
-						t[idx2] = a[r][c];
-						t[idx2 + 1] = a[r][c + 1];
-						t[idx3] = a[r][c + 2];
-						t[idx3 + 1] = a[r][c + 3];
-						t[idx4] = a[r][c + 4];
-						t[idx4 + 1] = a[r][c + 5];
-						t[idx5] = a[r][c + 6];
-						t[idx5 + 1] = a[r][c + 7];
-					}
-					fftRows.complexForward(t, 0);
-					fftRows.complexForward(t, 2 * rows);
-					fftRows.complexForward(t, 4 * rows);
-					fftRows.complexForward(t, 6 * rows);
-					for (int r = 0; r < rows; r++) {
-						idx2 = 2 * r;
-						idx3 = 2 * rows + 2 * r;
-						idx4 = idx3 + 2 * rows;
-						idx5 = idx4 + 2 * rows;
-						a[r][c] = t[idx2];
-						a[r][c + 1] = t[idx2 + 1];
-						a[r][c + 2] = t[idx3];
-						a[r][c + 3] = t[idx3 + 1];
-						a[r][c + 4] = t[idx4];
-						a[r][c + 5] = t[idx4 + 1];
-						a[r][c + 6] = t[idx5];
-						a[r][c + 7] = t[idx5 + 1];
-					}
-				}
-			} else if (columns == 4) {
-				for (int r = 0; r < rows; r++) {
-					idx2 = 2 * r;
-					idx3 = 2 * rows + 2 * r;
-					t[idx2] = a[r][0];
-					t[idx2 + 1] = a[r][1];
-					t[idx3] = a[r][2];
-					t[idx3 + 1] = a[r][3];
-				}
-				fftRows.complexForward(t, 0);
-				fftRows.complexForward(t, 2 * rows);
-				for (int r = 0; r < rows; r++) {
-					idx2 = 2 * r;
-					idx3 = 2 * rows + 2 * r;
-					a[r][0] = t[idx2];
-					a[r][1] = t[idx2 + 1];
-					a[r][2] = t[idx3];
-					a[r][3] = t[idx3 + 1];
-				}
-			} else if (columns == 2) {
-				for (int r = 0; r < rows; r++) {
-					idx2 = 2 * r;
-					t[idx2] = a[r][0];
-					t[idx2 + 1] = a[r][1];
-				}
-				fftRows.complexForward(t, 0);
-				for (int r = 0; r < rows; r++) {
-					idx2 = 2 * r;
-					a[r][0] = t[idx2];
-					a[r][1] = t[idx2 + 1];
-				}
-			}
-		} else {
-			if (columns > 4) {
-				for (int c = 0; c < columns; c += 8) {
-					for (int r = 0; r < rows; r++) {
-						idx2 = 2 * r;
-						idx3 = 2 * rows + 2 * r;
-						idx4 = idx3 + 2 * rows;
-						idx5 = idx4 + 2 * rows;
-						t[idx2] = a[r][c];
-						t[idx2 + 1] = a[r][c + 1];
-						t[idx3] = a[r][c + 2];
-						t[idx3 + 1] = a[r][c + 3];
-						t[idx4] = a[r][c + 4];
-						t[idx4 + 1] = a[r][c + 5];
-						t[idx5] = a[r][c + 6];
-						t[idx5 + 1] = a[r][c + 7];
-					}
-					fftRows.complexInverse(t, 0, scale);
-					fftRows.complexInverse(t, 2 * rows, scale);
-					fftRows.complexInverse(t, 4 * rows, scale);
-					fftRows.complexInverse(t, 6 * rows, scale);
-					for (int r = 0; r < rows; r++) {
-						idx2 = 2 * r;
-						idx3 = 2 * rows + 2 * r;
-						idx4 = idx3 + 2 * rows;
-						idx5 = idx4 + 2 * rows;
-						a[r][c] = t[idx2];
-						a[r][c + 1] = t[idx2 + 1];
-						a[r][c + 2] = t[idx3];
-						a[r][c + 3] = t[idx3 + 1];
-						a[r][c + 4] = t[idx4];
-						a[r][c + 5] = t[idx4 + 1];
-						a[r][c + 6] = t[idx5];
-						a[r][c + 7] = t[idx5 + 1];
-					}
-				}
-			} else if (columns == 4) {
-				for (int r = 0; r < rows; r++) {
-					idx2 = 2 * r;
-					idx3 = 2 * rows + 2 * r;
-					t[idx2] = a[r][0];
-					t[idx2 + 1] = a[r][1];
-					t[idx3] = a[r][2];
-					t[idx3 + 1] = a[r][3];
-				}
-				fftRows.complexInverse(t, 0, scale);
-				fftRows.complexInverse(t, 2 * rows, scale);
-				for (int r = 0; r < rows; r++) {
-					idx2 = 2 * r;
-					idx3 = 2 * rows + 2 * r;
-					a[r][0] = t[idx2];
-					a[r][1] = t[idx2 + 1];
-					a[r][2] = t[idx3];
-					a[r][3] = t[idx3 + 1];
-				}
-			} else if (columns == 2) {
-				for (int r = 0; r < rows; r++) {
-					idx2 = 2 * r;
-					t[idx2] = a[r][0];
-					t[idx2 + 1] = a[r][1];
-				}
-				fftRows.complexInverse(t, 0, scale);
-				for (int r = 0; r < rows; r++) {
-					idx2 = 2 * r;
-					a[r][0] = t[idx2];
-					a[r][1] = t[idx2 + 1];
-				}
-			}
-		}
-	}
-
 	private void fillSymmetric(final double[] a) {
 		final int twon2 = 2 * columns;
 		int idx1, idx2, idx3, idx4;
@@ -915,4 +839,20 @@ public class GeneralPurposeFFT_F64_2D {
 		a[idx1 + 1] = 0;
 		a[idx1 + columns + 1] = 0;
 	}
+
+	/**
+	 * 1D transforms and work space needed to process a range of rows or columns
+	 */
+	protected static class Workspace {
+		public GeneralPurposeFFT_F64_1D fftColumns, fftRows;
+		public double[] t;
+		public double[] temp;
+	}
+
+	/**
+	 * Processes the rows or columns from idx0 to idx1-1 using the provided work space
+	 */
+	protected interface Pass {
+		void process( Workspace w, int idx0, int idx1 );
+	}
 }
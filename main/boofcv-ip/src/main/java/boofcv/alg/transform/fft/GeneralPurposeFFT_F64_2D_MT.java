@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link GeneralPurposeFFT_F64_2D}. The passes over rows and columns are split
+ * into blocks which are processed by different threads. Each thread has its own 1D transforms and work space
+ * since the 1D transforms can't be shared between threads.
+ *
+ * @author Peter Abeles
+ */
+public class GeneralPurposeFFT_F64_2D_MT extends GeneralPurposeFFT_F64_2D {
+
+	// work space for each thread
+	private final FastQueue<Workspace> workspaces = new FastQueue<>(this::createWorkspace);
+
+	/**
+	 * Creates new instance.
+	 *
+	 * @param rows number of rows
+	 * @param columns number of columns
+	 */
+	public GeneralPurposeFFT_F64_2D_MT(int rows, int columns) {
+		super(rows, columns);
+	}
+
+	@Override
+	protected void loop( int idx0, int idx1, Pass pass ) {
+		BoofConcurrency.loopBlocks(idx0, idx1, workspaces, pass::process);
+	}
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.transform.pyramid;
+
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.pyramid.ImagePyramid;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import org.ddogleg.struct.Factory;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Cache of image pyramids which are identified by a frame ID. Different algorithms which process the same frame
+ * can share a single read only pyramid instead of each one computing its own. A layer is computed the first time
+ * it's requested, which also computes all the layers before it. Layers which are never requested are never
+ * computed. If the pyramid is concurrent, e.g. {@link PyramidDiscreteSampleBlur_MT}, then the work for each layer
+ * is split between threads.
+ * </p>
+ *
+ * <p>
+ * A fixed number of frames are saved. Once full, the frame which was least recently looked up is recycled. Pyramids
+ * and their layers are only declared when the cache is filling up or the shape of the input image changes, so
+ * processing a video sequence doesn't declare new memory each frame. A pyramid is only valid until its frame
+ * has been recycled. The number of frames should be at least the number of frames any algorithm holds
+ * on to, e.g. two for an algorithm which uses the previous and current frames.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PyramidDiscreteCache<T extends ImageBase<T>> {
+
+	// Creates the pyramids which compute the layers
+	private final Factory<PyramidDiscreteSampleBlur<T>> factory;
+
+	// Maximum number of frames that will be saved
+	private final int maxFrames;
+
+	// Frames which are in the cache. Ordered from least to most recently looked up
+	private final List<Frame<T>> active = new ArrayList<>();
+	// Frames which can be recycled
+	private final List<Frame<T>> unused = new ArrayList<>();
+
+	/**
+	 * @param factory Creates a new pyramid. Each call must return a new instance.
+	 * @param maxFrames Maximum number of frames which are saved
+	 */
+	public PyramidDiscreteCache( Factory<PyramidDiscreteSampleBlur<T>> factory , int maxFrames ) {
+		if( maxFrames <= 0 )
+			throw new IllegalArgumentException("Must save at least one frame");
+		this.factory = factory;
+		this.maxFrames = maxFrames;
+	}
+
+	/**
+	 * Returns the pyramid for the specified frame. If the frame is not in the cache then the least recently
+	 * looked up frame is recycled and its pyramid will be computed from the image. The layers are computed
+	 * when first accessed.
+	 *
+	 * @param frameID ID of the frame. Must uniquely identify the image's contents.
+	 * @param image The frame's image. Ignored if the frame is already in the cache. Must not be modified
+	 *              until all the layers have been computed.
+	 * @return Read only pyramid for the frame
+	 */
+	public synchronized PyramidDiscrete<T> lookup( long frameID , T image ) {
+		for (int i = active.size()-1; i >= 0; i--) {
+			Frame<T> frame = active.get(i);
+			if( frame.frameID == frameID ) {
+				// mark it as the most recently looked up
+				active.remove(i);
+				active.add(frame);
+				return frame;
+			}
+		}
+
+		Frame<T> frame;
+		if( !unused.isEmpty() ) {
+			frame = unused.remove(unused.size()-1);
+		} else if( active.size() < maxFrames ) {
+			frame = new Frame<>(factory.newInstance());
+		} else {
+			frame = active.remove(0);
+		}
+		frame.setInput(frameID, image);
+		active.add(frame);
+		return frame;
+	}
+
+	/**
+	 * Returns the pyramid for the frame if it's in the cache. The order frames are recycled in is not changed.
+	 *
+	 * @param frameID ID of the frame
+	 * @return The pyramid or null if it's not in the cache
+	 */
+	public synchronized @Nullable PyramidDiscrete<T> get( long frameID ) {
+		for (int i = active.size()-1; i >= 0; i--) {
+			if( active.get(i).frameID == frameID )
+				return active.get(i);
+		}
+		return null;
+	}
+
+	/**
+	 * Removes all the frames from the cache. Their memory is saved and will be recycled.
+	 */
+	public synchronized void reset() {
+		for (int i = 0; i < active.size(); i++) {
+			active.get(i).clearInput();
+		}
+		unused.addAll(active);
+		active.clear();
+	}
+
+	/**
+	 * Number of frames currently in the cache
+	 */
+	public synchronized int size() {
+		return active.size();
+	}
+
+	public int getMaxFrames() {
+		return maxFrames;
+	}
+
+	/**
+	 * Read only pyramid for a single frame. Layers are computed lazily when {@link #getLayer(int)} is called.
+	 * Layers should not be accessed directly through {@link #layers} since they might not have been computed yet.
+	 */
+	public static class Frame<T extends ImageBase<T>> extends PyramidDiscrete<T> {
+		// Pyramid that the layers are computed and stored in
+		final PyramidDiscreteSampleBlur<T> pyramid;
+
+		// The frame's image
+		@Nullable T input;
+		long frameID;
+
+		// Number of layers which have been computed. Layers are always computed in order
+		volatile int numComputed;
+
+		Frame( PyramidDiscreteSampleBlur<T> pyramid ) {
+			super(pyramid.getImageType(), pyramid.isSaveOriginalReference(), pyramid.getConfigLayers());
+			this.pyramid = pyramid;
+		}
+
+		/**
+		 * Changes which frame it's for and marks all layers as not computed
+		 */
+		synchronized void setInput( long frameID , T input ) {
+			this.frameID = frameID;
+			this.input = input;
+
+			pyramid.initializeLayers(input);
+			// share the layers and shape. Layers are only declared again if the input's shape has changed
+			this.layers = pyramid.layers;
+			this.levelScales = pyramid.getScales();
+			this.bottomWidth = input.width;
+			this.bottomHeight = input.height;
+			this.numComputed = 0;
+		}
+
+		/**
+		 * Removes the reference to the input image
+		 */
+		synchronized void clearInput() {
+			this.input = null;
+		}
+
+		@Override
+		public T getLayer( int layerNum ) {
+			if( layerNum >= numComputed )
+				computeLayers(layerNum);
+			return layers[layerNum];
+		}
+
+		/**
+		 * Computes all the layers up to and including the specified layer. Synchronized so that threads
+		 * which access the same frame will wait for the layer to be computed only once.
+		 */
+		private synchronized void computeLayers( int layerNum ) {
+			if( input == null )
+				throw new RuntimeException("The frame has been removed from the cache");
+			for (int i = numComputed; i <= layerNum; i++) {
+				pyramid.computeLayer(input, i);
+				numComputed = i+1;
+			}
+		}
+
+		@Override
+		public int getWidth( int layer ) {
+			// the first layer might be a reference to the input image which hasn't been saved yet
+			return layers[layer] == null ? bottomWidth : layers[layer].width;
+		}
+
+		@Override
+		public int getHeight( int layer ) {
+			return layers[layer] == null ? bottomHeight : layers[layer].height;
+		}
+
+		@Override
+		public void process( T input ) {
+			throw new RuntimeException("Shared pyramids are read only");
+		}
+
+		@Override
+		public void initialize( int width, int height ) {
+			throw new RuntimeException("Shared pyramids are read only");
+		}
+
+		@Override
+		public void setTo( ImagePyramid<T> input ) {
+			throw new RuntimeException("Shared pyramids are read only");
+		}
+
+		@Override
+		public double getSampleOffset( int layer ) {
+			return pyramid.getSampleOffset(layer);
+		}
+
+		@Override
+		public double getSigma( int layer ) {
+			return pyramid.getSigma(layer);
+		}
+
+		/**
+		 * Returns a new pyramid with the same structure that can be modified
+		 */
+		@Override
+		public ImagePyramid<T> copyStructure() {
+			return pyramid.copyStructure();
+		}
+
+		public long getFrameID() {
+			return frameID;
+		}
+	}
+}
@@ -51,7 +51,7 @@ import org.jetbrains.annotations.Nullable;
 public class PyramidDiscreteSampleBlur<T extends ImageBase<T>> extends PyramidDiscrete<T> {
 
 	// stores the results from the first convolution
-	private T temp;
+	protected T temp;
 	ConvolveDown<T,T> horizontal;
 	ConvolveDown<T,T> vertical;
 
@@ -80,7 +80,7 @@ public class PyramidDiscreteSampleBlur<T extends ImageBase<T>> extends PyramidDi
 	}
 
 	private void lazyDeclareSigmas(double sigma) {
-		if( this.sigmas != null )
+		if( this.sigmas != null && this.sigmas.length == super.levelScales.length )
 			return;
 		sigmas = new double[ super.levelScales.length ];
 		sigmas[0] = 0;
@@ -105,6 +105,19 @@ public class PyramidDiscreteSampleBlur<T extends ImageBase<T>> extends PyramidDi
 
 	@Override
 	public void process(T input) {
+		initializeLayers(input);
+
+		for (int index = 0; index < getNumLayers(); index++) {
+			computeLayer(input, index);
+		}
+	}
+
+	/**
+	 * Declares the layers and internal work space for the input image. The contents of each layer are not modified.
+	 *
+	 * @param input Input image
+	 */
+	protected void initializeLayers( T input ) {
 		super.initialize(input.width,input.height);
 		lazyDeclareSigmas(this.sigma);
 
@@ -112,35 +125,45 @@ public class PyramidDiscreteSampleBlur<T extends ImageBase<T>> extends PyramidDi
 			// declare it to be the latest image that it might need to be, resize below
 			temp = (T)input.createNew(1,1);
 		}
+	}
 
-		if (levelScales[0] == 1) {
-			if (isSaveOriginalReference()) {
-				setFirstLayer(input);
+	/**
+	 * Computes a single layer in the pyramid. All the layers before it must have already been computed.
+	 *
+	 * @param input Input image
+	 * @param index Index of the layer which is to be computed
+	 */
+	protected void computeLayer( T input , int index ) {
+		if( index == 0 ) {
+			if (levelScales[0] == 1) {
+				if (isSaveOriginalReference()) {
+					setFirstLayer(input);
+				} else {
+					getLayer(0).setTo(input);
+				}
 			} else {
-				getLayer(0).setTo(input);
+				downSample(input, levelScales[0], getLayer(0));
 			}
 		} else {
-			int skip = levelScales[0];
-
-			horizontal.setSkip(skip);
-			vertical.setSkip(skip);
-
-			temp.reshape(input.width/skip,input.height);
-			horizontal.process(input,temp);
-			vertical.process(temp,getLayer(0));
-		}
-
-		for (int index = 1; index < getNumLayers(); index++) {
 			int skip = levelScales[index]/ levelScales[index-1];
-			T prev = getLayer(index-1);
-			temp.reshape(prev.width/skip,prev.height);
+			downSample(getLayer(index-1), skip, getLayer(index));
+		}
+	}
 
-			horizontal.setSkip(skip);
-			vertical.setSkip(skip);
+	/**
+	 * Blurs and down samples the source image into the destination image
+	 *
+	 * @param src Higher resolution image
+	 * @param skip Number of pixels skipped along each axis
+	 * @param dst Lower resolution image
+	 */
+	protected void downSample( T src , int skip , T dst ) {
+		horizontal.setSkip(skip);
+		vertical.setSkip(skip);
 
-			horizontal.process(prev,temp);
-			vertical.process(temp,getLayer(index));
-		}
+		temp.reshape(src.width/skip,src.height);
+		horizontal.process(src,temp);
+		vertical.process(temp,dst);
 	}
 
 	/**
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.transform.pyramid;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.pyramid.ConfigDiscreteLevels;
+import boofcv.struct.pyramid.ImagePyramid;
+import org.ddogleg.struct.FastQueue;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * Concurrent version of {@link PyramidDiscreteSampleBlur}. Each layer is computed from the previous layer and
+ * the layers are still computed in sequence. The work for a single layer is split up instead. The horizontal
+ * convolution is applied to blocks of rows and the vertical convolution to blocks of columns, so the border
+ * is handled exactly the same and the output is identical to the single threaded version.
+ * </p>
+ *
+ * <p>
+ * Sub-images which reference each block are recycled between calls.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PyramidDiscreteSampleBlur_MT<T extends ImageBase<T>> extends PyramidDiscreteSampleBlur<T> {
+
+	// Sub-images that reference the input and output of a block
+	private final FastQueue<Block> blocks = new FastQueue<>(Block::new);
+
+	/**
+	 * @see PyramidDiscreteSampleBlur#PyramidDiscreteSampleBlur(Kernel1D, double, ImageType, boolean, ConfigDiscreteLevels)
+	 */
+	public PyramidDiscreteSampleBlur_MT(Kernel1D kernel, double sigma, ImageType<T> imageType,
+										boolean saveOriginalReference,
+										@Nullable ConfigDiscreteLevels configLayers)
+	{
+		super(kernel, sigma, imageType, saveOriginalReference, configLayers);
+	}
+
+	protected PyramidDiscreteSampleBlur_MT( PyramidDiscreteSampleBlur_MT<T> orig ) {
+		super(orig);
+	}
+
+	@Override
+	protected void downSample( T src , int skip , T dst ) {
+		// the overhead of threads isn't worth it for small images
+		if( src.width*src.height < BoofConcurrency.SMALL_IMAGE ) {
+			super.downSample(src, skip, dst);
+			return;
+		}
+
+		horizontal.setSkip(skip);
+		vertical.setSkip(skip);
+
+		temp.reshape(src.width/skip,src.height);
+
+		// Each row is only dependent on the same row in the input image
+		BoofConcurrency.loopBlocks(0, src.height, blocks, (b, y0, y1)->{
+			b.input = src.subimage(0, y0, src.width, y1, b.input);
+			b.output = temp.subimage(0, y0, temp.width, y1, b.output);
+			horizontal.process(b.input, b.output);
+		});
+
+		// Each column is only dependent on the same column in the input image
+		BoofConcurrency.loopBlocks(0, temp.width, blocks, (b, x0, x1)->{
+			b.input = temp.subimage(x0, 0, x1, temp.height, b.input);
+			b.output = dst.subimage(x0, 0, x1, dst.height, b.output);
+			vertical.process(b.input, b.output);
+		});
+	}
+
+	@Override
+	public ImagePyramid<T> copyStructure() {
+		return new PyramidDiscreteSampleBlur_MT<>(this);
+	}
+
+	private class Block {
+		T input;
+		T output;
+	}
+}
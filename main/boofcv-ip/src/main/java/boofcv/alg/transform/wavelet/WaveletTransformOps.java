@@ -22,7 +22,9 @@ import boofcv.alg.InputSanityCheck;
 import boofcv.alg.misc.PixelMath;
 import boofcv.alg.transform.wavelet.impl.ImplWaveletTransformBorder;
 import boofcv.alg.transform.wavelet.impl.ImplWaveletTransformInner;
+import boofcv.alg.transform.wavelet.impl.ImplWaveletTransformInner_MT;
 import boofcv.alg.transform.wavelet.impl.ImplWaveletTransformNaive;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.wavelet.WaveletDescription;
@@ -86,9 +88,17 @@ public class WaveletTransformOps {
 			ImplWaveletTransformNaive.horizontal(desc.getBorder(),coef,input,storage);
 			ImplWaveletTransformNaive.vertical(desc.getBorder(),coef,storage,output);
 		} else {
-			ImplWaveletTransformInner.horizontal(coef,input,storage);
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				ImplWaveletTransformInner_MT.horizontal(coef,input,storage);
+			} else {
+				ImplWaveletTransformInner.horizontal(coef,input,storage);
+			}
 			ImplWaveletTransformBorder.horizontal(desc.getBorder(),coef,input,storage);
-			ImplWaveletTransformInner.vertical(coef,storage,output);
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				ImplWaveletTransformInner_MT.vertical(coef,storage,output);
+			} else {
+				ImplWaveletTransformInner.vertical(coef,storage,output);
+			}
 			ImplWaveletTransformBorder.vertical(desc.getBorder(),coef,storage,output);
 		}
 	}
@@ -174,9 +184,17 @@ public class WaveletTransformOps {
 			ImplWaveletTransformNaive.verticalInverse(desc.getBorder(),desc.getInverse(),input,storage);
 			ImplWaveletTransformNaive.horizontalInverse(desc.getBorder(),desc.getInverse(),storage,output);
 		} else {
-			ImplWaveletTransformInner.verticalInverse(desc.getInverse().getInnerCoefficients(),input,storage);
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				ImplWaveletTransformInner_MT.verticalInverse(desc.getInverse().getInnerCoefficients(),input,storage);
+			} else {
+				ImplWaveletTransformInner.verticalInverse(desc.getInverse().getInnerCoefficients(),input,storage);
+			}
 			ImplWaveletTransformBorder.verticalInverse(desc.getBorder(),desc.getInverse(),input,storage);
-			ImplWaveletTransformInner.horizontalInverse(desc.getInverse().getInnerCoefficients(),storage,output);
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				ImplWaveletTransformInner_MT.horizontalInverse(desc.getInverse().getInnerCoefficients(),storage,output);
+			} else {
+				ImplWaveletTransformInner.horizontalInverse(desc.getInverse().getInnerCoefficients(),storage,output);
+			}
 			ImplWaveletTransformBorder.horizontalInverse(desc.getBorder(),desc.getInverse(),storage,output);
 		}
 
@@ -287,9 +305,17 @@ public class WaveletTransformOps {
 			ImplWaveletTransformNaive.horizontal(desc.getBorder(),coef,input,storage);
 			ImplWaveletTransformNaive.vertical(desc.getBorder(),coef,storage,output);
 		} else {
-			ImplWaveletTransformInner.horizontal(coef,input,storage);
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				ImplWaveletTransformInner_MT.horizontal(coef,input,storage);
+			} else {
+				ImplWaveletTransformInner.horizontal(coef,input,storage);
+			}
 			ImplWaveletTransformBorder.horizontal(desc.getBorder(),coef,input,storage);
-			ImplWaveletTransformInner.vertical(coef,storage,output);
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				ImplWaveletTransformInner_MT.vertical(coef,storage,output);
+			} else {
+				ImplWaveletTransformInner.vertical(coef,storage,output);
+			}
 			ImplWaveletTransformBorder.vertical(desc.getBorder(),coef,storage,output);
 		}
 	}
@@ -375,9 +401,17 @@ public class WaveletTransformOps {
 			ImplWaveletTransformNaive.verticalInverse(desc.getBorder(),desc.getInverse(),input,storage);
 			ImplWaveletTransformNaive.horizontalInverse(desc.getBorder(),desc.getInverse(),storage,output);
 		} else {
-			ImplWaveletTransformInner.verticalInverse(desc.getInverse().getInnerCoefficients(),input,storage);
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				ImplWaveletTransformInner_MT.verticalInverse(desc.getInverse().getInnerCoefficients(),input,storage);
+			} else {
+				ImplWaveletTransformInner.verticalInverse(desc.getInverse().getInnerCoefficients(),input,storage);
+			}
 			ImplWaveletTransformBorder.verticalInverse(desc.getBorder(),desc.getInverse(),input,storage);
-			ImplWaveletTransformInner.horizontalInverse(desc.getInverse().getInnerCoefficients(),storage,output);
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				ImplWaveletTransformInner_MT.horizontalInverse(desc.getInverse().getInnerCoefficients(),storage,output);
+			} else {
+				ImplWaveletTransformInner.horizontalInverse(desc.getInverse().getInnerCoefficients(),storage,output);
+			}
 			ImplWaveletTransformBorder.horizontalInverse(desc.getBorder(),desc.getInverse(),storage,output);
 		}
 
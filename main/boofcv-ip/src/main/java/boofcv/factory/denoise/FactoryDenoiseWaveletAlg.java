@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,9 +21,13 @@ package boofcv.factory.denoise;
 import boofcv.alg.denoise.DenoiseWavelet;
 import boofcv.alg.denoise.ShrinkThresholdRule;
 import boofcv.alg.denoise.wavelet.DenoiseBayesShrink_F32;
+import boofcv.alg.denoise.wavelet.DenoiseBayesShrink_F32_MT;
 import boofcv.alg.denoise.wavelet.DenoiseSureShrink_F32;
+import boofcv.alg.denoise.wavelet.DenoiseSureShrink_F32_MT;
 import boofcv.alg.denoise.wavelet.DenoiseVisuShrink_F32;
 import boofcv.alg.denoise.wavelet.ShrinkThresholdSoft_F32;
+import boofcv.alg.denoise.wavelet.ShrinkThresholdSoft_F32_MT;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageGray;
 
@@ -50,6 +54,8 @@ public class FactoryDenoiseWaveletAlg {
 		}
 
 		if( imageType == GrayF32.class ) {
+			if( BoofConcurrency.USE_CONCURRENT )
+				return (DenoiseWavelet<T>)new DenoiseBayesShrink_F32_MT((ShrinkThresholdRule<GrayF32>)rule);
 			return (DenoiseWavelet<T>)new DenoiseBayesShrink_F32((ShrinkThresholdRule<GrayF32>)rule);
 		} else {
 			throw new IllegalArgumentException("Unsupported image type "+imageType);
@@ -65,6 +71,8 @@ public class FactoryDenoiseWaveletAlg {
 	public static <T extends ImageGray<T>> DenoiseWavelet<T> sure(Class<T> imageType )
 	{
 		if( imageType == GrayF32.class ) {
+			if( BoofConcurrency.USE_CONCURRENT )
+				return (DenoiseWavelet<T>)new DenoiseSureShrink_F32_MT();
 			return (DenoiseWavelet<T>)new DenoiseSureShrink_F32();
 		} else {
 			throw new IllegalArgumentException("Unsupported image type "+imageType);
@@ -80,6 +88,8 @@ public class FactoryDenoiseWaveletAlg {
 	public static <T extends ImageGray<T>> DenoiseWavelet<T> visu(Class<T> imageType )
 	{
 		if( imageType == GrayF32.class ) {
+			if( BoofConcurrency.USE_CONCURRENT )
+				return (DenoiseWavelet<T>)new DenoiseVisuShrink_F32(new ShrinkThresholdSoft_F32_MT());
 			return (DenoiseWavelet<T>)new DenoiseVisuShrink_F32();
 		} else {
 			throw new IllegalArgumentException("Unsupported image type "+imageType);
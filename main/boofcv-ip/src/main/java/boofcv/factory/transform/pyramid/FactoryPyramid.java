@@ -19,8 +19,11 @@
 package boofcv.factory.transform.pyramid;
 
 import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.transform.pyramid.PyramidDiscreteCache;
 import boofcv.alg.transform.pyramid.PyramidDiscreteSampleBlur;
+import boofcv.alg.transform.pyramid.PyramidDiscreteSampleBlur_MT;
 import boofcv.alg.transform.pyramid.PyramidFloatGaussianScale;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.filter.kernel.FactoryKernel;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
 import boofcv.factory.interpolate.FactoryInterpolation;
@@ -58,7 +61,39 @@ public class FactoryPyramid {
 
 		Kernel1D kernel = FactoryKernelGaussian.gaussian(kernelType,sigma,radius);
 
-		return new PyramidDiscreteSampleBlur<>(kernel, sigma, imageType, saveOriginalReference, configLevels);
+		return sampleBlur(kernel, sigma, saveOriginalReference, configLevels, imageType);
+	}
+
+	/**
+	 * Creates a cache of discrete Gaussian pyramids which can be shared between algorithms that process the
+	 * same frame. Layers are computed when first accessed. See {@link #discreteGaussian} for a description of
+	 * the pyramid's parameters.
+	 *
+	 * @param maxFrames Maximum number of frames which are saved in the cache. Try 2.
+	 * @return PyramidDiscreteCache
+	 */
+	public static <T extends ImageBase<T>>
+	PyramidDiscreteCache<T> discreteGaussianCache(ConfigDiscreteLevels configLevels, double sigma , int radius ,
+												  boolean saveOriginalReference, ImageType<T> imageType,
+												  int maxFrames )
+	{
+		Class<Kernel1D> kernelType = FactoryKernel.getKernelType(imageType.getDataType(),1);
+
+		Kernel1D kernel = FactoryKernelGaussian.gaussian(kernelType,sigma,radius);
+
+		return new PyramidDiscreteCache<>(
+				()->sampleBlur(kernel, sigma, saveOriginalReference, configLevels, imageType), maxFrames);
+	}
+
+	private static <T extends ImageBase<T>>
+	PyramidDiscreteSampleBlur<T> sampleBlur( Kernel1D kernel, double sigma, boolean saveOriginalReference,
+											 ConfigDiscreteLevels configLevels, ImageType<T> imageType )
+	{
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new PyramidDiscreteSampleBlur_MT<>(kernel, sigma, imageType, saveOriginalReference, configLevels);
+		} else {
+			return new PyramidDiscreteSampleBlur<>(kernel, sigma, imageType, saveOriginalReference, configLevels);
+		}
 	}
 
 	/**
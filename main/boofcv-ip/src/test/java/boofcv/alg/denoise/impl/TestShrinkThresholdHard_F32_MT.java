@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.denoise.impl;
+
+import boofcv.alg.denoise.wavelet.ShrinkThresholdHard_F32;
+import boofcv.alg.denoise.wavelet.ShrinkThresholdHard_F32_MT;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+class TestShrinkThresholdHard_F32_MT {
+
+	int width = 10;
+	int height = 20;
+
+	@Test
+	void basicTest() {
+		TestShrinkThresholdHard_I32.performBasicSoftTest(
+				new GrayF32(width,height),
+				new ShrinkThresholdHard_F32_MT());
+	}
+
+	@Test
+	void compareToSingleThread() {
+		GrayF32 expected = new GrayF32(80,90);
+		ImageMiscOps.fillUniform(expected,new Random(234),-20,20);
+		GrayF32 found = expected.clone();
+
+		new ShrinkThresholdHard_F32().process(expected,5.5f);
+		new ShrinkThresholdHard_F32_MT().process(found,5.5f);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+}
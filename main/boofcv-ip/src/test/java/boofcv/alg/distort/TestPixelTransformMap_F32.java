@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.distort;
+
+import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.point.Point2D_F32;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPixelTransformMap_F32 {
+
+	int width = 20;
+	int height = 25;
+
+	PixelTransformAffine_F32 orig = new PixelTransformAffine_F32(new Affine2D_F32(1f,0.1f,0.05f,2f,5f,6f));
+
+	@Test
+	void compareToOrig() {
+		PixelTransformMap_F32 alg = new PixelTransformMap_F32(width,height);
+		alg.compute(orig);
+
+		Point2D_F32 expected = new Point2D_F32();
+		Point2D_F32 found = new Point2D_F32();
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				alg.compute(x,y,found);
+				orig.compute(x,y,expected);
+				assertEquals(expected.x,found.x,1e-8);
+				assertEquals(expected.y,found.y,1e-8);
+			}
+		}
+
+		// The map is read only so it can be shared
+		assertSame(alg,alg.copyConcurrent());
+	}
+
+	@Test
+	void reshape() {
+		PixelTransformMap_F32 alg = new PixelTransformMap_F32(width,height);
+		float[] data = alg.getData();
+		alg.reshape(height,width);
+		assertSame(data,alg.getData());
+		assertEquals(height,alg.getWidth());
+		assertEquals(width,alg.getHeight());
+		alg.reshape(width+1,height);
+		assertEquals((width+1)*height*2,alg.getData().length);
+	}
+
+	@Test
+	void save_load() throws IOException {
+		// make it large enough that multiple chunks are needed
+		PixelTransformMap_F32 alg = new PixelTransformMap_F32(300,200);
+		alg.compute(orig);
+
+		var stream = new ByteArrayOutputStream();
+		alg.save(stream);
+		PixelTransformMap_F32 found = PixelTransformMap_F32.load(new ByteArrayInputStream(stream.toByteArray()));
+
+		assertEquals(alg.getWidth(),found.getWidth());
+		assertEquals(alg.getHeight(),found.getHeight());
+		for (int i = 0; i < 300*200*2; i++) {
+			assertEquals(alg.getData()[i],found.getData()[i]);
+		}
+
+		// corrupted header
+		byte[] bytes = stream.toByteArray();
+		bytes[0] = 0;
+		assertThrows(IOException.class,()->PixelTransformMap_F32.load(new ByteArrayInputStream(bytes)));
+	}
+}
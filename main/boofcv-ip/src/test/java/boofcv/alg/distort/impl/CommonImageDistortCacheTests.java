@@ -21,6 +21,7 @@ package boofcv.alg.distort.impl;
 import boofcv.alg.distort.ImageDistort;
 import boofcv.alg.distort.ImageDistortCache_SB;
 import boofcv.alg.distort.PixelTransformAffine_F32;
+import boofcv.alg.distort.PixelTransformMap_F32;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.core.image.GeneralizedImageOps;
@@ -35,6 +36,9 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Random;
 
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 /**
  * @author Peter Abeles
  */
@@ -95,6 +99,49 @@ public abstract class CommonImageDistortCacheTests<T extends ImageGray<T>> {
 		BoofTesting.assertEquals(dst0, dst1, 1e-4);
 	}
 	
+	/**
+	 * The output is a sub-image. The cached map should be indexed by pixel and not by array index.
+	 */
+	@Test
+	public void compareSubImage() {
+		ImageDistort<T,T> standard = FactoryDistort.distortSB(false, interp, imageType);
+		ImageDistortCache_SB<T,T> alg = create(interp,imageType);
+
+		standard.setModel(tran);
+		alg.setModel(tran);
+
+		T dstSub = BoofTesting.createSubImageOf(dst1);
+		standard.apply(src,dst0,10,30,80,60);
+		alg.apply(src,dstSub,10,30,80,60);
+
+		BoofTesting.assertEquals(dst0, dstSub, 1e-4);
+	}
+
+	/**
+	 * A precomputed map is passed in as the model and should be used directly
+	 */
+	@Test
+	public void precomputedMap() {
+		ImageDistort<T,T> standard = FactoryDistort.distortSB(false, interp, imageType);
+		ImageDistortCache_SB<T,T> alg = create(interp,imageType);
+
+		PixelTransformMap_F32 map = new PixelTransformMap_F32(dst1.width,dst1.height);
+		map.compute(tran);
+
+		standard.setModel(tran);
+		alg.setModel(map);
+
+		standard.apply(src,dst0);
+		alg.apply(src,dst1);
+
+		BoofTesting.assertEquals(dst0, dst1, 1e-4);
+		assertSame(map,alg.getMap());
+
+		// the shape must match
+		T wrongShape = dst1.createNew(dst1.width+1,dst1.height);
+		assertThrows(IllegalArgumentException.class, ()->alg.apply(src,wrongShape));
+	}
+
 	public abstract ImageDistortCache_SB<T,T>
 	create(InterpolatePixelS<T> interp, Class<T> imageType );
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.PackedSetsPoint2D_I32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import georegression.struct.point.Point2D_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestLinearContourLabelChang2004_MT {
+
+	Random rand = new Random(234);
+
+	int[] strips = new int[]{0,1,2,3,7,1000};
+
+	/**
+	 * Compare single threaded vs multi threaded variant on images which are mostly noise
+	 */
+	@Test
+	void compare_random() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			for (int trial = 0; trial < 5; trial++) {
+				GrayU8 binary = new GrayU8(60+trial*7,45+trial*5);
+				ImageMiscOps.fillUniform(binary,rand,0,2);
+
+				for( int numberOfStrips : strips ) {
+					compare(binary,rule,numberOfStrips,0,Integer.MAX_VALUE,true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Large blobs with holes which cross strip boundaries and touch the image border
+	 */
+	@Test
+	void compare_blobs() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			for (int trial = 0; trial < 5; trial++) {
+				GrayU8 binary = createBlobs(80,70);
+
+				for( int numberOfStrips : strips ) {
+					compare(binary,rule,numberOfStrips,0,Integer.MAX_VALUE,true);
+				}
+			}
+		}
+	}
+
+	@Test
+	void compare_contourSettings() {
+		GrayU8 binary = createBlobs(80,70);
+		for (int i = 0; i < 200; i++) {
+			binary.set(rand.nextInt(binary.width),rand.nextInt(binary.height),1);
+		}
+
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			compare(binary,rule,3,5,Integer.MAX_VALUE,true);
+			compare(binary,rule,3,0,30,true);
+			compare(binary,rule,3,5,30,true);
+			compare(binary,rule,3,0,Integer.MAX_VALUE,false);
+			compare(binary,rule,3,5,30,false);
+		}
+	}
+
+	@Test
+	void compare_standardImages() {
+		GrayU8[] images = new GrayU8[]{
+				TestLinearContourLabelChang2004.TEST1, TestLinearContourLabelChang2004.TEST2,
+				TestLinearContourLabelChang2004.TEST3, TestLinearContourLabelChang2004.TEST4};
+
+		for( GrayU8 binary : images ) {
+			for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+				for( int numberOfStrips : strips ) {
+					compare(binary,rule,numberOfStrips,0,Integer.MAX_VALUE,true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Image with nothing in it
+	 */
+	@Test
+	void empty() {
+		GrayU8 binary = new GrayU8(30,40);
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			compare(binary,rule,3,0,Integer.MAX_VALUE,true);
+		}
+	}
+
+	/**
+	 * Process several images in a row to make sure the internal state is reset
+	 */
+	@Test
+	void multipleCalls() {
+		LinearContourLabelChang2004 algS = new LinearContourLabelChang2004(ConnectRule.EIGHT);
+		LinearContourLabelChang2004_MT algP = new LinearContourLabelChang2004_MT(ConnectRule.EIGHT);
+		algP.numberOfStrips = 4;
+
+		for (int trial = 0; trial < 4; trial++) {
+			GrayU8 binary = trial%2 == 0 ? createBlobs(50+trial*10,40) : new GrayU8(30,25);
+			if( trial%2 == 1 )
+				ImageMiscOps.fillUniform(binary,rand,0,2);
+			GrayS32 expected = new GrayS32(1,1);
+			GrayS32 found = new GrayS32(1,1);
+
+			algS.process(binary,expected);
+			algP.process(binary,found);
+
+			BoofTesting.assertEquals(expected,found,0);
+			compareContours(algS,algP);
+		}
+	}
+
+	private void compare( GrayU8 binary , ConnectRule rule , int numberOfStrips ,
+						  int minContour , int maxContour , boolean saveInternal ) {
+		GrayU8 original = binary.clone();
+		GrayS32 expected = new GrayS32(binary.width,binary.height);
+		GrayS32 found = new GrayS32(binary.width,binary.height);
+		ImageMiscOps.fillUniform(found,rand,0,100);
+
+		LinearContourLabelChang2004 algS = new LinearContourLabelChang2004(rule);
+		LinearContourLabelChang2004_MT algP = new LinearContourLabelChang2004_MT(rule);
+		algP.numberOfStrips = numberOfStrips;
+		for( LinearContourLabelChang2004 alg : new LinearContourLabelChang2004[]{algS,algP}) {
+			alg.setMinContourSize(minContour);
+			alg.setMaxContourSize(maxContour);
+			alg.setSaveInternalContours(saveInternal);
+		}
+
+		algS.process(binary,expected);
+		algP.process(binary,found);
+
+		// input should not be modified
+		BoofTesting.assertEquals(original,binary,0);
+		BoofTesting.assertEquals(expected,found,0);
+		compareContours(algS, algP);
+	}
+
+	private void compareContours( LinearContourLabelChang2004 algS, LinearContourLabelChang2004 algP ) {
+		List<ContourPacked> contoursS = algS.getContours().toList();
+		List<ContourPacked> contoursP = algP.getContours().toList();
+		assertEquals(contoursS.size(),contoursP.size());
+		for (int i = 0; i < contoursS.size(); i++) {
+			ContourPacked a = contoursS.get(i);
+			ContourPacked b = contoursP.get(i);
+			assertEquals(a.id,b.id);
+			assertEquals(a.externalIndex,b.externalIndex);
+			assertEquals(a.internalIndexes.size,b.internalIndexes.size);
+			for (int j = 0; j < a.internalIndexes.size; j++) {
+				assertEquals(a.internalIndexes.get(j),b.internalIndexes.get(j));
+			}
+		}
+
+		PackedSetsPoint2D_I32 setsS = algS.getPackedPoints();
+		PackedSetsPoint2D_I32 setsP = algP.getPackedPoints();
+		assertEquals(setsS.size(),setsP.size());
+		for (int i = 0; i < setsS.size(); i++) {
+			List<Point2D_I32> a = setsS.getSet(i);
+			List<Point2D_I32> b = setsP.getSet(i);
+			assertEquals(a.size(),b.size());
+			for (int j = 0; j < a.size(); j++) {
+				assertEquals(a.get(j).x,b.get(j).x);
+				assertEquals(a.get(j).y,b.get(j).y);
+			}
+		}
+	}
+
+	/**
+	 * Creates an image with filled rectangles that have holes inside of them, plus a bit of noise
+	 */
+	private GrayU8 createBlobs( int width , int height ) {
+		GrayU8 binary = new GrayU8(width,height);
+		for (int i = 0; i < 12; i++) {
+			int x0 = rand.nextInt(width-5), y0 = rand.nextInt(height-5);
+			int x1 = Math.min(width,x0+5+rand.nextInt(30));
+			int y1 = Math.min(height,y0+5+rand.nextInt(30));
+			ImageMiscOps.fillRectangle(binary,1,x0,y0,x1-x0,y1-y0);
+
+			// punch holes
+			for (int j = 0; j < 3; j++) {
+				int hx = x0+1+rand.nextInt(x1-x0-2);
+				int hy = y0+1+rand.nextInt(y1-y0-2);
+				ImageMiscOps.fillRectangle(binary,0,hx,hy,1+rand.nextInt(3),1+rand.nextInt(3));
+			}
+		}
+		for (int i = 0; i < 50; i++) {
+			binary.set(rand.nextInt(width),rand.nextInt(height),1);
+		}
+		return binary;
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestGeneralPurposeFFT_F32_2D_MT {
+
+	Random rand = new Random(234);
+
+	int[] sizes = new int[]{1,2,3,4,16,32,100,103};
+
+	/**
+	 * The concurrent implementation should produce exactly the same results as the single thread version
+	 */
+	@Test
+	void compareToSingleThread() {
+		for( int i = 0; i < sizes.length; i++ ) {
+			for( int j = 0; j < sizes.length; j++ ) {
+				compare(sizes[i], sizes[j]);
+			}
+		}
+	}
+
+	private void compare( int numRows , int numColumns ) {
+		GeneralPurposeFFT_F32_2D algST = new GeneralPurposeFFT_F32_2D(numRows,numColumns);
+		GeneralPurposeFFT_F32_2D_MT algMT = new GeneralPurposeFFT_F32_2D_MT(numRows,numColumns);
+
+		boolean powerOfTwo = DiscreteFourierTransformOps.isPowerOf2(numRows) &&
+				DiscreteFourierTransformOps.isPowerOf2(numColumns);
+
+		float[] input = new float[numRows*numColumns*2];
+		for( int i = 0; i < input.length; i++ ) {
+			input[i] = (float)rand.nextGaussian();
+		}
+
+		// call each function twice to make sure the work space is correctly reused
+		for( int trial = 0; trial < 2; trial++ ) {
+			float[] expected = input.clone();
+			float[] found = input.clone();
+			algST.complexForward(expected);
+			algMT.complexForward(found);
+			assertArrayEquals(expected, found);
+
+			algST.complexInverse(expected, true);
+			algMT.complexInverse(found, true);
+			assertArrayEquals(expected, found);
+
+			algST.realForwardFull(expected);
+			algMT.realForwardFull(found);
+			assertArrayEquals(expected, found);
+
+			algST.realInverseFull(expected, true);
+			algMT.realInverseFull(found, true);
+			assertArrayEquals(expected, found);
+
+			if( powerOfTwo ) {
+				algST.realForward(expected);
+				algMT.realForward(found);
+				assertArrayEquals(expected, found);
+
+				algST.realInverse(expected, true);
+				algMT.realInverse(found, true);
+				assertArrayEquals(expected, found);
+			}
+		}
+	}
+}
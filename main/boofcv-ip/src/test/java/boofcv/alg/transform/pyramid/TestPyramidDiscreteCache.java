@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.transform.pyramid;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.pyramid.ConfigDiscreteLevels;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPyramidDiscreteCache {
+
+	Random rand = new Random(234);
+
+	Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,-1,2);
+	ImageType<GrayF32> imageType = ImageType.single(GrayF32.class);
+	ConfigDiscreteLevels config = ConfigDiscreteLevels.levels(4);
+
+	// number of pyramids which have been created
+	int numCreated;
+
+	PyramidDiscreteCache<GrayF32> createCache( int maxFrames ) {
+		numCreated = 0;
+		return new PyramidDiscreteCache<>(()->{
+			numCreated++;
+			return new PyramidDiscreteSampleBlur<>(kernel,-1,imageType,false,config);
+		},maxFrames);
+	}
+
+	/**
+	 * The layers should be the same as if the pyramid was processed normally
+	 */
+	@Test
+	void sameAsProcess() {
+		var expected = new PyramidDiscreteSampleBlur<>(kernel,-1,imageType,false,config);
+		PyramidDiscreteCache<GrayF32> alg = createCache(2);
+
+		GrayF32 image = new GrayF32(100,90);
+		ImageMiscOps.fillUniform(image,rand,0,100);
+
+		expected.process(image);
+		PyramidDiscrete<GrayF32> found = alg.lookup(0,image);
+
+		assertEquals(expected.getNumLayers(),found.getNumLayers());
+		for (int i = 0; i < expected.getNumLayers(); i++) {
+			assertEquals(expected.getScale(i),found.getScale(i));
+			assertEquals(expected.getSigma(i),found.getSigma(i));
+			assertEquals(expected.getWidth(i),found.getWidth(i));
+			assertEquals(expected.getHeight(i),found.getHeight(i));
+			BoofTesting.assertEquals(expected.getLayer(i),found.getLayer(i),1e-4);
+		}
+		assertEquals(100,found.getInputWidth());
+		assertEquals(90,found.getInputHeight());
+	}
+
+	/**
+	 * Layers are only computed when requested and only the layers up to that point are computed
+	 */
+	@Test
+	void lazyLayers() {
+		PyramidDiscreteCache<GrayF32> alg = createCache(2);
+
+		GrayF32 image = new GrayF32(100,90);
+		ImageMiscOps.fillUniform(image,rand,0,100);
+
+		var found = (PyramidDiscreteCache.Frame<GrayF32>)alg.lookup(0,image);
+		assertEquals(0,found.numComputed);
+		found.getLayer(1);
+		assertEquals(2,found.numComputed);
+		found.getLayer(0);
+		assertEquals(2,found.numComputed);
+		found.getLayer(3);
+		assertEquals(4,found.numComputed);
+	}
+
+	/**
+	 * Looking up a frame which is in the cache returns the same pyramid
+	 */
+	@Test
+	void lookup_shared() {
+		PyramidDiscreteCache<GrayF32> alg = createCache(2);
+
+		GrayF32 imageA = new GrayF32(100,90);
+		GrayF32 imageB = new GrayF32(100,90);
+
+		PyramidDiscrete<GrayF32> a = alg.lookup(5,imageA);
+		PyramidDiscrete<GrayF32> b = alg.lookup(6,imageB);
+
+		assertSame(a,alg.lookup(5,imageA));
+		assertSame(b,alg.lookup(6,imageB));
+		assertSame(a,alg.get(5));
+		assertNull(alg.get(7));
+		assertEquals(2,alg.size());
+		assertEquals(2,numCreated);
+	}
+
+	/**
+	 * Once full, the least recently looked up frame should be recycled and nothing new should be declared
+	 */
+	@Test
+	void lookup_recycle() {
+		PyramidDiscreteCache<GrayF32> alg = createCache(2);
+		var expected = new PyramidDiscreteSampleBlur<>(kernel,-1,imageType,false,config);
+
+		GrayF32 image = new GrayF32(100,90);
+		ImageMiscOps.fillUniform(image,rand,0,100);
+		PyramidDiscrete<GrayF32> a = alg.lookup(0,image);
+		PyramidDiscrete<GrayF32> b = alg.lookup(1,image);
+		// frame 0 is now the most recently used
+		alg.lookup(0,image);
+
+		// save references to the layers
+		GrayF32[] layers = new GrayF32[b.getNumLayers()];
+		for (int i = 0; i < layers.length; i++) {
+			layers[i] = b.getLayer(i);
+		}
+
+		ImageMiscOps.fillUniform(image,rand,0,100);
+		PyramidDiscrete<GrayF32> c = alg.lookup(2,image);
+		assertSame(b,c);
+		assertNull(alg.get(1));
+		assertSame(a,alg.get(0));
+		assertEquals(2,numCreated);
+
+		// the layers should have been recomputed with the new image without declaring new images
+		expected.process(image);
+		for (int i = 0; i < layers.length; i++) {
+			assertSame(layers[i],c.getLayer(i));
+			BoofTesting.assertEquals(expected.getLayer(i),c.getLayer(i),1e-4);
+		}
+	}
+
+	/**
+	 * If the image's shape changes the layers need to be resized
+	 */
+	@Test
+	void lookup_changeShape() {
+		PyramidDiscreteCache<GrayF32> alg = createCache(1);
+		var expected = new PyramidDiscreteSampleBlur<>(kernel,-1,imageType,false,config);
+
+		for( int trial = 0; trial < 3; trial++ ) {
+			GrayF32 image = new GrayF32(100-trial*10,90+trial*5);
+			ImageMiscOps.fillUniform(image,rand,0,100);
+
+			expected.process(image);
+			PyramidDiscrete<GrayF32> found = alg.lookup(trial,image);
+			for (int i = 0; i < expected.getNumLayers(); i++) {
+				BoofTesting.assertEquals(expected.getLayer(i),found.getLayer(i),1e-4);
+			}
+		}
+		assertEquals(1,numCreated);
+	}
+
+	@Test
+	void reset() {
+		PyramidDiscreteCache<GrayF32> alg = createCache(2);
+
+		GrayF32 image = new GrayF32(100,90);
+		PyramidDiscrete<GrayF32> a = alg.lookup(0,image);
+		alg.lookup(1,image);
+		alg.reset();
+
+		assertEquals(0,alg.size());
+		assertNull(alg.get(0));
+
+		// memory should be recycled
+		alg.lookup(0,image);
+		alg.lookup(1,image);
+		assertEquals(2,numCreated);
+		assertSame(a,alg.get(1));
+	}
+
+	/**
+	 * Algorithms sharing the pyramid can't modify it
+	 */
+	@Test
+	void readOnly() {
+		PyramidDiscreteCache<GrayF32> alg = createCache(2);
+
+		GrayF32 image = new GrayF32(100,90);
+		PyramidDiscrete<GrayF32> a = alg.lookup(0,image);
+
+		assertThrows(RuntimeException.class,()->a.process(image));
+		assertThrows(RuntimeException.class,()->a.initialize(100,90));
+
+		// a copy can be modified
+		PyramidDiscrete<GrayF32> copy = (PyramidDiscrete<GrayF32>)a.copyStructure();
+		copy.process(image);
+	}
+}
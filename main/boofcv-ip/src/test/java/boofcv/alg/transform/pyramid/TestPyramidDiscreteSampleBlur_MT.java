@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.transform.pyramid;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.*;
+import boofcv.struct.pyramid.ConfigDiscreteLevels;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPyramidDiscreteSampleBlur_MT {
+
+	Random rand = new Random(234);
+
+	@Test
+	void compare() {
+		compare(ImageType.single(GrayF32.class));
+		compare(ImageType.single(GrayU8.class));
+		compare(ImageType.pl(2,GrayF32.class));
+	}
+
+	/**
+	 * The output should be identical to the single threaded version, including the border
+	 */
+	<T extends ImageBase<T>> void compare( ImageType<T> imageType ) {
+		Class<Kernel1D> kernelType = FactoryKernel.getKernelType(imageType.getDataType(),1);
+		Kernel1D kernel = FactoryKernelGaussian.gaussian(kernelType,-1,2);
+
+		ConfigDiscreteLevels config = ConfigDiscreteLevels.levels(4);
+		for( boolean saveReference : new boolean[]{true,false}) {
+			var single = new PyramidDiscreteSampleBlur<>(kernel,-1,imageType,saveReference,config);
+			var multi = new PyramidDiscreteSampleBlur_MT<>(kernel,-1,imageType,saveReference,config);
+
+			// process images with different shapes to see if the layers are resized correctly
+			for( int trial = 0; trial < 3; trial++ ) {
+				T input = imageType.createImage(320+trial*13,251-trial*7);
+				GImageMiscOps.fillUniform(input,rand,0,100);
+
+				single.process(input);
+				multi.process(input);
+
+				assertEquals(single.getNumLayers(),multi.getNumLayers());
+				for (int i = 0; i < single.getNumLayers(); i++) {
+					BoofTesting.assertEquals(single.getLayer(i),multi.getLayer(i),1e-4);
+				}
+			}
+		}
+	}
+
+	@Test
+	void subimage() {
+		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,-1,2);
+		ImageType<GrayF32> imageType = ImageType.single(GrayF32.class);
+		ConfigDiscreteLevels config = ConfigDiscreteLevels.levels(3);
+
+		var single = new PyramidDiscreteSampleBlur<>(kernel,-1,imageType,false,config);
+		var multi = new PyramidDiscreteSampleBlur_MT<>(kernel,-1,imageType,false,config);
+
+		GrayF32 input = new GrayF32(300,250);
+		GImageMiscOps.fillUniform(input,rand,0,100);
+		GrayF32 sub = BoofTesting.createSubImageOf(input);
+
+		single.process(input);
+		multi.process(sub);
+
+		for (int i = 0; i < single.getNumLayers(); i++) {
+			BoofTesting.assertEquals(single.getLayer(i),multi.getLayer(i),1e-4);
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.wavelet.impl;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.transform.wavelet.FactoryWaveletDaub;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.wavelet.WaveletDescription;
+import boofcv.struct.wavelet.WlCoef;
+import boofcv.testing.CompareIdenticalFunctions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+class TestImplWaveletTransformInner_MT extends CompareIdenticalFunctions {
+	int width = 70,height=80;
+	Random rand = new Random(234);
+
+	TestImplWaveletTransformInner_MT() {
+		super(ImplWaveletTransformInner_MT.class, ImplWaveletTransformInner.class);
+	}
+
+	@Test
+	void performTests() {
+		performTests(8);
+	}
+
+	@Override
+	protected Object[][] createInputParam(Method candidate, Method validation) {
+		Class[] types = candidate.getParameterTypes();
+
+		WaveletDescription<?> desc;
+		if( types[1] == GrayF32.class ) {
+			desc = FactoryWaveletDaub.daubJ_F32(4);
+		} else {
+			desc = FactoryWaveletDaub.biorthogonal_I32(5, BorderType.REFLECT);
+		}
+
+		WlCoef coef;
+		if( candidate.getName().endsWith("Inverse") ) {
+			coef = desc.getInverse().getInnerCoefficients();
+		} else {
+			coef = desc.getForward();
+		}
+
+		ImageGray input = GeneralizedImageOps.createSingleBand(types[1],width,height);
+		ImageGray output = GeneralizedImageOps.createSingleBand(types[2],width,height);
+		GImageMiscOps.fillUniform(input,rand,0,100);
+
+		return new Object[][]{{coef,input,output}};
+	}
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.bow;
+
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.clustering.AssignCluster;
+import org.ddogleg.clustering.ComputeClusters;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.io.*;
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * <p>
+ * Vocabulary tree created using hierarchical k-means [1]. Descriptors are recursively split into
+ * {@link #branchFactor} clusters using {@link ClusterVisualWords}, until the maximum number of levels has been
+ * reached or there are too few descriptors to split. Each leaf is a word. Looking up the word for a descriptor
+ * requires branchFactor*levels distance computations, instead of one for every word.
+ * </p>
+ *
+ * <p>
+ * Nodes are stored in flat primitive arrays. Children of a node are stored next to each other. The mean
+ * of each cluster is saved, instead of the clustering algorithm's internal state, which allows the tree to be
+ * written to and read from a compact binary format.
+ * </p>
+ *
+ * <p>
+ * [1] Nister, David, and Henrik Stewenius. "Scalable recognition with a vocabulary tree." CVPR 2006
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HierarchicalVocabularyTree {
+	// Identifies the binary file format
+	private static final String FILE_HEADER = "BOOFCV_VOCABULARY_TREE";
+	private static final int FILE_VERSION = 1;
+
+	/** Number of children each node is split into */
+	public int branchFactor;
+	/** Maximum number of levels in the tree, not including the root */
+	public int maxLevels;
+
+	// Number of elements in the descriptor
+	protected int dof;
+
+	// Index of the first child for each node
+	protected final GrowQueue_I32 childStart = new GrowQueue_I32();
+	// Number of children for each node. 0 for leaves
+	protected final GrowQueue_I32 childCount = new GrowQueue_I32();
+	// The word each node belongs to. -1 if it's not a leaf
+	protected final GrowQueue_I32 nodeWord = new GrowQueue_I32();
+	// Mean of descriptors in each node. dof elements per node
+	protected final GrowQueue_F64 centers = new GrowQueue_F64();
+
+	// Total number of words
+	protected int numWords;
+
+	/**
+	 * Configures the tree's shape
+	 *
+	 * @param branchFactor Number of children each node is split into
+	 * @param maxLevels Maximum number of levels in the tree
+	 */
+	public HierarchicalVocabularyTree( int branchFactor, int maxLevels ) {
+		if( branchFactor < 2 )
+			throw new IllegalArgumentException("Branch factor must be at least 2");
+		this.branchFactor = branchFactor;
+		this.maxLevels = maxLevels;
+	}
+
+	/**
+	 * Learns the tree from the set of descriptors
+	 *
+	 * @param descriptors (Input) Descriptors the tree is learned from
+	 * @param factoryClusters Creates the clustering algorithm used for each node
+	 * @param randomSeed Seed for the random number generator
+	 */
+	public void learn( List<TupleDesc_F64> descriptors,
+					   BoofLambdas.Factory<ComputeClusters<double[]>> factoryClusters,
+					   long randomSeed ) {
+		if( descriptors.isEmpty() )
+			throw new IllegalArgumentException("No descriptors");
+
+		dof = descriptors.get(0).size();
+		reset();
+
+		// root node contains all the descriptors
+		int[] all = new int[descriptors.size()];
+		for (int i = 0; i < all.length; i++) {
+			all[i] = i;
+		}
+		addNode(new double[dof]);
+
+		ArrayDeque<Pending> open = new ArrayDeque<>();
+		open.add(new Pending(0, 0, all));
+
+		// Split nodes in breadth first order
+		while( !open.isEmpty() ) {
+			Pending p = open.removeFirst();
+
+			if( p.level >= maxLevels || p.members.length <= branchFactor ) {
+				makeLeaf(p.node);
+				continue;
+			}
+
+			var cluster = new ClusterVisualWords(factoryClusters.newInstance(), dof, randomSeed + p.node);
+			for (int i = 0; i < p.members.length; i++) {
+				cluster.addReference(descriptors.get(p.members[i]));
+			}
+			cluster.process(branchFactor);
+			AssignCluster<double[]> assignment = cluster.getAssignment();
+
+			// Assign descriptors to clusters and compute the mean of each cluster
+			int numClusters = assignment.getNumberOfClusters();
+			int[] labels = new int[p.members.length];
+			int[] counts = new int[numClusters];
+			double[] sums = new double[numClusters*dof];
+			for (int i = 0; i < p.members.length; i++) {
+				double[] desc = descriptors.get(p.members[i]).value;
+				int label = assignment.assign(desc);
+				labels[i] = label;
+				counts[label]++;
+				for (int j = 0; j < dof; j++) {
+					sums[label*dof + j] += desc[j];
+				}
+			}
+
+			int nonEmpty = 0;
+			for (int i = 0; i < numClusters; i++) {
+				if( counts[i] > 0 )
+					nonEmpty++;
+			}
+
+			// it couldn't be split, e.g. all the descriptors are identical
+			if( nonEmpty < 2 ) {
+				makeLeaf(p.node);
+				continue;
+			}
+
+			childStart.data[p.node] = childStart.size;
+			childCount.data[p.node] = nonEmpty;
+
+			double[] mean = new double[dof];
+			for (int clusterIdx = 0; clusterIdx < numClusters; clusterIdx++) {
+				int count = counts[clusterIdx];
+				if( count == 0 )
+					continue;
+				for (int j = 0; j < dof; j++) {
+					mean[j] = sums[clusterIdx*dof + j]/count;
+				}
+				int child = addNode(mean);
+
+				int[] members = new int[count];
+				int n = 0;
+				for (int i = 0; i < labels.length; i++) {
+					if( labels[i] == clusterIdx )
+						members[n++] = p.members[i];
+				}
+				open.add(new Pending(child, p.level+1, members));
+			}
+		}
+	}
+
+	/**
+	 * Finds the word which best matches the descriptor by traversing down the tree, selecting the closest
+	 * child at each level.
+	 *
+	 * @param desc (Input) descriptor
+	 * @return The word
+	 */
+	public int lookupWord( double[] desc ) {
+		int node = 0;
+		while( childCount.data[node] > 0 ) {
+			int start = childStart.data[node];
+			int end = start + childCount.data[node];
+
+			int best = start;
+			double bestDistance = Double.MAX_VALUE;
+			for (int child = start; child < end; child++) {
+				double distance = distanceSq(desc, child);
+				if( distance < bestDistance ) {
+					bestDistance = distance;
+					best = child;
+				}
+			}
+			node = best;
+		}
+		return nodeWord.data[node];
+	}
+
+	private double distanceSq( double[] desc, int node ) {
+		final double[] centers = this.centers.data;
+		int idx = node*dof;
+		double sum = 0;
+		for (int i = 0; i < dof; i++) {
+			double d = desc[i] - centers[idx + i];
+			sum += d*d;
+		}
+		return sum;
+	}
+
+	private int addNode( double[] mean ) {
+		int node = childStart.size;
+		childStart.add(-1);
+		childCount.add(0);
+		nodeWord.add(-1);
+		for (int i = 0; i < dof; i++) {
+			centers.add(mean[i]);
+		}
+		return node;
+	}
+
+	private void makeLeaf( int node ) {
+		nodeWord.data[node] = numWords++;
+	}
+
+	/**
+	 * Discards the tree
+	 */
+	public void reset() {
+		childStart.reset();
+		childCount.reset();
+		nodeWord.reset();
+		centers.reset();
+		numWords = 0;
+	}
+
+	/**
+	 * Writes the tree to a binary stream
+	 */
+	public void save( OutputStream output ) throws IOException {
+		var out = new DataOutputStream(new BufferedOutputStream(output));
+		out.writeUTF(FILE_HEADER);
+		out.writeInt(FILE_VERSION);
+		out.writeInt(branchFactor);
+		out.writeInt(maxLevels);
+		out.writeInt(dof);
+		out.writeInt(numWords);
+		out.writeInt(childStart.size);
+		for (int node = 0; node < childStart.size; node++) {
+			out.writeInt(childStart.data[node]);
+			out.writeInt(childCount.data[node]);
+			out.writeInt(nodeWord.data[node]);
+		}
+		for (int i = 0; i < centers.size; i++) {
+			out.writeDouble(centers.data[i]);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Reads a tree which was saved using {@link #save}
+	 */
+	public static HierarchicalVocabularyTree load( InputStream input ) throws IOException {
+		var in = new DataInputStream(new BufferedInputStream(input));
+		if( !FILE_HEADER.equals(in.readUTF()) )
+			throw new IOException("Not a vocabulary tree file");
+		int version = in.readInt();
+		if( version != FILE_VERSION )
+			throw new IOException("Unsupported version "+version);
+
+		var tree = new HierarchicalVocabularyTree(in.readInt(), in.readInt());
+		tree.dof = in.readInt();
+		tree.numWords = in.readInt();
+		int numNodes = in.readInt();
+		tree.childStart.resize(numNodes);
+		tree.childCount.resize(numNodes);
+		tree.nodeWord.resize(numNodes);
+		for (int node = 0; node < numNodes; node++) {
+			tree.childStart.data[node] = in.readInt();
+			tree.childCount.data[node] = in.readInt();
+			tree.nodeWord.data[node] = in.readInt();
+		}
+		tree.centers.resize(numNodes*tree.dof);
+		for (int i = 0; i < tree.centers.size; i++) {
+			tree.centers.data[i] = in.readDouble();
+		}
+		return tree;
+	}
+
+	public int getNumberOfWords() {
+		return numWords;
+	}
+
+	public int getNumberOfNodes() {
+		return childStart.size;
+	}
+
+	public int getDescriptorLength() {
+		return dof;
+	}
+
+	/**
+	 * A node which has yet to be split
+	 */
+	private static class Pending {
+		int node;
+		int level;
+		int[] members;
+
+		Pending( int node, int level, int[] members ) {
+			this.node = node;
+			this.level = level;
+			this.members = members;
+		}
+	}
+}
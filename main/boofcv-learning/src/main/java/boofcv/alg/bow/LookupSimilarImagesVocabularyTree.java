@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.bow;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.alg.sfm.structure2.LookupSimilarImages;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.ImageDimension;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastAccess;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.*;
+
+/**
+ * <p>
+ * Implementation of {@link LookupSimilarImages} which uses a {@link HierarchicalVocabularyTree} to find similar
+ * images. Each image is described by a sparse TF-IDF weighted histogram of words [1]. An inverted file, which
+ * lists the images each word appears in, is used to score images. Only images which share a word with the query
+ * image are examined, avoiding the need to compare against every image.
+ * </p>
+ *
+ * <p>
+ * Features between two images are associated when {@link #lookupMatches} is called using the provided
+ * {@link AssociateDescription}.
+ * </p>
+ *
+ * <p>
+ * [1] Nister, David, and Henrik Stewenius. "Scalable recognition with a vocabulary tree." CVPR 2006
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LookupSimilarImagesVocabularyTree implements LookupSimilarImages {
+
+	/** Maximum number of similar images which are returned */
+	public int maxSimilar = 20;
+
+	/** Images with a similarity score below this are not considered similar. Scores range from 0 to 1 */
+	public double minimumSimilarity = 0.01;
+
+	protected final HierarchicalVocabularyTree tree;
+	protected final AssociateDescription<TupleDesc_F64> associate;
+
+	protected final List<String> imageIds = new ArrayList<>();
+	protected final Map<String,Integer> imageToIndex = new HashMap<>();
+	protected final FastQueue<ImageInfo> images = new FastQueue<>(ImageInfo::new,ImageInfo::reset);
+
+	// List of images and their weight for each word
+	protected final FastQueue<InvertedFile> invertedFiles = new FastQueue<>(InvertedFile::new,InvertedFile::reset);
+	// Inverse document frequency for each word
+	protected double[] idf = new double[0];
+	// true if the index needs to be rebuilt
+	protected boolean dirty = true;
+
+	// Workspace for scoring images
+	private double[] scores = new double[0];
+	private final GrowQueue_I32 touched = new GrowQueue_I32();
+	private final GrowQueue_I32 sortedWords = new GrowQueue_I32();
+
+	/**
+	 * Specifies internal algorithms
+	 *
+	 * @param tree Vocabulary tree which has already been learned
+	 * @param associate Used to associate features between images
+	 */
+	public LookupSimilarImagesVocabularyTree( HierarchicalVocabularyTree tree,
+											  AssociateDescription<TupleDesc_F64> associate ) {
+		this.tree = tree;
+		this.associate = associate;
+	}
+
+	/**
+	 * Discards all images
+	 */
+	public void reset() {
+		imageIds.clear();
+		imageToIndex.clear();
+		images.reset();
+		invertedFiles.reset();
+		dirty = true;
+	}
+
+	/**
+	 * Adds a new image to the database. Copies of the features are saved.
+	 *
+	 * @param id Unique ID of the image
+	 * @param width Image width
+	 * @param height Image height
+	 * @param pixels Pixel coordinate of each feature
+	 * @param descriptions Description of each feature
+	 */
+	public void addImage( String id, int width, int height,
+						  List<Point2D_F64> pixels, List<TupleDesc_F64> descriptions ) {
+		if( pixels.size() != descriptions.size() )
+			throw new IllegalArgumentException("Number of pixels and descriptions must match");
+		if( imageToIndex.containsKey(id) )
+			throw new IllegalArgumentException("Image already added: "+id);
+
+		imageToIndex.put(id, images.size);
+		imageIds.add(id);
+
+		ImageInfo info = images.grow();
+		info.reset();
+		info.id = id;
+		info.shape.set(width, height);
+		info.descriptions = new FastQueue<>(()->new TupleDesc_F64(tree.getDescriptorLength()));
+		for (int i = 0; i < pixels.size(); i++) {
+			info.pixels.grow().set(pixels.get(i));
+			info.descriptions.grow().setTo(descriptions.get(i));
+		}
+
+		// Find the word for each feature then compute the histogram in sparse format
+		sortedWords.reset();
+		for (int i = 0; i < descriptions.size(); i++) {
+			sortedWords.add(tree.lookupWord(descriptions.get(i).value));
+		}
+		Arrays.sort(sortedWords.data, 0, sortedWords.size);
+		for (int i = 0; i < sortedWords.size; ) {
+			int word = sortedWords.data[i];
+			int j = i+1;
+			while( j < sortedWords.size && sortedWords.data[j] == word )
+				j++;
+			info.words.add(word);
+			info.weights.add(j-i);
+			i = j;
+		}
+		dirty = true;
+	}
+
+	/**
+	 * Computes the TF-IDF weights and the inverted file. Called automatically when needed.
+	 */
+	public void buildIndex() {
+		int numWords = tree.getNumberOfWords();
+		int numImages = images.size;
+
+		// count the number of images each word appears in
+		int[] counts = new int[numWords];
+		for (int imageIdx = 0; imageIdx < numImages; imageIdx++) {
+			ImageInfo info = images.get(imageIdx);
+			for (int i = 0; i < info.words.size; i++) {
+				counts[info.words.data[i]]++;
+			}
+		}
+
+		if( idf.length < numWords )
+			idf = new double[numWords];
+		for (int word = 0; word < numWords; word++) {
+			idf[word] = counts[word] == 0 ? 0.0 : Math.log(numImages/(double)counts[word]);
+		}
+
+		// Compute normalized TF-IDF vectors and add them to the inverted file
+		invertedFiles.resize(numWords);
+		for (int word = 0; word < numWords; word++) {
+			invertedFiles.get(word).reset();
+		}
+		for (int imageIdx = 0; imageIdx < numImages; imageIdx++) {
+			ImageInfo info = images.get(imageIdx);
+			info.computeTfIdf(idf);
+
+			for (int i = 0; i < info.words.size; i++) {
+				if( info.tfidf.data[i] == 0.0 )
+					continue;
+				InvertedFile file = invertedFiles.get(info.words.data[i]);
+				file.images.add(imageIdx);
+				file.weights.add(info.tfidf.data[i]);
+			}
+		}
+
+		if( scores.length < numImages )
+			scores = new double[numImages];
+		dirty = false;
+	}
+
+	@Override
+	public List<String> getImageIDs() {
+		return imageIds;
+	}
+
+	@Override
+	public void findSimilar( String target, List<String> similar ) {
+		similar.clear();
+		if( dirty )
+			buildIndex();
+
+		int targetIdx = imageToIndex.get(target);
+		ImageInfo query = images.get(targetIdx);
+
+		// Compute the dot product with every image that shares a word with the query
+		touched.reset();
+		for (int i = 0; i < query.words.size; i++) {
+			double weight = query.tfidf.data[i];
+			if( weight == 0.0 )
+				continue;
+			InvertedFile file = invertedFiles.get(query.words.data[i]);
+			for (int j = 0; j < file.images.size; j++) {
+				int imageIdx = file.images.data[j];
+				if( scores[imageIdx] == 0.0 )
+					touched.add(imageIdx);
+				scores[imageIdx] += weight*file.weights.data[j];
+			}
+		}
+		scores[targetIdx] = 0.0;
+
+		// Select the best images. The number of images returned is small so a partial selection sort is used
+		for (int count = 0; count < maxSimilar; count++) {
+			int best = -1;
+			double bestScore = minimumSimilarity;
+			for (int i = 0; i < touched.size; i++) {
+				int imageIdx = touched.data[i];
+				double score = scores[imageIdx];
+				if( score > bestScore || (score == bestScore && best != -1 && imageIdx < best) ) {
+					bestScore = score;
+					best = imageIdx;
+				}
+			}
+			if( best == -1 )
+				break;
+			similar.add(imageIds.get(best));
+			// clear the score so that it won't be selected again
+			scores[best] = 0.0;
+		}
+
+		for (int i = 0; i < touched.size; i++) {
+			scores[touched.data[i]] = 0.0;
+		}
+	}
+
+	@Override
+	public void lookupPixelFeats( String target, FastQueue<Point2D_F64> features ) {
+		ImageInfo info = images.get(imageToIndex.get(target));
+		features.reset();
+		for (int i = 0; i < info.pixels.size; i++) {
+			features.grow().set(info.pixels.get(i));
+		}
+	}
+
+	@Override
+	public boolean lookupMatches( String viewA, String viewB, FastQueue<AssociatedIndex> pairs ) {
+		pairs.reset();
+		Integer idxA = imageToIndex.get(viewA);
+		Integer idxB = imageToIndex.get(viewB);
+		if( idxA == null || idxB == null )
+			return false;
+
+		associate.setSource(images.get(idxA).descriptions);
+		associate.setDestination(images.get(idxB).descriptions);
+		associate.associate();
+
+		FastAccess<AssociatedIndex> matches = associate.getMatches();
+		for (int i = 0; i < matches.size; i++) {
+			pairs.grow().set(matches.get(i));
+		}
+		return true;
+	}
+
+	@Override
+	public void lookupShape( String target, ImageDimension shape ) {
+		shape.setTo(images.get(imageToIndex.get(target)).shape);
+	}
+
+	public HierarchicalVocabularyTree getTree() {
+		return tree;
+	}
+
+	/**
+	 * Features and word histogram for a single image
+	 */
+	protected static class ImageInfo {
+		public String id;
+		public final ImageDimension shape = new ImageDimension();
+		public final FastQueue<Point2D_F64> pixels = new FastQueue<>(Point2D_F64::new);
+		public FastQueue<TupleDesc_F64> descriptions;
+		// Words which appear in this image in sorted order
+		public final GrowQueue_I32 words = new GrowQueue_I32();
+		// Number of times each word appears
+		public final GrowQueue_F64 weights = new GrowQueue_F64();
+		// Normalized TF-IDF weight of each word
+		public final GrowQueue_F64 tfidf = new GrowQueue_F64();
+
+		public void computeTfIdf( double[] idf ) {
+			double total = pixels.size;
+			double norm = 0.0;
+			tfidf.resize(words.size);
+			for (int i = 0; i < words.size; i++) {
+				double w = (weights.data[i]/total)*idf[words.data[i]];
+				tfidf.data[i] = w;
+				norm += w*w;
+			}
+			if( norm == 0.0 )
+				return;
+			norm = Math.sqrt(norm);
+			for (int i = 0; i < tfidf.size; i++) {
+				tfidf.data[i] /= norm;
+			}
+		}
+
+		public void reset() {
+			id = null;
+			pixels.reset();
+			descriptions = null;
+			words.reset();
+			weights.reset();
+			tfidf.reset();
+		}
+	}
+
+	/**
+	 * Images a word appears in and its weight in each image
+	 */
+	protected static class InvertedFile {
+		public final GrowQueue_I32 images = new GrowQueue_I32();
+		public final GrowQueue_F64 weights = new GrowQueue_F64();
+
+		public void reset() {
+			images.reset();
+			weights.reset();
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.bow;
+
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.clustering.FactoryClustering;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestHierarchicalVocabularyTree {
+	Random rand = new Random(234);
+	int DOF = 8;
+
+	/**
+	 * Descriptors are generated around well separated prototypes. Each prototype should be assigned to its
+	 * own word
+	 */
+	@Test
+	void learn_lookup() {
+		List<TupleDesc_F64> prototypes = createPrototypes(rand, 16, DOF);
+		HierarchicalVocabularyTree alg = learn(prototypes);
+
+		assertTrue(alg.getNumberOfWords() >= 16);
+		assertEquals(DOF, alg.getDescriptorLength());
+
+		int[] words = new int[prototypes.size()];
+		for (int i = 0; i < prototypes.size(); i++) {
+			words[i] = alg.lookupWord(prototypes.get(i).value);
+			for (int j = 0; j < i; j++) {
+				assertNotEquals(words[j], words[i]);
+			}
+		}
+
+		// Noisy versions of the prototypes should map to the same word
+		for (int i = 0; i < prototypes.size(); i++) {
+			TupleDesc_F64 d = addNoise(rand, prototypes.get(i));
+			assertEquals(words[i], alg.lookupWord(d.value));
+		}
+	}
+
+	/**
+	 * Save then load the tree. It should produce the same results
+	 */
+	@Test
+	void save_load() throws IOException {
+		List<TupleDesc_F64> prototypes = createPrototypes(rand, 10, DOF);
+		HierarchicalVocabularyTree expected = learn(prototypes);
+
+		var output = new ByteArrayOutputStream();
+		expected.save(output);
+		HierarchicalVocabularyTree found = HierarchicalVocabularyTree.load(new ByteArrayInputStream(output.toByteArray()));
+
+		assertEquals(expected.branchFactor, found.branchFactor);
+		assertEquals(expected.maxLevels, found.maxLevels);
+		assertEquals(expected.getNumberOfWords(), found.getNumberOfWords());
+		assertEquals(expected.getNumberOfNodes(), found.getNumberOfNodes());
+		assertEquals(expected.getDescriptorLength(), found.getDescriptorLength());
+
+		for (int i = 0; i < 200; i++) {
+			TupleDesc_F64 d = addNoise(rand, prototypes.get(rand.nextInt(prototypes.size())));
+			assertEquals(expected.lookupWord(d.value), found.lookupWord(d.value));
+		}
+	}
+
+	HierarchicalVocabularyTree learn( List<TupleDesc_F64> prototypes ) {
+		List<TupleDesc_F64> descriptors = new ArrayList<>();
+		for (int i = 0; i < prototypes.size()*30; i++) {
+			descriptors.add(addNoise(rand, prototypes.get(i%prototypes.size())));
+		}
+
+		var alg = new HierarchicalVocabularyTree(4, 3);
+		alg.learn(descriptors, () -> FactoryClustering.kMeans_F64(null, 100, 20, 1e-6), 0xBEEF);
+		return alg;
+	}
+
+	static List<TupleDesc_F64> createPrototypes( Random rand, int count, int dof ) {
+		List<TupleDesc_F64> prototypes = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			TupleDesc_F64 d = new TupleDesc_F64(dof);
+			for (int j = 0; j < dof; j++) {
+				d.value[j] = rand.nextDouble()*100;
+			}
+			prototypes.add(d);
+		}
+		return prototypes;
+	}
+
+	static TupleDesc_F64 addNoise( Random rand, TupleDesc_F64 src ) {
+		TupleDesc_F64 d = src.copy();
+		for (int j = 0; j < d.size(); j++) {
+			d.value[j] += rand.nextGaussian()*0.1;
+		}
+		return d;
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.bow;
+
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.factory.feature.associate.ConfigAssociateGreedy;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.ImageDimension;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.clustering.FactoryClustering;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.alg.bow.TestHierarchicalVocabularyTree.addNoise;
+import static boofcv.alg.bow.TestHierarchicalVocabularyTree.createPrototypes;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestLookupSimilarImagesVocabularyTree {
+	Random rand = new Random(234);
+	int DOF = 8;
+
+	int numGroups = 3;
+	int imagesPerGroup = 4;
+	int prototypesPerGroup = 10;
+
+	LookupSimilarImagesVocabularyTree alg;
+
+	/**
+	 * Creates groups of images. Images in the same group are created from the same set of prototype descriptors
+	 * and images in different groups share nothing
+	 */
+	@BeforeEach
+	void setup() {
+		List<List<TupleDesc_F64>> groups = new ArrayList<>();
+		List<TupleDesc_F64> training = new ArrayList<>();
+		for (int groupIdx = 0; groupIdx < numGroups; groupIdx++) {
+			List<TupleDesc_F64> prototypes = createPrototypes(rand, prototypesPerGroup, DOF);
+			groups.add(prototypes);
+			for (int i = 0; i < prototypes.size()*20; i++) {
+				training.add(addNoise(rand, prototypes.get(i%prototypes.size())));
+			}
+		}
+
+		var tree = new HierarchicalVocabularyTree(4, 4);
+		tree.learn(training, () -> FactoryClustering.kMeans_F64(null, 100, 20, 1e-6), 0xBEEF);
+
+		ScoreAssociation<TupleDesc_F64> scorer = FactoryAssociation.defaultScore(TupleDesc_F64.class);
+		alg = new LookupSimilarImagesVocabularyTree(tree,
+				FactoryAssociation.greedy(new ConfigAssociateGreedy(true), scorer));
+
+		for (int groupIdx = 0; groupIdx < numGroups; groupIdx++) {
+			List<TupleDesc_F64> prototypes = groups.get(groupIdx);
+			for (int imageIdx = 0; imageIdx < imagesPerGroup; imageIdx++) {
+				List<Point2D_F64> pixels = new ArrayList<>();
+				List<TupleDesc_F64> descs = new ArrayList<>();
+				for (int i = 0; i < prototypes.size(); i++) {
+					pixels.add(new Point2D_F64(i, imageIdx));
+					descs.add(addNoise(rand, prototypes.get(i)));
+				}
+				alg.addImage(groupIdx+"_"+imageIdx, 100, 120, pixels, descs);
+			}
+		}
+	}
+
+	@Test
+	void findSimilar() {
+		List<String> similar = new ArrayList<>();
+		for (String id : alg.getImageIDs()) {
+			alg.findSimilar(id, similar);
+			assertEquals(imagesPerGroup-1, similar.size());
+			String group = id.split("_")[0];
+			for (String s : similar) {
+				assertNotEquals(id, s);
+				assertEquals(group, s.split("_")[0]);
+			}
+		}
+
+		// limit the number of returned images
+		alg.maxSimilar = 1;
+		alg.findSimilar("0_0", similar);
+		assertEquals(1, similar.size());
+	}
+
+	@Test
+	void lookupPixelFeats_Shape() {
+		var features = new FastQueue<>(Point2D_F64::new);
+		alg.lookupPixelFeats("1_2", features);
+		assertEquals(prototypesPerGroup, features.size);
+		for (int i = 0; i < features.size; i++) {
+			assertEquals(0.0, features.get(i).distance(i, 2), 1e-8);
+		}
+
+		var shape = new ImageDimension();
+		alg.lookupShape("1_2", shape);
+		assertEquals(100, shape.width);
+		assertEquals(120, shape.height);
+	}
+
+	@Test
+	void lookupMatches() {
+		var pairs = new FastQueue<>(AssociatedIndex::new);
+		assertTrue(alg.lookupMatches("2_0", "2_3", pairs));
+		assertEquals(prototypesPerGroup, pairs.size);
+		for (int i = 0; i < pairs.size; i++) {
+			assertEquals(pairs.get(i).src, pairs.get(i).dst);
+		}
+	}
+}
@@ -23,8 +23,10 @@ import boofcv.abst.filter.binary.InputToBinary;
 import boofcv.alg.distort.LensDistortionNarrowFOV;
 import boofcv.alg.fiducial.qrcode.QrCode;
 import boofcv.alg.fiducial.qrcode.QrCodeDecoderImage;
+import boofcv.alg.fiducial.qrcode.QrCodeDecoderImage_MT;
 import boofcv.alg.fiducial.qrcode.QrCodePositionPatternDetector;
 import boofcv.alg.shapes.polygon.DetectPolygonBinaryGrayRefine;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.misc.MovingAverage;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
@@ -49,6 +51,7 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 	// runtime profiling
 	boolean profiler = false;
 	protected MovingAverage milliBinary = new MovingAverage(0.8);
+	protected MovingAverage milliPositionPatterns = new MovingAverage(0.8);
 	protected MovingAverage milliDecoding = new MovingAverage(0.8);
 
 	public QrCodePreciseDetector(InputToBinary<T> inputToBinary,
@@ -57,7 +60,10 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 								 boolean copyBinary, Class<T> imageType) {
 		this.inputToBinary = inputToBinary;
 		this.detectPositionPatterns = detectPositionPatterns;
-		this.decoder = new QrCodeDecoderImage<>(defaultEncoding,imageType);
+		if( BoofConcurrency.USE_CONCURRENT )
+			this.decoder = new QrCodeDecoderImage_MT<>(defaultEncoding,imageType);
+		else
+			this.decoder = new QrCodeDecoderImage<>(defaultEncoding,imageType);
 		this.imageType = imageType;
 		this.contourHelper = new BinaryContourHelper(detectPositionPatterns.getSquareDetector().getDetector().getContourFinder(),copyBinary);
 	}
@@ -73,7 +79,11 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 		if( profiler )
 			System.out.printf("qrcode: binary %5.2f ",milliBinary.getAverage());
 
+		time0 = System.nanoTime();
 		detectPositionPatterns.process(gray,contourHelper.padded());
+		time1 = System.nanoTime();
+		milliPositionPatterns.update((time1-time0)*1e-6);
+
 		time0 = System.nanoTime();
 		decoder.process(detectPositionPatterns.getPositionPatterns(),gray);
 		time1 = System.nanoTime();
@@ -118,10 +128,33 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 
 	public void resetRuntimeProfiling() {
 		milliBinary.reset();
+		milliPositionPatterns.reset();
 		milliDecoding.reset();
 		detectPositionPatterns.resetRuntimeProfiling();
 	}
 
+	/**
+	 * Average time in milliseconds to convert the input image into a binary image
+	 */
+	public double getMilliBinary() {
+		return milliBinary.getAverage();
+	}
+
+	/**
+	 * Average time in milliseconds to detect position patterns. This includes contour finding, fitting squares,
+	 * and creating the graph. See {@link QrCodePositionPatternDetector} for the time of each step.
+	 */
+	public double getMilliPositionPatterns() {
+		return milliPositionPatterns.getAverage();
+	}
+
+	/**
+	 * Average time in milliseconds to decode all the candidate QR Codes
+	 */
+	public double getMilliDecoding() {
+		return milliDecoding.getAverage();
+	}
+
 	public QrCodePositionPatternDetector<T> getDetectPositionPatterns() {
 		return detectPositionPatterns;
 	}
@@ -26,6 +26,7 @@ import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point2D_I32;
 import georegression.struct.shapes.Polygon2D_F64;
 import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
@@ -45,6 +46,8 @@ public class QrCodeDecoderImage<T extends ImageGray<T>> {
 	FastQueue<QrCode> storageQR = new FastQueue<>(QrCode::new);
 	List<QrCode> successes = new ArrayList<>();
 	List<QrCode> failures = new ArrayList<>();
+	// true if the candidate at the same index in storageQR was successfully decoded
+	GrowQueue_B decodeSuccess = new GrowQueue_B();
 
 	// storage for read in bits from the grid
 	PackedBits8 bits = new PackedBits8();
@@ -78,6 +81,7 @@ public class QrCodeDecoderImage<T extends ImageGray<T>> {
 		successes.clear();
 		failures.clear();
 
+		// Create a candidate QR Code for every corner position pattern with two neighbors
 		for (int i = 0; i < pps.size; i++) {
 			PositionPatternNode ppn = pps.get(i);
 
@@ -88,19 +92,33 @@ public class QrCodeDecoderImage<T extends ImageGray<T>> {
 
 					setPositionPatterns(ppn, j, k, qr);
 					computeBoundingBox(qr);
+				}
+			}
+		}
 
-					// Decode the entire marker now
-					if( decode(gray,qr)) {
-						successes.add(qr);
-					} else {
-						failures.add(qr);
-					}
+		// Decode the entire marker now
+		decodeCandidates(gray);
 
-				}
+		for (int i = 0; i < storageQR.size; i++) {
+			QrCode qr = storageQR.get(i);
+			if( decodeSuccess.get(i) ) {
+				successes.add(qr);
+			} else {
+				failures.add(qr);
 			}
 		}
 	}
 
+	/**
+	 * Attempts to decode every candidate in {@link #storageQR} and saves the results in {@link #decodeSuccess}
+	 */
+	protected void decodeCandidates( T gray ) {
+		decodeSuccess.resize(storageQR.size);
+		for (int i = 0; i < storageQR.size; i++) {
+			decodeSuccess.data[i] = decode(gray,storageQR.get(i));
+		}
+	}
+
 	/**
 	 * <p>Specifies transforms which can be used to change coordinates from distorted to undistorted and the opposite
 	 * coordinates.  The undistorted image is never explicitly created.</p>
@@ -160,7 +178,7 @@ public class QrCodeDecoderImage<T extends ImageGray<T>> {
 		qr.bounds.get(3).set(qr.ppDown.get(3));
 	}
 
-	private boolean decode( T gray , QrCode qr ) {
+	boolean decode( T gray , QrCode qr ) {
 		if( !extractFormatInfo(qr) ) {
 			qr.failureCause = QrCode.Failure.FORMAT;
 			return false;
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.fiducial.qrcode;
+
+import boofcv.alg.distort.LensDistortionNarrowFOV;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Concurrent version of {@link QrCodeDecoderImage}. Candidate QR Codes are decoded in parallel. Each thread has
+ * its own decoder, which contains the grid reader, alignment locator, and error correction workspace.
+ *
+ * @author Peter Abeles
+ */
+public class QrCodeDecoderImage_MT<T extends ImageGray<T>> extends QrCodeDecoderImage<T> {
+
+	// Used to create new decoders
+	@Nullable String forceEncoding;
+	Class<T> imageType;
+
+	// Lens distortion which is passed on to each decoder
+	int width, height;
+	@Nullable LensDistortionNarrowFOV model;
+
+	// Decoders for each thread
+	FastQueue<QrCodeDecoderImage<T>> decoders;
+
+	/**
+	 *
+	 * @param forceEncoding Force the default encoding to be this. Null for default
+	 * @param imageType
+	 */
+	public QrCodeDecoderImage_MT( @Nullable String forceEncoding, Class<T> imageType ) {
+		super(forceEncoding, imageType);
+		this.forceEncoding = forceEncoding;
+		this.imageType = imageType;
+		// FastQueue invokes the factory when constructed so it must be created after the fields are assigned
+		decoders = new FastQueue<>(this::createDecoder);
+	}
+
+	@Override
+	protected void decodeCandidates( T gray ) {
+		decodeSuccess.resize(storageQR.size);
+		BoofConcurrency.loopBlocks(0,storageQR.size,decoders,(decoder,idx0,idx1)->{
+			decoder.gridReader.setImage(gray);
+			for (int i = idx0; i < idx1; i++) {
+				decodeSuccess.data[i] = decoder.decode(gray,storageQR.get(i));
+			}
+		});
+	}
+
+	@Override
+	public void setLensDistortion(int width , int height ,
+								  @Nullable LensDistortionNarrowFOV model )
+	{
+		super.setLensDistortion(width, height, model);
+		this.width = width;
+		this.height = height;
+		this.model = model;
+		// Discard previously created decoders so that they will all be created with the new model
+		decoders = new FastQueue<>(this::createDecoder);
+	}
+
+	QrCodeDecoderImage<T> createDecoder() {
+		QrCodeDecoderImage<T> decoder = new QrCodeDecoderImage<>(forceEncoding,imageType);
+		if( model != null )
+			decoder.setLensDistortion(width,height,model);
+		return decoder;
+	}
+}
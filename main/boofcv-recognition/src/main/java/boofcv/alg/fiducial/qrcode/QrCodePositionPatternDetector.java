@@ -113,6 +113,13 @@ public class QrCodePositionPatternDetector<T extends ImageGray<T>> {
 		profiler = active;
 	}
 
+	/**
+	 * Average time in milliseconds to convert squares into position patterns and create the graph
+	 */
+	public double getMilliGraph() {
+		return milliGraph.getAverage();
+	}
+
 	/**
 	 * Detects position patterns inside the image and forms a graph.
 	 * @param gray Gray scale input image
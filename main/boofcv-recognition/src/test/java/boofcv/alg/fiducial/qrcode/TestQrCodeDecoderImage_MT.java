@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.fiducial.qrcode;
+
+import boofcv.alg.fiducial.calib.squares.SquareEdge;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.shapes.Polygon2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ejml.UtilEjml;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestQrCodeDecoderImage_MT {
+	/**
+	 * Compare single threaded vs multi threaded variant when there are multiple candidates, some of which
+	 * will fail to decode
+	 */
+	@Test
+	void compare() {
+		QrCode expected = new QrCodeEncoder().setVersion(3).
+				setError(QrCode.ErrorLevel.M).
+				setMask(QrCodeMaskPattern.M011).
+				addAlphanumeric("01234567ABCD%*+-./:").fixate();
+
+		QrCodeGeneratorImage generator = new QrCodeGeneratorImage(4);
+		generator.render(expected);
+
+		// Every third candidate has its position patterns shifted so that it will fail
+		FastQueue<PositionPatternNode> pps = new FastQueue<>(PositionPatternNode::new);
+		for (int i = 0; i < 20; i++) {
+			addCandidate(generator, pps, i%3 == 2 ? 40 : 0);
+		}
+
+		QrCodeDecoderImage<GrayU8> algS = new QrCodeDecoderImage<>(null,GrayU8.class);
+		QrCodeDecoderImage<GrayU8> algP = new QrCodeDecoderImage_MT<>(null,GrayU8.class);
+
+		algS.process(pps,generator.getGray());
+		algP.process(pps,generator.getGray());
+
+		assertTrue(algS.getFound().size() > 0);
+		assertTrue(algS.getFailures().size() > 0);
+		compare(algS.getFound(), algP.getFound());
+		compare(algS.getFailures(), algP.getFailures());
+	}
+
+	/**
+	 * Each thread needs to be configured with lens distortion
+	 */
+	@Test
+	void withLensDistortion() {
+		QrCodeDistortedChecks helper = new QrCodeDistortedChecks();
+		helper.render();
+
+		FastQueue<PositionPatternNode> pps = new FastQueue<>(PositionPatternNode::new);
+		for (int i = 0; i < 10; i++) {
+			PositionPatternNode a = pps.grow();
+			PositionPatternNode b = pps.grow();
+			PositionPatternNode c = pps.grow();
+			a.square = new Polygon2D_F64(4);
+			b.square = new Polygon2D_F64(4);
+			c.square = new Polygon2D_F64(4);
+			helper.setLocation(a.square,b.square,c.square);
+			a.grayThreshold = b.grayThreshold = c.grayThreshold = 125;
+			connect(c,b,3,1);
+			connect(a,b,0,2);
+		}
+
+		QrCodeDecoderImage<GrayF32> alg = new QrCodeDecoderImage_MT<>(null,GrayF32.class);
+		alg.process(pps,helper.image);
+		assertEquals(0, alg.getFound().size());
+
+		alg.setLensDistortion(helper.image.width,helper.image.height,helper.distortion);
+		for (int i = 0; i < pps.size; i++) {
+			helper.distToUndist(pps.get(i).square);
+		}
+		alg.process(pps,helper.image);
+
+		assertEquals(10,alg.getFound().size());
+		for( QrCode found : alg.getFound() ) {
+			assertEquals("123",found.message);
+		}
+	}
+
+	private static void compare( List<QrCode> expected , List<QrCode> found ) {
+		assertEquals(expected.size(), found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			QrCode a = expected.get(i);
+			QrCode b = found.get(i);
+
+			assertEquals(a.failureCause, b.failureCause);
+			assertEquals(a.version, b.version);
+			assertEquals(a.error, b.error);
+			assertEquals(a.mask, b.mask);
+			assertEquals(a.message, b.message);
+			assertTrue(a.ppCorner.isIdentical(b.ppCorner, UtilEjml.TEST_F64));
+			for (int row = 0; row < 3; row++) {
+				for (int col = 0; col < 3; col++) {
+					assertEquals(a.Hinv.get(row,col), b.Hinv.get(row,col), UtilEjml.TEST_F64);
+				}
+			}
+		}
+	}
+
+	private static void addCandidate( QrCodeGeneratorImage generator, FastQueue<PositionPatternNode> pps,
+									  double offset ) {
+		PositionPatternNode corner = pps.grow();
+		PositionPatternNode right = pps.grow();
+		PositionPatternNode down = pps.grow();
+
+		corner.square = generator.qr.ppCorner.copy();
+		right.square = generator.qr.ppRight.copy();
+		down.square = generator.qr.ppDown.copy();
+		for (int i = 0; i < 4; i++) {
+			right.square.get(i).x += offset;
+		}
+
+		corner.grayThreshold = right.grayThreshold = down.grayThreshold = 125;
+
+		connect(right,corner,3,1);
+		connect(down,corner,0,2);
+	}
+
+	private static void connect( PositionPatternNode a , PositionPatternNode b , int sideA , int sideB ) {
+		SquareEdge e = new SquareEdge(a,b,3,1);
+		a.edges[sideA] = b.edges[sideB] = e;
+	}
+}
@@ -49,12 +49,23 @@ import java.util.Map;
  */
 public class GeneratePairwiseImageGraph {
 	public PairwiseImageGraph2 graph = new PairwiseImageGraph2();
-	private List<String> imageIds;
+	protected List<String> imageIds;
+
+	// map to quickly look up the ID of a view
+	protected Map<String,Integer> imageToIndex = new HashMap<>();
+
+	// configurations for concensus matching algorithms
+	protected final ConfigRansac configRansacF = new ConfigRansac();
+	protected final ConfigRansac configRansacH = new ConfigRansac();
+	protected final ConfigFundamental configF = new ConfigFundamental();
 
 	// concensus matching algorithms
 	ModelMatcher<DMatrixRMaj, AssociatedPair> ransac3D;
 	ModelMatcher<Homography2D_F64,AssociatedPair> ransacH;
 
+	// storage for the results of fitting models to an image pair
+	private final EdgeFit fit = new EdgeFit();
+
 	/**
 	 * The minimum number of inliers for an edge to be accepted
 	 */
@@ -68,21 +79,32 @@ public class GeneratePairwiseImageGraph {
 	 * Configures and declares concensum matching algorithms
 	 */
 	public GeneratePairwiseImageGraph() {
-		ConfigRansac configRansacF = new ConfigRansac();
 		configRansacF.iterations = 500;
 		configRansacF.inlierThreshold = 1;
 
 		// F computes epipolar error, which isn't as strict as reprojection error for H, so give H a larger error tol
-		ConfigRansac configRansacH = new ConfigRansac();
 		configRansacH.iterations = 500;
 		configRansacH.inlierThreshold = 2.0;
 
-		ConfigFundamental configF = new ConfigFundamental();
 		configF.errorModel = ConfigFundamental.ErrorModel.GEOMETRIC;
 		configF.numResolve = 1;
 
-		ransac3D = FactoryMultiViewRobust.fundamentalRansac(configF,configRansacF);
-		ransacH = FactoryMultiViewRobust.homographyRansac(null,configRansacH);
+		ransac3D = createRansac3D();
+		ransacH = createRansacH();
+	}
+
+	/**
+	 * Creates a new instance of the robust model fitter for 3D scenes
+	 */
+	protected ModelMatcher<DMatrixRMaj, AssociatedPair> createRansac3D() {
+		return FactoryMultiViewRobust.fundamentalRansac(configF,configRansacF);
+	}
+
+	/**
+	 * Creates a new instance of the robust model fitter for homographies
+	 */
+	protected ModelMatcher<Homography2D_F64,AssociatedPair> createRansacH() {
+		return FactoryMultiViewRobust.homographyRansac(null,configRansacH);
 	}
 
 	/**
@@ -92,8 +114,7 @@ public class GeneratePairwiseImageGraph {
 	 * @param db Images with feature associations
 	 */
 	public void process( LookupSimilarImages db ) {
-		this.imageIds = db.getImageIDs();
-		this.graph.reset();
+		initializeGraph(db);
 
 		List<String> similar = new ArrayList<>();
 		FastQueue<Point2D_F64> srcFeats = new FastQueue<>(Point2D_F64::new);
@@ -101,15 +122,6 @@ public class GeneratePairwiseImageGraph {
 		FastQueue<AssociatedIndex> matches = new FastQueue<>(AssociatedIndex::new);
 		FastQueue<AssociatedPair> pairs = new FastQueue<>(AssociatedPair::new);
 
-		// map to quickly look up the ID of a view
-		Map<String,Integer> imageToindex = new HashMap<>();
-
-		// Create a node in the graph for each image
-		for (int idxTgt = 0; idxTgt < imageIds.size(); idxTgt++) {
-			imageToindex.put(imageIds.get(idxTgt),idxTgt);
-			graph.createNode(imageIds.get(idxTgt));
-		}
-
 		// For each image examine all related images for a true geometric relationship
 		// if one exists then add an edge to the graph describing their relationship
 		for (int idxTgt = 0; idxTgt < imageIds.size(); idxTgt++) {
@@ -124,7 +136,7 @@ public class GeneratePairwiseImageGraph {
 				String dst = similar.get(idxSimilar);
 
 				// make sure it isn't considering the same motion twice
-				int dstIdx = imageToindex.get(dst);
+				int dstIdx = imageToIndex.get(dst);
 				if( dstIdx <= idxTgt )
 					continue;
 
@@ -143,6 +155,21 @@ public class GeneratePairwiseImageGraph {
 		}
 	}
 
+	/**
+	 * Resets the graph and creates a node for each image
+	 */
+	protected void initializeGraph( LookupSimilarImages db ) {
+		this.imageIds = db.getImageIDs();
+		this.graph.reset();
+		this.imageToIndex.clear();
+
+		// Create a node in the graph for each image
+		for (int idxTgt = 0; idxTgt < imageIds.size(); idxTgt++) {
+			imageToIndex.put(imageIds.get(idxTgt),idxTgt);
+			graph.createNode(imageIds.get(idxTgt));
+		}
+	}
+
 	/**
 	 * Connects two views together if they meet a minimal set of geometric requirements. Determines if there
 	 * is strong evidence that there is 3D information present and not just a homography
@@ -154,6 +181,30 @@ public class GeneratePairwiseImageGraph {
 	 */
 	protected void createEdge( String src , String dst ,
 							   FastQueue<AssociatedPair> pairs , FastQueue<AssociatedIndex> matches ) {
+		if( fitEdge(ransac3D, ransacH, pairs, matches, fit) )
+			addEdge(src, dst, fit);
+	}
+
+	/**
+	 * Robustly fits a fundamental matrix and homography to the image pair and decides which one describes it
+	 * best. Only the provided data structures are modified, making it safe to call from multiple threads
+	 * when each thread has its own model matchers.
+	 *
+	 * @param ransac3D (Input) Robust fundamental matrix estimator
+	 * @param ransacH (Input) Robust homography estimator
+	 * @param pairs (Input) Associated features pixels
+	 * @param matches (Input) Associated features feature indexes
+	 * @param fit (Output) The results
+	 * @return true if the two views should be connected
+	 */
+	protected boolean fitEdge( ModelMatcher<DMatrixRMaj, AssociatedPair> ransac3D,
+							   ModelMatcher<Homography2D_F64,AssociatedPair> ransacH,
+							   FastQueue<AssociatedPair> pairs , FastQueue<AssociatedIndex> matches,
+							   EdgeFit fit ) {
+		// Reset so that the results only depend on this pair and not the order pairs are processed in
+		ransac3D.reset();
+		ransacH.reset();
+
 		// Fitting Essential/Fundamental works when the scene is not planar and not pure rotation
 		int countF = 0;
 		if( ransac3D.process(pairs.toList()) ) {
@@ -168,46 +219,59 @@ public class GeneratePairwiseImageGraph {
 
 		// fail if not enough features are remaining after RANSAC
 		if( Math.max(countF,countH) < minimumInliers )
-			return;
+			return false;
 
 		// The idea here is that if the number features for F is greater than H then it's a 3D scene.
 		// If they are similar then it might be a plane
-		boolean is3D = countF > countH*ratio3D;
+		fit.is3D = countF > countH*ratio3D;
+		fit.countF = countF;
+		fit.countH = countH;
+
+		if( fit.is3D ) {
+			saveInlierMatches(ransac3D, matches,fit.inliers);
+			fit.F.set(ransac3D.getModelParameters());
+		} else {
+			saveInlierMatches(ransacH, matches,fit.inliers);
+			Homography2D_F64 H = ransacH.getModelParameters();
+			ConvertDMatrixStruct.convert(H,fit.F);
+		}
+		return true;
+	}
 
+	/**
+	 * Adds an edge to the graph connecting the two views
+	 */
+	protected void addEdge( String src , String dst , EdgeFit fit ) {
 		PairwiseImageGraph2.Motion edge = graph.edges.grow();
-		edge.is3D = is3D;
-		edge.countF = countF;
-		edge.countH = countH;
+		edge.is3D = fit.is3D;
+		edge.countF = fit.countF;
+		edge.countH = fit.countH;
 		edge.index = graph.edges.size-1;
 		edge.src = graph.lookupNode(src);
 		edge.dst = graph.lookupNode(dst);
 		edge.src.connections.add(edge);
 		edge.dst.connections.add(edge);
-
-		if( is3D ) {
-			saveInlierMatches(ransac3D, matches,edge);
-			edge.F.set(ransac3D.getModelParameters());
-		} else {
-			saveInlierMatches(ransacH, matches,edge);
-			Homography2D_F64 H = ransacH.getModelParameters();
-			ConvertDMatrixStruct.convert(H,edge.F);
+		edge.F.set(fit.F);
+		edge.inliers.reset();
+		for (int i = 0; i < fit.inliers.size; i++) {
+			edge.inliers.grow().set(fit.inliers.get(i));
 		}
 	}
 
 	/**
-	 * Puts the inliers from RANSAC into the edge's list of associated features
+	 * Puts the inliers from RANSAC into the list of associated features
 	 * @param ransac RANSAC
 	 * @param matches List of matches from feature association
-	 * @param edge The edge that the inliers are to be saved to
+	 * @param inliers The list that the inliers are to be saved to
 	 */
-	private void saveInlierMatches(ModelMatcher<?, ?> ransac,
-								   FastQueue<AssociatedIndex> matches, PairwiseImageGraph2.Motion edge) {
+	private static void saveInlierMatches(ModelMatcher<?, ?> ransac,
+										  FastQueue<AssociatedIndex> matches, FastQueue<AssociatedIndex> inliers) {
 
 		int N = ransac.getMatchSet().size();
-		edge.inliers.reset();
+		inliers.reset();
 		for (int i = 0; i < N; i++) {
 			int idx = ransac.getInputIndex(i);
-			edge.inliers.grow().set(matches.get(idx));
+			inliers.grow().set(matches.get(idx));
 		}
 	}
 
@@ -230,4 +294,17 @@ public class GeneratePairwiseImageGraph {
 	public void setRatio3D(double ratio3D) {
 		this.ratio3D = ratio3D;
 	}
+
+	/**
+	 * Results from fitting models to a pair of images
+	 */
+	protected static class EdgeFit {
+		/** Fundamental matrix or homography */
+		public DMatrixRMaj F = new DMatrixRMaj(3,3);
+		public boolean is3D;
+		public int countF;
+		public int countH;
+		/** Inliers of the selected model */
+		public FastQueue<AssociatedIndex> inliers = new FastQueue<>(AssociatedIndex::new);
+	}
 }
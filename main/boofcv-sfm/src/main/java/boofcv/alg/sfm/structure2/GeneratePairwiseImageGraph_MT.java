@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.sfm.structure2;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.geo.AssociatedPair;
+import georegression.struct.homography.Homography2D_F64;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.ddogleg.struct.FastQueue;
+import org.ejml.data.DMatrixRMaj;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link GeneratePairwiseImageGraph}. Image pairs are processed in batches. Features
+ * and associations for every pair in a batch are looked up in the main thread, since {@link LookupSimilarImages}
+ * is not assumed to be thread safe. Then models are robustly fit to each pair in parallel, with each thread
+ * owning its own {@link ModelMatcher model matchers}. Finally, edges are added to the graph in the main thread in
+ * the same order as the single threaded version, producing an identical graph.
+ * </p>
+ *
+ * <p>
+ * Image features are cached so that they don't need to be looked up again for every pair. The maximum number
+ * of cached features is specified by {@link #maxCachedFeatures}. When exceeded the least recently used images
+ * are discarded.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GeneratePairwiseImageGraph_MT extends GeneratePairwiseImageGraph {
+
+	/**
+	 * Maximum number of image features which will be cached. At least the features for the two images
+	 * being looked up are always kept.
+	 */
+	public int maxCachedFeatures = 2_000_000;
+
+	/**
+	 * Maximum number of image pairs which are processed in a single batch. Larger batches improve
+	 * load balancing but require more memory
+	 */
+	public int maxPairsInBatch = 200;
+
+	// Image features which are cached in memory. Iteration order is least recently used first
+	private final Map<String, FastQueue<Point2D_F64>> cachedFeatures = new LinkedHashMap<>(16, 0.75f, true);
+	// total number of features in the cache
+	private int totalCachedFeatures;
+
+	// Image pairs in the current batch
+	private final FastQueue<PairJob> jobs = new FastQueue<>(PairJob::new);
+	// Workspace for each thread
+	private final FastQueue<Worker> workers = new FastQueue<>(Worker::new);
+
+	@Override
+	public void process( LookupSimilarImages db ) {
+		initializeGraph(db);
+		clearCache();
+		jobs.reset();
+
+		List<String> similar = new ArrayList<>();
+
+		for (int idxTgt = 0; idxTgt < imageIds.size(); idxTgt++) {
+			String src = imageIds.get(idxTgt);
+
+			db.findSimilar(src,similar);
+			graph.nodes.get(idxTgt).totalFeatures = lookupFeatures(db,src,null).size;
+
+			for (int idxSimilar = 0; idxSimilar < similar.size(); idxSimilar++) {
+				String dst = similar.get(idxSimilar);
+
+				// make sure it isn't considering the same motion twice
+				int dstIdx = imageToIndex.get(dst);
+				if( dstIdx <= idxTgt )
+					continue;
+
+				// look up the features again in case they were pushed out of the cache
+				FastQueue<Point2D_F64> srcFeats = lookupFeatures(db,src,null);
+				FastQueue<Point2D_F64> dstFeats = lookupFeatures(db,dst,src);
+
+				PairJob job = jobs.grow();
+				job.src = src;
+				job.dst = dst;
+				db.lookupMatches(src,dst,job.matches);
+
+				job.pairs.reset();
+				for (int i = 0; i < job.matches.size; i++) {
+					AssociatedIndex m = job.matches.get(i);
+					job.pairs.grow().set(srcFeats.get(m.src),dstFeats.get(m.dst));
+				}
+
+				if( jobs.size >= maxPairsInBatch )
+					processBatch();
+			}
+		}
+		processBatch();
+
+		// don't hold on to the memory after it's done
+		clearCache();
+	}
+
+	/**
+	 * Fits models to all the pairs in the batch in parallel then adds the edges to the graph in order
+	 */
+	private void processBatch() {
+		BoofConcurrency.loopBlocks(0,jobs.size,workers,(worker,idx0,idx1)->{
+			for (int i = idx0; i < idx1; i++) {
+				PairJob job = jobs.get(i);
+				job.success = fitEdge(worker.ransac3D, worker.ransacH, job.pairs, job.matches, job.fit);
+			}
+		});
+
+		for (int i = 0; i < jobs.size; i++) {
+			PairJob job = jobs.get(i);
+			if( job.success )
+				addEdge(job.src, job.dst, job.fit);
+		}
+		jobs.reset();
+	}
+
+	/**
+	 * Returns the features from the cache, or looks them up and adds them to the cache if they are not there.
+	 *
+	 * @param keep If not null, the features for this image will not be removed from the cache
+	 */
+	private FastQueue<Point2D_F64> lookupFeatures( LookupSimilarImages db, String id, String keep ) {
+		FastQueue<Point2D_F64> features = cachedFeatures.get(id);
+		if( features != null )
+			return features;
+
+		features = new FastQueue<>(Point2D_F64::new);
+		db.lookupPixelFeats(id,features);
+
+		// remove the least recently used images until there's enough space
+		Iterator<Map.Entry<String, FastQueue<Point2D_F64>>> iter = cachedFeatures.entrySet().iterator();
+		while( iter.hasNext() && totalCachedFeatures + features.size > maxCachedFeatures ) {
+			Map.Entry<String, FastQueue<Point2D_F64>> e = iter.next();
+			if( e.getKey().equals(keep) )
+				continue;
+			totalCachedFeatures -= e.getValue().size;
+			iter.remove();
+		}
+
+		cachedFeatures.put(id,features);
+		totalCachedFeatures += features.size;
+		return features;
+	}
+
+	private void clearCache() {
+		cachedFeatures.clear();
+		totalCachedFeatures = 0;
+	}
+
+	/**
+	 * Number of features which are currently in the cache
+	 */
+	public int getTotalCachedFeatures() {
+		return totalCachedFeatures;
+	}
+
+	public int getMaxCachedFeatures() {
+		return maxCachedFeatures;
+	}
+
+	public void setMaxCachedFeatures( int maxCachedFeatures ) {
+		this.maxCachedFeatures = maxCachedFeatures;
+	}
+
+	/**
+	 * Data for a single image pair
+	 */
+	private static class PairJob {
+		String src, dst;
+		FastQueue<AssociatedIndex> matches = new FastQueue<>(AssociatedIndex::new);
+		FastQueue<AssociatedPair> pairs = new FastQueue<>(AssociatedPair::new);
+		EdgeFit fit = new EdgeFit();
+		boolean success;
+	}
+
+	/**
+	 * Robust model fitters owned by a single thread
+	 */
+	private class Worker {
+		ModelMatcher<DMatrixRMaj, AssociatedPair> ransac3D = createRansac3D();
+		ModelMatcher<Homography2D_F64,AssociatedPair> ransacH = createRansacH();
+	}
+}
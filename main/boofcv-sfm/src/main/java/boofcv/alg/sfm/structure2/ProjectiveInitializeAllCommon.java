@@ -37,7 +37,7 @@ import boofcv.struct.geo.TrifocalTensor;
 import boofcv.struct.image.ImageDimension;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point4D_F64;
-import org.ddogleg.fitting.modelset.ransac.Ransac;
+import org.ddogleg.fitting.modelset.ModelMatcher;
 import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_I32;
 import org.ejml.data.DMatrixRMaj;
@@ -77,7 +77,7 @@ public class ProjectiveInitializeAllCommon {
 	public SceneStructureProjective structure = new SceneStructureProjective(true);
 
 	// estimating the trifocal tensor and storing which observations are in the inlier set
-	public Ransac<TrifocalTensor, AssociatedTriple> ransac;
+	public ModelMatcher<TrifocalTensor,AssociatedTriple> ransac;
 	public TriangulateNViewsProjective triangulator;
 	public PoseFromPairLinear6 poseEstimator = new PoseFromPairLinear6();
 	public BundleAdjustment<SceneStructureProjective> sba;
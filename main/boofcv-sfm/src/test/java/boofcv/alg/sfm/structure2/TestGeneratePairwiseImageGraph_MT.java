@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.sfm.structure2;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestGeneratePairwiseImageGraph_MT {
+	/**
+	 * The graph should be identical to the single threaded version
+	 */
+	@Test
+	void compare() {
+		compare(Integer.MAX_VALUE, 200);
+		// force the cache to discard features and use batches smaller than the number of pairs
+		compare(1, 2);
+	}
+
+	void compare( int maxCachedFeatures, int maxPairsInBatch ) {
+		MockLookupSimilarImages db = new MockLookupSimilarImages(5,123123);
+
+		GeneratePairwiseImageGraph sequentialAlg = new GeneratePairwiseImageGraph();
+		GeneratePairwiseImageGraph_MT parallelAlg = new GeneratePairwiseImageGraph_MT();
+		parallelAlg.maxCachedFeatures = maxCachedFeatures;
+		parallelAlg.maxPairsInBatch = maxPairsInBatch;
+
+		sequentialAlg.process(db);
+		parallelAlg.process(db);
+
+		PairwiseImageGraph2 expected = sequentialAlg.getGraph();
+		PairwiseImageGraph2 found = parallelAlg.getGraph();
+
+		assertEquals(expected.nodes.size, found.nodes.size);
+		for (int i = 0; i < expected.nodes.size; i++) {
+			PairwiseImageGraph2.View e = expected.nodes.get(i);
+			PairwiseImageGraph2.View f = found.nodes.get(i);
+			assertEquals(e.id, f.id);
+			assertEquals(e.totalFeatures, f.totalFeatures);
+			assertEquals(e.connections.size, f.connections.size);
+		}
+
+		assertTrue(expected.edges.size > 0);
+		assertEquals(expected.edges.size, found.edges.size);
+		for (int i = 0; i < expected.edges.size; i++) {
+			PairwiseImageGraph2.Motion e = expected.edges.get(i);
+			PairwiseImageGraph2.Motion f = found.edges.get(i);
+			assertEquals(e.src.id, f.src.id);
+			assertEquals(e.dst.id, f.dst.id);
+			assertEquals(e.is3D, f.is3D);
+			assertEquals(e.countF, f.countF);
+			assertEquals(e.countH, f.countH);
+			assertEquals(e.inliers.size, f.inliers.size);
+			for (int j = 0; j < e.inliers.size; j++) {
+				assertEquals(e.inliers.get(j).src, f.inliers.get(j).src);
+				assertEquals(e.inliers.get(j).dst, f.inliers.get(j).dst);
+			}
+		}
+
+		// The cache should be cleared when finished
+		assertEquals(0, parallelAlg.getTotalCachedFeatures());
+	}
+}